@@ -0,0 +1,260 @@
+package com.inventory.api.concurrency;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed timing wheel for large numbers of coarse-grained timeouts.
+ * <p>
+ * Scheduling and cancelling are O(1) and lock-free for callers: new and
+ * cancelled timeouts are handed to the single worker thread through queues,
+ * and the worker places them into, or unlinks them from, one of
+ * {@code wheelSize} buckets on its next tick, so a cancelled timeout does not
+ * stay in its bucket until it is due. On every tick the worker only
+ * touches the current bucket, so the cost of expiry is proportional to the
+ * number of timeouts due rather than the number outstanding. Expired tasks run
+ * on a small private pool so that slow tasks never delay the wheel.
+ */
+@Slf4j
+public class HashedTimingWheel implements AutoCloseable {
+
+    /**
+     * Handle to a scheduled task.
+     */
+    public interface Timeout {
+
+        /**
+         * Cancels the task. Returns {@code false} if it already ran or was cancelled.
+         */
+        boolean cancel();
+
+        boolean isCancelled();
+    }
+
+    private final long tickNanos;
+    private final int mask;
+    private final Bucket[] buckets;
+    private final Queue<Entry> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<Entry> cancelled = new ConcurrentLinkedQueue<>();
+    private final ExecutorService taskExecutor;
+    private final Thread worker;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private volatile boolean stopped;
+    private final long startNanos;
+    // written by the worker only
+    private volatile int bucketed;
+
+    public HashedTimingWheel(String name, long tickDuration, TimeUnit unit, int wheelSize, int taskThreads) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.mask = size - 1;
+        this.buckets = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new Bucket();
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.taskExecutor = Executors.newFixedThreadPool(Math.max(1, taskThreads), runnable -> {
+            Thread thread = new Thread(runnable, name + "-task-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.startNanos = System.nanoTime();
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (stopped) {
+            throw new IllegalStateException("Timing wheel has been stopped");
+        }
+        start();
+        long deadline = System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay));
+        Entry entry = new Entry(task, deadline);
+        outstanding.incrementAndGet();
+        pending.add(entry);
+        return entry;
+    }
+
+    /**
+     * Number of timeouts that are scheduled and have neither fired nor been cancelled.
+     */
+    public int outstandingTimeouts() {
+        return outstanding.get();
+    }
+
+    /**
+     * Number of timeouts held in the buckets, including cancelled ones the
+     * worker has not unlinked yet.
+     */
+    int bucketedTimeouts() {
+        return bucketed;
+    }
+
+    @Override
+    public void close() {
+        stopped = true;
+        worker.interrupt();
+        taskExecutor.shutdown();
+    }
+
+    private void start() {
+        if (started.compareAndSet(false, true)) {
+            worker.start();
+        }
+    }
+
+    private void run() {
+        long tick = 0;
+        while (!stopped) {
+            long deadline = tickNanos * (tick + 1);
+            long sleepNanos = deadline - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException ex) {
+                    if (stopped) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+            removeCancelled();
+            transferPending(tick);
+            expire(buckets[(int) (tick & mask)], deadline);
+            tick++;
+        }
+    }
+
+    private void transferPending(long currentTick) {
+        Entry entry;
+        while ((entry = pending.poll()) != null) {
+            if (entry.state.get() != Entry.PENDING) {
+                continue;
+            }
+            long dueTick = Math.max(entry.deadline / tickNanos, currentTick);
+            entry.remainingRounds = (dueTick - currentTick) / buckets.length;
+            buckets[(int) (dueTick & mask)].add(entry);
+            bucketed++;
+        }
+    }
+
+    private void removeCancelled() {
+        Entry entry;
+        while ((entry = cancelled.poll()) != null) {
+            // still null if the entry was cancelled before it left the pending queue
+            if (entry.bucket != null) {
+                entry.bucket.remove(entry);
+                bucketed--;
+            }
+        }
+    }
+
+    private void expire(Bucket bucket, long tickDeadline) {
+        Entry entry = bucket.head;
+        while (entry != null) {
+            Entry next = entry.next;
+            if (entry.state.get() == Entry.PENDING
+                    && (entry.remainingRounds > 0 || entry.deadline > tickDeadline)) {
+                if (entry.remainingRounds > 0) {
+                    entry.remainingRounds--;
+                }
+                entry = next;
+                continue;
+            }
+            bucket.remove(entry);
+            bucketed--;
+            if (entry.state.compareAndSet(Entry.PENDING, Entry.EXPIRED)) {
+                outstanding.decrementAndGet();
+                try {
+                    taskExecutor.execute(entry.task);
+                } catch (RuntimeException ex) {
+                    log.warn("Failed to dispatch expired timeout", ex);
+                }
+            }
+            entry = next;
+        }
+    }
+
+    /**
+     * The timeouts of one slot of the wheel, doubly linked so that a
+     * cancelled one is unlinked in O(1). Only the worker touches it.
+     */
+    private static final class Bucket {
+        Entry head;
+        Entry tail;
+
+        void add(Entry entry) {
+            entry.bucket = this;
+            entry.prev = tail;
+            entry.next = null;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+            }
+            tail = entry;
+        }
+
+        void remove(Entry entry) {
+            if (entry.prev == null) {
+                head = entry.next;
+            } else {
+                entry.prev.next = entry.next;
+            }
+            if (entry.next == null) {
+                tail = entry.prev;
+            } else {
+                entry.next.prev = entry.prev;
+            }
+            entry.bucket = null;
+            entry.prev = null;
+            entry.next = null;
+        }
+    }
+
+    private final class Entry implements Timeout {
+        static final int PENDING = 0;
+        static final int CANCELLED = 1;
+        static final int EXPIRED = 2;
+
+        final Runnable task;
+        final long deadline;
+        final AtomicInteger state = new AtomicInteger(PENDING);
+        // owned by the worker
+        long remainingRounds;
+        Bucket bucket;
+        Entry prev;
+        Entry next;
+
+        Entry(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (state.compareAndSet(PENDING, CANCELLED)) {
+                outstanding.decrementAndGet();
+                cancelled.add(this);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+    }
+}
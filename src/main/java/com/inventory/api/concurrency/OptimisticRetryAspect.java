@@ -0,0 +1,84 @@
+package com.inventory.api.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries {@link RetryOnConflict} methods with bounded exponential backoff and
+ * full jitter. Ordered ahead of the transaction and cache interceptors so that
+ * each attempt gets its own transaction.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class OptimisticRetryAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    public OptimisticRetryAspect(MeterRegistry meterRegistry,
+            @Value("${inventory.retry.max-attempts:4}") int maxAttempts,
+            @Value("${inventory.retry.initial-backoff-ms:10}") long initialBackoffMs,
+            @Value("${inventory.retry.max-backoff-ms:200}") long maxBackoffMs) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = Math.max(0, initialBackoffMs);
+        this.maxBackoffMs = Math.max(this.initialBackoffMs, maxBackoffMs);
+    }
+
+    @Around("@annotation(com.inventory.api.concurrency.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName() + "."
+                + joinPoint.getSignature().getName();
+        int attempt = 1;
+        while (true) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    counter("inventory.write.retry.exhausted", method).increment();
+                    log.warn("Giving up on {} after {} conflicting attempts", method, attempt);
+                    throw ex;
+                }
+                counter("inventory.write.retries", method).increment();
+                long backoff = backoffMillis(attempt);
+                log.debug("Optimistic lock conflict in {} (attempt {}), retrying in {} ms", method, attempt, backoff);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    // stop retrying, but leave the interrupt for the caller to see
+                    Thread.currentThread().interrupt();
+                    ex.addSuppressed(interrupted);
+                    throw ex;
+                }
+                attempt++;
+            }
+        }
+    }
+
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        return ceiling == 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private Counter counter(String name, String method) {
+        return Counter.builder(name)
+                .description("Optimistic locking retries of service write methods")
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,18 @@
+package com.inventory.api.concurrency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method that should be re-executed when its transaction fails
+ * an optimistic version check. The retry wraps the transaction boundary, so
+ * every attempt runs in a fresh transaction against freshly loaded entities.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnConflict {
+}
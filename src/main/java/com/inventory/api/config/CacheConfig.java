@@ -1,26 +1,39 @@
 package com.inventory.api.config;
 
-import org.springframework.cache.CacheManager;
+import com.inventory.api.service.impl.ProductCacheDependencies;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
 public class CacheConfig {
 
     @Bean
-    public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
-        cacheManager.setCacheNames(java.util.Arrays.asList(
-                "products",
-                "productsList",
-                "productsSearch",
-                "productInventory",
-                "categories",
-                "categoriesList",
-                "categoryProducts"));
+    public InventoryCacheManager cacheManager(CacheProperties cacheProperties, ObjectProvider<MeterRegistry> meterRegistry,
+            ProductCacheDependencies productCacheDependencies, CacheRefresher cacheRefresher) {
+        InventoryCacheManager cacheManager = new InventoryCacheManager(cacheProperties, meterRegistry.getIfAvailable());
+        cacheManager.setRefresher(cacheRefresher);
+        ProductCacheDependencies.TRACKED_CACHES
+                .forEach(cacheName -> cacheManager.registerTracker(cacheName, productCacheDependencies));
         return cacheManager;
     }
-}
\ No newline at end of file
+
+    @Bean(destroyMethod = "close")
+    public CacheRefresher cacheRefresher(CacheProperties cacheProperties,
+            ObjectProvider<PlatformTransactionManager> transactionManager) {
+        TransactionTemplate readOnly = null;
+        if (transactionManager.getIfAvailable() != null) {
+            readOnly = new TransactionTemplate(transactionManager.getIfAvailable());
+            readOnly.setReadOnly(true);
+        }
+        return new CacheRefresher(cacheProperties.getRefresh().getThreads(),
+                cacheProperties.getRefresh().getQueueCapacity(), readOnly);
+    }
+}
@@ -0,0 +1,85 @@
+package com.inventory.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache settings, bound from {@code inventory.cache.*}.
+ * <p>
+ * {@code defaults} applies to every cache; {@code caches[name]} overrides it
+ * per cache name, e.g. {@code inventory.cache.caches[productsSearch].maximum-weight=20000}.
+ * A cache is bounded either by entry count or by weight, never both: a cache
+ * that sets one of them does not inherit the other from the defaults.
+ * <p>
+ * A cache with {@code stale-after} serves stale-while-revalidate: past that
+ * soft TTL an entry is still served while it is refreshed in the background,
+ * and {@code expire-after-write} becomes the hard TTL after which callers
+ * wait for a fresh value. {@code stale-if-error} keeps an entry that long past
+ * the hard TTL, to be served if the fresh load fails.
+ * <p>
+ * A cache with {@code negative-ttl} also remembers lookups that found
+ * nothing for that long, see {@link SingleFlightCaffeineCache}.
+ */
+@Data
+@ConfigurationProperties(prefix = "inventory.cache")
+public class CacheProperties {
+
+    private Spec defaults = new Spec();
+    private Map<String, Spec> caches = new LinkedHashMap<>();
+    private Refresh refresh = new Refresh();
+
+    @Data
+    public static class Spec {
+        /** Maximum number of entries. */
+        private Long maximumSize;
+        /** Maximum total weight; an entry holding a collection or page weighs one per element. */
+        private Long maximumWeight;
+        private Duration expireAfterWrite;
+        private Duration expireAfterAccess;
+        private Boolean recordStats;
+        /** Soft TTL; only honoured together with {@code expire-after-write}. */
+        private Duration staleAfter;
+        private Duration staleIfError;
+        /** How long a lookup that found nothing is remembered; unset to never remember misses. */
+        private Duration negativeTtl;
+    }
+
+    /** The pool refreshing stale entries in the background. */
+    @Data
+    public static class Refresh {
+        private int threads = 2;
+        /** Refreshes asked for while this many are queued are dropped. */
+        private int queueCapacity = 100;
+    }
+
+    /**
+     * The effective settings of a cache: its own overrides on top of the
+     * defaults.
+     */
+    public Spec resolve(String cacheName) {
+        Spec own = caches.getOrDefault(cacheName, new Spec());
+        Spec resolved = new Spec();
+        if (own.getMaximumSize() != null || own.getMaximumWeight() != null) {
+            resolved.setMaximumSize(own.getMaximumSize());
+            resolved.setMaximumWeight(own.getMaximumWeight());
+        } else {
+            resolved.setMaximumSize(defaults.getMaximumSize());
+            resolved.setMaximumWeight(defaults.getMaximumWeight());
+        }
+        resolved.setExpireAfterWrite(firstNonNull(own.getExpireAfterWrite(), defaults.getExpireAfterWrite()));
+        resolved.setExpireAfterAccess(firstNonNull(own.getExpireAfterAccess(), defaults.getExpireAfterAccess()));
+        resolved.setRecordStats(firstNonNull(own.getRecordStats(), defaults.getRecordStats()));
+        resolved.setStaleAfter(firstNonNull(own.getStaleAfter(), defaults.getStaleAfter()));
+        resolved.setStaleIfError(firstNonNull(own.getStaleIfError(), defaults.getStaleIfError()));
+        resolved.setNegativeTtl(firstNonNull(own.getNegativeTtl(), defaults.getNegativeTtl()));
+        return resolved;
+    }
+
+    private static <T> T firstNonNull(T value, T fallback) {
+        return value != null ? value : fallback;
+    }
+}
@@ -0,0 +1,74 @@
+package com.inventory.api.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs background refreshes of stale cache entries on a small bounded pool.
+ * A refresh that finds the pool saturated is dropped; the entry stays stale
+ * and the next read past its soft TTL asks again. Every refresh runs in its
+ * own read-only transaction, as the cached method would for its caller.
+ */
+@Slf4j
+public class CacheRefresher implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final TransactionOperations readOnlyTransaction;
+
+    public CacheRefresher(int threads, int queueCapacity, TransactionOperations readOnlyTransaction) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(Math.max(1, threads), Math.max(1, threads), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "cache-refresh-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.readOnlyTransaction = readOnlyTransaction != null ? readOnlyTransaction
+                : TransactionOperations.withoutTransaction();
+    }
+
+    /**
+     * Schedules the loader; its value is handed to {@code onLoaded}, a
+     * failure to {@code onFailed}. Returns false if the refresh was dropped.
+     */
+    <T> boolean refresh(Callable<T> loader, Consumer<T> onLoaded, Consumer<Throwable> onFailed) {
+        try {
+            executor.execute(() -> {
+                T value;
+                try {
+                    value = readOnlyTransaction.execute(status -> {
+                        try {
+                            return loader.call();
+                        } catch (RuntimeException ex) {
+                            throw ex;
+                        } catch (Exception ex) {
+                            throw new IllegalStateException(ex);
+                        }
+                    });
+                } catch (Throwable ex) {
+                    onFailed.accept(ex);
+                    return;
+                }
+                onLoaded.accept(value);
+            });
+            return true;
+        } catch (RejectedExecutionException ex) {
+            log.debug("Cache refresh pool is saturated, dropping a refresh");
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
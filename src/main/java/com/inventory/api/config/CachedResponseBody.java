@@ -0,0 +1,20 @@
+package com.inventory.api.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler whose response body usually comes straight out of a cache.
+ * The JSON encoding of such a body is kept with the cached object and written
+ * as is for as long as the object stays cached, see
+ * {@link EncodedJsonHttpMessageConverter}. Bodies must not be modified once
+ * returned.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CachedResponseBody {
+}
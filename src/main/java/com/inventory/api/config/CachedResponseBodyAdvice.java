@@ -0,0 +1,30 @@
+package com.inventory.api.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Lets {@link EncodedJsonHttpMessageConverter} keep the encodings of bodies
+ * returned by {@link CachedResponseBody} handlers.
+ */
+@ControllerAdvice
+public class CachedResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return EncodedJsonHttpMessageConverter.class.isAssignableFrom(converterType)
+                && returnType.hasMethodAnnotation(CachedResponseBody.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        return body != null ? new EncodedJsonHttpMessageConverter.Reusable(body) : null;
+    }
+}
@@ -0,0 +1,173 @@
+package com.inventory.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.inventory.api.dto.ProductDTO;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes products and pages as JSON, reusing the encoded bytes of bodies that
+ * come out of a cache.
+ * <p>
+ * Bodies returned by a {@link CachedResponseBody} handler are encoded once and
+ * the bytes are kept, keyed by the identity of the body object, for as long
+ * as that object is alive. A cache hit returns the very same object, so the
+ * bytes are reused for free; when the object is evicted or replaced in its
+ * cache, a new object comes back and is encoded afresh, so the encoded copy
+ * is invalidated together with the DTO cache without any bookkeeping. Bodies
+ * of other handlers are encoded every time.
+ * <p>
+ * For clients accepting gzip, large encodings are also kept compressed and
+ * sent with {@code Content-Encoding: gzip}, so compression is not repeated
+ * either.
+ */
+public class EncodedJsonHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private static final String GZIP = "gzip";
+
+    /** The encodings of one body, the compressed one made on first use. */
+    static final class Encoded {
+        final byte[] json;
+        volatile byte[] gzip;
+
+        Encoded(byte[] json) {
+            this.json = json;
+        }
+    }
+
+    /** Wraps a body whose encoding may be kept with it, see {@link CachedResponseBodyAdvice}. */
+    record Reusable(Object body) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Object, Encoded> encoded;
+    private final int gzipMinSize;
+
+    /**
+     * @param gzipMinSize smallest encoding kept compressed, or a negative
+     *                    value to never compress
+     */
+    public EncodedJsonHttpMessageConverter(ObjectMapper objectMapper, long maximumSize, int gzipMinSize) {
+        super(MediaType.APPLICATION_JSON);
+        this.objectMapper = objectMapper;
+        this.encoded = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        this.gzipMinSize = gzipMinSize;
+    }
+
+    Cache<Object, Encoded> encodedBodies() {
+        return encoded;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ProductDTO.class.isAssignableFrom(clazz)
+                || Page.class.isAssignableFrom(clazz)
+                || Reusable.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Only writes JSON", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        Encoded encoding = body instanceof Reusable reusable
+                ? encoded.get(reusable.body(), this::encode)
+                : encode(body);
+        byte[] bytes = encoding.json;
+        HttpHeaders headers = outputMessage.getHeaders();
+        if (gzipMinSize >= 0 && bytes.length >= gzipMinSize) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip()) {
+                byte[] gzip = encoding.gzip;
+                if (gzip == null) {
+                    gzip = gzip(bytes);
+                    encoding.gzip = gzip;
+                }
+                bytes = gzip;
+                headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+                weakenEntityTag(outputMessage);
+            }
+        }
+        headers.setContentLength(bytes.length);
+        outputMessage.getBody().write(bytes);
+    }
+
+    /**
+     * A strong tag promises byte-identical bodies, which the compressed and
+     * plain encodings are not; like other servers that compress, send it as
+     * weak. If-None-Match compares weakly, so it still matches the plain tag.
+     */
+    private static void weakenEntityTag(HttpOutputMessage outputMessage) {
+        if (outputMessage instanceof ServletServerHttpResponse servletResponse) {
+            HttpServletResponse response = servletResponse.getServletResponse();
+            String entityTag = response.getHeader(HttpHeaders.ETAG);
+            if (entityTag != null && !entityTag.startsWith("W/")) {
+                response.setHeader(HttpHeaders.ETAG, "W/" + entityTag);
+            }
+        }
+    }
+
+    private Encoded encode(Object body) {
+        try {
+            return new Encoded(objectMapper.writeValueAsBytes(body));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static boolean acceptsGzip() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase(GZIP)) {
+                return parts.length == 1 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,220 @@
+package com.inventory.api.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.AbstractCacheManager;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache manager that builds one bounded Caffeine cache per cache name, each
+ * with the size or weight limit, expiry and statistics settings resolved from
+ * {@link CacheProperties}.
+ * <p>
+ * Caches named in the properties are created at startup. A cache requested
+ * under any other name is still created, with the default settings, so a
+ * forgotten declaration costs tuning but never memory. Caffeine evicts by
+ * frequency as well as recency (W-TinyLFU), so a burst of one-off keys, such
+ * as free-text searches, does not flush the entries that are read all the
+ * time.
+ */
+@Slf4j
+public class InventoryCacheManager extends AbstractCacheManager {
+
+    /**
+     * Told about every entry a tracked cache stores and loses, whether it is
+     * evicted explicitly or by the size and expiry policy.
+     */
+    public interface EntryTracker {
+
+        void stored(Cache cache, Object key, Object value);
+
+        void removed(String cacheName, Object key);
+
+        void cleared(String cacheName);
+    }
+
+    /** Weighs an entry by the number of elements it holds. */
+    static final Weigher<Object, Object> ELEMENT_WEIGHER = (key, stored) -> {
+        Object value = stored instanceof SingleFlightCaffeineCache.Stamped stamped ? stamped.value() : stored;
+        if (value instanceof Collection<?> collection) {
+            return Math.max(1, collection.size());
+        }
+        if (value instanceof Slice<?> slice) {
+            return Math.max(1, slice.getNumberOfElements());
+        }
+        if (value instanceof Map<?, ?> map) {
+            return Math.max(1, map.size());
+        }
+        return 1;
+    };
+
+    /** Bound on remembered misses of a cache that is bounded by weight or not at all. */
+    private static final long DEFAULT_MAXIMUM_MISSES = 10_000;
+
+    private final CacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, EntryTracker> trackers = new ConcurrentHashMap<>();
+    private CacheRefresher refresher;
+
+    public InventoryCacheManager(CacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Registers a tracker for the entries of a cache. Must be called before
+     * the manager is initialised.
+     */
+    public void registerTracker(String cacheName, EntryTracker tracker) {
+        trackers.put(cacheName, tracker);
+    }
+
+    /**
+     * Sets the pool refreshing entries of caches configured with
+     * {@code stale-after}; without one those caches only expire. Must be
+     * called before the manager is initialised.
+     */
+    public void setRefresher(CacheRefresher refresher) {
+        this.refresher = refresher;
+    }
+
+    /**
+     * Up to {@code limit} entries of a cache, the most frequently used first.
+     * Reading them neither counts as a hit nor changes their order.
+     */
+    public Map<Object, Object> hottest(String cacheName, int limit) {
+        if (!(getCache(cacheName) instanceof SingleFlightCaffeineCache cache)) {
+            return Map.of();
+        }
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = cache.getNativeCache();
+        Map<Object, Object> stored = nativeCache.policy().eviction()
+                .map(eviction -> eviction.hottest(limit))
+                .orElseGet(() -> nativeCache.asMap().entrySet().stream()
+                        .limit(limit)
+                        .collect(LinkedHashMap::new, (map, entry) -> map.put(entry.getKey(), entry.getValue()),
+                                Map::putAll));
+        Map<Object, Object> values = new LinkedHashMap<>();
+        stored.forEach((key, value) -> values.put(key, cache.userValue(value)));
+        return values;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return properties.getCaches().keySet().stream()
+                .map(this::buildCache)
+                .toList();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        log.warn("Cache '{}' is not declared under inventory.cache.caches, creating it with the default settings",
+                name);
+        SingleFlightCaffeineCache cache = buildCache(name);
+        // caches declared up front are bound by the actuator at startup; this one appeared later
+        bindMetrics(cache);
+        return cache;
+    }
+
+    private SingleFlightCaffeineCache buildCache(String name) {
+        CacheProperties.Spec spec = properties.resolve(name);
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (spec.getMaximumWeight() != null) {
+            builder.maximumWeight(spec.getMaximumWeight()).weigher(ELEMENT_WEIGHER);
+        } else if (spec.getMaximumSize() != null) {
+            builder.maximumSize(spec.getMaximumSize());
+        } else {
+            log.warn("Cache '{}' has no maximum size or weight and will grow without bound", name);
+        }
+        boolean staleWhileRevalidate = isStaleWhileRevalidate(name, spec);
+        if (spec.getExpireAfterWrite() != null) {
+            // a stale-while-revalidate cache expires entries itself and keeps them for stale-if-error
+            builder.expireAfterWrite(staleWhileRevalidate && spec.getStaleIfError() != null
+                    ? spec.getExpireAfterWrite().plus(spec.getStaleIfError())
+                    : spec.getExpireAfterWrite());
+        }
+        if (spec.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(spec.getExpireAfterAccess());
+        }
+        if (Boolean.TRUE.equals(spec.getRecordStats())) {
+            builder.recordStats();
+        }
+
+        EntryTracker tracker = trackers.get(name);
+        if (tracker != null) {
+            // runs on the evicting thread, so the tracker never sees an eviction after a newer store
+            builder.evictionListener((key, value, cause) -> tracker.removed(name, key));
+        }
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = builder.build();
+        long staleAfter = staleWhileRevalidate ? spec.getStaleAfter().toNanos() : 0;
+        long expireAfter = staleWhileRevalidate ? spec.getExpireAfterWrite().toNanos() : 0;
+        SingleFlightCaffeineCache cache = tracker != null
+                ? new TrackingCaffeineCache(name, nativeCache, staleAfter, expireAfter, refresher, tracker)
+                : new SingleFlightCaffeineCache(name, nativeCache, staleAfter, expireAfter, refresher);
+        if (spec.getNegativeTtl() != null) {
+            cache.cacheMisses(Caffeine.newBuilder()
+                    .maximumSize(spec.getMaximumSize() != null ? spec.getMaximumSize() : DEFAULT_MAXIMUM_MISSES)
+                    .expireAfterWrite(spec.getNegativeTtl())
+                    .build());
+        }
+        bindLoadMetrics(cache);
+        return cache;
+    }
+
+    private boolean isStaleWhileRevalidate(String name, CacheProperties.Spec spec) {
+        if (spec.getStaleAfter() == null) {
+            return false;
+        }
+        if (spec.getExpireAfterWrite() == null || refresher == null) {
+            log.warn("Cache '{}' sets stale-after but has no expire-after-write or refresher; it will not serve stale",
+                    name);
+            return false;
+        }
+        return true;
+    }
+
+    private void bindMetrics(CaffeineCache cache) {
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache.getNativeCache(), cache.getName(),
+                    List.of(Tag.of("cache.manager", "cacheManager")));
+        }
+    }
+
+    private void bindLoadMetrics(SingleFlightCaffeineCache cache) {
+        if (meterRegistry == null) {
+            return;
+        }
+        FunctionCounter.builder("cache.singleflight.loads", cache, SingleFlightCaffeineCache::loads)
+                .description("Loads run on a cache miss")
+                .tag("cache", cache.getName())
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.singleflight.deduplicated", cache, SingleFlightCaffeineCache::deduplicatedLoads)
+                .description("Cache misses that shared an in-flight load instead of running their own")
+                .tag("cache", cache.getName())
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.stale.reads", cache, SingleFlightCaffeineCache::staleReads)
+                .description("Reads answered with an entry past its soft TTL")
+                .tag("cache", cache.getName())
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.negative.hits", cache, SingleFlightCaffeineCache::missHits)
+                .description("Lookups answered by a remembered miss instead of a query")
+                .tag("cache", cache.getName())
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.refresh.failures", cache, SingleFlightCaffeineCache::refreshFailures)
+                .description("Background refreshes that failed and kept the stale entry")
+                .tag("cache", cache.getName())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,20 @@
+package com.inventory.api.config;
+
+import com.inventory.api.concurrency.HashedTimingWheel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ReservationConfig {
+
+    @Bean(destroyMethod = "close")
+    public HashedTimingWheel reservationExpiryWheel(
+            @Value("${inventory.reservations.timer.tick-ms:100}") long tickMs,
+            @Value("${inventory.reservations.timer.wheel-size:512}") int wheelSize,
+            @Value("${inventory.reservations.timer.expiry-threads:2}") int expiryThreads) {
+        return new HashedTimingWheel("reservation-expiry", tickMs, TimeUnit.MILLISECONDS, wheelSize, expiryThreads);
+    }
+}
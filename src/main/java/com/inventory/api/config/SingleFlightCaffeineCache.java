@@ -0,0 +1,331 @@
+package com.inventory.api.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.inventory.api.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Caffeine cache that runs at most one loader per key at a time.
+ * <p>
+ * The first caller to miss a key loads it; callers missing the same key
+ * while that load is in flight wait for it and share its value or its
+ * failure instead of running the query again. The load runs outside of
+ * Caffeine's own compute, so a slow query never blocks writes to unrelated
+ * keys. Used by {@code @Cacheable(sync = true)} methods.
+ * <p>
+ * With a soft TTL the cache also serves stale-while-revalidate: an entry
+ * older than the soft TTL is still returned at once while one background
+ * refresh replaces it, and only an entry older than the hard TTL makes the
+ * caller wait for a load. If that load fails because the database could
+ * not answer (a data access failure or a timeout), an entry still kept for
+ * {@code stale-if-error} is served instead of the failure; a load that finds
+ * the value gone evicts the entry instead. Stale reads are reported through
+ * {@link StaleCacheReads}.
+ * <p>
+ * A background refresh runs the cached method's loader on a
+ * {@link CacheRefresher} thread: outside the caller's transaction, in a
+ * read-only one of its own, and without the caller's request or security
+ * context. A soft TTL is therefore only for methods whose result depends on
+ * nothing but their arguments and the database.
+ * <p>
+ * With a miss cache, a loader that finds nothing and throws
+ * {@link ResourceNotFoundException} is remembered for a short while: callers
+ * asking for the same key get the same exception back without a query.
+ * Storing or evicting the key forgets the miss.
+ */
+@Slf4j
+class SingleFlightCaffeineCache extends CaffeineCache {
+
+    /** A stored value with the time it was written, kept by caches with a soft TTL. */
+    record Stamped(Object value, long writtenAt) {
+    }
+
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Object, Boolean> refreshing = new ConcurrentHashMap<>();
+    private final long staleAfterNanos;
+    private final long expireAfterNanos;
+    private final CacheRefresher refresher;
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder deduplicatedLoads = new LongAdder();
+    private final LongAdder staleReads = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder missHits = new LongAdder();
+    private volatile Cache<Object, ResourceNotFoundException> misses;
+
+    SingleFlightCaffeineCache(String name, Cache<Object, Object> cache) {
+        this(name, cache, 0, 0, null);
+    }
+
+    /**
+     * @param staleAfterNanos  soft TTL, or 0 to never serve stale entries
+     * @param expireAfterNanos hard TTL, or 0 if entries only go by size
+     */
+    SingleFlightCaffeineCache(String name, Cache<Object, Object> cache, long staleAfterNanos, long expireAfterNanos,
+            CacheRefresher refresher) {
+        super(name, cache, true);
+        this.staleAfterNanos = refresher != null ? staleAfterNanos : 0;
+        this.expireAfterNanos = expireAfterNanos;
+        this.refresher = refresher;
+    }
+
+    /** Remembers lookups that found nothing in the given cache, which sets how long and how many. */
+    void cacheMisses(Cache<Object, ResourceNotFoundException> misses) {
+        this.misses = misses;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object stored = getNativeCache().getIfPresent(key);
+        if (stored instanceof Stamped stamped && staleAfterNanos > 0) {
+            long age = System.nanoTime() - stamped.writtenAt();
+            if (age < staleAfterNanos) {
+                return (T) fromStoreValue(stamped);
+            }
+            if (expireAfterNanos <= 0 || age < expireAfterNanos) {
+                refreshInBackground(key, valueLoader);
+                staleRead(age);
+                return (T) fromStoreValue(stamped);
+            }
+            // past the hard TTL: wait for a fresh value, unless the database cannot give one
+            try {
+                return load(key, valueLoader);
+            } catch (ValueRetrievalException ex) {
+                ResourceNotFoundException notFound = notFound(ex.getCause());
+                if (notFound != null) {
+                    // gone rather than unreachable: the stale entry must not outlive it
+                    forgetStale(key, notFound);
+                    throw ex;
+                }
+                if (!isTransient(ex.getCause())) {
+                    throw ex;
+                }
+                log.warn("Serving stale '{}' entry after a failed load: {}", getName(), ex.getCause().toString());
+                staleRead(age);
+                return (T) fromStoreValue(stamped);
+            }
+        }
+        if (stored != null) {
+            return (T) fromStoreValue(stored);
+        }
+        ResourceNotFoundException miss = misses != null ? misses.getIfPresent(key) : null;
+        if (miss != null) {
+            missHits.increment();
+            throw new ValueRetrievalException(key, valueLoader, miss);
+        }
+        return load(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        super.put(key, value);
+        forgetMiss(key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = super.putIfAbsent(key, value);
+        forgetMiss(key);
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        forgetMiss(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = super.evictIfPresent(key);
+        forgetMiss(key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        if (misses != null) {
+            misses.invalidateAll();
+        }
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = super.invalidate();
+        if (misses != null) {
+            misses.invalidateAll();
+        }
+        return invalidated;
+    }
+
+    @Override
+    protected Object toStoreValue(Object userValue) {
+        Object storeValue = super.toStoreValue(userValue);
+        return staleAfterNanos > 0 ? new Stamped(storeValue, System.nanoTime()) : storeValue;
+    }
+
+    @Override
+    protected Object fromStoreValue(Object storeValue) {
+        return super.fromStoreValue(storeValue instanceof Stamped stamped ? stamped.value() : storeValue);
+    }
+
+    /** The value held by a native cache entry. */
+    Object userValue(Object stored) {
+        return fromStoreValue(stored);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T load(Object key, Callable<T> valueLoader) {
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, load);
+        if (running != null) {
+            deduplicatedLoads.increment();
+            try {
+                return (T) running.join();
+            } catch (CompletionException ex) {
+                throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+            }
+        }
+
+        try {
+            // the previous leader may have stored the value between our lookup and taking over
+            Object stored = getNativeCache().policy().getIfPresentQuietly(key);
+            T value;
+            if (stored != null && !isExpired(stored)) {
+                value = (T) fromStoreValue(stored);
+            } else {
+                loads.increment();
+                value = valueLoader.call();
+                put(key, value);
+            }
+            load.complete(value);
+            return value;
+        } catch (Throwable ex) {
+            ResourceNotFoundException notFound = misses != null ? notFound(ex) : null;
+            if (notFound != null) {
+                misses.put(key, notFound);
+            }
+            load.completeExceptionally(ex);
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    private <T> void refreshInBackground(Object key, Callable<T> valueLoader) {
+        if (refreshing.putIfAbsent(key, Boolean.TRUE) != null) {
+            return;
+        }
+        boolean scheduled = refresher.refresh(valueLoader,
+                value -> {
+                    put(key, value);
+                    refreshing.remove(key);
+                },
+                ex -> {
+                    refreshFailures.increment();
+                    refreshing.remove(key);
+                    ResourceNotFoundException notFound = notFound(ex);
+                    if (notFound != null) {
+                        forgetStale(key, notFound);
+                        return;
+                    }
+                    log.warn("Background refresh of '{}' entry failed, keeping the stale value: {}", getName(),
+                            ex.toString());
+                });
+        if (!scheduled) {
+            refreshing.remove(key);
+        }
+    }
+
+    /**
+     * The {@link ResourceNotFoundException} behind a loader failure, if any.
+     * The cache interceptor hands the loader over wrapped, so a
+     * {@code @Cacheable} method's exception arrives as the cause of a
+     * {@link org.springframework.cache.interceptor.CacheOperationInvoker.ThrowableWrapper}.
+     */
+    static ResourceNotFoundException notFound(Throwable ex) {
+        return (ResourceNotFoundException) findCause(ex, ResourceNotFoundException.class::isInstance);
+    }
+
+    /**
+     * Whether a loader failure means the database could not answer for now,
+     * the only failures a stale entry may stand in for.
+     */
+    static boolean isTransient(Throwable ex) {
+        return findCause(ex, cause -> cause instanceof DataAccessException
+                || cause instanceof CannotCreateTransactionException
+                || cause instanceof TransactionTimedOutException
+                || cause instanceof TimeoutException) != null;
+    }
+
+    private static Throwable findCause(Throwable ex, Predicate<Throwable> matches) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause() != cause ? cause.getCause() : null) {
+            if (matches.test(cause)) {
+                return cause;
+            }
+        }
+        return null;
+    }
+
+    /** Drops an entry whose value no longer exists, remembering the miss like a fresh lookup would. */
+    private void forgetStale(Object key, ResourceNotFoundException notFound) {
+        evict(key);
+        if (misses != null) {
+            misses.put(key, notFound);
+        }
+    }
+
+    private void forgetMiss(Object key) {
+        if (misses != null) {
+            misses.invalidate(key);
+        }
+    }
+
+    private boolean isExpired(Object stored) {
+        return stored instanceof Stamped stamped && expireAfterNanos > 0
+                && System.nanoTime() - stamped.writtenAt() >= expireAfterNanos;
+    }
+
+    private void staleRead(long ageNanos) {
+        staleReads.increment();
+        StaleCacheReads.record(getName(), ageNanos);
+    }
+
+    /** Loads run by callers that missed the cache. */
+    long loads() {
+        return loads.sum();
+    }
+
+    /** Misses that waited for another caller's load instead of running their own. */
+    long deduplicatedLoads() {
+        return deduplicatedLoads.sum();
+    }
+
+    /** Reads answered with an entry past its soft TTL. */
+    long staleReads() {
+        return staleReads.sum();
+    }
+
+    long refreshFailures() {
+        return refreshFailures.sum();
+    }
+
+    /** Lookups answered from the miss cache. */
+    long missHits() {
+        return missHits.sum();
+    }
+}
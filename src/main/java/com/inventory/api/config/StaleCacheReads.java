@@ -0,0 +1,43 @@
+package com.inventory.api.config;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Remembers, per web request, which caches answered with a stale entry and
+ * how old the oldest one was, so the response can say so. Reads outside of
+ * a web request, such as background refreshes, are not recorded.
+ */
+public final class StaleCacheReads {
+
+    private static final String ATTRIBUTE = StaleCacheReads.class.getName();
+
+    private StaleCacheReads() {
+    }
+
+    static void record(String cacheName, long ageNanos) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Long> reads = (Map<String, Long>) attributes.getAttribute(ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (reads == null) {
+            reads = new TreeMap<>();
+            attributes.setAttribute(ATTRIBUTE, reads, RequestAttributes.SCOPE_REQUEST);
+        }
+        reads.merge(cacheName, ageNanos, Math::max);
+    }
+
+    /** Stale cache names of the current request with the age of their oldest entry, in nanoseconds. */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Long> current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object reads = attributes != null ? attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) : null;
+        return reads != null ? (Map<String, Long>) reads : Map.of();
+    }
+}
@@ -0,0 +1,46 @@
+package com.inventory.api.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Marks responses built from a cache entry past its soft TTL with
+ * {@code Warning: 110}, an {@code Age} header and {@code X-Cache-Stale}
+ * naming the stale caches.
+ */
+@ControllerAdvice
+public class StaleCacheResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String STALE_HEADER = "X-Cache-Stale";
+    static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        Map<String, Long> staleReads = StaleCacheReads.current();
+        if (!staleReads.isEmpty()) {
+            HttpHeaders headers = response.getHeaders();
+            headers.add(HttpHeaders.WARNING, STALE_WARNING);
+            headers.set(HttpHeaders.AGE,
+                    String.valueOf(TimeUnit.NANOSECONDS.toSeconds(Collections.max(staleReads.values()))));
+            headers.set(STALE_HEADER, String.join(",", staleReads.keySet()));
+        }
+        return body;
+    }
+}
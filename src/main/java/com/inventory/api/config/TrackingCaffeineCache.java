@@ -0,0 +1,60 @@
+package com.inventory.api.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * Caffeine cache that reports every store and explicit eviction to an
+ * {@link InventoryCacheManager.EntryTracker}. Evictions made by the size and
+ * expiry policy are reported by the listener installed on the native cache.
+ */
+class TrackingCaffeineCache extends SingleFlightCaffeineCache {
+
+    private final InventoryCacheManager.EntryTracker tracker;
+
+    TrackingCaffeineCache(String name, Cache<Object, Object> cache, long staleAfterNanos, long expireAfterNanos,
+            CacheRefresher refresher, InventoryCacheManager.EntryTracker tracker) {
+        super(name, cache, staleAfterNanos, expireAfterNanos, refresher);
+        this.tracker = tracker;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        super.put(key, value);
+        tracker.stored(this, key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = super.putIfAbsent(key, value);
+        if (existing == null) {
+            tracker.stored(this, key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        tracker.removed(getName(), key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = super.evictIfPresent(key);
+        tracker.removed(getName(), key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        tracker.cleared(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = super.invalidate();
+        tracker.cleared(getName());
+        return invalidated;
+    }
+}
@@ -0,0 +1,34 @@
+package com.inventory.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final EncodedJsonHttpMessageConverter encodedJsonConverter;
+
+    public WebConfig(ObjectMapper objectMapper, ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${inventory.responses.encoded.maximum-size:10000}") long maximumSize,
+            @Value("${inventory.responses.encoded.gzip-min-size:1024}") int gzipMinSize) {
+        this.encodedJsonConverter = new EncodedJsonHttpMessageConverter(objectMapper, maximumSize, gzipMinSize);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            CaffeineCacheMetrics.monitor(registry, encodedJsonConverter.encodedBodies(), "encodedResponses");
+        }
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // ahead of the Jackson converter, which would encode the same bodies every time
+        converters.add(0, encodedJsonConverter);
+    }
+}
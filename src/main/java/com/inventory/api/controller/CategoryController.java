@@ -1,8 +1,10 @@
 package com.inventory.api.controller;
 
 import com.inventory.api.dto.CategoryDTO;
+import com.inventory.api.dto.CursorPageDTO;
 import com.inventory.api.dto.ProductDTO;
 import com.inventory.api.service.CategoryService;
+import com.inventory.api.service.EntityTagService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,9 +14,11 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -24,10 +28,12 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final EntityTagService entityTags;
 
     @Autowired
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, EntityTagService entityTags) {
         this.categoryService = categoryService;
+        this.entityTags = entityTags;
     }
 
     @PostMapping
@@ -45,7 +51,10 @@ public class CategoryController {
     @GetMapping
     @Operation(summary = "Get all categories", description = "Returns a list of all categories")
     @ApiResponse(responseCode = "200", description = "List of categories retrieved successfully")
-    public ResponseEntity<List<CategoryDTO>> getAllCategories() {
+    public ResponseEntity<List<CategoryDTO>> getAllCategories(WebRequest webRequest) {
+        if (webRequest.checkNotModified(entityTags.categories())) {
+            return null;
+        }
         List<CategoryDTO> categories = categoryService.getAllCategories();
         return ResponseEntity.ok(categories);
     }
@@ -57,7 +66,11 @@ public class CategoryController {
             @ApiResponse(responseCode = "404", description = "Category not found")
     })
     public ResponseEntity<CategoryDTO> getCategoryById(
-            @Parameter(description = "Category ID", required = true) @PathVariable Long id) {
+            @Parameter(description = "Category ID", required = true) @PathVariable Long id,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(entityTags.category(id))) {
+            return null;
+        }
         CategoryDTO category = categoryService.getCategoryById(id);
         return ResponseEntity.ok(category);
     }
@@ -97,8 +110,48 @@ public class CategoryController {
     })
     public ResponseEntity<Page<ProductDTO>> getProductsByCategory(
             @Parameter(description = "Category ID", required = true) @PathVariable Long id,
-            Pageable pageable) {
+            Pageable pageable,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(entityTags.products())) {
+            return null;
+        }
         Page<ProductDTO> products = categoryService.getProductsByCategory(id, pageable);
         return ResponseEntity.ok(products);
     }
+
+    @GetMapping(value = "/{id}/products", params = { "withTotal=false", "!cursor" })
+    @Operation(summary = "Get products by category without the total", description = "Returns a page of products in a specific category and whether a next page exists, without counting them all")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Products retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Category not found")
+    })
+    public ResponseEntity<Slice<ProductDTO>> getProductSliceByCategory(
+            @Parameter(description = "Category ID", required = true) @PathVariable Long id,
+            Pageable pageable,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(entityTags.products())) {
+            return null;
+        }
+        return ResponseEntity.ok(categoryService.getProductSliceByCategory(id, pageable));
+    }
+
+    @GetMapping(value = "/{id}/products", params = "cursor")
+    @Operation(summary = "Get products by category after a cursor", description = "Returns the page of products in a category after the cursor of the previous page, or the first page for an empty cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Products retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or sort field"),
+            @ApiResponse(responseCode = "404", description = "Category not found")
+    })
+    public ResponseEntity<CursorPageDTO<ProductDTO>> getProductsByCategoryAfter(
+            @Parameter(description = "Category ID", required = true) @PathVariable Long id,
+            @Parameter(description = "Cursor from the previous page, empty for the first page") @RequestParam String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort field, ignored after the first page") @RequestParam(defaultValue = "id") String sortBy,
+            @Parameter(description = "Sort direction, ignored after the first page") @RequestParam(defaultValue = "asc") String sortDir,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(entityTags.products())) {
+            return null;
+        }
+        return ResponseEntity.ok(categoryService.getProductsByCategoryAfter(id, cursor, sortBy, sortDir, size));
+    }
 }
\ No newline at end of file
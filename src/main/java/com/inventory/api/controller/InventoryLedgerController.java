@@ -0,0 +1,52 @@
+package com.inventory.api.controller;
+
+import com.inventory.api.dto.InventoryLevelDTO;
+import com.inventory.api.dto.InventoryMovementDTO;
+import com.inventory.api.service.InventoryLedgerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/products/{productId}/ledger")
+@Tag(name = "Inventory Ledger Controller", description = "API endpoints for inventory history")
+public class InventoryLedgerController {
+
+    private final InventoryLedgerService inventoryLedgerService;
+
+    @Autowired
+    public InventoryLedgerController(InventoryLedgerService inventoryLedgerService) {
+        this.inventoryLedgerService = inventoryLedgerService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Get inventory movements", description = "Returns a paginated list of inventory movements of a product, newest first")
+    @ApiResponse(responseCode = "200", description = "Movements retrieved successfully")
+    public ResponseEntity<Page<InventoryMovementDTO>> getMovements(
+            @Parameter(description = "Product ID", required = true) @PathVariable Long productId,
+            Pageable pageable) {
+        return ResponseEntity.ok(inventoryLedgerService.getMovements(productId, pageable));
+    }
+
+    @GetMapping("/level")
+    @Operation(summary = "Get inventory level at a point in time", description = "Replays the ledger from the newest snapshot to compute the inventory level of a product at the given time, or now")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Inventory level computed successfully"),
+            @ApiResponse(responseCode = "404", description = "No inventory history for the product at that time")
+    })
+    public ResponseEntity<InventoryLevelDTO> getLevelAt(
+            @Parameter(description = "Product ID", required = true) @PathVariable Long productId,
+            @Parameter(description = "Point in time (ISO-8601), defaults to now") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(inventoryLedgerService.getLevelAt(productId, at));
+    }
+}
@@ -0,0 +1,45 @@
+package com.inventory.api.controller;
+
+import com.inventory.api.service.InventoryStreamService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/products/inventory/stream")
+@Tag(name = "Inventory Stream Controller", description = "API endpoints for streaming inventory changes")
+public class InventoryStreamController {
+
+    private final InventoryStreamService inventoryStreamService;
+
+    @Autowired
+    public InventoryStreamController(InventoryStreamService inventoryStreamService) {
+        this.inventoryStreamService = inventoryStreamService;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream inventory changes", description = "Opens a Server-Sent Events stream that pushes the new stock level of products as changes are committed. "
+            + "Slow subscribers have pending changes coalesced per product (COALESCE) or the oldest ones dropped (DROP); a 'dropped' event reports how many were lost")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream opened"),
+            @ApiResponse(responseCode = "503", description = "The node has reached its subscriber limit")
+    })
+    public SseEmitter streamInventoryChanges(
+            @Parameter(description = "Only these product IDs") @RequestParam(required = false) List<Long> productIds,
+            @Parameter(description = "Only products in this category") @RequestParam(required = false) Long categoryId,
+            @Parameter(description = "Only changes that move a product on or off the low-stock list") @RequestParam(defaultValue = "false") boolean lowStockTransitions,
+            @Parameter(description = "What to do when the subscriber falls behind") @RequestParam(defaultValue = "COALESCE") InventoryStreamService.OverflowPolicy overflow) {
+        InventoryStreamService.Filter filter = new InventoryStreamService.Filter(
+                productIds != null ? Set.copyOf(productIds) : Set.of(), categoryId, lowStockTransitions);
+        return inventoryStreamService.subscribe(filter, overflow);
+    }
+}
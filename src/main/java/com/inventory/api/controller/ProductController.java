@@ -1,7 +1,16 @@
 package com.inventory.api.controller;
 
+import com.inventory.api.config.CachedResponseBody;
+import com.inventory.api.dto.BulkInventoryRequestDTO;
+import com.inventory.api.dto.BulkInventoryResultDTO;
+import com.inventory.api.dto.CursorPageDTO;
 import com.inventory.api.dto.InventoryUpdateDTO;
 import com.inventory.api.dto.ProductDTO;
+import com.inventory.api.dto.ProductFacetsDTO;
+import com.inventory.api.dto.ProductSearchResultDTO;
+import com.inventory.api.dto.StockShardingDTO;
+import com.inventory.api.service.EntityTagService;
+import com.inventory.api.service.IdempotencyService;
 import com.inventory.api.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,24 +22,34 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
-import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/products")
 @Tag(name = "Product Controller", description = "API endpoints for product management")
 public class ProductController {
 
+        static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+        static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
         private final ProductService productService;
+        private final IdempotencyService idempotencyService;
+        private final EntityTagService entityTags;
 
         @Autowired
-        public ProductController(ProductService productService) {
+        public ProductController(ProductService productService, IdempotencyService idempotencyService,
+                        EntityTagService entityTags) {
                 this.productService = productService;
+                this.idempotencyService = idempotencyService;
+                this.entityTags = entityTags;
         }
 
         @PostMapping
@@ -40,9 +59,11 @@ public class ProductController {
                         @ApiResponse(responseCode = "400", description = "Invalid product data provided"),
                         @ApiResponse(responseCode = "500", description = "Internal server error")
         })
-        public ResponseEntity<ProductDTO> createProduct(@Valid @RequestBody ProductDTO productDTO) {
-                ProductDTO createdProduct = productService.createProduct(productDTO);
-                return new ResponseEntity<>(createdProduct, HttpStatus.CREATED);
+        public ResponseEntity<ProductDTO> createProduct(
+                        @Parameter(description = "Makes retries of this request safe to send") @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                        @Valid @RequestBody ProductDTO productDTO) {
+                return idempotent(idempotencyKey, "POST /api/products " + productDTO, ProductDTO.class,
+                                HttpStatus.CREATED, () -> productService.createProduct(productDTO));
         }
 
         @GetMapping("/{id}")
@@ -51,8 +72,13 @@ public class ProductController {
                         @ApiResponse(responseCode = "200", description = "Product found"),
                         @ApiResponse(responseCode = "404", description = "Product not found")
         })
+        @CachedResponseBody
         public ResponseEntity<ProductDTO> getProductById(
-                        @Parameter(description = "Product ID", required = true) @PathVariable Long id) {
+                        @Parameter(description = "Product ID", required = true) @PathVariable Long id,
+                        WebRequest webRequest) {
+                if (webRequest.checkNotModified(entityTags.product(id))) {
+                        return null;
+                }
                 ProductDTO product = productService.getProductById(id);
                 return ResponseEntity.ok(product);
         }
@@ -60,11 +86,43 @@ public class ProductController {
         @GetMapping
         @Operation(summary = "Get all products", description = "Returns a paginated list of all products")
         @ApiResponse(responseCode = "200", description = "List of products retrieved successfully")
-        public ResponseEntity<Page<ProductDTO>> getAllProducts(Pageable pageable) {
+        @CachedResponseBody
+        public ResponseEntity<Page<ProductDTO>> getAllProducts(Pageable pageable, WebRequest webRequest) {
+                if (webRequest.checkNotModified(entityTags.products())) {
+                        return null;
+                }
                 Page<ProductDTO> products = productService.getAllProducts(pageable);
                 return ResponseEntity.ok(products);
         }
 
+        @GetMapping(params = { "withTotal=false", "!cursor" })
+        @Operation(summary = "Get all products without the total", description = "Returns a page of products and whether a next page exists, without counting all products")
+        @ApiResponse(responseCode = "200", description = "Page of products retrieved successfully")
+        public ResponseEntity<Slice<ProductDTO>> getProductSlice(Pageable pageable, WebRequest webRequest) {
+                if (webRequest.checkNotModified(entityTags.products())) {
+                        return null;
+                }
+                return ResponseEntity.ok(productService.getProductSlice(pageable));
+        }
+
+        @GetMapping(params = "cursor")
+        @Operation(summary = "Get products after a cursor", description = "Returns the page of products after the cursor of the previous page, or the first page for an empty cursor; deep pages cost the same as the first")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Page of products retrieved successfully"),
+                        @ApiResponse(responseCode = "400", description = "Invalid cursor or sort field")
+        })
+        public ResponseEntity<CursorPageDTO<ProductDTO>> getProductsAfter(
+                        @Parameter(description = "Cursor from the previous page, empty for the first page") @RequestParam String cursor,
+                        @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+                        @Parameter(description = "Sort field, ignored after the first page") @RequestParam(defaultValue = "id") String sortBy,
+                        @Parameter(description = "Sort direction, ignored after the first page") @RequestParam(defaultValue = "asc") String sortDir,
+                        WebRequest webRequest) {
+                if (webRequest.checkNotModified(entityTags.products())) {
+                        return null;
+                }
+                return ResponseEntity.ok(productService.getProductsAfter(cursor, sortBy, sortDir, size));
+        }
+
         @PutMapping("/{id}")
         @Operation(summary = "Update a product", description = "Updates an existing product by its ID")
         @ApiResponses(value = {
@@ -74,9 +132,10 @@ public class ProductController {
         })
         public ResponseEntity<ProductDTO> updateProduct(
                         @Parameter(description = "Product ID", required = true) @PathVariable Long id,
+                        @Parameter(description = "Makes retries of this request safe to send") @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
                         @Valid @RequestBody ProductDTO productDTO) {
-                ProductDTO updatedProduct = productService.updateProduct(id, productDTO);
-                return ResponseEntity.ok(updatedProduct);
+                return idempotent(idempotencyKey, "PUT /api/products/" + id + " " + productDTO, ProductDTO.class,
+                                HttpStatus.OK, () -> productService.updateProduct(id, productDTO));
         }
 
         @DeleteMapping("/{id}")
@@ -98,7 +157,11 @@ public class ProductController {
                         @ApiResponse(responseCode = "404", description = "Product not found")
         })
         public ResponseEntity<Integer> getProductInventory(
-                        @Parameter(description = "Product ID", required = true) @PathVariable Long id) {
+                        @Parameter(description = "Product ID", required = true) @PathVariable Long id,
+                        WebRequest webRequest) {
+                if (webRequest.checkNotModified(entityTags.product(id))) {
+                        return null;
+                }
                 Integer inventoryLevel = productService.getInventoryLevel(id);
                 return ResponseEntity.ok(inventoryLevel);
         }
@@ -112,9 +175,12 @@ public class ProductController {
         })
         public ResponseEntity<ProductDTO> updateProductInventory(
                         @Parameter(description = "Product ID", required = true) @PathVariable Long id,
+                        @Parameter(description = "Makes retries of this request safe to send") @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
                         @Valid @RequestBody InventoryUpdateDTO inventoryUpdateDTO) {
-                ProductDTO updatedProduct = productService.updateInventoryLevel(id, inventoryUpdateDTO.getQuantity());
-                return ResponseEntity.ok(updatedProduct);
+                return idempotent(idempotencyKey,
+                                "PUT /api/products/" + id + "/inventory " + inventoryUpdateDTO.getQuantity(),
+                                ProductDTO.class, HttpStatus.OK,
+                                () -> productService.updateInventoryLevel(id, inventoryUpdateDTO.getQuantity()));
         }
 
         @PostMapping("/{id}/inventory/increase")
@@ -126,9 +192,12 @@ public class ProductController {
         })
         public ResponseEntity<ProductDTO> increaseProductInventory(
                         @Parameter(description = "Product ID", required = true) @PathVariable Long id,
+                        @Parameter(description = "Makes retries of this request safe to send") @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
                         @Valid @RequestBody InventoryUpdateDTO inventoryUpdateDTO) {
-                ProductDTO updatedProduct = productService.increaseInventory(id, inventoryUpdateDTO.getQuantity());
-                return ResponseEntity.ok(updatedProduct);
+                return idempotent(idempotencyKey,
+                                "POST /api/products/" + id + "/inventory/increase " + inventoryUpdateDTO.getQuantity(),
+                                ProductDTO.class, HttpStatus.OK,
+                                () -> productService.increaseInventory(id, inventoryUpdateDTO.getQuantity()));
         }
 
         @PostMapping("/{id}/inventory/decrease")
@@ -140,11 +209,43 @@ public class ProductController {
         })
         public ResponseEntity<ProductDTO> decreaseProductInventory(
                         @Parameter(description = "Product ID", required = true) @PathVariable Long id,
+                        @Parameter(description = "Makes retries of this request safe to send") @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
                         @Valid @RequestBody InventoryUpdateDTO inventoryUpdateDTO) {
-                ProductDTO updatedProduct = productService.decreaseInventory(id, inventoryUpdateDTO.getQuantity());
+                return idempotent(idempotencyKey,
+                                "POST /api/products/" + id + "/inventory/decrease " + inventoryUpdateDTO.getQuantity(),
+                                ProductDTO.class, HttpStatus.OK,
+                                () -> productService.decreaseInventory(id, inventoryUpdateDTO.getQuantity()));
+        }
+
+        @PutMapping("/{id}/inventory/shards")
+        @Operation(summary = "Configure sharded stock", description = "Splits the stock of a hot product across several counters so concurrent decrements do not serialize on one row; 1 shard restores single-row stock")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Stock sharding updated successfully"),
+                        @ApiResponse(responseCode = "400", description = "Invalid number of shards"),
+                        @ApiResponse(responseCode = "404", description = "Product not found"),
+                        @ApiResponse(responseCode = "409", description = "Product has reserved stock")
+        })
+        public ResponseEntity<ProductDTO> configureStockShards(
+                        @Parameter(description = "Product ID", required = true) @PathVariable Long id,
+                        @Valid @RequestBody StockShardingDTO stockShardingDTO) {
+                ProductDTO updatedProduct = productService.configureStockShards(id, stockShardingDTO.getShards());
                 return ResponseEntity.ok(updatedProduct);
         }
 
+        @PostMapping("/inventory/bulk")
+        @Operation(summary = "Bulk adjust inventory", description = "Applies a batch of inventory deltas or absolute quantities, identified by product ID or SKU, in a single transaction")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results"),
+                        @ApiResponse(responseCode = "400", description = "Invalid bulk request")
+        })
+        public ResponseEntity<BulkInventoryResultDTO> bulkAdjustInventory(
+                        @Parameter(description = "Makes retries of this request safe to send") @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                        @Valid @RequestBody BulkInventoryRequestDTO bulkInventoryRequestDTO) {
+                return idempotent(idempotencyKey, "POST /api/products/inventory/bulk " + bulkInventoryRequestDTO,
+                                BulkInventoryResultDTO.class, HttpStatus.OK,
+                                () -> productService.bulkAdjustInventory(bulkInventoryRequestDTO.getItems()));
+        }
+
         @PutMapping("/{id}/category")
         @Operation(summary = "Assign product to category", description = "Assigns a product to a specific category")
         @ApiResponses(value = {
@@ -163,24 +264,97 @@ public class ProductController {
         @ApiResponse(responseCode = "200", description = "Search results retrieved successfully")
         public ResponseEntity<Page<ProductDTO>> searchProducts(
                         @Parameter(description = "Product name pattern") @RequestParam(required = false) String name,
+                        @Parameter(description = "SKU pattern") @RequestParam(required = false) String sku,
                         @Parameter(description = "Category ID") @RequestParam(required = false) Long categoryId,
                         @Parameter(description = "Minimum price") @RequestParam(required = false) BigDecimal minPrice,
                         @Parameter(description = "Maximum price") @RequestParam(required = false) BigDecimal maxPrice,
                         @Parameter(description = "Only in-stock products") @RequestParam(required = false) Boolean inStock,
-                        Pageable pageable) {
-                Page<ProductDTO> products = productService.searchProducts(name, categoryId, minPrice, maxPrice, inStock,
-                                pageable);
+                        Pageable pageable,
+                        WebRequest webRequest) {
+                if (webRequest.checkNotModified(entityTags.products())) {
+                        return null;
+                }
+                Page<ProductDTO> products = productService.searchProducts(name, sku, categoryId, minPrice, maxPrice,
+                                inStock, pageable);
                 return ResponseEntity.ok(products);
         }
 
+        @GetMapping(value = "/search", params = { "withTotal=false", "facets!=true" })
+        @Operation(summary = "Search products without the total", description = "Returns a page of matching products and whether a next page exists, without counting all matches")
+        @ApiResponse(responseCode = "200", description = "Search results retrieved successfully")
+        public ResponseEntity<Slice<ProductDTO>> searchProductSlice(
+                        @Parameter(description = "Product name pattern") @RequestParam(required = false) String name,
+                        @Parameter(description = "SKU pattern") @RequestParam(required = false) String sku,
+                        @Parameter(description = "Category ID") @RequestParam(required = false) Long categoryId,
+                        @Parameter(description = "Minimum price") @RequestParam(required = false) BigDecimal minPrice,
+                        @Parameter(description = "Maximum price") @RequestParam(required = false) BigDecimal maxPrice,
+                        @Parameter(description = "Only in-stock products") @RequestParam(required = false) Boolean inStock,
+                        Pageable pageable,
+                        WebRequest webRequest) {
+                if (webRequest.checkNotModified(entityTags.products())) {
+                        return null;
+                }
+                return ResponseEntity.ok(productService.searchProductSlice(name, sku, categoryId, minPrice, maxPrice,
+                                inStock, pageable));
+        }
+
+        @GetMapping(value = "/search", params = "facets=true")
+        @Operation(summary = "Search products with facet counts", description = "Returns a page of matching products together with the number of matches per category, supplier, price range and stock state, all counted in one query")
+        @ApiResponse(responseCode = "200", description = "Search results and facet counts retrieved successfully")
+        public ResponseEntity<ProductSearchResultDTO> searchProductsWithFacets(
+                        @Parameter(description = "Product name pattern") @RequestParam(required = false) String name,
+                        @Parameter(description = "SKU pattern") @RequestParam(required = false) String sku,
+                        @Parameter(description = "Category ID") @RequestParam(required = false) Long categoryId,
+                        @Parameter(description = "Minimum price") @RequestParam(required = false) BigDecimal minPrice,
+                        @Parameter(description = "Maximum price") @RequestParam(required = false) BigDecimal maxPrice,
+                        @Parameter(description = "Only in-stock products") @RequestParam(required = false) Boolean inStock,
+                        @Parameter(description = "Count all matches for the page total") @RequestParam(defaultValue = "true") boolean withTotal,
+                        Pageable pageable,
+                        WebRequest webRequest) {
+                if (webRequest.checkNotModified(entityTags.products())) {
+                        return null;
+                }
+                Slice<ProductDTO> products = withTotal
+                                ? productService.searchProducts(name, sku, categoryId, minPrice, maxPrice, inStock,
+                                                pageable)
+                                : productService.searchProductSlice(name, sku, categoryId, minPrice, maxPrice, inStock,
+                                                pageable);
+                ProductFacetsDTO facets = productService.getSearchFacets(name, sku, categoryId, minPrice, maxPrice,
+                                inStock);
+                return ResponseEntity.ok(new ProductSearchResultDTO(products, facets));
+        }
+
         @GetMapping("/low-stock")
-        @Operation(summary = "Get low stock products", description = "Returns products with low stock")
-        @ApiResponse(responseCode = "200", description = "Low stock products retrieved successfully")
-        public ResponseEntity<List<ProductDTO>> getLowStockProducts() {
-                List<ProductDTO> products = productService.getLowStockProducts();
+        @Operation(summary = "Get low stock products", description = "Returns a paginated list of products with low stock, ordered by ID; they can only be sorted by ID")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Low stock products retrieved successfully"),
+                        @ApiResponse(responseCode = "400", description = "Sort by a field other than ID")
+        })
+        public ResponseEntity<Page<ProductDTO>> getLowStockProducts(Pageable pageable, WebRequest webRequest) {
+                if (webRequest.checkNotModified(entityTags.products())) {
+                        return null;
+                }
+                Page<ProductDTO> products = productService.getLowStockProducts(pageable);
                 return ResponseEntity.ok(products);
         }
 
+        @GetMapping(value = "/low-stock", params = "cursor")
+        @Operation(summary = "Get low stock products after a cursor", description = "Returns the low stock products after the cursor of the previous page, or the first page for an empty cursor, ordered by ID; deep pages cost the same as the first")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Low stock products retrieved successfully"),
+                        @ApiResponse(responseCode = "400", description = "Invalid cursor")
+        })
+        public ResponseEntity<CursorPageDTO<ProductDTO>> getLowStockProductsAfter(
+                        @Parameter(description = "Cursor from the previous page, empty for the first page") @RequestParam String cursor,
+                        @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+                        @Parameter(description = "ID sort direction, ignored after the first page") @RequestParam(defaultValue = "asc") String sortDir,
+                        WebRequest webRequest) {
+                if (webRequest.checkNotModified(entityTags.products())) {
+                        return null;
+                }
+                return ResponseEntity.ok(productService.getLowStockProductsAfter(cursor, sortDir, size));
+        }
+
         @PutMapping("/{id}/supplier")
         @Operation(summary = "Assign supplier to product", description = "Assigns a supplier to a product")
         @ApiResponses(value = {
@@ -204,7 +378,11 @@ public class ProductController {
                         @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
                         @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
                         @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
-                        @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
+                        @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+                        WebRequest webRequest) {
+                if (webRequest.checkNotModified(entityTags.products())) {
+                        return null;
+                }
 
                 Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending()
                                 : Sort.by(sortBy).ascending();
@@ -214,4 +392,18 @@ public class ProductController {
                 return ResponseEntity.ok(products);
         }
 
-}
\ No newline at end of file
+        /**
+         * Runs a mutation at most once per Idempotency-Key. Duplicates get the
+         * stored response with the Idempotent-Replayed header set.
+         */
+        private <T> ResponseEntity<T> idempotent(String idempotencyKey, String requestFingerprint,
+                        Class<T> responseType, HttpStatus status, Supplier<T> action) {
+                IdempotencyService.Outcome<T> outcome = idempotencyService.execute(idempotencyKey,
+                                requestFingerprint, responseType, action);
+                ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+                if (outcome.replayed()) {
+                        response.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+                }
+                return response.body(outcome.body());
+        }
+}
@@ -0,0 +1,93 @@
+package com.inventory.api.controller;
+
+import com.inventory.api.dto.InventoryAvailabilityDTO;
+import com.inventory.api.dto.ReservationDTO;
+import com.inventory.api.dto.ReservationRequestDTO;
+import com.inventory.api.service.ReservationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/products/{productId}/reservations")
+@Tag(name = "Reservation Controller", description = "API endpoints for temporary stock holds")
+public class ReservationController {
+
+    private final ReservationService reservationService;
+
+    @Autowired
+    public ReservationController(ReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Reserve stock", description = "Holds stock for a product until the reservation is confirmed, released or expires")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Reservation created successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid request or insufficient available inventory"),
+            @ApiResponse(responseCode = "404", description = "Product not found")
+    })
+    public ResponseEntity<ReservationDTO> reserve(
+            @Parameter(description = "Product ID", required = true) @PathVariable Long productId,
+            @Valid @RequestBody ReservationRequestDTO reservationRequestDTO) {
+        ReservationDTO reservation = reservationService.reserve(productId,
+                reservationRequestDTO.getQuantity(), reservationRequestDTO.getTtlSeconds());
+        return new ResponseEntity<>(reservation, HttpStatus.CREATED);
+    }
+
+    @GetMapping
+    @Operation(summary = "Get product availability", description = "Returns on-hand, reserved and available quantity of a product")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Availability retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Product not found")
+    })
+    public ResponseEntity<InventoryAvailabilityDTO> getAvailability(
+            @Parameter(description = "Product ID", required = true) @PathVariable Long productId) {
+        return ResponseEntity.ok(reservationService.getAvailability(productId));
+    }
+
+    @GetMapping("/{reservationId}")
+    @Operation(summary = "Get reservation by ID", description = "Returns a reservation of a product")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservation found"),
+            @ApiResponse(responseCode = "404", description = "Reservation not found")
+    })
+    public ResponseEntity<ReservationDTO> getReservation(
+            @Parameter(description = "Product ID", required = true) @PathVariable Long productId,
+            @Parameter(description = "Reservation ID", required = true) @PathVariable Long reservationId) {
+        return ResponseEntity.ok(reservationService.getReservation(productId, reservationId));
+    }
+
+    @PostMapping("/{reservationId}/confirm")
+    @Operation(summary = "Confirm reservation", description = "Converts a hold into a sale, decrementing on-hand stock")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservation confirmed"),
+            @ApiResponse(responseCode = "404", description = "Reservation not found"),
+            @ApiResponse(responseCode = "409", description = "Reservation is no longer active")
+    })
+    public ResponseEntity<ReservationDTO> confirm(
+            @Parameter(description = "Product ID", required = true) @PathVariable Long productId,
+            @Parameter(description = "Reservation ID", required = true) @PathVariable Long reservationId) {
+        return ResponseEntity.ok(reservationService.confirm(productId, reservationId));
+    }
+
+    @PostMapping("/{reservationId}/release")
+    @Operation(summary = "Release reservation", description = "Gives held stock back to the available pool")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservation released"),
+            @ApiResponse(responseCode = "404", description = "Reservation not found"),
+            @ApiResponse(responseCode = "409", description = "Reservation is no longer active")
+    })
+    public ResponseEntity<ReservationDTO> release(
+            @Parameter(description = "Product ID", required = true) @PathVariable Long productId,
+            @Parameter(description = "Reservation ID", required = true) @PathVariable Long reservationId) {
+        return ResponseEntity.ok(reservationService.release(productId, reservationId));
+    }
+}
@@ -1,6 +1,8 @@
 package com.inventory.api.controller;
 
+import com.inventory.api.dto.CursorPageDTO;
 import com.inventory.api.dto.SupplierDTO;
+import com.inventory.api.service.EntityTagService;
 import com.inventory.api.service.SupplierService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,10 +15,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -28,6 +32,7 @@ import java.util.List;
 public class SupplierController {
 
     private final SupplierService supplierService;
+    private final EntityTagService entityTags;
 
     @PostMapping
     @Operation(summary = "Create a new supplier", description = "Creates a new supplier in the system")
@@ -50,7 +55,11 @@ public class SupplierController {
             @ApiResponse(responseCode = "404", description = "Supplier not found")
     })
     public ResponseEntity<SupplierDTO> getSupplierById(
-            @Parameter(description = "Supplier ID") @PathVariable Long id) {
+            @Parameter(description = "Supplier ID") @PathVariable Long id,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(entityTags.supplier(id))) {
+            return null;
+        }
         log.info("Fetching supplier with ID: {}", id);
         SupplierDTO supplier = supplierService.getSupplierById(id);
         return ResponseEntity.ok(supplier);
@@ -65,7 +74,11 @@ public class SupplierController {
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(entityTags.suppliers())) {
+            return null;
+        }
         
         log.info("Fetching all suppliers - page: {}, size: {}, sortBy: {}, sortDir: {}", 
                 page, size, sortBy, sortDir);
@@ -78,6 +91,46 @@ public class SupplierController {
         return ResponseEntity.ok(suppliers);
     }
 
+    @GetMapping(params = { "withTotal=false", "!cursor" })
+    @Operation(summary = "Get all suppliers without the total", description = "Retrieves a page of suppliers and whether a next page exists, without counting all suppliers")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suppliers retrieved successfully")
+    })
+    public ResponseEntity<Slice<SupplierDTO>> getSupplierSlice(
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(entityTags.suppliers())) {
+            return null;
+        }
+        log.info("Fetching suppliers without total - page: {}, size: {}, sortBy: {}, sortDir: {}",
+                page, size, sortBy, sortDir);
+
+        return ResponseEntity.ok(supplierService.getSupplierSlice(pageRequest(page, size, sortBy, sortDir)));
+    }
+
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Get suppliers after a cursor", description = "Retrieves the page of suppliers after the cursor of the previous page, or the first page for an empty cursor; deep pages cost the same as the first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suppliers retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or sort field")
+    })
+    public ResponseEntity<CursorPageDTO<SupplierDTO>> getSuppliersAfter(
+            @Parameter(description = "Cursor from the previous page, empty for the first page") @RequestParam String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort field, ignored after the first page") @RequestParam(defaultValue = "name") String sortBy,
+            @Parameter(description = "Sort direction, ignored after the first page") @RequestParam(defaultValue = "asc") String sortDir,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(entityTags.suppliers())) {
+            return null;
+        }
+        log.info("Fetching suppliers after cursor - size: {}, sortBy: {}, sortDir: {}", size, sortBy, sortDir);
+
+        return ResponseEntity.ok(supplierService.getSuppliersAfter(cursor, sortBy, sortDir, size));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update supplier", description = "Updates an existing supplier")
     @ApiResponses(value = {
@@ -122,7 +175,11 @@ public class SupplierController {
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(entityTags.suppliers())) {
+            return null;
+        }
         
         log.info("Searching suppliers with criteria - name: {}, contactPerson: {}, city: {}, country: {}, active: {}", 
                 name, contactPerson, city, country, active);
@@ -136,6 +193,37 @@ public class SupplierController {
         return ResponseEntity.ok(suppliers);
     }
 
+    @GetMapping(value = "/search", params = "withTotal=false")
+    @Operation(summary = "Search suppliers without the total", description = "Search suppliers by various criteria, returning whether a next page exists instead of counting all matches")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search completed successfully")
+    })
+    public ResponseEntity<Slice<SupplierDTO>> searchSupplierSlice(
+            @Parameter(description = "Supplier name") @RequestParam(required = false) String name,
+            @Parameter(description = "Contact person") @RequestParam(required = false) String contactPerson,
+            @Parameter(description = "City") @RequestParam(required = false) String city,
+            @Parameter(description = "Country") @RequestParam(required = false) String country,
+            @Parameter(description = "Active status") @RequestParam(required = false) Boolean active,
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(entityTags.suppliers())) {
+            return null;
+        }
+        log.info("Searching suppliers without total - name: {}, contactPerson: {}, city: {}, country: {}, active: {}",
+                name, contactPerson, city, country, active);
+
+        return ResponseEntity.ok(supplierService.searchSupplierSlice(
+                name, contactPerson, city, country, active, pageRequest(page, size, sortBy, sortDir)));
+    }
+
+    private static Pageable pageRequest(int page, int size, String sortBy, String sortDir) {
+        Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        return PageRequest.of(page, size, sort);
+    }
+
     @GetMapping("/active")
     @Operation(summary = "Get active suppliers", description = "Retrieves all active suppliers")
     @ApiResponses(value = {
@@ -145,7 +233,11 @@ public class SupplierController {
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(entityTags.suppliers())) {
+            return null;
+        }
         
         log.info("Fetching active suppliers");
         
@@ -162,7 +254,10 @@ public class SupplierController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Suppliers for dropdown retrieved successfully")
     })
-    public ResponseEntity<List<SupplierDTO>> getSuppliersForDropdown() {
+    public ResponseEntity<List<SupplierDTO>> getSuppliersForDropdown(WebRequest webRequest) {
+        if (webRequest.checkNotModified(entityTags.suppliers())) {
+            return null;
+        }
         log.info("Fetching suppliers for dropdown");
         List<SupplierDTO> suppliers = supplierService.getActiveSuppliersForDropdown();
         return ResponseEntity.ok(suppliers);
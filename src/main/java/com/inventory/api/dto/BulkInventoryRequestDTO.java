@@ -0,0 +1,21 @@
+package com.inventory.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkInventoryRequestDTO {
+
+    @NotEmpty(message = "At least one adjustment is required")
+    @Size(max = 10000, message = "A bulk request cannot contain more than 10000 adjustments")
+    private List<InventoryAdjustmentDTO> items;
+}
@@ -0,0 +1,21 @@
+package com.inventory.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkInventoryResultDTO {
+
+    private int applied;
+
+    private int failed;
+
+    private List<InventoryAdjustmentResultDTO> results;
+}
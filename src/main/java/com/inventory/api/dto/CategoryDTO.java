@@ -20,4 +20,6 @@ public class CategoryDTO {
     private String description;
 
     private int productCount;
+
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.inventory.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} continues the
+ * listing after the last element and is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDTO<T> {
+
+    private List<T> content;
+
+    private int size;
+
+    private String nextCursor;
+
+    private boolean hasNext;
+
+    public static <T> CursorPageDTO<T> of(List<T> content, String nextCursor) {
+        return new CursorPageDTO<>(content, content.size(), nextCursor, nextCursor != null);
+    }
+}
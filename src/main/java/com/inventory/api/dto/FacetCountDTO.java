@@ -0,0 +1,19 @@
+package com.inventory.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FacetCountDTO {
+
+    private Long id;
+
+    private String name;
+
+    private long count;
+}
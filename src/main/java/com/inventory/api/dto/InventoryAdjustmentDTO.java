@@ -0,0 +1,26 @@
+package com.inventory.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a bulk inventory adjustment. The product is identified by either
+ * {@code id} or {@code sku}; the change is either a signed {@code delta} or an
+ * {@code absolute} quantity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryAdjustmentDTO {
+
+    private Long id;
+
+    private String sku;
+
+    private Integer delta;
+
+    private Integer absolute;
+}
@@ -0,0 +1,30 @@
+package com.inventory.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryAdjustmentResultDTO {
+
+    public enum Status {
+        APPLIED,
+        INSUFFICIENT_INVENTORY,
+        NOT_FOUND,
+        INVALID
+    }
+
+    private Long id;
+
+    private String sku;
+
+    private Status status;
+
+    private Integer inventoryQuantity;
+
+    private String message;
+}
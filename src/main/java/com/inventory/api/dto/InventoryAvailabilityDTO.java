@@ -0,0 +1,21 @@
+package com.inventory.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryAvailabilityDTO {
+
+    private Long productId;
+
+    private int onHand;
+
+    private int reserved;
+
+    private int available;
+}
@@ -0,0 +1,25 @@
+package com.inventory.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryLevelDTO {
+
+    private Long productId;
+
+    private LocalDateTime at;
+
+    private int quantity;
+
+    private LocalDateTime snapshotTakenAt;
+
+    private int movementsReplayed;
+}
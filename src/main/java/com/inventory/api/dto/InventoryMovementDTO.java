@@ -0,0 +1,27 @@
+package com.inventory.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryMovementDTO {
+
+    private Long id;
+
+    private Long productId;
+
+    private String type;
+
+    private int quantity;
+
+    private String source;
+
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,26 @@
+package com.inventory.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * The number of products priced from {@code min}, inclusive, to {@code max},
+ * exclusive. The lowest range has no {@code min} and the highest no
+ * {@code max}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceRangeCountDTO {
+
+    private BigDecimal min;
+
+    private BigDecimal max;
+
+    private long count;
+}
@@ -13,7 +13,7 @@ import java.math.BigDecimal;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class ProductDTO {
 
     private Long id;
@@ -44,4 +44,8 @@ public class ProductDTO {
 
     @Min(value = 1, message = "Low stock threshold must be at least 1")
     private Integer lowStockThreshold;
+
+    private Integer stockShards;
+
+    private Long version;
 }
\ No newline at end of file
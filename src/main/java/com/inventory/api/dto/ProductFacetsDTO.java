@@ -0,0 +1,31 @@
+package com.inventory.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Product counts for the values of each search facet, all under the same
+ * filter. Products without a category or supplier count under a null id.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductFacetsDTO {
+
+    private long total;
+
+    private long inStock;
+
+    private long outOfStock;
+
+    private List<FacetCountDTO> categories;
+
+    private List<FacetCountDTO> suppliers;
+
+    private List<PriceRangeCountDTO> priceRanges;
+}
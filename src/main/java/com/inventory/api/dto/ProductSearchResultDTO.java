@@ -0,0 +1,22 @@
+package com.inventory.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Slice;
+
+/**
+ * A page of search results with the facet counts of the whole search. The
+ * page is a {@link Slice} without totals when they were not requested.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSearchResultDTO {
+
+    private Slice<ProductDTO> products;
+
+    private ProductFacetsDTO facets;
+}
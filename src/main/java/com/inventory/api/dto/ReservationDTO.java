@@ -0,0 +1,27 @@
+package com.inventory.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationDTO {
+
+    private Long id;
+
+    private Long productId;
+
+    private int quantity;
+
+    private String status;
+
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime createdAt;
+}
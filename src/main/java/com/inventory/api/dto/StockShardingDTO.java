@@ -0,0 +1,21 @@
+package com.inventory.api.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockShardingDTO {
+
+    @NotNull(message = "Number of shards is required")
+    @Min(value = 1, message = "Number of shards must be at least 1")
+    @Max(value = 64, message = "Number of shards cannot exceed 64")
+    private Integer shards;
+}
@@ -0,0 +1,29 @@
+package com.inventory.api.event;
+
+import com.inventory.api.model.InventoryMovement;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published inside the transaction that changed a product's inventory.
+ * Listeners that need committed state should use
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT)}.
+ *
+ * @param productId  the product whose inventory changed
+ * @param type       how {@code quantity} applies to the previous level
+ * @param quantity   units added or removed, or the new level for {@code SET}
+ * @param source     the operation that made the change
+ * @param occurredAt when the change was made
+ */
+public record InventoryChangedEvent(
+        Long productId,
+        InventoryMovement.Type type,
+        int quantity,
+        InventoryMovement.Source source,
+        LocalDateTime occurredAt) {
+
+    public static InventoryChangedEvent of(Long productId, InventoryMovement.Type type, int quantity,
+            InventoryMovement.Source source) {
+        return new InventoryChangedEvent(productId, type, quantity, source, LocalDateTime.now());
+    }
+}
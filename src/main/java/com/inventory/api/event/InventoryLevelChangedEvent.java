@@ -0,0 +1,31 @@
+package com.inventory.api.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published inside the transaction that changed a product's stock level or
+ * low-stock state, carrying the resulting level. Unlike
+ * {@link InventoryChangedEvent} it describes where the product ended up rather
+ * than the movement, which is what stream subscribers need.
+ *
+ * @param productId       the product whose stock changed
+ * @param categoryId      the product's category, if any
+ * @param quantity        the inventory quantity after the change
+ * @param lowStock        whether the product is low on stock after the change
+ * @param lowStockChanged whether the change moved the product on or off the low-stock list
+ * @param occurredAt      when the change was made
+ */
+public record InventoryLevelChangedEvent(
+        Long productId,
+        Long categoryId,
+        Integer quantity,
+        boolean lowStock,
+        boolean lowStockChanged,
+        LocalDateTime occurredAt) {
+
+    public static InventoryLevelChangedEvent of(Long productId, Long categoryId, Integer quantity,
+            boolean lowStock, boolean lowStockChanged) {
+        return new InventoryLevelChangedEvent(productId, categoryId, quantity, lowStock, lowStockChanged,
+                LocalDateTime.now());
+    }
+}
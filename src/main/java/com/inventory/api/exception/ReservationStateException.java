@@ -0,0 +1,12 @@
+package com.inventory.api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ReservationStateException extends RuntimeException {
+
+    public ReservationStateException(String message) {
+        super(message);
+    }
+}
@@ -3,10 +3,16 @@ package com.inventory.api.exception;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+/**
+ * Thrown when a looked up entity does not exist. It is an expected outcome
+ * that maps to a 404, so it is built without a stack trace: a miss costs
+ * about as much as a hit, and one instance can be remembered and thrown
+ * again for repeated lookups of the same key.
+ */
 @ResponseStatus(HttpStatus.NOT_FOUND)
 public class ResourceNotFoundException extends RuntimeException {
 
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.inventory.api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class StreamCapacityException extends RuntimeException {
+
+    public StreamCapacityException(String message) {
+        super(message);
+    }
+}
@@ -16,6 +16,7 @@ public class CategoryMapper {
                 .id(category.getId())
                 .name(category.getName())
                 .description(category.getDescription())
+                .version(category.getVersion())
                 .build();
     }
 
@@ -0,0 +1,24 @@
+package com.inventory.api.mapper;
+
+import com.inventory.api.dto.InventoryMovementDTO;
+import com.inventory.api.model.InventoryMovement;
+import org.springframework.stereotype.Component;
+
+@Component
+public class InventoryMovementMapper {
+
+    public InventoryMovementDTO toDto(InventoryMovement movement) {
+        if (movement == null) {
+            return null;
+        }
+
+        return InventoryMovementDTO.builder()
+                .id(movement.getId())
+                .productId(movement.getProductId())
+                .type(movement.getType() != null ? movement.getType().name() : null)
+                .quantity(movement.getQuantity())
+                .source(movement.getSource() != null ? movement.getSource().name() : null)
+                .occurredAt(movement.getOccurredAt())
+                .build();
+    }
+}
@@ -25,6 +25,8 @@ public class ProductMapper {
                 .supplierName(product.getSupplier() != null ? product.getSupplier().getName() : null)
                 .lowStock(product.isLowStock())
                 .lowStockThreshold(product.getLowStockThreshold())
+                .stockShards(product.getStockShards())
+                .version(product.getVersion())
                 .build();
     }
 
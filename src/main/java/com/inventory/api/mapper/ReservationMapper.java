@@ -0,0 +1,24 @@
+package com.inventory.api.mapper;
+
+import com.inventory.api.dto.ReservationDTO;
+import com.inventory.api.model.InventoryReservation;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReservationMapper {
+
+    public ReservationDTO toDto(InventoryReservation reservation) {
+        if (reservation == null) {
+            return null;
+        }
+
+        return ReservationDTO.builder()
+                .id(reservation.getId())
+                .productId(reservation.getProduct() != null ? reservation.getProduct().getId() : null)
+                .quantity(reservation.getQuantity())
+                .status(reservation.getStatus() != null ? reservation.getStatus().name() : null)
+                .expiresAt(reservation.getExpiresAt())
+                .createdAt(reservation.getCreatedAt())
+                .build();
+    }
+}
@@ -30,4 +30,7 @@ public class Category {
 
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL)
     private List<Product> products = new ArrayList<>();
+
+    @Version
+    private Long version;
 }
\ No newline at end of file
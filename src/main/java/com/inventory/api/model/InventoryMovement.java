@@ -0,0 +1,75 @@
+package com.inventory.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One immutable entry of the inventory ledger. Rows are only ever inserted;
+ * the id gives the order in which movements are replayed.
+ */
+@Entity
+@Table(name = "inventory_movements", indexes = {
+        @Index(name = "idx_movement_product", columnList = "product_id, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryMovement {
+
+    public enum Type {
+        /** Adds {@code quantity} units */
+        INCREASE,
+        /** Removes {@code quantity} units */
+        DECREASE,
+        /** Sets the level to {@code quantity} units */
+        SET
+    }
+
+    public enum Source {
+        CREATE,
+        INCREASE,
+        DECREASE,
+        LEVEL_UPDATE,
+        BULK,
+        RESERVATION
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // not a relation: history outlives deleted products
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Source source;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    /**
+     * Applies this movement to the given level.
+     */
+    public int applyTo(int level) {
+        return switch (type) {
+            case INCREASE -> level + quantity;
+            case DECREASE -> level - quantity;
+            case SET -> quantity;
+        };
+    }
+}
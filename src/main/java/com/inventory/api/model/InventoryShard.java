@@ -0,0 +1,36 @@
+package com.inventory.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One stripe of a product's stock when the product uses sharded counters.
+ * The product's stock is the sum of its shards, and every shard stays
+ * non-negative on its own.
+ */
+@Entity
+@Table(name = "inventory_shards", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_shard_product_index", columnNames = { "product_id", "shard_index" })
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryShard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "shard_index", nullable = false)
+    private int shardIndex;
+
+    @Column(nullable = false)
+    private int quantity;
+}
@@ -8,11 +8,20 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_low_stock", columnList = "lowStock"),
+        @Index(name = "idx_products_category_price", columnList = "category_id, price"),
+        @Index(name = "idx_products_category_name", columnList = "category_id, name"),
+        @Index(name = "idx_products_name", columnList = "name"),
+        @Index(name = "idx_products_supplier", columnList = "supplier_id"),
+        @Index(name = "idx_products_price", columnList = "price"),
+        @Index(name = "idx_products_in_stock", columnList = "inventoryQuantity")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -51,6 +60,18 @@ public class Product {
     @Min(value = 1, message = "Low stock threshold must be at least 1")
     private Integer lowStockThreshold;
 
+    // the default fills rows that existed before the column, when the schema update adds it
+    @Column(name = "reserved_quantity", nullable = false)
+    @ColumnDefault("0")
+    private int reservedQuantity;
+
+    // number of stock shards, or null when stock lives in inventoryQuantity alone
+    @Column(name = "stock_shards")
+    private Integer stockShards;
+
+    @Version
+    private Long version;
+
     @PrePersist
     @PreUpdate
     private void checkLowStock() {
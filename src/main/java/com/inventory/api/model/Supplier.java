@@ -15,7 +15,11 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "suppliers")
+@Table(name = "suppliers", indexes = {
+        @Index(name = "idx_suppliers_name", columnList = "name"),
+        @Index(name = "idx_suppliers_city", columnList = "city"),
+        @Index(name = "idx_suppliers_country", columnList = "country")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -78,4 +82,7 @@ public class Supplier {
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
+
+    @Version
+    private Long version;
 }
\ No newline at end of file
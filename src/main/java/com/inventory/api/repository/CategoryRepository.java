@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,4 +19,11 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     @Query("SELECT COUNT(p) FROM Product p WHERE p.category.id = :categoryId")
     long countProductsByCategoryId(@Param("categoryId") Long categoryId);
+
+    /**
+     * Rows of {@code [id, version, product count]}; a cached category DTO is
+     * current as long as it was built from the same version and count.
+     */
+    @Query("SELECT c.id, c.version, SIZE(c.products) FROM Category c WHERE c.id IN :ids")
+    List<Object[]> findVersionStamps(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.inventory.api.repository;
+
+import com.inventory.api.model.InventoryMovement;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InventoryMovementRepository
+        extends JpaRepository<InventoryMovement, Long>, InventoryMovementRepositoryCustom {
+
+    /**
+     * Find the movements of a product, newest first
+     */
+    Page<InventoryMovement> findByProductIdOrderByIdDesc(Long productId, Pageable pageable);
+
+    /**
+     * Movements of a product after a snapshot, in replay order
+     */
+    @Query("SELECT m FROM InventoryMovement m WHERE m.productId = :productId "
+            + "AND m.id > :afterId AND m.id <= :upToId ORDER BY m.id")
+    List<InventoryMovement> findReplayRange(@Param("productId") Long productId,
+            @Param("afterId") long afterId,
+            @Param("upToId") long upToId);
+
+    /**
+     * Id of the last movement of a product that happened no later than the given time, the end of its replay
+     * range at that time
+     */
+    @Query("SELECT MAX(m.id) FROM InventoryMovement m WHERE m.productId = :productId AND m.occurredAt <= :at")
+    Long findLastIdAt(@Param("productId") Long productId, @Param("at") LocalDateTime at);
+
+    /**
+     * Products with movements in the given id range
+     */
+    @Query("SELECT DISTINCT m.productId FROM InventoryMovement m WHERE m.id > :afterId AND m.id <= :upToId")
+    List<Long> findProductIdsWithMovementsBetween(@Param("afterId") long afterId, @Param("upToId") long upToId);
+
+    @Query("SELECT MAX(m.id) FROM InventoryMovement m")
+    Long findMaxId();
+}
@@ -0,0 +1,17 @@
+package com.inventory.api.repository;
+
+import com.inventory.api.model.InventoryMovement;
+
+import java.util.List;
+
+/**
+ * JDBC-backed append path for {@link InventoryMovementRepository}.
+ */
+public interface InventoryMovementRepositoryCustom {
+
+    /**
+     * Inserts the movements in order as one JDBC batch. Identity ids cannot be
+     * batched through JPA, so this bypasses the persistence context.
+     */
+    void appendAll(List<InventoryMovement> movements);
+}
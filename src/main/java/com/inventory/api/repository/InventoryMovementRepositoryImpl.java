@@ -0,0 +1,34 @@
+package com.inventory.api.repository;
+
+import com.inventory.api.model.InventoryMovement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+public class InventoryMovementRepositoryImpl implements InventoryMovementRepositoryCustom {
+
+    private static final String INSERT_SQL = "INSERT INTO inventory_movements "
+            + "(product_id, type, quantity, source, occurred_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public InventoryMovementRepositoryImpl(JdbcTemplate jdbcTemplate,
+            @Value("${inventory.ledger.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public void appendAll(List<InventoryMovement> movements) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, movements, batchSize, (ps, movement) -> {
+            ps.setLong(1, movement.getProductId());
+            ps.setString(2, movement.getType().name());
+            ps.setInt(3, movement.getQuantity());
+            ps.setString(4, movement.getSource().name());
+            ps.setTimestamp(5, Timestamp.valueOf(movement.getOccurredAt()));
+        });
+    }
+}
@@ -0,0 +1,44 @@
+package com.inventory.api.repository;
+
+import com.inventory.api.model.InventoryReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InventoryReservationRepository extends JpaRepository<InventoryReservation, Long> {
+
+    /**
+     * Find a reservation belonging to the given product
+     */
+    Optional<InventoryReservation> findByIdAndProductId(Long id, Long productId);
+
+    /**
+     * Moves a reservation from one status to another. Returns 0 if the
+     * reservation was no longer in the expected status, which makes confirm,
+     * release and expiry mutually exclusive.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE InventoryReservation r SET r.status = :to WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") Long id,
+            @Param("from") InventoryReservation.Status from,
+            @Param("to") InventoryReservation.Status to);
+
+    /**
+     * Active holds with their deadlines, used to re-arm expiry timers on startup
+     */
+    @Query("SELECT r.id AS id, r.expiresAt AS expiresAt FROM InventoryReservation r WHERE r.status = :status")
+    List<ReservationDeadline> findDeadlinesByStatus(@Param("status") InventoryReservation.Status status);
+
+    interface ReservationDeadline {
+        Long getId();
+
+        LocalDateTime getExpiresAt();
+    }
+}
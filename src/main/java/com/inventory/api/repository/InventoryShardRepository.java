@@ -0,0 +1,69 @@
+package com.inventory.api.repository;
+
+import com.inventory.api.model.InventoryShard;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InventoryShardRepository extends JpaRepository<InventoryShard, Long> {
+
+    /**
+     * Applies a delta to one shard, only if the shard stays non-negative.
+     * Returns the number of updated rows (0 or 1).
+     */
+    @Modifying
+    @Query("UPDATE InventoryShard s SET s.quantity = s.quantity + :delta " +
+            "WHERE s.productId = :productId AND s.shardIndex = :shardIndex AND s.quantity + :delta >= 0")
+    int adjustShard(@Param("productId") Long productId,
+            @Param("shardIndex") int shardIndex,
+            @Param("delta") int delta);
+
+    @Query("SELECT COALESCE(SUM(s.quantity), 0) FROM InventoryShard s WHERE s.productId = :productId")
+    long sumQuantity(@Param("productId") Long productId);
+
+    /**
+     * Rows of {@code [product id, shard total]} for the given products that have shards
+     */
+    @Query("SELECT s.productId, SUM(s.quantity) FROM InventoryShard s WHERE s.productId IN :productIds "
+            + "GROUP BY s.productId")
+    List<Object[]> sumQuantities(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * Locks every shard of a product, for operations that span shards
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM InventoryShard s WHERE s.productId = :productId ORDER BY s.shardIndex")
+    List<InventoryShard> lockShards(@Param("productId") Long productId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM InventoryShard s WHERE s.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+
+    /**
+     * Copies the shard totals of every sharded product onto its products row so
+     * that listings, searches and the low-stock flag stay close to current
+     * without the hot decrement path ever touching that row. Only rows whose
+     * total changed are written, and their version is bumped so an entity
+     * update read before the roll-up cannot write the old quantity back.
+     * Returns the number of rows updated.
+     */
+    @Modifying
+    @Query(value = "UPDATE products p SET " +
+            "inventory_quantity = (SELECT COALESCE(SUM(s.quantity), 0) FROM inventory_shards s WHERE s.product_id = p.id), " +
+            "low_stock = CASE WHEN p.low_stock_threshold IS NULL THEN p.low_stock " +
+            "WHEN (SELECT COALESCE(SUM(s.quantity), 0) FROM inventory_shards s WHERE s.product_id = p.id) " +
+            "<= p.low_stock_threshold THEN TRUE ELSE FALSE END, " +
+            "version = COALESCE(p.version, 0) + 1 " +
+            "WHERE p.stock_shards IS NOT NULL " +
+            "AND COALESCE(p.inventory_quantity, -1) <> " +
+            "(SELECT COALESCE(SUM(s.quantity), 0) FROM inventory_shards s WHERE s.product_id = p.id)", nativeQuery = true)
+    int rollUpShardedProducts();
+}
@@ -0,0 +1,42 @@
+package com.inventory.api.repository;
+
+import com.inventory.api.model.InventorySnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface InventorySnapshotRepository extends JpaRepository<InventorySnapshot, Long> {
+
+    /**
+     * Find the newest snapshot of a product
+     */
+    Optional<InventorySnapshot> findFirstByProductIdOrderByLastMovementIdDesc(Long productId);
+
+    /**
+     * Find the newest snapshot of a product that covers no movement after the given one and was taken no later
+     * than the given time
+     */
+    Optional<InventorySnapshot> findFirstByProductIdAndLastMovementIdLessThanEqualAndTakenAtLessThanEqualOrderByLastMovementIdDesc(
+            Long productId, long lastMovementId, LocalDateTime at);
+
+    @Query("SELECT MAX(s.lastMovementId) FROM InventorySnapshot s")
+    Long findMaxLastMovementId();
+
+    /**
+     * Records the current level of every product that has neither a snapshot
+     * nor a movement yet, e.g. rows loaded before the ledger existed, as its
+     * opening balance.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO inventory_snapshots (product_id, quantity, last_movement_id, taken_at) "
+            + "SELECT p.id, COALESCE(p.inventory_quantity, 0), 0, :at FROM products p "
+            + "WHERE NOT EXISTS (SELECT 1 FROM inventory_snapshots s WHERE s.product_id = p.id) "
+            + "AND NOT EXISTS (SELECT 1 FROM inventory_movements m WHERE m.product_id = p.id)", nativeQuery = true)
+    int insertOpeningBalances(@Param("at") LocalDateTime at);
+}
@@ -0,0 +1,189 @@
+package com.inventory.api.repository;
+
+import com.inventory.api.exception.InvalidCursorException;
+import com.inventory.api.exception.InvalidSortException;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keyset ("seek") pagination over an entity.
+ * <p>
+ * Instead of skipping {@code OFFSET} rows, each page starts right after the
+ * sort value and id of the last row of the previous page, passed back by the
+ * client as an opaque cursor. With an index on the sort property the
+ * database seeks straight to that row, so every page costs the same however
+ * deep it is, and no count query runs.
+ * <p>
+ * Rows are ordered by the sort property and then by id, both in the
+ * requested direction, with rows whose sort value is null last. Those are
+ * read in a second pass ordered by id alone, so both passes stay plain
+ * index range scans.
+ */
+public final class KeysetPager<E> {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String ID = "id";
+    private static final String FORMAT = "1";
+
+    /** One page of rows, and the cursor continuing after it or null on the last page. */
+    public record Window<E>(List<E> content, String nextCursor) {
+    }
+
+    private record Key<E>(Class<?> type, Function<E, Object> value) {
+    }
+
+    /**
+     * Where a page starts: after the row with this sort value and id, or at
+     * the beginning when {@code id} is null. Once {@code nullValues} is set
+     * the listing has reached the rows without a sort value.
+     */
+    record Position(String property, Sort.Direction direction, Object value, Long id, boolean nullValues) {
+    }
+
+    private final Map<String, Key<E>> keys = new LinkedHashMap<>();
+    private final Function<E, Long> id;
+
+    public KeysetPager(Function<E, Long> id) {
+        this.id = id;
+        keys.put(ID, new Key<>(Long.class, id::apply));
+    }
+
+    /** Allows sorting by a property of the given type, read from a row with {@code value}. */
+    public KeysetPager<E> sortableBy(String property, Class<?> type, Function<E, Object> value) {
+        keys.put(property, new Key<>(type, value));
+        return this;
+    }
+
+    /**
+     * Reads the page after the cursor, or the first page sorted by
+     * {@code sortBy} and {@code sortDir} when no cursor is given; a cursor
+     * carries its own sort.
+     */
+    public Window<E> page(JpaSpecificationExecutor<E> repository, Specification<E> filter, String cursor,
+            String sortBy, String sortDir, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Position from = StringUtils.hasText(cursor) ? decode(cursor) : start(sortBy, sortDir);
+        Sort.Direction direction = from.direction();
+        boolean byId = from.property().equals(ID);
+
+        List<E> rows = new ArrayList<>(limit + 1);
+        if (!from.nullValues()) {
+            Specification<E> valued = Specification.where(filter)
+                    .and(byId ? null : (root, query, cb) -> cb.isNotNull(root.get(from.property())))
+                    .and(from.id() != null ? after(from) : null);
+            Sort sort = byId ? Sort.by(direction, ID) : Sort.by(direction, from.property(), ID);
+            rows.addAll(repository.findBy(valued, q -> q.sortBy(sort).limit(limit + 1).all()));
+        }
+        if (rows.size() <= limit && !byId) {
+            int remaining = limit + 1 - rows.size();
+            Specification<E> unvalued = Specification.where(filter)
+                    .and((root, query, cb) -> cb.isNull(root.get(from.property())))
+                    .and(from.nullValues() ? idAfter(from) : null);
+            rows.addAll(repository.findBy(unvalued, q -> q.sortBy(Sort.by(direction, ID)).limit(remaining).all()));
+        }
+
+        if (rows.size() <= limit) {
+            return new Window<>(rows, null);
+        }
+        List<E> content = rows.subList(0, limit);
+        E last = content.get(limit - 1);
+        Object value = keys.get(from.property()).value().apply(last);
+        return new Window<>(content,
+                encode(new Position(from.property(), direction, value, id.apply(last), value == null)));
+    }
+
+    Position start(String sortBy, String sortDir) {
+        String property = StringUtils.hasText(sortBy) ? sortBy : ID;
+        if (!keys.containsKey(property)) {
+            throw new InvalidSortException("Cannot page by '" + property + "'; supported sort fields are "
+                    + String.join(", ", keys.keySet()));
+        }
+        Sort.Direction direction = "desc".equalsIgnoreCase(sortDir) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return new Position(property, direction, null, null, false);
+    }
+
+    String encode(Position position) {
+        String value = position.nullValues() ? "-" : "+" + format(position.value());
+        String raw = String.join("|", FORMAT, position.property(), position.direction().isAscending() ? "a" : "d",
+                value, String.valueOf(position.id()));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    Position decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // format|property|direction|value|id; only the value may contain '|'
+            String[] head = raw.split("\\|", 4);
+            int idStart = head[3].lastIndexOf('|');
+            Key<E> key = keys.get(head[1]);
+            if (!FORMAT.equals(head[0]) || key == null || idStart < 1
+                    || !(head[2].equals("a") || head[2].equals("d"))) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+            String value = head[3].substring(0, idStart);
+            boolean nullValues = value.equals("-");
+            return new Position(head[1], head[2].equals("a") ? Sort.Direction.ASC : Sort.Direction.DESC,
+                    nullValues ? null : parse(key.type(), value.substring(1)),
+                    Long.valueOf(head[3].substring(idStart + 1)), nullValues);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | StringIndexOutOfBoundsException
+                | DateTimeParseException ex) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Specification<E> after(Position from) {
+        return (root, query, cb) -> {
+            Path<Comparable> id = root.get(ID);
+            Comparable lastId = from.id();
+            if (from.property().equals(ID)) {
+                return from.direction().isAscending() ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+            }
+            Path<Comparable> key = root.get(from.property());
+            Comparable value = (Comparable) from.value();
+            return from.direction().isAscending()
+                    ? cb.or(cb.greaterThan(key, value), cb.and(cb.equal(key, value), cb.greaterThan(id, lastId)))
+                    : cb.or(cb.lessThan(key, value), cb.and(cb.equal(key, value), cb.lessThan(id, lastId)));
+        };
+    }
+
+    private Specification<E> idAfter(Position from) {
+        return (root, query, cb) -> from.direction().isAscending()
+                ? cb.greaterThan(root.<Long>get(ID), from.id())
+                : cb.lessThan(root.<Long>get(ID), from.id());
+    }
+
+    private static String format(Object value) {
+        return value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+    }
+
+    private static Object parse(Class<?> type, String value) {
+        if (type == String.class) {
+            return value;
+        } else if (type == Long.class) {
+            return Long.valueOf(value);
+        } else if (type == Integer.class) {
+            return Integer.valueOf(value);
+        } else if (type == BigDecimal.class) {
+            return new BigDecimal(value);
+        } else if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(value);
+        }
+        throw new IllegalStateException("Unsupported keyset type " + type.getName());
+    }
+}
@@ -5,16 +5,19 @@ import com.inventory.api.model.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, SliceSpecificationExecutor<Product>,
+                ProductRepositoryCustom {
 
         Optional<Product> findBySku(String sku);
 
@@ -31,22 +34,81 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
         @Query("SELECT p FROM Product p WHERE p.inventoryQuantity > 0")
         Page<Product> findInStockProducts(Pageable pageable);
 
-        @Query("SELECT p FROM Product p WHERE (:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) " +
-                        "AND (:categoryId IS NULL OR p.category.id = :categoryId) " +
-                        "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
-                        "AND (:maxPrice IS NULL OR p.price <= :maxPrice) " +
-                        "AND (:inStock IS NULL OR (:inStock = true AND p.inventoryQuantity > 0) OR (:inStock = false))")
-        Page<Product> searchProducts(
-                        @Param("name") String name,
-                        @Param("categoryId") Long categoryId,
-                        @Param("minPrice") BigDecimal minPrice,
-                        @Param("maxPrice") BigDecimal maxPrice,
-                        @Param("inStock") Boolean inStock,
-                        Pageable pageable);
-
         List<Product> findByLowStockIsTrue();
 
+        @Query("SELECT p.id FROM Product p WHERE p.lowStock = true")
+        List<Long> findLowStockIds();
+
+        /**
+         * Applies an inventory delta in a single conditional statement. The row is
+         * only updated when the resulting quantity still covers the reserved
+         * quantity (and so stays non-negative), so concurrent decrements can never
+         * oversell or consume stock held by reservations. The version is bumped as well so that stale
+         * entity writes fail their optimistic check. Products with sharded stock are
+         * never matched. Returns the number of updated rows (0 or 1).
+         */
+        @Modifying(flushAutomatically = true, clearAutomatically = true)
+        @Query("UPDATE Product p SET p.inventoryQuantity = COALESCE(p.inventoryQuantity, 0) + :delta, " +
+                        "p.version = COALESCE(p.version, 0) + 1, " +
+                        "p.lowStock = CASE WHEN p.lowStockThreshold IS NULL THEN p.lowStock " +
+                        "WHEN COALESCE(p.inventoryQuantity, 0) + :delta <= p.lowStockThreshold THEN true ELSE false END " +
+                        "WHERE p.id = :id AND p.stockShards IS NULL " +
+                        "AND COALESCE(p.inventoryQuantity, 0) + :delta >= p.reservedQuantity")
+        int adjustInventory(@Param("id") Long id, @Param("delta") int delta);
+
+        /**
+         * Places a hold on available stock (on-hand minus existing holds). Returns 0
+         * when not enough stock is available.
+         */
+        @Modifying(flushAutomatically = true, clearAutomatically = true)
+        @Query("UPDATE Product p SET p.reservedQuantity = p.reservedQuantity + :quantity, " +
+                        "p.version = COALESCE(p.version, 0) + 1 " +
+                        "WHERE p.id = :id AND p.stockShards IS NULL " +
+                        "AND COALESCE(p.inventoryQuantity, 0) - p.reservedQuantity >= :quantity")
+        int reserveInventory(@Param("id") Long id, @Param("quantity") int quantity);
+
+        /**
+         * Returns held stock to the available pool without changing on-hand stock.
+         */
+        @Modifying(flushAutomatically = true, clearAutomatically = true)
+        @Query("UPDATE Product p SET p.reservedQuantity = p.reservedQuantity - :quantity, " +
+                        "p.version = COALESCE(p.version, 0) + 1 " +
+                        "WHERE p.id = :id AND p.reservedQuantity >= :quantity")
+        int releaseReservedInventory(@Param("id") Long id, @Param("quantity") int quantity);
+
+        /**
+         * Turns a hold into a sale: removes the held quantity from both on-hand and
+         * reserved stock.
+         */
+        @Modifying(flushAutomatically = true, clearAutomatically = true)
+        @Query("UPDATE Product p SET p.inventoryQuantity = COALESCE(p.inventoryQuantity, 0) - :quantity, " +
+                        "p.reservedQuantity = p.reservedQuantity - :quantity, " +
+                        "p.version = COALESCE(p.version, 0) + 1, " +
+                        "p.lowStock = CASE WHEN p.lowStockThreshold IS NULL THEN p.lowStock " +
+                        "WHEN COALESCE(p.inventoryQuantity, 0) - :quantity <= p.lowStockThreshold THEN true ELSE false END " +
+                        "WHERE p.id = :id AND p.reservedQuantity >= :quantity " +
+                        "AND COALESCE(p.inventoryQuantity, 0) >= :quantity")
+        int commitReservedInventory(@Param("id") Long id, @Param("quantity") int quantity);
+
+        List<Product> findByStockShardsIsNotNull();
+
         Page<Product> findBySupplierId(Long supplierId, Pageable pageable);
 
         long countBySupplierId(Long supplierId);
+
+        /**
+         * Rows of {@code [id, name, sku]} with ids above {@code afterId}, in id
+         * order, for loading the search text index a batch at a time.
+         */
+        @Query("SELECT p.id, p.name, p.sku FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+        List<Object[]> findSearchTextsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+        /**
+         * Rows of {@code [id, version, category name, supplier name, stock shards]};
+         * a cached product DTO is current as long as it was built from the same
+         * version and shows the same names.
+         */
+        @Query("SELECT p.id, p.version, c.name, s.name, p.stockShards FROM Product p " +
+                        "LEFT JOIN p.category c LEFT JOIN p.supplier s WHERE p.id IN :ids")
+        List<Object[]> findVersionStamps(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.inventory.api.repository;
+
+import com.inventory.api.model.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC- and criteria-backed operations for {@link ProductRepository} that do
+ * not fit derived or JPQL queries, such as batched inventory updates.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * A single inventory change: either a signed delta or an absolute quantity.
+     */
+    record InventoryChange(Long productId, boolean absolute, int value) {
+    }
+
+    /**
+     * The stock state of a product as stored in its row.
+     */
+    record StockLevel(Long productId, String sku, Long categoryId, int quantity, boolean lowStock) {
+    }
+
+    /**
+     * The number of products sharing a category, supplier, price band and
+     * stock state; see {@link #countFacets}.
+     */
+    record FacetCount(Long categoryId, String categoryName, Long supplierId, String supplierName, int priceBand,
+            boolean inStock, long count) {
+    }
+
+    /**
+     * Resolves SKUs to product IDs with a single query. Unknown SKUs are absent
+     * from the returned map.
+     */
+    Map<String, Long> findIdsBySkuIn(Collection<String> skus);
+
+    /**
+     * Applies the changes in order as one JDBC batch. Each change only applies
+     * when the resulting quantity still covers the reserved quantity and the
+     * product does not use sharded stock. The
+     * returned array holds the update count (0 or 1) of each change. When the
+     * driver answers {@link java.sql.Statement#SUCCESS_NO_INFO} the batch is
+     * rolled back to a savepoint and replayed statement by statement, so the
+     * counts are always exact. Must run inside a transaction.
+     */
+    int[] batchAdjustInventory(List<InventoryChange> changes);
+
+    /**
+     * Reads the current stock state of the given products. Unknown IDs are
+     * absent from the returned map.
+     */
+    Map<Long, StockLevel> findStockLevels(Collection<Long> ids);
+
+    /**
+     * Counts the products matching the specification, or all products when it
+     * is null, per combination of category, supplier, price band and stock
+     * state, in one grouped query. Band {@code i} holds the prices below
+     * {@code priceBounds[i]} and not below the bound before it; band
+     * {@code priceBounds.size()} holds the rest and band -1 products without
+     * a price.
+     */
+    List<FacetCount> countFacets(Specification<Product> spec, List<BigDecimal> priceBounds);
+}
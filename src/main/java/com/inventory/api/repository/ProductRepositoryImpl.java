@@ -0,0 +1,195 @@
+package com.inventory.api.repository;
+
+import com.inventory.api.model.Category;
+import com.inventory.api.model.Product;
+import com.inventory.api.model.Supplier;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    // new quantity = current * keep + value, where keep is 0 for absolute changes and 1 for deltas
+    private static final String NEW_QUANTITY = "(COALESCE(inventory_quantity, 0) * ? + ?)";
+
+    private static final String BATCH_ADJUST_SQL = "UPDATE products SET inventory_quantity = " + NEW_QUANTITY + ", "
+            + "low_stock = CASE WHEN low_stock_threshold IS NULL THEN low_stock "
+            + "WHEN " + NEW_QUANTITY + " <= low_stock_threshold THEN TRUE ELSE FALSE END, "
+            + "version = COALESCE(version, 0) + 1 "
+            + "WHERE id = ? AND stock_shards IS NULL AND " + NEW_QUANTITY + " >= reserved_quantity";
+
+    private static final int IN_CLAUSE_CHUNK = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    public ProductRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate, EntityManager entityManager,
+            @Value("${inventory.bulk.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public Map<String, Long> findIdsBySkuIn(Collection<String> skus) {
+        Map<String, Long> ids = new HashMap<>();
+        for (List<String> chunk : chunks(skus)) {
+            jdbcTemplate.query("SELECT id, sku FROM products WHERE sku IN (:skus)",
+                    new MapSqlParameterSource("skus", chunk),
+                    rs -> {
+                        ids.put(rs.getString("sku"), rs.getLong("id"));
+                    });
+        }
+        return ids;
+    }
+
+    @Override
+    public int[] batchAdjustInventory(List<InventoryChange> changes) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalTransactionStateException("Batch inventory adjustments need an active transaction");
+        }
+        JdbcTemplate jdbc = jdbcTemplate.getJdbcTemplate();
+        ParameterizedPreparedStatementSetter<InventoryChange> setter = (ps, change) -> {
+            int keep = change.absolute() ? 0 : 1;
+            ps.setInt(1, keep);
+            ps.setInt(2, change.value());
+            ps.setInt(3, keep);
+            ps.setInt(4, change.value());
+            ps.setLong(5, change.productId());
+            ps.setInt(6, keep);
+            ps.setInt(7, change.value());
+        };
+
+        Savepoint savepoint = jdbc.execute((ConnectionCallback<Savepoint>) Connection::setSavepoint);
+        int[][] counts = jdbc.batchUpdate(BATCH_ADJUST_SQL, changes, batchSize, setter);
+
+        int[] flattened = new int[changes.size()];
+        boolean unreported = false;
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                unreported |= count == Statement.SUCCESS_NO_INFO;
+                flattened[index++] = count;
+            }
+        }
+        if (!unreported) {
+            jdbc.execute((ConnectionCallback<Void>) con -> {
+                try {
+                    con.releaseSavepoint(savepoint);
+                } catch (SQLException ex) {
+                    // not every driver releases savepoints, the transaction end drops it anyway
+                }
+                return null;
+            });
+            return flattened;
+        }
+
+        // the driver ran the batch without saying which conditional updates matched, so
+        // undo it and apply the changes one statement at a time to get each count
+        jdbc.execute((ConnectionCallback<Void>) con -> {
+            con.rollback(savepoint);
+            return null;
+        });
+        for (int i = 0; i < changes.size(); i++) {
+            InventoryChange change = changes.get(i);
+            flattened[i] = jdbc.update(BATCH_ADJUST_SQL, ps -> setter.setValues(ps, change));
+        }
+        return flattened;
+    }
+
+    @Override
+    public Map<Long, StockLevel> findStockLevels(Collection<Long> ids) {
+        Map<Long, StockLevel> levels = new HashMap<>();
+        for (List<Long> chunk : chunks(ids)) {
+            jdbcTemplate.query("SELECT id, sku, category_id, inventory_quantity, low_stock FROM products WHERE id IN (:ids)",
+                    new MapSqlParameterSource("ids", chunk),
+                    rs -> {
+                        long id = rs.getLong("id");
+                        levels.put(id, new StockLevel(id, rs.getString("sku"), rs.getObject("category_id", Long.class),
+                                rs.getInt("inventory_quantity"), rs.getBoolean("low_stock")));
+                    });
+        }
+        return levels;
+    }
+
+    @Override
+    public List<FacetCount> countFacets(Specification<Product> spec, List<BigDecimal> priceBounds) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+        Join<Product, Category> category = product.join("category", JoinType.LEFT);
+        Join<Product, Supplier> supplier = product.join("supplier", JoinType.LEFT);
+
+        // literals rather than parameters, so the grouped CASE expressions match the selected ones
+        Path<BigDecimal> price = product.get("price");
+        CriteriaBuilder.Case<Integer> band = cb.<Integer>selectCase().when(cb.isNull(price), cb.literal(-1));
+        for (int i = 0; i < priceBounds.size(); i++) {
+            band = band.when(cb.lessThan(price, cb.literal(priceBounds.get(i))), cb.literal(i));
+        }
+        Expression<Integer> priceBand = band.otherwise(cb.literal(priceBounds.size()));
+        Expression<Integer> inStock = cb.<Integer>selectCase()
+                .when(cb.greaterThan(product.get("inventoryQuantity"), cb.literal(0)), cb.literal(1))
+                .otherwise(cb.literal(0));
+
+        List<Expression<?>> groups = List.of(category.get("id"), category.get("name"), supplier.get("id"),
+                supplier.get("name"), priceBand, inStock);
+        List<Selection<?>> selections = new ArrayList<>(groups);
+        selections.add(cb.count(product));
+        query.multiselect(selections).groupBy(groups);
+        Predicate filter = spec != null ? spec.toPredicate(product, query, cb) : null;
+        if (filter != null) {
+            query.where(filter);
+        }
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(row -> new FacetCount(row.get(0, Long.class), row.get(1, String.class),
+                        row.get(2, Long.class), row.get(3, String.class), row.get(4, Integer.class),
+                        row.get(5, Integer.class) == 1, row.get(6, Long.class)))
+                .toList();
+    }
+
+    private static <T> List<List<T>> chunks(Collection<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        List<T> current = new ArrayList<>(Math.min(values.size(), IN_CLAUSE_CHUNK));
+        for (T value : values) {
+            current.add(value);
+            if (current.size() == IN_CLAUSE_CHUNK) {
+                chunks.add(current);
+                current = new ArrayList<>(IN_CLAUSE_CHUNK);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+}
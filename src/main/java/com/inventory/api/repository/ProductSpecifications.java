@@ -0,0 +1,95 @@
+package com.inventory.api.repository;
+
+import com.inventory.api.model.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Product search criteria for {@link ProductRepository#findAll(Specification,
+ * org.springframework.data.domain.Pageable)}.
+ * <p>
+ * Only criteria that are given become predicates, so a search runs as a plain
+ * conjunction the database can answer from the indexes declared on
+ * {@link Product} instead of a {@code :x IS NULL OR ...} query that has to
+ * scan.
+ */
+public final class ProductSpecifications {
+
+    /** Keyset pagination of products, by id or one of the indexed listing sorts. */
+    public static final KeysetPager<Product> KEYSET = new KeysetPager<>(Product::getId)
+            .sortableBy("name", String.class, Product::getName)
+            .sortableBy("price", BigDecimal.class, Product::getPrice)
+            .sortableBy("sku", String.class, Product::getSku)
+            .sortableBy("inventoryQuantity", Integer.class, Product::getInventoryQuantity);
+
+    private ProductSpecifications() {
+    }
+
+    /**
+     * Products matching every given non-text criterion; null criteria and
+     * {@code inStock == false} do not filter. Name and SKU terms are added by
+     * the caller, from the search text index or with {@link #nameContains}.
+     */
+    public static Specification<Product> attributes(Long categoryId, BigDecimal minPrice, BigDecimal maxPrice,
+            Boolean inStock) {
+        Specification<Product> spec = Specification.where(null);
+        if (categoryId != null) {
+            spec = spec.and(inCategory(categoryId));
+        }
+        if (minPrice != null) {
+            spec = spec.and(priceAtLeast(minPrice));
+        }
+        if (maxPrice != null) {
+            spec = spec.and(priceAtMost(maxPrice));
+        }
+        if (Boolean.TRUE.equals(inStock)) {
+            spec = spec.and(inStock());
+        }
+        return spec;
+    }
+
+    /** Products with one of the given ids, as found by the search text index. */
+    public static Specification<Product> idIn(long[] ids) {
+        List<Long> values = Arrays.stream(ids).boxed().toList();
+        return (root, query, cb) -> values.isEmpty() ? cb.disjunction() : root.get("id").in(values);
+    }
+
+    /** Case-insensitive substring match; {@code %} and {@code _} in the term match literally. */
+    public static Specification<Product> nameContains(String term) {
+        String pattern = "%" + escapeLike(term.toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern, '\\');
+    }
+
+    public static Specification<Product> skuContains(String term) {
+        String pattern = "%" + escapeLike(term.toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("sku")), pattern, '\\');
+    }
+
+    public static Specification<Product> inCategory(Long categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+    }
+
+    public static Specification<Product> bySupplier(Long supplierId) {
+        return (root, query, cb) -> cb.equal(root.get("supplier").get("id"), supplierId);
+    }
+
+    public static Specification<Product> priceAtLeast(BigDecimal minPrice) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Product> priceAtMost(BigDecimal maxPrice) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    public static Specification<Product> inStock() {
+        return (root, query, cb) -> cb.greaterThan(root.get("inventoryQuantity"), 0);
+    }
+
+    static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,32 @@
+package com.inventory.api.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+/**
+ * Specification queries that read a page without counting every matching
+ * row, which on a large table can cost more than the page itself.
+ */
+public interface SliceSpecificationExecutor<T> extends JpaSpecificationExecutor<T> {
+
+    /**
+     * Reads the page of rows matching the specification. One row beyond the
+     * page is read to tell whether a next page exists; no {@code COUNT} query
+     * runs.
+     */
+    default Slice<T> findSlice(Specification<T> spec, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(findAll(spec, pageable.getSort()));
+        }
+        // an offset position starts at the row with that index
+        Window<T> window = findBy(Specification.where(spec), query -> query.sortBy(pageable.getSort())
+                .limit(pageable.getPageSize())
+                .scroll(ScrollPosition.offset(pageable.getOffset())));
+        return new SliceImpl<>(window.getContent(), pageable, window.hasNext());
+    }
+}
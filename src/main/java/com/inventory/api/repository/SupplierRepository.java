@@ -12,7 +12,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface SupplierRepository extends JpaRepository<Supplier, Long> {
+public interface SupplierRepository extends JpaRepository<Supplier, Long>, SliceSpecificationExecutor<Supplier> {
 
     /**
      * Find suppliers by name containing the given string (case-insensitive)
@@ -51,20 +51,13 @@ public interface SupplierRepository extends JpaRepository<Supplier, Long> {
     Page<Supplier> findByActive(Boolean active, Pageable pageable);
 
     /**
-     * Search suppliers by multiple criteria
+     * Rows of {@code [id, name, contactPerson, city, country]} with ids above
+     * {@code afterId}, in id order, for loading the search text index a batch
+     * at a time
      */
-    @Query("SELECT s FROM Supplier s WHERE " +
-            "(:name IS NULL OR LOWER(s.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
-            "(:contactPerson IS NULL OR LOWER(s.contactPerson) LIKE LOWER(CONCAT('%', :contactPerson, '%'))) AND " +
-            "(:city IS NULL OR LOWER(s.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND " +
-            "(:country IS NULL OR LOWER(s.country) LIKE LOWER(CONCAT('%', :country, '%'))) AND " +
-            "(:active IS NULL OR s.active = :active)")
-    Page<Supplier> searchSuppliers(@Param("name") String name,
-            @Param("contactPerson") String contactPerson,
-            @Param("city") String city,
-            @Param("country") String country,
-            @Param("active") Boolean active,
-            Pageable pageable);
+    @Query("SELECT s.id, s.name, s.contactPerson, s.city, s.country FROM Supplier s " +
+            "WHERE s.id > :afterId ORDER BY s.id")
+    List<Object[]> findSearchTextsAfter(@Param("afterId") Long afterId, Pageable pageable);
 
     /**
      * Find suppliers with products count
@@ -0,0 +1,46 @@
+package com.inventory.api.repository;
+
+import com.inventory.api.model.Supplier;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Supplier search criteria for {@link SupplierRepository#findAll(Specification,
+ * org.springframework.data.domain.Pageable)}; see {@link ProductSpecifications}.
+ */
+public final class SupplierSpecifications {
+
+    /** Keyset pagination of suppliers, by id or one of the listing sorts. */
+    public static final KeysetPager<Supplier> KEYSET = new KeysetPager<>(Supplier::getId)
+            .sortableBy("name", String.class, Supplier::getName)
+            .sortableBy("contactPerson", String.class, Supplier::getContactPerson)
+            .sortableBy("city", String.class, Supplier::getCity)
+            .sortableBy("country", String.class, Supplier::getCountry)
+            .sortableBy("createdAt", LocalDateTime.class, Supplier::getCreatedAt);
+
+    private SupplierSpecifications() {
+    }
+
+    /**
+     * Case-insensitive substring match on a text attribute; {@code %} and
+     * {@code _} in the term match literally.
+     */
+    public static Specification<Supplier> contains(String attribute, String term) {
+        String pattern = "%" + ProductSpecifications.escapeLike(term.toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get(attribute)), pattern, '\\');
+    }
+
+    /** Suppliers with one of the given ids, as found by the search text index. */
+    public static Specification<Supplier> idIn(long[] ids) {
+        List<Long> values = Arrays.stream(ids).boxed().toList();
+        return (root, query, cb) -> values.isEmpty() ? cb.disjunction() : root.get("id").in(values);
+    }
+
+    public static Specification<Supplier> active(Boolean active) {
+        return active == null ? null : (root, query, cb) -> cb.equal(root.get("active"), active);
+    }
+}
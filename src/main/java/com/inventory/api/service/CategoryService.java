@@ -1,9 +1,11 @@
 package com.inventory.api.service;
 
 import com.inventory.api.dto.CategoryDTO;
+import com.inventory.api.dto.CursorPageDTO;
 import com.inventory.api.dto.ProductDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -20,4 +22,9 @@ public interface CategoryService {
     void deleteCategory(Long id);
 
     Page<ProductDTO> getProductsByCategory(Long categoryId, Pageable pageable);
+
+    Slice<ProductDTO> getProductSliceByCategory(Long categoryId, Pageable pageable);
+
+    CursorPageDTO<ProductDTO> getProductsByCategoryAfter(Long categoryId, String cursor, String sortBy,
+            String sortDir, int size);
 }
\ No newline at end of file
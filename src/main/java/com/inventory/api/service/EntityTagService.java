@@ -0,0 +1,24 @@
+package com.inventory.api.service;
+
+/**
+ * Strong entity tags for GET responses, taken from in-memory version counters
+ * so that a conditional request can be answered without loading anything.
+ * Tags change whenever the representation may have changed; they are only
+ * equal between responses of the same node since its start.
+ */
+public interface EntityTagService {
+
+    String product(Long id);
+
+    /** Tag of every list, page and search of products. */
+    String products();
+
+    String category(Long id);
+
+    String categories();
+
+    String supplier(Long id);
+
+    /** Tag of every list, page and search of suppliers. */
+    String suppliers();
+}
@@ -0,0 +1,22 @@
+package com.inventory.api.service;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    /**
+     * Result of an idempotent call
+     *
+     * @param body     the response of the first execution
+     * @param replayed whether the body was replayed instead of executing the action
+     */
+    record Outcome<T>(T body, boolean replayed) {
+    }
+
+    /**
+     * Run the action once per idempotency key, replaying the stored response for duplicates.
+     * Without a key the action simply runs. Reusing a key for a different request is rejected.
+     */
+    <T> Outcome<T> execute(String idempotencyKey, String requestFingerprint, Class<T> responseType,
+            Supplier<T> action);
+}
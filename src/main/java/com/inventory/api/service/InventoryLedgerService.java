@@ -0,0 +1,26 @@
+package com.inventory.api.service;
+
+import com.inventory.api.dto.InventoryLevelDTO;
+import com.inventory.api.dto.InventoryMovementDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+
+public interface InventoryLedgerService {
+
+    /**
+     * Get the inventory movements of a product, newest first
+     */
+    Page<InventoryMovementDTO> getMovements(Long productId, Pageable pageable);
+
+    /**
+     * Compute the inventory level of a product at the given time, or now if null
+     */
+    InventoryLevelDTO getLevelAt(Long productId, LocalDateTime at);
+
+    /**
+     * Snapshot every product with movements since its last snapshot, returning how many were taken
+     */
+    int takeSnapshots();
+}
@@ -0,0 +1,37 @@
+package com.inventory.api.service;
+
+import com.inventory.api.event.InventoryLevelChangedEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+public interface InventoryStreamService {
+
+    /**
+     * What happens to a subscriber's pending events when it reads slower than
+     * changes arrive and its buffer is full.
+     */
+    enum OverflowPolicy {
+        /** Keep only the newest level per product; drop the oldest product when still full. */
+        COALESCE,
+        /** Drop the oldest pending events. */
+        DROP
+    }
+
+    /**
+     * Which changes a subscriber receives. Empty or null criteria match
+     * everything.
+     */
+    record Filter(Set<Long> productIds, Long categoryId, boolean lowStockTransitionsOnly) {
+
+        public boolean matches(InventoryLevelChangedEvent event) {
+            return (productIds == null || productIds.isEmpty() || productIds.contains(event.productId()))
+                    && (categoryId == null || categoryId.equals(event.categoryId()))
+                    && (!lowStockTransitionsOnly || event.lowStockChanged());
+        }
+    }
+
+    SseEmitter subscribe(Filter filter, OverflowPolicy policy);
+
+    int subscriberCount();
+}
@@ -1,8 +1,13 @@
 package com.inventory.api.service;
 
+import com.inventory.api.dto.BulkInventoryResultDTO;
+import com.inventory.api.dto.CursorPageDTO;
+import com.inventory.api.dto.InventoryAdjustmentDTO;
 import com.inventory.api.dto.ProductDTO;
+import com.inventory.api.dto.ProductFacetsDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -17,6 +22,16 @@ public interface ProductService {
 
     Page<ProductDTO> getAllProducts(Pageable pageable);
 
+    /**
+     * A page of all products without the total, which saves counting them
+     */
+    Slice<ProductDTO> getProductSlice(Pageable pageable);
+
+    /**
+     * Products after the cursor, or the first page in the given sort when the cursor is null
+     */
+    CursorPageDTO<ProductDTO> getProductsAfter(String cursor, String sortBy, String sortDir, int size);
+
     ProductDTO updateProduct(Long id, ProductDTO productDTO);
 
     void deleteProduct(Long id);
@@ -29,15 +44,51 @@ public interface ProductService {
 
     ProductDTO decreaseInventory(Long id, Integer quantity);
 
+    /**
+     * Split the stock of a product across the given number of shards, or keep it in a single row when 1
+     */
+    ProductDTO configureStockShards(Long id, int shards);
+
+    BulkInventoryResultDTO bulkAdjustInventory(List<InventoryAdjustmentDTO> adjustments);
+
     Page<ProductDTO> searchProducts(
             String name,
+            String sku,
             Long categoryId,
             BigDecimal minPrice,
             BigDecimal maxPrice,
             Boolean inStock,
             Pageable pageable);
 
-    List<ProductDTO> getLowStockProducts();
+    /**
+     * A page of matching products without the total, which saves counting them
+     */
+    Slice<ProductDTO> searchProductSlice(
+            String name,
+            String sku,
+            Long categoryId,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Boolean inStock,
+            Pageable pageable);
+
+    /**
+     * Counts of the products matching a search per category, supplier, price range and stock state
+     */
+    ProductFacetsDTO getSearchFacets(
+            String name,
+            String sku,
+            Long categoryId,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Boolean inStock);
+
+    Page<ProductDTO> getLowStockProducts(Pageable pageable);
+
+    /**
+     * Low-stock products after the cursor, or the first page in the given id direction when the cursor is null
+     */
+    CursorPageDTO<ProductDTO> getLowStockProductsAfter(String cursor, String sortDir, int size);
 
     ProductDTO assignCategory(Long productId, Long categoryId);
 
@@ -0,0 +1,32 @@
+package com.inventory.api.service;
+
+import com.inventory.api.dto.InventoryAvailabilityDTO;
+import com.inventory.api.dto.ReservationDTO;
+
+public interface ReservationService {
+
+    /**
+     * Hold stock for a product until the reservation is confirmed, released or expires
+     */
+    ReservationDTO reserve(Long productId, int quantity, Long ttlSeconds);
+
+    /**
+     * Get a reservation of a product
+     */
+    ReservationDTO getReservation(Long productId, Long reservationId);
+
+    /**
+     * Convert a hold into a sale, decrementing on-hand stock
+     */
+    ReservationDTO confirm(Long productId, Long reservationId);
+
+    /**
+     * Give held stock back to the available pool
+     */
+    ReservationDTO release(Long productId, Long reservationId);
+
+    /**
+     * Get on-hand, reserved and available quantity of a product
+     */
+    InventoryAvailabilityDTO getAvailability(Long productId);
+}
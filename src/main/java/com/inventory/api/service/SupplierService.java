@@ -1,8 +1,10 @@
 package com.inventory.api.service;
 
+import com.inventory.api.dto.CursorPageDTO;
 import com.inventory.api.dto.SupplierDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -23,6 +25,16 @@ public interface SupplierService {
      */
     Page<SupplierDTO> getAllSuppliers(Pageable pageable);
 
+    /**
+     * Get a page of suppliers without the total, which saves counting them
+     */
+    Slice<SupplierDTO> getSupplierSlice(Pageable pageable);
+
+    /**
+     * Get suppliers after the cursor, or the first page in the given sort when the cursor is null
+     */
+    CursorPageDTO<SupplierDTO> getSuppliersAfter(String cursor, String sortBy, String sortDir, int size);
+
     /**
      * Update existing supplier
      */
@@ -39,6 +51,12 @@ public interface SupplierService {
     Page<SupplierDTO> searchSuppliers(String name, String contactPerson, String city,
             String country, Boolean active, Pageable pageable);
 
+    /**
+     * Search suppliers without the total, which saves counting them
+     */
+    Slice<SupplierDTO> searchSupplierSlice(String name, String contactPerson, String city,
+            String country, Boolean active, Pageable pageable);
+
     /**
      * Get suppliers by name (case-insensitive search)
      */
@@ -0,0 +1,223 @@
+package com.inventory.api.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.api.config.InventoryCacheManager;
+import com.inventory.api.dto.CategoryDTO;
+import com.inventory.api.dto.ProductDTO;
+import com.inventory.api.repository.CategoryRepository;
+import com.inventory.api.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the hottest {@code products} and {@code categories} entries to a
+ * gzipped local file, periodically and on shutdown, and loads them back at
+ * startup so a restarted node does not send its first wave of reads to the
+ * database.
+ * <p>
+ * Every cached DTO carries the version of the row it was mapped from. On
+ * startup the current versions, along with the category and supplier names
+ * and product counts the DTOs show, are read in a few batched queries, and an
+ * entry is only restored if it was built from that state. Anything modified
+ * while the node was down, or cached from a row that had already changed, is
+ * dropped instead of served. Restored entries never replace ones the node has
+ * already loaded.
+ */
+@Service
+@Slf4j
+public class CacheSnapshotService {
+
+    static final int FORMAT = 2;
+    static final String PRODUCTS = "products";
+    static final String CATEGORIES = "categories";
+    private static final int STAMP_BATCH_SIZE = 500;
+
+    record Snapshot(int format, long writtenAt, List<ProductDTO> products, List<CategoryDTO> categories) {
+    }
+
+    private final InventoryCacheManager cacheManager;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path path;
+    private final int maxEntries;
+
+    public CacheSnapshotService(InventoryCacheManager cacheManager,
+            ProductRepository productRepository,
+            CategoryRepository categoryRepository,
+            ObjectMapper objectMapper,
+            @Value("${inventory.cache.snapshot.enabled:false}") boolean enabled,
+            @Value("${inventory.cache.snapshot.path:cache-snapshot.json.gz}") String path,
+            @Value("${inventory.cache.snapshot.max-entries:10000}") int maxEntries) {
+        this.cacheManager = cacheManager;
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.maxEntries = maxEntries;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreOnStartup() {
+        if (enabled && Files.exists(path)) {
+            restore();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.cache.snapshot.interval-ms:300000}",
+            initialDelayString = "${inventory.cache.snapshot.interval-ms:300000}")
+    public void writePeriodically() {
+        if (enabled) {
+            write();
+        }
+    }
+
+    @PreDestroy
+    public void writeOnShutdown() {
+        if (enabled) {
+            write();
+        }
+    }
+
+    /**
+     * Replaces the snapshot file with the current hot entries. Returns the
+     * number of entries written.
+     */
+    public int write() {
+        // shard writes do not bump the product version, so sharded products could not be checked on restore
+        List<ProductDTO> products = hottest(PRODUCTS, ProductDTO.class, ProductDTO::getId).stream()
+                .filter(product -> product.getStockShards() == null)
+                .toList();
+        List<CategoryDTO> categories = hottest(CATEGORIES, CategoryDTO.class, CategoryDTO::getId);
+        Snapshot snapshot = new Snapshot(FORMAT, System.currentTimeMillis(), products, categories);
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path partial = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(partial))) {
+                objectMapper.writeValue(out, snapshot);
+            }
+            Files.move(partial, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            log.warn("Could not write cache snapshot to {}: {}", path, ex.toString());
+            return 0;
+        }
+        log.info("Wrote {} products and {} categories to cache snapshot {}", products.size(), categories.size(),
+                path);
+        return products.size() + categories.size();
+    }
+
+    /**
+     * Loads the snapshot file into the caches, dropping entries whose rows
+     * changed since it was written. Returns the number of entries restored.
+     */
+    public int restore() {
+        Snapshot snapshot;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(path))) {
+            snapshot = objectMapper.readValue(in, Snapshot.class);
+        } catch (IOException ex) {
+            log.warn("Ignoring unreadable cache snapshot {}: {}", path, ex.toString());
+            return 0;
+        }
+        if (snapshot.format() != FORMAT) {
+            log.warn("Ignoring cache snapshot {} written in format {}, expected {}", path, snapshot.format(), FORMAT);
+            return 0;
+        }
+        int products = restore(PRODUCTS, snapshot.products(), ProductDTO::getId,
+                CacheSnapshotService::productStamp, this::productStamps);
+        int categories = restore(CATEGORIES, snapshot.categories(), CategoryDTO::getId,
+                CacheSnapshotService::categoryStamp, this::categoryStamps);
+        log.info("Restored {} of {} products and {} of {} categories from cache snapshot {}",
+                products, sizeOf(snapshot.products()), categories, sizeOf(snapshot.categories()), path);
+        return products + categories;
+    }
+
+    private <T> List<T> hottest(String cacheName, Class<T> type, Function<T, Long> id) {
+        // keys other than the id, such as 'sku_...', hold the same values again
+        List<T> values = new ArrayList<>();
+        cacheManager.hottest(cacheName, maxEntries).forEach((key, value) -> {
+            if (type.isInstance(value) && key.equals(id.apply(type.cast(value)))) {
+                values.add(type.cast(value));
+            }
+        });
+        return values;
+    }
+
+    private <T> int restore(String cacheName, List<T> values, Function<T, Long> id, Function<T, String> builtFrom,
+            Function<List<Long>, Map<Long, String>> stamps) {
+        if (values == null || values.isEmpty()) {
+            return 0;
+        }
+        Cache cache = cacheManager.getCache(cacheName);
+        Map<Long, String> current = stamps.apply(values.stream().map(id).toList());
+        int restored = 0;
+        for (T value : values) {
+            Long key = id.apply(value);
+            if (Objects.equals(builtFrom.apply(value), current.get(key))) {
+                cache.putIfAbsent(key, value);
+                restored++;
+            }
+        }
+        return restored;
+    }
+
+    private static String productStamp(ProductDTO product) {
+        return product.getVersion() + ":" + product.getCategoryName() + ":" + product.getSupplierName();
+    }
+
+    private static String categoryStamp(CategoryDTO category) {
+        return category.getVersion() + ":" + category.getProductCount();
+    }
+
+    /** Products that use sharded stock by now are left out: shard writes do not bump the product version. */
+    private Map<Long, String> productStamps(List<Long> ids) {
+        Map<Long, String> stamps = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += STAMP_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + STAMP_BATCH_SIZE));
+            for (Object[] row : productRepository.findVersionStamps(batch)) {
+                if (row[4] == null) {
+                    stamps.put((Long) row[0], row[1] + ":" + row[2] + ":" + row[3]);
+                }
+            }
+        }
+        return stamps;
+    }
+
+    private Map<Long, String> categoryStamps(List<Long> ids) {
+        Map<Long, String> stamps = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += STAMP_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + STAMP_BATCH_SIZE));
+            for (Object[] row : categoryRepository.findVersionStamps(batch)) {
+                stamps.put((Long) row[0], row[1] + ":" + row[2]);
+            }
+        }
+        return stamps;
+    }
+
+    private static int sizeOf(List<?> entries) {
+        return entries != null ? entries.size() : 0;
+    }
+}
@@ -1,13 +1,17 @@
 package com.inventory.api.service.impl;
 
 import com.inventory.api.dto.CategoryDTO;
+import com.inventory.api.dto.CursorPageDTO;
 import com.inventory.api.dto.ProductDTO;
 import com.inventory.api.exception.ResourceNotFoundException;
 import com.inventory.api.mapper.CategoryMapper;
 import com.inventory.api.mapper.ProductMapper;
 import com.inventory.api.model.Category;
+import com.inventory.api.model.Product;
 import com.inventory.api.repository.CategoryRepository;
+import com.inventory.api.repository.KeysetPager;
 import com.inventory.api.repository.ProductRepository;
+import com.inventory.api.repository.ProductSpecifications;
 import com.inventory.api.service.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
@@ -17,6 +21,7 @@ import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,29 +36,36 @@ public class CategoryServiceImpl implements CategoryService {
     private final ProductRepository productRepository;
     private final CategoryMapper categoryMapper;
     private final ProductMapper productMapper;
+    private final ProductCacheDependencies cacheDependencies;
+    private final PageTotals pageTotals;
 
     @Autowired
     public CategoryServiceImpl(CategoryRepository categoryRepository, ProductRepository productRepository,
-            CategoryMapper categoryMapper, ProductMapper productMapper) {
+            CategoryMapper categoryMapper, ProductMapper productMapper, ProductCacheDependencies cacheDependencies,
+            PageTotals pageTotals) {
         this.categoryRepository = categoryRepository;
         this.productRepository = productRepository;
         this.categoryMapper = categoryMapper;
         this.productMapper = productMapper;
+        this.cacheDependencies = cacheDependencies;
+        this.pageTotals = pageTotals;
     }
 
     @Override
     @Caching(evict = {
+            @CacheEvict(value = "categories", key = "#result.id"),
             @CacheEvict(value = "categoriesList", allEntries = true)
     })
     public CategoryDTO createCategory(CategoryDTO categoryDTO) {
         Category category = categoryMapper.toEntity(categoryDTO);
         Category savedCategory = categoryRepository.save(category);
+        cacheDependencies.categoryChanged(savedCategory.getId());
         return categoryMapper.toDto(savedCategory);
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "categories", key = "#id")
+    @Cacheable(value = "categories", key = "#id", sync = true)
     public CategoryDTO getCategoryById(Long id) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
@@ -66,7 +78,7 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "categoriesList")
+    @Cacheable(value = "categoriesList", sync = true)
     public List<CategoryDTO> getAllCategories() {
         return categoryRepository.findAll().stream()
                 .map(category -> {
@@ -88,6 +100,8 @@ public class CategoryServiceImpl implements CategoryService {
         existingCategory.setDescription(categoryDTO.getDescription());
 
         Category updatedCategory = categoryRepository.save(existingCategory);
+        // cached product pages show the category name
+        cacheDependencies.categoryChanged(id);
 
         CategoryDTO updatedDTO = categoryMapper.toDto(updatedCategory);
         updatedDTO.setProductCount(updatedCategory.getProducts().size());
@@ -110,16 +124,49 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         categoryRepository.delete(category);
+        cacheDependencies.categoryChanged(id);
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "categoryProducts", key = "#categoryId + '_page_' + #pageable.pageNumber + '_' + #pageable.pageSize")
+    @Cacheable(value = "categoryProducts", keyGenerator = "pageKeyGenerator", sync = true)
+    @PageScope(PageScope.Scope.CATEGORY)
+    @WithCurrentStock
     public Page<ProductDTO> getProductsByCategory(Long categoryId, Pageable pageable) {
-        Category category = categoryRepository.findById(categoryId)
-                .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + categoryId));
+        return pageTotals.page(productsInCategory(categoryId, pageable), PageTotals.PRODUCT_TOTALS,
+                () -> productRepository.count(ProductSpecifications.inCategory(categoryId)),
+                PageScope.Scope.CATEGORY, "getProductsByCategory", categoryId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = "categoryProducts", keyGenerator = "pageKeyGenerator", sync = true)
+    @PageScope(PageScope.Scope.CATEGORY)
+    @WithCurrentStock
+    public Slice<ProductDTO> getProductSliceByCategory(Long categoryId, Pageable pageable) {
+        return productsInCategory(categoryId, pageable);
+    }
+
+    private Slice<ProductDTO> productsInCategory(Long categoryId, Pageable pageable) {
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Category not found with id: " + categoryId);
+        }
 
-        return productRepository.findByCategory(category, pageable)
+        return productRepository.findSlice(ProductSpecifications.inCategory(categoryId), pageable)
                 .map(productMapper::toDto);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    @WithCurrentStock
+    public CursorPageDTO<ProductDTO> getProductsByCategoryAfter(Long categoryId, String cursor, String sortBy,
+            String sortDir, int size) {
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Category not found with id: " + categoryId);
+        }
+
+        KeysetPager.Window<Product> window = ProductSpecifications.KEYSET.page(productRepository,
+                ProductSpecifications.inCategory(categoryId), cursor, sortBy, sortDir, size);
+        return CursorPageDTO.of(window.content().stream().map(productMapper::toDto).toList(), window.nextCursor());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.inventory.api.service.impl;
+
+import com.inventory.api.dto.CursorPageDTO;
+import com.inventory.api.dto.ProductDTO;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies {@link WithCurrentStock}. Ordered ahead of the cache interceptor,
+ * so it composes the page whether it came from the cache or the database.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class CurrentStockAspect {
+
+    private final InventoryStockView stockView;
+
+    public CurrentStockAspect(InventoryStockView stockView) {
+        this.stockView = stockView;
+    }
+
+    @Around("@annotation(com.inventory.api.service.impl.WithCurrentStock)")
+    @SuppressWarnings("unchecked")
+    public Object withCurrentStock(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        if (result instanceof Page<?> page) {
+            return stockView.withCurrentStock((Page<ProductDTO>) page);
+        }
+        if (result instanceof Slice<?> slice) {
+            return stockView.withCurrentStock((Slice<ProductDTO>) slice);
+        }
+        if (result instanceof CursorPageDTO<?> cursorPage) {
+            CursorPageDTO<ProductDTO> products = (CursorPageDTO<ProductDTO>) cursorPage;
+            products.setContent(stockView.withCurrentStock(products.getContent()));
+        }
+        return result;
+    }
+}
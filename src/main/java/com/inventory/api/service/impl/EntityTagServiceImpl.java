@@ -0,0 +1,55 @@
+package com.inventory.api.service.impl;
+
+import com.inventory.api.service.EntityTagService;
+import org.springframework.stereotype.Service;
+
+/**
+ * Tags made of the node's start time and the version counters kept by
+ * {@link ProductCacheDependencies}. The counters start over on restart, so
+ * the start time keeps a restarted node from repeating an old tag for a
+ * different representation.
+ */
+@Service
+public class EntityTagServiceImpl implements EntityTagService {
+
+    private final ProductCacheDependencies versions;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    public EntityTagServiceImpl(ProductCacheDependencies versions) {
+        this.versions = versions;
+    }
+
+    @Override
+    public String product(Long id) {
+        return tag("p" + id, versions.productVersion(id));
+    }
+
+    @Override
+    public String products() {
+        return tag("products", versions.productsVersion());
+    }
+
+    @Override
+    public String category(Long id) {
+        return tag("c" + id, versions.categoryVersion(id));
+    }
+
+    @Override
+    public String categories() {
+        return tag("categories", versions.categoriesVersion());
+    }
+
+    @Override
+    public String supplier(Long id) {
+        return tag("s" + id, versions.supplierVersion(id));
+    }
+
+    @Override
+    public String suppliers() {
+        return tag("suppliers", versions.suppliersVersion());
+    }
+
+    private String tag(String resource, long version) {
+        return "\"" + resource + "-" + epoch + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,183 @@
+package com.inventory.api.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.inventory.api.exception.IdempotencyKeyException;
+import com.inventory.api.model.IdempotencyRecord;
+import com.inventory.api.repository.IdempotencyRecordRepository;
+import com.inventory.api.service.IdempotencyService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency keys backed by a bounded, expiring in-memory map, optionally
+ * mirrored to the {@code idempotency_keys} table so keys survive restarts.
+ * <p>
+ * The first request for a key claims it with an in-flight future; concurrent
+ * duplicates wait for that future instead of executing the write again. Failed
+ * executions release the key so the client can retry. Responses are only
+ * recorded for successful executions.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private record Entry(String fingerprint, CompletableFuture<Object> response) {
+    }
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Entry> entries;
+    private final Duration ttl;
+    private final boolean persistent;
+    private final Counter replays;
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository recordRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${inventory.idempotency.ttl-seconds:86400}") long ttlSeconds,
+            @Value("${inventory.idempotency.max-entries:100000}") long maxEntries,
+            @Value("${inventory.idempotency.persistent:false}") boolean persistent) {
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.persistent = persistent;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+        this.replays = meterRegistry.counter("inventory.idempotency.replays");
+    }
+
+    @Override
+    public <T> Outcome<T> execute(String idempotencyKey, String requestFingerprint, Class<T> responseType,
+            Supplier<T> action) {
+        if (idempotencyKey == null) {
+            return new Outcome<>(action.get(), false);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyKeyException(
+                    "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String fingerprint = digest(requestFingerprint);
+        while (true) {
+            Entry claim = new Entry(fingerprint, new CompletableFuture<>());
+            Entry existing = entries.asMap().putIfAbsent(idempotencyKey, claim);
+            if (existing == null) {
+                Optional<T> stored = findStoredResponse(idempotencyKey, fingerprint, responseType);
+                if (stored.isPresent()) {
+                    claim.response().complete(stored.get());
+                    replays.increment();
+                    return new Outcome<>(stored.get(), true);
+                }
+                return new Outcome<>(executeClaimed(idempotencyKey, claim, responseType, action), false);
+            }
+
+            if (!existing.fingerprint().equals(fingerprint)) {
+                throw new IdempotencyKeyException(
+                        "Idempotency-Key " + idempotencyKey + " was already used for a different request");
+            }
+            try {
+                T body = responseType.cast(existing.response().join());
+                replays.increment();
+                return new Outcome<>(body, true);
+            } catch (CompletionException ex) {
+                // the first execution failed and released the key, so this request may claim it
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.idempotency.cleanup-interval-ms:300000}")
+    public void deleteExpiredRecords() {
+        if (!persistent) {
+            return;
+        }
+        int deleted = recordRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.debug("Deleted {} expired idempotency records", deleted);
+        }
+    }
+
+    private <T> T executeClaimed(String idempotencyKey, Entry claim, Class<T> responseType, Supplier<T> action) {
+        T body;
+        try {
+            body = action.get();
+        } catch (RuntimeException ex) {
+            entries.asMap().remove(idempotencyKey, claim);
+            claim.response().completeExceptionally(ex);
+            throw ex;
+        }
+        claim.response().complete(body);
+        storeResponse(idempotencyKey, claim.fingerprint(), body);
+        return body;
+    }
+
+    private <T> Optional<T> findStoredResponse(String idempotencyKey, String fingerprint, Class<T> responseType) {
+        if (!persistent) {
+            return Optional.empty();
+        }
+        Optional<IdempotencyRecord> record = recordRepository
+                .findByIdempotencyKeyAndExpiresAtAfter(idempotencyKey, LocalDateTime.now());
+        if (record.isEmpty()) {
+            return Optional.empty();
+        }
+        if (!record.get().getRequestFingerprint().equals(fingerprint)) {
+            entries.invalidate(idempotencyKey);
+            throw new IdempotencyKeyException(
+                    "Idempotency-Key " + idempotencyKey + " was already used for a different request");
+        }
+        try {
+            return Optional.of(objectMapper.readValue(record.get().getResponseBody(), responseType));
+        } catch (JsonProcessingException ex) {
+            log.warn("Ignoring unreadable idempotency record {}", idempotencyKey, ex);
+            return Optional.empty();
+        }
+    }
+
+    private void storeResponse(String idempotencyKey, String fingerprint, Object body) {
+        if (!persistent) {
+            return;
+        }
+        try {
+            recordRepository.save(IdempotencyRecord.builder()
+                    .idempotencyKey(idempotencyKey)
+                    .requestFingerprint(fingerprint)
+                    .responseBody(objectMapper.writeValueAsString(body))
+                    .expiresAt(LocalDateTime.now().plus(ttl))
+                    .build());
+        } catch (JsonProcessingException | DataAccessException ex) {
+            // the write already happened; losing the durable copy only narrows replay to this node
+            log.warn("Failed to persist idempotency record {}", idempotencyKey, ex);
+        }
+    }
+
+    private static String digest(String requestFingerprint) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(requestFingerprint.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
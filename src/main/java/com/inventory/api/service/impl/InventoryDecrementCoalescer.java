@@ -0,0 +1,171 @@
+package com.inventory.api.service.impl;
+
+import com.inventory.api.dto.ProductDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Group commit for concurrent decrements of the same product.
+ * <p>
+ * The first decrement for a product opens a batch and becomes its leader.
+ * Decrements arriving within the window join the batch; the leader then
+ * writes the whole batch in one unit of work and hands every caller its own
+ * outcome, so only the requests that would oversell are rejected. A batch
+ * that reaches the maximum size is written without waiting out the window.
+ */
+@Service
+public class InventoryDecrementCoalescer {
+
+    /**
+     * Result of one decrement within a batch: the product after the write, or
+     * the reason this decrement was rejected.
+     */
+    public record Outcome(ProductDTO product, RuntimeException failure) {
+
+        public static Outcome applied(ProductDTO product) {
+            return new Outcome(product, null);
+        }
+
+        public static Outcome rejected(RuntimeException failure) {
+            return new Outcome(null, failure);
+        }
+    }
+
+    private record Request(int quantity, long enqueuedAt, CompletableFuture<ProductDTO> result) {
+    }
+
+    private static final class Batch {
+        private final List<Request> requests = new ArrayList<>();
+        private boolean closed;
+    }
+
+    private final Map<Long, Batch> openBatches = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final DistributionSummary batchSizes;
+    private final Timer addedLatency;
+    private final Counter rejections;
+
+    public InventoryDecrementCoalescer(MeterRegistry meterRegistry,
+            @Value("${inventory.coalescing.enabled:false}") boolean enabled,
+            @Value("${inventory.coalescing.window-micros:2000}") long windowMicros,
+            @Value("${inventory.coalescing.max-batch-size:64}") int maxBatchSize) {
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(0, windowMicros));
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.batchSizes = DistributionSummary.builder("inventory.coalescing.batch.size")
+                .description("Decrements written per coalesced batch")
+                .register(meterRegistry);
+        this.addedLatency = Timer.builder("inventory.coalescing.wait")
+                .description("Time a decrement waited for its batch to close")
+                .register(meterRegistry);
+        this.rejections = meterRegistry.counter("inventory.coalescing.rejected");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Decrements the product by {@code quantity} as part of a batch. The
+     * writer receives the quantities of the batch in arrival order and must
+     * return one outcome per quantity; it runs on the leader's thread.
+     */
+    public ProductDTO decrease(Long productId, int quantity,
+            BiFunction<Long, List<Integer>, List<Outcome>> writer) {
+        Request request = new Request(quantity, System.nanoTime(), new CompletableFuture<>());
+        while (true) {
+            Batch created = new Batch();
+            Batch batch = openBatches.computeIfAbsent(productId, id -> created);
+            synchronized (batch) {
+                if (batch.closed) {
+                    // the leader took this batch between our lookup and the lock
+                    continue;
+                }
+                batch.requests.add(request);
+                if (batch.requests.size() >= maxBatchSize) {
+                    close(productId, batch);
+                    batch.notifyAll();
+                }
+            }
+            if (batch == created) {
+                lead(productId, batch, writer);
+            }
+            return await(request);
+        }
+    }
+
+    private void lead(Long productId, Batch batch, BiFunction<Long, List<Integer>, List<Outcome>> writer) {
+        List<Request> requests;
+        synchronized (batch) {
+            long deadline = System.nanoTime() + windowNanos;
+            long remaining = windowNanos;
+            while (!batch.closed && remaining > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(batch, remaining);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                remaining = deadline - System.nanoTime();
+            }
+            if (!batch.closed) {
+                close(productId, batch);
+            }
+            requests = List.copyOf(batch.requests);
+        }
+
+        long closedAt = System.nanoTime();
+        batchSizes.record(requests.size());
+        for (Request request : requests) {
+            addedLatency.record(closedAt - request.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+
+        List<Outcome> outcomes;
+        try {
+            outcomes = writer.apply(productId, requests.stream().map(Request::quantity).toList());
+        } catch (RuntimeException ex) {
+            requests.forEach(request -> request.result().completeExceptionally(ex));
+            return;
+        }
+        for (int i = 0; i < requests.size(); i++) {
+            Outcome outcome = outcomes.get(i);
+            if (outcome.failure() != null) {
+                rejections.increment();
+                requests.get(i).result().completeExceptionally(outcome.failure());
+            } else {
+                requests.get(i).result().complete(outcome.product());
+            }
+        }
+    }
+
+    private void close(Long productId, Batch batch) {
+        batch.closed = true;
+        openBatches.remove(productId, batch);
+    }
+
+    private static ProductDTO await(Request request) {
+        try {
+            return request.result().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
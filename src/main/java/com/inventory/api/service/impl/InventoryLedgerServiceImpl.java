@@ -0,0 +1,265 @@
+package com.inventory.api.service.impl;
+
+import com.inventory.api.dto.InventoryLevelDTO;
+import com.inventory.api.dto.InventoryMovementDTO;
+import com.inventory.api.event.InventoryChangedEvent;
+import com.inventory.api.exception.ResourceNotFoundException;
+import com.inventory.api.mapper.InventoryMovementMapper;
+import com.inventory.api.model.InventoryMovement;
+import com.inventory.api.model.InventorySnapshot;
+import com.inventory.api.repository.InventoryMovementRepository;
+import com.inventory.api.repository.InventorySnapshotRepository;
+import com.inventory.api.service.InventoryLedgerService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Append-only inventory ledger.
+ * <p>
+ * The movements of a transaction are collected while it runs and appended in
+ * one JDBC batch just before it commits, inside that transaction: a change
+ * and its movements commit or roll back together, so a crash can lose
+ * neither one without the other. The price is one batched insert on the
+ * changing transaction's commit path, and a failed append fails the change.
+ * Changes made outside a transaction are appended right away. Periodic
+ * per-product snapshots bound every replay to the movements recorded since
+ * the newest snapshot.
+ * <p>
+ * Movement ids are drawn when a transaction appends but become visible when
+ * it commits, so they commit out of order. Appends therefore hold a shared
+ * lock from the append until their transaction completes, and a snapshot
+ * reads its upper id under the exclusive lock: every id up to it is then
+ * committed, and no movement can land behind a snapshot. This assumes a
+ * single node writes the ledger.
+ */
+@Service
+@Slf4j
+public class InventoryLedgerServiceImpl implements InventoryLedgerService {
+
+    private final InventoryMovementRepository movementRepository;
+    private final InventorySnapshotRepository snapshotRepository;
+    private final InventoryMovementMapper movementMapper;
+    private final TransactionTemplate writeTransaction;
+    private final Counter movementsWritten;
+    private final Object snapshotLock = new Object();
+    private final ReadWriteLock appendLock = new ReentrantReadWriteLock();
+    private Long snapshotHighWater;
+
+    public InventoryLedgerServiceImpl(InventoryMovementRepository movementRepository,
+            InventorySnapshotRepository snapshotRepository,
+            InventoryMovementMapper movementMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.movementRepository = movementRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.movementMapper = movementMapper;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.movementsWritten = meterRegistry.counter("inventory.ledger.movements.written");
+    }
+
+    /**
+     * Records the movement with the transaction that made the change. Runs
+     * synchronously on the publishing thread, so the movement can join it.
+     */
+    @EventListener
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        InventoryMovement movement = InventoryMovement.builder()
+                .productId(event.productId())
+                .type(event.type())
+                .quantity(event.quantity())
+                .source(event.source())
+                .occurredAt(event.occurredAt())
+                .build();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            appendLock.readLock().lock();
+            try {
+                writeTransaction.executeWithoutResult(status -> movementRepository.appendAll(List.of(movement)));
+            } finally {
+                appendLock.readLock().unlock();
+            }
+            movementsWritten.increment();
+            return;
+        }
+        PendingMovements pending = (PendingMovements) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingMovements();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.movements.add(movement);
+    }
+
+    @Override
+    public Page<InventoryMovementDTO> getMovements(Long productId, Pageable pageable) {
+        return movementRepository.findByProductIdOrderByIdDesc(productId, pageable)
+                .map(movementMapper::toDto);
+    }
+
+    @Override
+    public InventoryLevelDTO getLevelAt(Long productId, LocalDateTime at) {
+        LocalDateTime pointInTime = at != null ? at : LocalDateTime.now();
+
+        // the point in time becomes a movement id, so snapshots and movements are both ordered by id alone
+        Long lastMovementId = movementRepository.findLastIdAt(productId, pointInTime);
+        long upToId = lastMovementId != null ? lastMovementId : 0L;
+        Optional<InventorySnapshot> snapshot = snapshotRepository
+                .findFirstByProductIdAndLastMovementIdLessThanEqualAndTakenAtLessThanEqualOrderByLastMovementIdDesc(
+                        productId, upToId, pointInTime);
+        List<InventoryMovement> movements = lastMovementId != null
+                ? movementRepository.findReplayRange(productId,
+                        snapshot.map(InventorySnapshot::getLastMovementId).orElse(0L), upToId)
+                : List.of();
+        if (snapshot.isEmpty() && movements.isEmpty()) {
+            throw new ResourceNotFoundException(
+                    "No inventory history for product " + productId + " at or before " + pointInTime);
+        }
+
+        int level = snapshot.map(InventorySnapshot::getQuantity).orElse(0);
+        for (InventoryMovement movement : movements) {
+            level = movement.applyTo(level);
+        }
+        return InventoryLevelDTO.builder()
+                .productId(productId)
+                .at(pointInTime)
+                .quantity(level)
+                .snapshotTakenAt(snapshot.map(InventorySnapshot::getTakenAt).orElse(null))
+                .movementsReplayed(movements.size())
+                .build();
+    }
+
+    @Override
+    public int takeSnapshots() {
+        synchronized (snapshotLock) {
+            Integer taken = writeTransaction.execute(status -> {
+                Long upToId = committedMaxId();
+                if (upToId == null) {
+                    return 0;
+                }
+                if (snapshotHighWater == null) {
+                    Long lastSnapshotted = snapshotRepository.findMaxLastMovementId();
+                    snapshotHighWater = lastSnapshotted != null ? lastSnapshotted : 0L;
+                }
+
+                int count = 0;
+                for (Long productId : movementRepository.findProductIdsWithMovementsBetween(snapshotHighWater, upToId)) {
+                    if (snapshotProduct(productId, upToId)) {
+                        count++;
+                    }
+                }
+                snapshotHighWater = upToId;
+                return count;
+            });
+            return taken != null ? taken : 0;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.ledger.snapshot-interval-ms:60000}",
+            initialDelayString = "${inventory.ledger.snapshot-interval-ms:60000}")
+    public void snapshotPeriodically() {
+        int taken = takeSnapshots();
+        if (taken > 0) {
+            log.debug("Took {} inventory snapshots", taken);
+        }
+    }
+
+    /**
+     * Gives products that predate the ledger a starting point for replays.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recordOpeningBalances() {
+        Integer recorded = writeTransaction.execute(
+                status -> snapshotRepository.insertOpeningBalances(LocalDateTime.now()));
+        if (recorded != null && recorded > 0) {
+            log.info("Recorded opening inventory balances for {} products", recorded);
+        }
+    }
+
+    /**
+     * The highest movement id below which no movement is still waiting for
+     * its transaction to commit.
+     */
+    private Long committedMaxId() {
+        appendLock.writeLock().lock();
+        try {
+            return movementRepository.findMaxId();
+        } finally {
+            appendLock.writeLock().unlock();
+        }
+    }
+
+    private boolean snapshotProduct(Long productId, long upToId) {
+        Optional<InventorySnapshot> base = snapshotRepository.findFirstByProductIdOrderByLastMovementIdDesc(productId);
+        List<InventoryMovement> movements = movementRepository.findReplayRange(productId,
+                base.map(InventorySnapshot::getLastMovementId).orElse(0L), upToId);
+        if (movements.isEmpty()) {
+            return false;
+        }
+
+        int level = base.map(InventorySnapshot::getQuantity).orElse(0);
+        for (InventoryMovement movement : movements) {
+            level = movement.applyTo(level);
+        }
+        InventoryMovement last = movements.get(movements.size() - 1);
+        snapshotRepository.save(InventorySnapshot.builder()
+                .productId(productId)
+                .quantity(level)
+                .lastMovementId(last.getId())
+                .takenAt(last.getOccurredAt())
+                .build());
+        return true;
+    }
+
+    /**
+     * The movements of one transaction, appended as its last write before it
+     * commits. A failed append makes the commit fail, so the change is rolled
+     * back rather than kept without its movements. The shared append lock is
+     * held from the append until the transaction completes.
+     */
+    private final class PendingMovements implements TransactionSynchronization {
+
+        private final List<InventoryMovement> movements = new ArrayList<>();
+        private boolean locked;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            appendLock.readLock().lock();
+            locked = true;
+            movementRepository.appendAll(movements);
+        }
+
+        @Override
+        public void afterCommit() {
+            movementsWritten.increment(movements.size());
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (locked) {
+                locked = false;
+                appendLock.readLock().unlock();
+            }
+            TransactionSynchronizationManager.unbindResourceIfPossible(InventoryLedgerServiceImpl.this);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.inventory.api.service.impl;
+
+import com.inventory.api.dto.ProductDTO;
+import com.inventory.api.repository.ProductRepository;
+import com.inventory.api.repository.ProductRepositoryCustom.StockLevel;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The live stock of products, for overlaying on cached catalogue data.
+ * <p>
+ * One primary-key lookup per page reads quantity and low-stock flag from the
+ * product rows; products with sharded stock take the sum of their shards
+ * instead of the periodically rolled-up row, summed for the whole page in
+ * one more query.
+ */
+@Service
+public class InventoryStockView {
+
+    private final ProductRepository productRepository;
+    private final ShardedStockService shardedStock;
+
+    public InventoryStockView(ProductRepository productRepository, ShardedStockService shardedStock) {
+        this.productRepository = productRepository;
+        this.shardedStock = shardedStock;
+    }
+
+    /**
+     * Returns a copy of the page with current stock, or the page itself if
+     * its stock is still current. The products of the given page may be
+     * shared with a cache and are never modified.
+     */
+    public Page<ProductDTO> withCurrentStock(Page<ProductDTO> page) {
+        List<ProductDTO> content = refreshed(page.getContent());
+        // handing back the cached page lets its encoded response be reused
+        return content != null ? new PageImpl<>(content, page.getPageable(), page.getTotalElements()) : page;
+    }
+
+    /** As {@link #withCurrentStock(Page)}, for a page read without its total. */
+    public Slice<ProductDTO> withCurrentStock(Slice<ProductDTO> slice) {
+        List<ProductDTO> content = refreshed(slice.getContent());
+        return content != null ? new SliceImpl<>(content, slice.getPageable(), slice.hasNext()) : slice;
+    }
+
+    /**
+     * Returns a copy of the list with current stock, or the list itself if
+     * its stock is still current; the given products are never modified.
+     */
+    public List<ProductDTO> withCurrentStock(List<ProductDTO> products) {
+        List<ProductDTO> content = refreshed(products);
+        return content != null ? content : products;
+    }
+
+    /** The products with current stock, or null if their stock is still current. */
+    private List<ProductDTO> refreshed(List<ProductDTO> products) {
+        if (products.isEmpty()) {
+            return null;
+        }
+        List<Long> ids = products.stream().map(ProductDTO::getId).toList();
+        Map<Long, StockLevel> levels = productRepository.findStockLevels(ids);
+        List<Long> shardedIds = ids.stream().filter(id -> shardedStock.shardCount(id) > 0).toList();
+        Map<Long, Integer> shardTotals = shardedIds.isEmpty() ? Map.of() : shardedStock.totals(shardedIds);
+
+        List<ProductDTO> content = new ArrayList<>(products.size());
+        boolean changed = false;
+        for (ProductDTO cached : products) {
+            StockLevel level = levels.get(cached.getId());
+            if (level == null) {
+                // deleted since the page was cached; the page itself is invalidated by the delete
+                content.add(cached);
+                continue;
+            }
+            ProductDTO product = cached.toBuilder()
+                    .inventoryQuantity(level.quantity())
+                    .lowStock(level.lowStock())
+                    .build();
+            Integer shardTotal = shardTotals.get(product.getId());
+            if (shardTotal != null) {
+                product.setInventoryQuantity(shardTotal);
+                product.setLowStock(LowStockIndex.isLowStock(product));
+            }
+            changed |= !Objects.equals(product.getInventoryQuantity(), cached.getInventoryQuantity())
+                    || product.isLowStock() != cached.isLowStock();
+            content.add(product);
+        }
+        return changed ? content : null;
+    }
+}
@@ -0,0 +1,297 @@
+package com.inventory.api.service.impl;
+
+import com.inventory.api.event.InventoryLevelChangedEvent;
+import com.inventory.api.exception.StreamCapacityException;
+import com.inventory.api.service.InventoryStreamService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans committed stock level changes out to Server-Sent Events subscribers.
+ * <p>
+ * Publishing only puts the event into the mailbox of each matching
+ * subscriber; a small pool of sender threads drains the mailboxes, so the
+ * committing thread never waits for a client. Subscribers filtered by product
+ * are indexed by product id, which keeps the fan-out proportional to the
+ * interested subscribers rather than to all of them. Every mailbox is bounded:
+ * a subscriber that falls behind either has its pending changes coalesced to
+ * the newest level per product or loses the oldest ones, and is told how many
+ * were dropped so it can resynchronise.
+ */
+@Service
+@Slf4j
+public class InventoryStreamServiceImpl implements InventoryStreamService {
+
+    private record Pending(List<InventoryLevelChangedEvent> events, int dropped, boolean heartbeat) {
+    }
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> unfiltered = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscriber>> byProduct = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService senders;
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final long emitterTimeoutMs;
+    private final Counter droppedEvents;
+    private final Counter coalescedEvents;
+
+    public InventoryStreamServiceImpl(MeterRegistry meterRegistry,
+            @Value("${inventory.stream.max-subscribers:20000}") int maxSubscribers,
+            @Value("${inventory.stream.buffer-size:256}") int bufferSize,
+            @Value("${inventory.stream.sender-threads:4}") int senderThreads,
+            @Value("${inventory.stream.emitter-timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(Math.max(1, senderThreads), runnable -> {
+            Thread thread = new Thread(runnable, "inventory-stream-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.droppedEvents = meterRegistry.counter("inventory.stream.events.dropped");
+        this.coalescedEvents = meterRegistry.counter("inventory.stream.events.coalesced");
+        meterRegistry.gauge("inventory.stream.subscribers", subscriberCount);
+    }
+
+    @Override
+    public SseEmitter subscribe(Filter filter, OverflowPolicy policy) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new StreamCapacityException("The inventory stream is at its limit of " + maxSubscribers
+                    + " subscribers, please retry later");
+        }
+
+        SseEmitter emitter = createEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, filter, policy);
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> unregister(subscriber));
+        emitter.onError(ex -> unregister(subscriber));
+        register(subscriber);
+        try {
+            // commits the response headers so clients and proxies see the stream open right away
+            emitter.send(SseEmitter.event().comment("subscribed"));
+        } catch (IOException ex) {
+            unregister(subscriber);
+            emitter.completeWithError(ex);
+        }
+        return emitter;
+    }
+
+    @Override
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryLevelChanged(InventoryLevelChangedEvent event) {
+        if (subscriberCount.get() == 0) {
+            return;
+        }
+        Set<Subscriber> interested = byProduct.get(event.productId());
+        if (interested != null) {
+            interested.forEach(subscriber -> deliver(subscriber, event));
+        }
+        unfiltered.forEach(subscriber -> deliver(subscriber, event));
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.stream.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.requestHeartbeat()) {
+                senders.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void closeStreams() {
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    protected SseEmitter createEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void deliver(Subscriber subscriber, InventoryLevelChangedEvent event) {
+        if (subscriber.filter.matches(event) && subscriber.offer(event)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        Pending pending;
+        while ((pending = subscriber.take()) != null) {
+            try {
+                if (pending.dropped() > 0) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .name("dropped")
+                            .data(Map.of("dropped", pending.dropped()), MediaType.APPLICATION_JSON));
+                }
+                for (InventoryLevelChangedEvent event : pending.events()) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .name("inventory")
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+                if (pending.heartbeat() && pending.events().isEmpty()) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // the client has gone away or the emitter is already complete
+                log.debug("Closing inventory stream subscriber: {}", ex.getMessage());
+                unregister(subscriber);
+                try {
+                    // ends the async request, so its thread and connection are released now, not at the timeout
+                    subscriber.emitter.completeWithError(ex);
+                } catch (IllegalStateException alreadyComplete) {
+                    // the request has already finished
+                }
+                return;
+            }
+        }
+    }
+
+    private void register(Subscriber subscriber) {
+        subscribers.add(subscriber);
+        Set<Long> productIds = subscriber.filter.productIds();
+        if (productIds == null || productIds.isEmpty()) {
+            unfiltered.add(subscriber);
+            return;
+        }
+        for (Long productId : productIds) {
+            byProduct.compute(productId, (id, interested) -> {
+                Set<Subscriber> set = interested != null ? interested : ConcurrentHashMap.newKeySet();
+                set.add(subscriber);
+                return set;
+            });
+        }
+    }
+
+    private void unregister(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscribers.remove(subscriber);
+        unfiltered.remove(subscriber);
+        Set<Long> productIds = subscriber.filter.productIds();
+        if (productIds != null) {
+            for (Long productId : productIds) {
+                byProduct.computeIfPresent(productId, (id, interested) -> {
+                    interested.remove(subscriber);
+                    return interested.isEmpty() ? null : interested;
+                });
+            }
+        }
+        subscriberCount.decrementAndGet();
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Filter filter;
+        private final OverflowPolicy policy;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final LinkedHashMap<Long, InventoryLevelChangedEvent> latestByProduct = new LinkedHashMap<>();
+        private final ArrayDeque<InventoryLevelChangedEvent> queue = new ArrayDeque<>();
+        private int dropped;
+        private boolean heartbeatDue;
+        private boolean scheduled;
+
+        private Subscriber(SseEmitter emitter, Filter filter, OverflowPolicy policy) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.policy = policy;
+        }
+
+        /**
+         * Adds the event to the mailbox. Returns true if the caller must
+         * schedule a drain.
+         */
+        private synchronized boolean offer(InventoryLevelChangedEvent event) {
+            if (policy == OverflowPolicy.COALESCE) {
+                InventoryLevelChangedEvent previous = latestByProduct.remove(event.productId());
+                if (previous != null) {
+                    coalescedEvents.increment();
+                    // the subscriber has not seen the earlier transition yet, so keep it flagged
+                    event = new InventoryLevelChangedEvent(event.productId(), event.categoryId(), event.quantity(),
+                            event.lowStock(), event.lowStockChanged() || previous.lowStockChanged(),
+                            event.occurredAt());
+                } else if (latestByProduct.size() >= bufferSize) {
+                    Iterator<Long> eldest = latestByProduct.keySet().iterator();
+                    eldest.next();
+                    eldest.remove();
+                    overflowed();
+                }
+                latestByProduct.put(event.productId(), event);
+            } else {
+                if (queue.size() >= bufferSize) {
+                    queue.pollFirst();
+                    overflowed();
+                }
+                queue.addLast(event);
+            }
+            return schedule();
+        }
+
+        private synchronized boolean requestHeartbeat() {
+            heartbeatDue = true;
+            return schedule();
+        }
+
+        /**
+         * Takes everything pending, or returns null and marks the mailbox idle
+         * when there is nothing left to send.
+         */
+        private synchronized Pending take() {
+            if (latestByProduct.isEmpty() && queue.isEmpty() && dropped == 0 && !heartbeatDue) {
+                scheduled = false;
+                return null;
+            }
+            List<InventoryLevelChangedEvent> events = new ArrayList<>(latestByProduct.values());
+            events.addAll(queue);
+            latestByProduct.clear();
+            queue.clear();
+            Pending pending = new Pending(events, dropped, heartbeatDue);
+            dropped = 0;
+            heartbeatDue = false;
+            return pending;
+        }
+
+        private void overflowed() {
+            dropped++;
+            droppedEvents.increment();
+        }
+
+        private boolean schedule() {
+            if (scheduled || closed.get()) {
+                return false;
+            }
+            scheduled = true;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.inventory.api.service.impl;
+
+import com.inventory.api.dto.ProductDTO;
+import com.inventory.api.exception.InvalidCursorException;
+import com.inventory.api.exception.InvalidSortException;
+import com.inventory.api.repository.KeysetPager;
+import com.inventory.api.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory set of the ids of low-stock products, ordered by id.
+ * <p>
+ * Seeded from the database at startup and then kept current by the services
+ * that change stock or thresholds, so listing low-stock products never scans
+ * the products table. Changes made inside a transaction are applied once it
+ * commits, so a rolled-back write never shows up in the index. Those
+ * callbacks can run in a different order than their transactions committed,
+ * so the index is periodically reconciled with the {@code low_stock} column.
+ * <p>
+ * The ids are only ordered by id. Pages by cursor seek straight to the id
+ * after the previous page; pages by offset still walk past every id before
+ * them, so deep listings should page by cursor.
+ */
+@Service
+@Slf4j
+public class LowStockIndex {
+
+    private static final String ID = "id";
+    private static final String FORMAT = "1";
+
+    /** Where a window starts: right after {@code lastId} in the given direction. */
+    private record Position(Sort.Direction direction, long lastId) {
+    }
+
+    private final ProductRepository productRepository;
+    private final NavigableSet<Long> productIds = new ConcurrentSkipListSet<>();
+    // the skip list counts its elements by walking them
+    private final AtomicInteger size = new AtomicInteger();
+    // products updated while a reconcile runs, which it must not overwrite with what it read before
+    private volatile Set<Long> touched;
+
+    public LowStockIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        productRepository.findLowStockIds().forEach(this::add);
+        log.info("Loaded {} low-stock products into the low-stock index", size.get());
+    }
+
+    /**
+     * Records the stock state of a product as returned by a write. Returns
+     * whether the write moves the product on or off the low-stock list.
+     */
+    public boolean update(ProductDTO product) {
+        return update(product.getId(), isLowStock(product));
+    }
+
+    public boolean update(Long productId, boolean lowStock) {
+        boolean changed = productIds.contains(productId) != lowStock;
+        TransactionCallbacks.afterCommit(() -> {
+            if (lowStock) {
+                add(productId);
+            } else {
+                discard(productId);
+            }
+            touch(productId);
+        });
+        return changed;
+    }
+
+    public void remove(Long productId) {
+        TransactionCallbacks.afterCommit(() -> {
+            discard(productId);
+            touch(productId);
+        });
+    }
+
+    /**
+     * Corrects the ids whose membership differs from the stored
+     * {@code low_stock} flag. Products updated while it runs are left to
+     * their own callbacks. Returns the number of ids corrected.
+     */
+    @Scheduled(fixedDelayString = "${inventory.low-stock.reconcile-interval-ms:60000}",
+            initialDelayString = "${inventory.low-stock.reconcile-interval-ms:60000}")
+    @Transactional(readOnly = true)
+    public synchronized int reconcile() {
+        Set<Long> updated = ConcurrentHashMap.newKeySet();
+        touched = updated;
+        try {
+            Set<Long> stored = new HashSet<>(productRepository.findLowStockIds());
+            int corrected = 0;
+            for (Long productId : productIds) {
+                if (!stored.contains(productId) && !updated.contains(productId)) {
+                    discard(productId);
+                    corrected++;
+                }
+            }
+            for (Long productId : stored) {
+                if (!productIds.contains(productId) && !updated.contains(productId)) {
+                    add(productId);
+                    corrected++;
+                }
+            }
+            if (corrected > 0) {
+                log.warn("Corrected {} entries of the low-stock index", corrected);
+            }
+            return corrected;
+        } finally {
+            touched = null;
+        }
+    }
+
+    public boolean contains(Long productId) {
+        return productIds.contains(productId);
+    }
+
+    /**
+     * A page of low-stock product ids in id order, ascending unless the
+     * pageable sorts by id descending. Other sorts are rejected.
+     */
+    public Page<Long> page(Pageable pageable) {
+        NavigableSet<Long> ids = inOrder(direction(pageable.getSort()));
+        if (pageable.isUnpaged()) {
+            List<Long> all = List.copyOf(ids);
+            return new PageImpl<>(all, pageable, all.size());
+        }
+        List<Long> content = ids.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+        return new PageImpl<>(content, pageable, size.get());
+    }
+
+    /**
+     * The low-stock product ids after the cursor of the previous window, or
+     * the first window in the given id direction for an empty cursor; a cursor
+     * carries its own direction.
+     */
+    public KeysetPager.Window<Long> after(String cursor, String sortDir, int size) {
+        int limit = Math.max(1, Math.min(size, KeysetPager.MAX_PAGE_SIZE));
+        Sort.Direction direction;
+        NavigableSet<Long> ids;
+        if (StringUtils.hasText(cursor)) {
+            Position from = decode(cursor);
+            direction = from.direction();
+            ids = inOrder(direction).tailSet(from.lastId(), false);
+        } else {
+            direction = "desc".equalsIgnoreCase(sortDir) ? Sort.Direction.DESC : Sort.Direction.ASC;
+            ids = inOrder(direction);
+        }
+        List<Long> window = ids.stream().limit(limit + 1).toList();
+        if (window.size() <= limit) {
+            return new KeysetPager.Window<>(window, null);
+        }
+        List<Long> content = window.subList(0, limit);
+        return new KeysetPager.Window<>(content, encode(direction, content.get(limit - 1)));
+    }
+
+    /** Number of low-stock products. */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Same rule as the product entity: without a threshold the flag keeps its
+     * previous value.
+     */
+    public static boolean isLowStock(ProductDTO product) {
+        if (product.getInventoryQuantity() == null || product.getLowStockThreshold() == null) {
+            return product.isLowStock();
+        }
+        return product.getInventoryQuantity() <= product.getLowStockThreshold();
+    }
+
+    private void add(Long productId) {
+        if (productIds.add(productId)) {
+            size.incrementAndGet();
+        }
+    }
+
+    private void discard(Long productId) {
+        if (productIds.remove(productId)) {
+            size.decrementAndGet();
+        }
+    }
+
+    private void touch(Long productId) {
+        Set<Long> updated = touched;
+        if (updated != null) {
+            updated.add(productId);
+        }
+    }
+
+    private NavigableSet<Long> inOrder(Sort.Direction direction) {
+        return direction.isAscending() ? productIds : productIds.descendingSet();
+    }
+
+    private static Sort.Direction direction(Sort sort) {
+        Sort.Direction direction = Sort.Direction.ASC;
+        for (Sort.Order order : sort) {
+            if (!order.getProperty().equals(ID)) {
+                throw new InvalidSortException("Cannot sort low-stock products by '" + order.getProperty()
+                        + "'; they can only be sorted by id");
+            }
+            direction = order.getDirection();
+        }
+        return direction;
+    }
+
+    private static String encode(Sort.Direction direction, Long lastId) {
+        String raw = String.join("|", FORMAT, direction.isAscending() ? "a" : "d", String.valueOf(lastId));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Position decode(String cursor) {
+        try {
+            // format|direction|last id
+            String[] raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\|");
+            if (raw.length != 3 || !FORMAT.equals(raw[0]) || !(raw[1].equals("a") || raw[1].equals("d"))) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+            return new Position(raw[1].equals("a") ? Sort.Direction.ASC : Sort.Direction.DESC,
+                    Long.parseLong(raw[2]));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.inventory.api.service.impl;
+
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache keys for the services' paged queries.
+ * <p>
+ * A key names the method and lists its arguments in a canonical form, so
+ * requests for the same rows share an entry and requests for different rows
+ * never do: a {@link Pageable} contributes its page, size and every sort
+ * order; strings are trimmed and lowercased, blank ones counting as absent,
+ * as the paged queries match text case-insensitively; prices are compared by
+ * value, so {@code 10} and {@code 10.00} are the same. Strings are written
+ * with their length, so no argument can run into the next one.
+ * <p>
+ * Queries whose results can change without any shown product changing carry
+ * the generation of their scope (see {@link ProductCacheDependencies}), which
+ * the cached method declares with {@link PageScope}.
+ */
+@Component("pageKeyGenerator")
+public class PageKeyGenerator implements KeyGenerator {
+
+    private final ProductCacheDependencies cacheDependencies;
+    private final Map<Method, Optional<PageScope.Scope>> scopes = new ConcurrentHashMap<>();
+
+    public PageKeyGenerator(ProductCacheDependencies cacheDependencies) {
+        this.cacheDependencies = cacheDependencies;
+    }
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        // the annotation sits on the implementation, not on the interface a JDK proxy may report
+        Method declared = target != null ? AopUtils.getMostSpecificMethod(method, AopProxyUtils.ultimateTargetClass(target))
+                : method;
+        return key(method.getName(), scopes.computeIfAbsent(declared, PageKeyGenerator::scopeOf).orElse(null), params);
+    }
+
+    /**
+     * The key of the named query with these arguments, carrying the
+     * generation of the given scope unless it is null.
+     */
+    public String key(String name, PageScope.Scope scope, Object... params) {
+        if (scope != null && !scope.fits(params)) {
+            throw new IllegalArgumentException("Query '" + name + "' of scope " + scope + " must start with "
+                    + scope.filter() + " arguments");
+        }
+        Object[] args = new Object[params.length];
+        for (int i = 0; i < params.length; i++) {
+            args[i] = params[i] instanceof String text ? text(text) : params[i];
+        }
+        StringBuilder key = new StringBuilder(name);
+        Long generation = generation(scope, args);
+        if (generation != null) {
+            key.append('@').append(generation);
+        }
+        key.append('(');
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                key.append(',');
+            }
+            append(key, args[i]);
+        }
+        return key.append(')').toString();
+    }
+
+    private Long generation(PageScope.Scope scope, Object[] args) {
+        if (scope == null) {
+            return null;
+        }
+        return switch (scope) {
+            case CATALOGUE -> cacheDependencies.listGeneration();
+            case SEARCH -> cacheDependencies.searchGeneration((String) args[0], (String) args[1], (Long) args[2],
+                    (BigDecimal) args[3], (BigDecimal) args[4], (Boolean) args[5]);
+            case CATEGORY -> cacheDependencies.categoryGeneration((Long) args[0]);
+            case SUPPLIER -> cacheDependencies.supplierGeneration((Long) args[0]);
+        };
+    }
+
+    /** The scope the method declares, checked against its parameters. */
+    static Optional<PageScope.Scope> scopeOf(Method method) {
+        PageScope declared = AnnotatedElementUtils.findMergedAnnotation(method, PageScope.class);
+        if (declared == null) {
+            return Optional.empty();
+        }
+        if (!declared.value().fits(method.getParameterTypes())) {
+            throw new IllegalStateException("@PageScope(" + declared.value() + ") on " + method
+                    + " needs leading parameters " + declared.value().filter());
+        }
+        return Optional.of(declared.value());
+    }
+
+    /** The form a text filter is matched in: trimmed, lowercased and null when blank. */
+    public static String text(String value) {
+        return StringUtils.hasText(value) ? value.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static void append(StringBuilder key, Object arg) {
+        if (arg == null) {
+            key.append('_');
+        } else if (arg instanceof Pageable pageable) {
+            if (pageable.isPaged()) {
+                key.append('p').append(pageable.getPageNumber()).append('x').append(pageable.getPageSize());
+            } else {
+                key.append('u');
+            }
+            append(key, pageable.getSort());
+        } else if (arg instanceof Sort sort) {
+            for (Sort.Order order : sort) {
+                key.append('o');
+                appendText(key, order.getProperty());
+                key.append(order.isAscending() ? 'a' : 'd');
+                if (order.isIgnoreCase()) {
+                    key.append('i');
+                }
+                if (order.getNullHandling() != Sort.NullHandling.NATIVE) {
+                    key.append(order.getNullHandling() == Sort.NullHandling.NULLS_FIRST ? 'F' : 'L');
+                }
+            }
+        } else if (arg instanceof String text) {
+            key.append('s');
+            appendText(key, text);
+        } else if (arg instanceof BigDecimal decimal) {
+            key.append('d').append(decimal.stripTrailingZeros().toPlainString());
+        } else if (arg instanceof Number || arg instanceof Boolean) {
+            key.append('n').append(arg);
+        } else {
+            key.append('?').append(arg.getClass().getSimpleName());
+            appendText(key, arg.toString());
+        }
+    }
+
+    private static void appendText(StringBuilder key, String text) {
+        key.append(text.length()).append(':').append(text);
+    }
+}
@@ -0,0 +1,75 @@
+package com.inventory.api.service.impl;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Declares which scope the results of a cached paged query belong to, so
+ * {@link PageKeyGenerator} can put the scope's generation into its keys (see
+ * {@link ProductCacheDependencies}). The method's leading parameters must be
+ * the scope's filter, in the order the scope lists them; this is checked the
+ * first time a key is made for the method.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface PageScope {
+
+    Scope value();
+
+    enum Scope {
+
+        /** Every product. */
+        CATALOGUE,
+
+        /** The products matching name, SKU, category, price range and in-stock criteria. */
+        SEARCH(String.class, String.class, Long.class, BigDecimal.class, BigDecimal.class, Boolean.class),
+
+        /** The products of a category, by category id. */
+        CATEGORY(Long.class),
+
+        /** The products of a supplier, by supplier id. */
+        SUPPLIER(Long.class);
+
+        private final List<Class<?>> filter;
+
+        Scope(Class<?>... filter) {
+            this.filter = List.of(filter);
+        }
+
+        /** Whether a method with these parameter types starts with the scope's filter. */
+        boolean fits(Class<?>[] parameterTypes) {
+            if (parameterTypes.length < filter.size()) {
+                return false;
+            }
+            for (int i = 0; i < filter.size(); i++) {
+                if (parameterTypes[i] != filter.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /** Whether these arguments start with values of the scope's filter types. */
+        boolean fits(Object[] args) {
+            if (args.length < filter.size()) {
+                return false;
+            }
+            for (int i = 0; i < filter.size(); i++) {
+                if (args[i] != null && !filter.get(i).isInstance(args[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        List<Class<?>> filter() {
+            return filter;
+        }
+    }
+}
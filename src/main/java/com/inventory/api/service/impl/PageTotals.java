@@ -0,0 +1,62 @@
+package com.inventory.api.service.impl;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Totals for paged listings that are read as {@link Slice}s.
+ * <p>
+ * A total is counted once per query and reused by every page of it until a
+ * write could change it, instead of a {@code COUNT} running with each page.
+ * Totals are keyed like the pages (see {@link PageKeyGenerator}), without the
+ * page request: product totals carry the generation of their scope, so
+ * writes that change a result set retire its total; supplier totals are
+ * evicted together with the supplier pages. The last page, and a first page
+ * that is the only one, reveal their total and need no count at all.
+ */
+@Component
+public class PageTotals {
+
+    public static final String PRODUCT_TOTALS = "productTotals";
+    public static final String SUPPLIER_TOTALS = "supplierTotals";
+
+    private final CacheManager cacheManager;
+    private final PageKeyGenerator keys;
+
+    public PageTotals(CacheManager cacheManager, PageKeyGenerator keys) {
+        this.cacheManager = cacheManager;
+        this.keys = keys;
+    }
+
+    /**
+     * The slice as a page of the named query's results, counting them with
+     * {@code count} if no total is cached for the query and filter.
+     */
+    public <T> Page<T> page(Slice<T> slice, String cacheName, LongSupplier count, String query, Object... filter) {
+        return page(slice, cacheName, count, null, query, filter);
+    }
+
+    /**
+     * As {@link #page(Slice, String, LongSupplier, String, Object...)}, for a
+     * query of the given scope, whose total is retired with its generation.
+     */
+    public <T> Page<T> page(Slice<T> slice, String cacheName, LongSupplier count, PageScope.Scope scope,
+            String query, Object... filter) {
+        long total;
+        if (!slice.hasNext() && (slice.hasContent() || slice.isFirst())) {
+            total = slice.getPageable().isPaged()
+                    ? slice.getPageable().getOffset() + slice.getNumberOfElements()
+                    : slice.getNumberOfElements();
+        } else {
+            Cache totals = cacheManager.getCache(cacheName);
+            total = totals.get(keys.key(query, scope, filter), count::getAsLong);
+        }
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), total);
+    }
+}
@@ -0,0 +1,409 @@
+package com.inventory.api.service.impl;
+
+import com.inventory.api.config.InventoryCacheManager;
+import com.inventory.api.dto.ProductDTO;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Invalidation for the caches that hold pages of products.
+ * <p>
+ * The stock shown on these pages is read live when they are served (see
+ * {@link WithCurrentStock}), so only catalogue data can go stale, in two
+ * ways. A product on a page can change, which is handled by recording which
+ * products, categories and suppliers every stored page shows and evicting
+ * just the pages that show the changed one.
+ * Or the set of products the page's query matches can change, e.g. a product
+ * joining a category; that cannot be read off the stored page, so the cache
+ * keys carry a generation number of the query's scope (the whole catalogue, a
+ * category, a supplier, ...) that such writes bump. Pages under an old
+ * generation are never read again and age out of their bounded cache.
+ * <p>
+ * Writers report changes here instead of clearing whole caches. Changes made
+ * inside a transaction take effect once it commits.
+ * <p>
+ * The same reports also advance the version counters behind the HTTP entity
+ * tags (see {@link EntityTagServiceImpl}): one per product, category and
+ * supplier representation and one per collection of each. A product's
+ * representation shows its category and supplier names, so a rename changes
+ * every product's version.
+ * <p>
+ * Generations are kept for a bounded number of scopes, dropping the least
+ * used. A scope without a kept generation reads the highest generation
+ * dropped so far, so a generation never goes back to a value it had before;
+ * dropping one at worst changes the keys and versions of idle scopes once.
+ */
+@Service
+public class ProductCacheDependencies implements InventoryCacheManager.EntryTracker {
+
+    public static final List<String> TRACKED_CACHES = List.of(
+            "productsList", "productsSearch", "categoryProducts", "productsBySupplier");
+
+    private static final String LIST = "list";
+    private static final String NAMES = "names";
+    private static final String SKUS = "skus";
+    private static final String PRICES = "prices";
+    private static final String STOCK = "stock";
+    private static final String PRODUCTS_VERSION = "version:products";
+    private static final String CATEGORIES_VERSION = "version:categories";
+    private static final String SUPPLIERS_VERSION = "version:suppliers";
+    private static final String LABELS_VERSION = "version:labels";
+
+    private static final long MAXIMUM_SCOPES = 100_000;
+    private static final Duration SCOPE_IDLE_TIME = Duration.ofHours(1);
+
+    private record Entry(String cacheName, Object key) {
+    }
+
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+    private final Map<String, Set<Entry>> entriesByTag = new ConcurrentHashMap<>();
+    private final Map<Entry, Set<String>> tagsByEntry = new ConcurrentHashMap<>();
+    private final AtomicLong droppedGeneration = new AtomicLong();
+    private final ConcurrentMap<String, Long> generations;
+
+    public ProductCacheDependencies() {
+        this(MAXIMUM_SCOPES, SCOPE_IDLE_TIME);
+    }
+
+    public ProductCacheDependencies(long maximumScopes, Duration scopeIdleTime) {
+        // the eviction listener runs atomically with the removal, so no read sees neither the entry nor its value
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(maximumScopes)
+                .expireAfterAccess(scopeIdleTime)
+                .executor(Runnable::run)
+                .<String, Long>evictionListener((scope, generation, cause) -> {
+                    if (generation != null) {
+                        droppedGeneration.accumulateAndGet(generation, Math::max);
+                    }
+                })
+                .build()
+                .asMap();
+    }
+
+    public long listGeneration() {
+        return generation(LIST);
+    }
+
+    public long categoryGeneration(Long categoryId) {
+        return generation(categoryTag(categoryId));
+    }
+
+    public long supplierGeneration(Long supplierId) {
+        return generation(supplierTag(supplierId));
+    }
+
+    /**
+     * Generation of the query {@code ProductServiceImpl.searchProducts} runs
+     * for these criteria. It combines every given criterion, so the sum of
+     * their scopes' generations changes whenever any of them does; blank text
+     * and {@code inStock == false} do not filter.
+     */
+    public long searchGeneration(String name, String sku, Long categoryId, BigDecimal minPrice,
+            BigDecimal maxPrice, Boolean inStock) {
+        long generation = 0;
+        boolean filtered = false;
+        if (StringUtils.hasText(name)) {
+            generation += generation(NAMES);
+            filtered = true;
+        }
+        if (StringUtils.hasText(sku)) {
+            generation += generation(SKUS);
+            filtered = true;
+        }
+        if (categoryId != null) {
+            generation += categoryGeneration(categoryId);
+            filtered = true;
+        }
+        if (minPrice != null || maxPrice != null) {
+            generation += generation(PRICES);
+            filtered = true;
+        }
+        if (Boolean.TRUE.equals(inStock)) {
+            generation += generation(STOCK);
+            filtered = true;
+        }
+        return filtered ? generation : listGeneration();
+    }
+
+    public long productVersion(Long productId) {
+        return generation(versionOf(productTag(productId))) + generation(LABELS_VERSION);
+    }
+
+    public long categoryVersion(Long categoryId) {
+        return generation(versionOf(categoryTag(categoryId)));
+    }
+
+    public long supplierVersion(Long supplierId) {
+        return generation(versionOf(supplierTag(supplierId)));
+    }
+
+    /** Version of every list of products, whatever the page or criteria. */
+    public long productsVersion() {
+        return generation(PRODUCTS_VERSION);
+    }
+
+    public long categoriesVersion() {
+        return generation(CATEGORIES_VERSION);
+    }
+
+    public long suppliersVersion() {
+        return generation(SUPPLIERS_VERSION);
+    }
+
+    public void productAdded(ProductDTO product) {
+        TransactionCallbacks.afterCommit(() -> {
+            membershipChanged(product);
+            productVersionChanged(product.getId());
+            countsChanged(product.getCategoryId(), product.getSupplierId());
+        });
+    }
+
+    public void productRemoved(ProductDTO product) {
+        TransactionCallbacks.afterCommit(() -> {
+            invalidate(productTag(product.getId()));
+            membershipChanged(product);
+            productVersionChanged(product.getId());
+            countsChanged(product.getCategoryId(), product.getSupplierId());
+        });
+    }
+
+    /**
+     * A product's catalogue data changed; {@code before} is its state as it
+     * was read by the write.
+     */
+    public void productUpdated(ProductDTO before, ProductDTO after) {
+        TransactionCallbacks.afterCommit(() -> {
+            invalidate(productTag(after.getId()));
+            productVersionChanged(after.getId());
+            if (before == null) {
+                membershipChanged(after);
+                countsChanged(after.getCategoryId(), after.getSupplierId());
+                return;
+            }
+            if (!Objects.equals(before.getCategoryId(), after.getCategoryId())) {
+                bump(categoryTag(before.getCategoryId()));
+                bump(categoryTag(after.getCategoryId()));
+                countsChanged(before.getCategoryId(), null);
+                countsChanged(after.getCategoryId(), null);
+            }
+            if (!Objects.equals(before.getSupplierId(), after.getSupplierId())) {
+                bump(supplierTag(before.getSupplierId()));
+                bump(supplierTag(after.getSupplierId()));
+                countsChanged(null, before.getSupplierId());
+                countsChanged(null, after.getSupplierId());
+            }
+            if (!Objects.equals(before.getName(), after.getName())) {
+                bump(NAMES);
+            }
+            if (!Objects.equals(before.getSku(), after.getSku())) {
+                bump(SKUS);
+            }
+            if (!samePrice(before.getPrice(), after.getPrice())) {
+                bump(PRICES);
+            }
+        });
+    }
+
+    /**
+     * A product's stock level changed. Cached pages show live stock, so only
+     * a product running out or coming back into stock matters, as it changes
+     * which products the in-stock search lists; {@code before} may be null
+     * when the previous level is not known. The product's version changes
+     * either way.
+     */
+    public void stockChanged(Long productId, Integer before, Integer after) {
+        boolean crossedZero = before == null || after == null || (before > 0) != (after > 0);
+        TransactionCallbacks.afterCommit(() -> {
+            productVersionChanged(productId);
+            if (crossedZero) {
+                bump(STOCK);
+            }
+        });
+    }
+
+    /** A category was created, renamed or removed. */
+    public void categoryChanged(Long categoryId) {
+        TransactionCallbacks.afterCommit(() -> {
+            invalidate(categoryTag(categoryId));
+            bump(categoryTag(categoryId));
+            bump(versionOf(categoryTag(categoryId)));
+            bump(CATEGORIES_VERSION);
+            labelsChanged();
+        });
+    }
+
+    /** A supplier was created, changed or removed. */
+    public void supplierChanged(Long supplierId) {
+        TransactionCallbacks.afterCommit(() -> {
+            invalidate(supplierTag(supplierId));
+            bump(supplierTag(supplierId));
+            bump(versionOf(supplierTag(supplierId)));
+            bump(SUPPLIERS_VERSION);
+            labelsChanged();
+        });
+    }
+
+    @Override
+    public void stored(Cache cache, Object key, Object value) {
+        caches.putIfAbsent(cache.getName(), cache);
+        Entry entry = new Entry(cache.getName(), key);
+        Set<String> tags = tagsOf(value);
+        Set<String> previous = tagsByEntry.put(entry, tags);
+        if (previous != null) {
+            previous.stream().filter(tag -> !tags.contains(tag)).forEach(tag -> untag(tag, entry));
+        }
+        for (String tag : tags) {
+            entriesByTag.compute(tag, (t, entries) -> {
+                Set<Entry> set = entries != null ? entries : ConcurrentHashMap.newKeySet();
+                set.add(entry);
+                return set;
+            });
+        }
+    }
+
+    @Override
+    public void removed(String cacheName, Object key) {
+        Entry entry = new Entry(cacheName, key);
+        Set<String> tags = tagsByEntry.remove(entry);
+        if (tags != null) {
+            tags.forEach(tag -> untag(tag, entry));
+        }
+    }
+
+    @Override
+    public void cleared(String cacheName) {
+        tagsByEntry.keySet().stream()
+                .filter(entry -> entry.cacheName().equals(cacheName))
+                .toList()
+                .forEach(entry -> removed(cacheName, entry.key()));
+    }
+
+    /** Number of scopes whose generation is kept, for tests and diagnostics. */
+    public int keptGenerations() {
+        return generations.size();
+    }
+
+    /** Number of stored pages that show the product, for tests and diagnostics. */
+    public int trackedEntries(Long productId) {
+        Set<Entry> entries = entriesByTag.get(productTag(productId));
+        return entries != null ? entries.size() : 0;
+    }
+
+    private void membershipChanged(ProductDTO product) {
+        bump(LIST);
+        bump(NAMES);
+        bump(SKUS);
+        bump(PRICES);
+        bump(STOCK);
+        bump(categoryTag(product.getCategoryId()));
+        bump(supplierTag(product.getSupplierId()));
+    }
+
+    private void productVersionChanged(Long productId) {
+        bump(versionOf(productTag(productId)));
+        bump(PRODUCTS_VERSION);
+    }
+
+    /** The product counts shown with a category or supplier changed. */
+    private void countsChanged(Long categoryId, Long supplierId) {
+        if (categoryId != null) {
+            bump(versionOf(categoryTag(categoryId)));
+            bump(CATEGORIES_VERSION);
+        }
+        if (supplierId != null) {
+            bump(versionOf(supplierTag(supplierId)));
+            bump(SUPPLIERS_VERSION);
+        }
+    }
+
+    private void labelsChanged() {
+        bump(LABELS_VERSION);
+        bump(PRODUCTS_VERSION);
+    }
+
+    private void invalidate(String tag) {
+        Set<Entry> entries = entriesByTag.remove(tag);
+        if (entries == null) {
+            return;
+        }
+        for (Entry entry : entries) {
+            Cache cache = caches.get(entry.cacheName());
+            if (cache != null) {
+                cache.evict(entry.key());
+            } else {
+                removed(entry.cacheName(), entry.key());
+            }
+        }
+    }
+
+    private void untag(String tag, Entry entry) {
+        entriesByTag.computeIfPresent(tag, (t, entries) -> {
+            entries.remove(entry);
+            return entries.isEmpty() ? null : entries;
+        });
+    }
+
+    private long generation(String scope) {
+        Long generation = generations.get(scope);
+        return generation != null ? generation : droppedGeneration.get();
+    }
+
+    private void bump(String scope) {
+        generations.compute(scope, (s, generation) -> (generation != null ? generation : droppedGeneration.get()) + 1);
+    }
+
+    private static Set<String> tagsOf(Object value) {
+        Set<String> tags = new HashSet<>();
+        if (value instanceof Iterable<?> items) {
+            items.forEach(item -> addTags(tags, item));
+        } else {
+            addTags(tags, value);
+        }
+        return tags;
+    }
+
+    private static void addTags(Set<String> tags, Object item) {
+        if (item instanceof ProductDTO product) {
+            tags.add(productTag(product.getId()));
+            if (product.getCategoryId() != null) {
+                tags.add(categoryTag(product.getCategoryId()));
+            }
+            if (product.getSupplierId() != null) {
+                tags.add(supplierTag(product.getSupplierId()));
+            }
+        }
+    }
+
+    private static boolean samePrice(BigDecimal before, BigDecimal after) {
+        return before == null ? after == null : after != null && before.compareTo(after) == 0;
+    }
+
+    private static String versionOf(String tag) {
+        return "version:" + tag;
+    }
+
+    private static String productTag(Long productId) {
+        return "product:" + productId;
+    }
+
+    private static String categoryTag(Long categoryId) {
+        return "category:" + categoryId;
+    }
+
+    private static String supplierTag(Long supplierId) {
+        return "supplier:" + supplierId;
+    }
+}
@@ -1,53 +1,111 @@
 package com.inventory.api.service.impl;
 
+import com.inventory.api.concurrency.RetryOnConflict;
+import com.inventory.api.dto.BulkInventoryResultDTO;
+import com.inventory.api.dto.CursorPageDTO;
+import com.inventory.api.dto.InventoryAdjustmentDTO;
+import com.inventory.api.dto.InventoryAdjustmentResultDTO;
 import com.inventory.api.dto.ProductDTO;
+import com.inventory.api.dto.ProductFacetsDTO;
+import com.inventory.api.event.InventoryChangedEvent;
+import com.inventory.api.event.InventoryLevelChangedEvent;
 import com.inventory.api.exception.InsufficientInventoryException;
+import com.inventory.api.exception.ReservationStateException;
 import com.inventory.api.exception.ResourceNotFoundException;
 import com.inventory.api.mapper.ProductMapper;
 import com.inventory.api.model.Category;
+import com.inventory.api.model.InventoryMovement;
 import com.inventory.api.model.Product;
 import com.inventory.api.repository.CategoryRepository;
+import com.inventory.api.repository.KeysetPager;
 import com.inventory.api.repository.ProductRepository;
+import com.inventory.api.repository.ProductRepositoryCustom.InventoryChange;
+import com.inventory.api.repository.ProductRepositoryCustom.StockLevel;
+import com.inventory.api.repository.ProductSpecifications;
 import com.inventory.api.repository.SupplierRepository;
 import com.inventory.api.model.Supplier;
 import com.inventory.api.service.ProductService;
+import com.inventory.api.service.impl.SearchTextIndex.Field;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ProductServiceImpl implements ProductService {
 
+        /** Writes of a stock adjustment before a stock layout that keeps changing is reported as a conflict. */
+        private static final int STOCK_LAYOUT_ATTEMPTS = 2;
+
         private final ProductRepository productRepository;
         private final CategoryRepository categoryRepository;
         private final SupplierRepository supplierRepository;
         private final ProductMapper productMapper;
+        private final CacheManager cacheManager;
+        private final ApplicationEventPublisher eventPublisher;
+        private final ShardedStockService shardedStock;
+        private final InventoryDecrementCoalescer decrementCoalescer;
+        private final LowStockIndex lowStockIndex;
+        private final ProductCacheDependencies cacheDependencies;
+        private final SearchTextIndex searchIndex;
+        private final PageTotals pageTotals;
+        private final SearchFacets searchFacets;
+        private final TransactionTemplate inventoryTransaction;
 
         @Autowired
         public ProductServiceImpl(ProductRepository productRepository, CategoryRepository categoryRepository,
-                        SupplierRepository supplierRepository, ProductMapper productMapper) {
+                        SupplierRepository supplierRepository, ProductMapper productMapper,
+                        CacheManager cacheManager, ApplicationEventPublisher eventPublisher,
+                        ShardedStockService shardedStock, InventoryDecrementCoalescer decrementCoalescer,
+                        LowStockIndex lowStockIndex, ProductCacheDependencies cacheDependencies,
+                        SearchTextIndex searchIndex, PageTotals pageTotals, SearchFacets searchFacets,
+                        PlatformTransactionManager transactionManager) {
                 this.productRepository = productRepository;
                 this.categoryRepository = categoryRepository;
                 this.supplierRepository = supplierRepository;
                 this.productMapper = productMapper;
+                this.cacheManager = cacheManager;
+                this.eventPublisher = eventPublisher;
+                this.shardedStock = shardedStock;
+                this.decrementCoalescer = decrementCoalescer;
+                this.lowStockIndex = lowStockIndex;
+                this.cacheDependencies = cacheDependencies;
+                this.searchIndex = searchIndex;
+                this.pageTotals = pageTotals;
+                this.searchFacets = searchFacets;
+                this.inventoryTransaction = new TransactionTemplate(transactionManager);
         }
 
         @Override
-        @Caching(evict = {
-                        @CacheEvict(value = "productsList", allEntries = true),
-                        @CacheEvict(value = "productsSearch", allEntries = true)
-        })
         public ProductDTO createProduct(ProductDTO productDTO) {
                 Product product = productMapper.toEntity(productDTO);
 
@@ -66,43 +124,75 @@ public class ProductServiceImpl implements ProductService {
                 }
 
                 Product savedProduct = productRepository.save(product);
-                return productMapper.toDto(savedProduct);
+                if (savedProduct.getInventoryQuantity() != null) {
+                        eventPublisher.publishEvent(InventoryChangedEvent.of(savedProduct.getId(),
+                                        InventoryMovement.Type.SET, savedProduct.getInventoryQuantity(),
+                                        InventoryMovement.Source.CREATE));
+                }
+                ProductDTO savedDTO = productMapper.toDto(savedProduct);
+                // forget remembered misses for the new id and SKU
+                evictProductAfterCommit(savedProduct.getId(), savedProduct.getSku());
+                cacheDependencies.productAdded(savedDTO);
+                searchIndex.productChanged(savedDTO);
+                return stockChanged(savedDTO);
         }
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "products", key = "#id")
+        @Cacheable(value = "products", key = "#id", sync = true)
         public ProductDTO getProductById(Long id) {
                 Product product = productRepository.findById(id)
                                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
-                return productMapper.toDto(product);
+                return toDto(product);
         }
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "products", key = "'sku_' + #sku")
+        @Cacheable(value = "products", key = "'sku_' + #sku", sync = true)
         public ProductDTO getProductBySku(String sku) {
                 Product product = productRepository.findBySku(sku)
                                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with SKU: " + sku));
-                return productMapper.toDto(product);
+                return toDto(product);
         }
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "productsList", key = "'page_' + #pageable.pageNumber + '_' + #pageable.pageSize")
+        @Cacheable(value = "productsList", keyGenerator = "pageKeyGenerator", sync = true)
+        @PageScope(PageScope.Scope.CATALOGUE)
+        @WithCurrentStock
         public Page<ProductDTO> getAllProducts(Pageable pageable) {
-                return productRepository.findAll(pageable)
+                return pageTotals.page(productRepository.findSlice(null, pageable).map(productMapper::toDto),
+                                PageTotals.PRODUCT_TOTALS, productRepository::count, PageScope.Scope.CATALOGUE,
+                                "getAllProducts");
+        }
+
+        @Override
+        @Transactional(readOnly = true)
+        @Cacheable(value = "productsList", keyGenerator = "pageKeyGenerator", sync = true)
+        @PageScope(PageScope.Scope.CATALOGUE)
+        @WithCurrentStock
+        public Slice<ProductDTO> getProductSlice(Pageable pageable) {
+                return productRepository.findSlice(null, pageable)
                                 .map(productMapper::toDto);
         }
 
         @Override
-        @Caching(put = { @CachePut(value = "products", key = "#id") }, evict = {
-                        @CacheEvict(value = "productsList", allEntries = true),
-                        @CacheEvict(value = "productsSearch", allEntries = true)
-        })
+        @Transactional(readOnly = true)
+        @WithCurrentStock
+        public CursorPageDTO<ProductDTO> getProductsAfter(String cursor, String sortBy, String sortDir, int size) {
+                KeysetPager.Window<Product> window = ProductSpecifications.KEYSET.page(productRepository, null, cursor,
+                                sortBy, sortDir, size);
+                return CursorPageDTO.of(window.content().stream().map(productMapper::toDto).toList(),
+                                window.nextCursor());
+        }
+
+        @Override
+        @RetryOnConflict
         public ProductDTO updateProduct(Long id, ProductDTO productDTO) {
                 Product existingProduct = productRepository.findById(id)
                                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+                ProductDTO previousDTO = productMapper.toDto(existingProduct);
+                String previousSku = existingProduct.getSku();
 
                 // Update fields
                 existingProduct.setName(productDTO.getName());
@@ -132,137 +222,514 @@ public class ProductServiceImpl implements ProductService {
                 }
 
                 Product updatedProduct = productRepository.save(existingProduct);
-                return productMapper.toDto(updatedProduct);
+                ProductDTO updatedDTO = productMapper.toDto(updatedProduct);
+                // the previous SKU no longer finds the product, the new one may have a remembered miss
+                evictProductAfterCommit(id, previousSku, updatedProduct.getSku());
+                cacheDependencies.productUpdated(previousDTO, updatedDTO);
+                searchIndex.productChanged(updatedDTO);
+                // a new threshold can move the product on or off the low-stock list without any stock change
+                if (LowStockIndex.isLowStock(updatedDTO) != lowStockIndex.contains(id)) {
+                        return stockChanged(updatedDTO);
+                }
+                return updatedDTO;
         }
 
         @Override
-        @Caching(evict = {
-                        @CacheEvict(value = "products", key = "#id"),
-                        @CacheEvict(value = "productsList", allEntries = true),
-                        @CacheEvict(value = "productsSearch", allEntries = true)
-        })
+        @RetryOnConflict
         public void deleteProduct(Long id) {
-                if (!productRepository.existsById(id)) {
-                        throw new ResourceNotFoundException("Product not found with id: " + id);
-                }
+                Product product = productRepository.findById(id)
+                                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+                ProductDTO removedDTO = productMapper.toDto(product);
                 productRepository.deleteById(id);
+                evictProductAfterCommit(id, product.getSku());
+                lowStockIndex.remove(id);
+                cacheDependencies.productRemoved(removedDTO);
+                searchIndex.productRemoved(id);
         }
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "productInventory", key = "#id")
+        @Cacheable(value = "productInventory", key = "#id", sync = true)
         public Integer getInventoryLevel(Long id) {
                 Product product = productRepository.findById(id)
                                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+                if (product.getStockShards() != null) {
+                        return shardedStock.total(id);
+                }
                 return product.getInventoryQuantity();
         }
 
         @Override
+        @RetryOnConflict
         @Caching(put = {
                         @CachePut(value = "products", key = "#id"),
                         @CachePut(value = "productInventory", key = "#id")
-        }, evict = {
-                        @CacheEvict(value = "productsList", allEntries = true),
-                        @CacheEvict(value = "productsSearch", allEntries = true)
         })
         public ProductDTO updateInventoryLevel(Long id, Integer quantity) {
                 Product product = productRepository.findById(id)
                                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
 
+                if (quantity < product.getReservedQuantity()) {
+                        throw new InsufficientInventoryException(
+                                        "Cannot set inventory below the reserved quantity. Reserved: "
+                                                        + product.getReservedQuantity() + ", Requested quantity: "
+                                                        + quantity);
+                }
+
+                Integer previousQuantity = product.getInventoryQuantity();
+                if (product.getStockShards() != null) {
+                        shardedStock.redistribute(id, quantity, product.getStockShards());
+                }
                 product.setInventoryQuantity(quantity);
                 Product updatedProduct = productRepository.save(product);
-                return productMapper.toDto(updatedProduct);
+                eventPublisher.publishEvent(InventoryChangedEvent.of(id, InventoryMovement.Type.SET, quantity,
+                                InventoryMovement.Source.LEVEL_UPDATE));
+                cacheDependencies.stockChanged(id, previousQuantity, quantity);
+                return stockChanged(productMapper.toDto(updatedProduct));
         }
 
         @Override
+        @RetryOnConflict
         @Caching(put = {
                         @CachePut(value = "products", key = "#id"),
                         @CachePut(value = "productInventory", key = "#id")
-        }, evict = {
-                        @CacheEvict(value = "productsList", allEntries = true),
-                        @CacheEvict(value = "productsSearch", allEntries = true)
         })
         public ProductDTO increaseInventory(Long id, Integer quantity) {
-                Product product = productRepository.findById(id)
-                                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
-
-                int newQuantity = product.getInventoryQuantity() + quantity;
-                product.setInventoryQuantity(newQuantity);
-
-                Product updatedProduct = productRepository.save(product);
-                return productMapper.toDto(updatedProduct);
+                return applyInventoryDelta(id, quantity);
         }
 
         @Override
+        @RetryOnConflict
         @Caching(put = {
                         @CachePut(value = "products", key = "#id"),
                         @CachePut(value = "productInventory", key = "#id")
-        }, evict = {
-                        @CacheEvict(value = "productsList", allEntries = true),
-                        @CacheEvict(value = "productsSearch", allEntries = true)
         })
+        @Transactional(propagation = Propagation.SUPPORTS)
         public ProductDTO decreaseInventory(Long id, Integer quantity) {
+                // coalesced callers wait for their batch without holding a transaction (and its connection);
+                // calls inside an existing transaction must be part of it and are applied directly
+                if (decrementCoalescer.isEnabled() && shardedStock.shardCount(id) == 0
+                                && !TransactionSynchronizationManager.isActualTransactionActive()) {
+                        return decrementCoalescer.decrease(id, quantity, this::applyDecrementBatch);
+                }
+                return inventoryTransaction.execute(status -> applyInventoryDelta(id, -quantity));
+        }
+
+        /**
+         * Writes a batch of coalesced decrements in one transaction. The whole
+         * batch is normally a single conditional UPDATE; if together they would
+         * oversell, the decrements are applied one at a time in arrival order so
+         * that only the ones that no longer fit are rejected.
+         */
+        private List<InventoryDecrementCoalescer.Outcome> applyDecrementBatch(Long id, List<Integer> quantities) {
+                return inventoryTransaction.execute(status -> {
+                        List<InventoryDecrementCoalescer.Outcome> outcomes = new ArrayList<>(quantities.size());
+                        int total = quantities.stream().mapToInt(Integer::intValue).sum();
+                        if (productRepository.adjustInventory(id, -total) == 1) {
+                                quantities.forEach(quantity -> publishInventoryDelta(id, -quantity));
+                                ProductDTO productDTO = stockChanged(productMapper.toDto(productRepository.findById(id)
+                                                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id))));
+                                stockLevelChanged(productDTO, -total);
+                                quantities.forEach(quantity -> outcomes.add(InventoryDecrementCoalescer.Outcome.applied(productDTO)));
+                                return outcomes;
+                        }
+
+                        for (Integer quantity : quantities) {
+                                try {
+                                        outcomes.add(InventoryDecrementCoalescer.Outcome.applied(applyInventoryDelta(id, -quantity)));
+                                } catch (InsufficientInventoryException ex) {
+                                        outcomes.add(InventoryDecrementCoalescer.Outcome.rejected(ex));
+                                }
+                        }
+                        return outcomes;
+                });
+        }
+
+        /**
+         * Applies the delta with a single conditional UPDATE instead of a
+         * read-modify-write cycle, so concurrent adjustments on the same product
+         * cannot overwrite each other or dip into reserved stock. Products with
+         * sharded stock update one of their shards instead of the product row.
+         * If the stock layout changes between reading and writing it, the write
+         * is tried once more with the new layout; a layout that keeps changing
+         * is reported as a conflict, which {@link RetryOnConflict} retries.
+         */
+        private ProductDTO applyInventoryDelta(Long id, int delta) {
+                for (int attempt = 0; attempt < STOCK_LAYOUT_ATTEMPTS; attempt++) {
+                        int shards = shardedStock.shardCount(id);
+                        if (shards > 0) {
+                                Integer total = shardedStock.applyDelta(id, delta, shards);
+                                if (total == null) {
+                                        // no longer sharded this way; applyDelta refreshed the layout
+                                        continue;
+                                }
+                                publishInventoryDelta(id, delta);
+                                ProductDTO productDTO = productMapper.toDto(productRepository.findById(id)
+                                                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id)));
+                                productDTO.setInventoryQuantity(total);
+                                stockLevelChanged(productDTO, delta);
+                                return stockChanged(productDTO);
+                        }
+
+                        if (productRepository.adjustInventory(id, delta) == 0) {
+                                Product product = productRepository.findById(id)
+                                                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+                                if (product.getStockShards() != null) {
+                                        shardedStock.remember(id, product.getStockShards());
+                                        continue;
+                                }
+                                if (product.getReservedQuantity() > 0) {
+                                        throw new InsufficientInventoryException(
+                                                        "Cannot decrease inventory below the reserved quantity. Current inventory: "
+                                                                        + product.getInventoryQuantity() + ", Reserved: "
+                                                                        + product.getReservedQuantity() + ", Requested decrease: "
+                                                                        + (-delta));
+                                }
+                                throw new InsufficientInventoryException(
+                                                "Cannot decrease inventory below zero. Current inventory: "
+                                                                + product.getInventoryQuantity() + ", Requested decrease: "
+                                                                + (-delta));
+                        }
+
+                        publishInventoryDelta(id, delta);
+
+                        Product updatedProduct = productRepository.findById(id)
+                                        .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+                        ProductDTO productDTO = productMapper.toDto(updatedProduct);
+                        stockLevelChanged(productDTO, delta);
+                        return stockChanged(productDTO);
+                }
+                throw new OptimisticLockingFailureException(
+                                "Stock layout of product " + id + " changed during every inventory adjustment attempt");
+        }
+
+        private void publishInventoryDelta(Long id, int delta) {
+                eventPublisher.publishEvent(delta >= 0
+                                ? InventoryChangedEvent.of(id, InventoryMovement.Type.INCREASE, delta,
+                                                InventoryMovement.Source.INCREASE)
+                                : InventoryChangedEvent.of(id, InventoryMovement.Type.DECREASE, -delta,
+                                                InventoryMovement.Source.DECREASE));
+        }
+
+        @Override
+        @RetryOnConflict
+        @Caching(put = { @CachePut(value = "products", key = "#id") }, evict = {
+                        @CacheEvict(value = "productInventory", key = "#id")
+        })
+        public ProductDTO configureStockShards(Long id, int shards) {
                 Product product = productRepository.findById(id)
                                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
 
-                int newQuantity = product.getInventoryQuantity() - quantity;
-                if (newQuantity < 0) {
-                        throw new InsufficientInventoryException(
-                                        "Cannot decrease inventory below zero. Current inventory: "
-                                                        + product.getInventoryQuantity() + ", Requested decrease: "
-                                                        + quantity);
+                if (product.getReservedQuantity() > 0) {
+                        throw new ReservationStateException("Cannot change stock sharding of product " + id
+                                        + " while " + product.getReservedQuantity() + " units are reserved");
                 }
 
-                product.setInventoryQuantity(newQuantity);
+                Integer previousQuantity = product.getInventoryQuantity();
+                int quantity = product.getStockShards() != null ? shardedStock.lockAndSum(id)
+                                : (previousQuantity != null ? previousQuantity : 0);
+                shardedStock.redistribute(id, quantity, shards);
+                product.setStockShards(shards > 1 ? shards : null);
+                product.setInventoryQuantity(quantity);
                 Product updatedProduct = productRepository.save(product);
-                return productMapper.toDto(updatedProduct);
+                cacheDependencies.stockChanged(id, previousQuantity, quantity);
+                return stockChanged(productMapper.toDto(updatedProduct));
+        }
+
+        @Override
+        public BulkInventoryResultDTO bulkAdjustInventory(List<InventoryAdjustmentDTO> adjustments) {
+                Set<String> skus = new LinkedHashSet<>();
+                for (InventoryAdjustmentDTO adjustment : adjustments) {
+                        if (adjustment.getId() == null && adjustment.getSku() != null) {
+                                skus.add(adjustment.getSku());
+                        }
+                }
+                Map<String, Long> idsBySku = skus.isEmpty() ? Map.of() : productRepository.findIdsBySkuIn(skus);
+
+                List<InventoryAdjustmentResultDTO> results = new ArrayList<>(adjustments.size());
+                List<InventoryAdjustmentResultDTO> pending = new ArrayList<>();
+                List<InventoryChange> changes = new ArrayList<>();
+                for (InventoryAdjustmentDTO adjustment : adjustments) {
+                        InventoryAdjustmentResultDTO result = InventoryAdjustmentResultDTO.builder()
+                                        .id(adjustment.getId())
+                                        .sku(adjustment.getSku())
+                                        .build();
+                        results.add(result);
+
+                        String problem = validateAdjustment(adjustment);
+                        if (problem != null) {
+                                result.setStatus(InventoryAdjustmentResultDTO.Status.INVALID);
+                                result.setMessage(problem);
+                                continue;
+                        }
+
+                        Long productId = adjustment.getId() != null ? adjustment.getId()
+                                        : idsBySku.get(adjustment.getSku());
+                        if (productId == null) {
+                                result.setStatus(InventoryAdjustmentResultDTO.Status.NOT_FOUND);
+                                result.setMessage("Product not found with SKU: " + adjustment.getSku());
+                                continue;
+                        }
+                        if (shardedStock.shardCount(productId) > 0) {
+                                result.setId(productId);
+                                result.setStatus(InventoryAdjustmentResultDTO.Status.INVALID);
+                                result.setMessage("Product uses sharded stock, adjust it through the increase and decrease endpoints");
+                                continue;
+                        }
+
+                        result.setId(productId);
+                        boolean absolute = adjustment.getAbsolute() != null;
+                        changes.add(new InventoryChange(productId, absolute,
+                                        absolute ? adjustment.getAbsolute() : adjustment.getDelta()));
+                        pending.add(result);
+                }
+
+                if (!changes.isEmpty()) {
+                        int[] updateCounts = productRepository.batchAdjustInventory(changes);
+                        Set<Long> productIds = new LinkedHashSet<>();
+                        changes.forEach(change -> productIds.add(change.productId()));
+                        Map<Long, StockLevel> levels = productRepository.findStockLevels(productIds);
+                        Set<Long> changedIds = new LinkedHashSet<>();
+                        Map<Long, Integer> netDeltas = new HashMap<>();
+                        Set<Long> absoluteIds = new HashSet<>();
+
+                        for (int i = 0; i < pending.size(); i++) {
+                                InventoryAdjustmentResultDTO result = pending.get(i);
+                                StockLevel level = levels.get(result.getId());
+                                if (level == null) {
+                                        result.setStatus(InventoryAdjustmentResultDTO.Status.NOT_FOUND);
+                                        result.setMessage("Product not found with id: " + result.getId());
+                                } else if (updateCounts[i] == 0) {
+                                        result.setStatus(InventoryAdjustmentResultDTO.Status.INSUFFICIENT_INVENTORY);
+                                        result.setMessage("Adjustment would drive inventory below zero or below reserved stock");
+                                        result.setInventoryQuantity(level.quantity());
+                                } else {
+                                        result.setStatus(InventoryAdjustmentResultDTO.Status.APPLIED);
+                                        result.setInventoryQuantity(level.quantity());
+                                        InventoryChange change = changes.get(i);
+                                        eventPublisher.publishEvent(toInventoryChangedEvent(change));
+                                        changedIds.add(result.getId());
+                                        if (change.absolute()) {
+                                                absoluteIds.add(result.getId());
+                                        } else {
+                                                netDeltas.merge(result.getId(), change.value(), Integer::sum);
+                                        }
+                                }
+                        }
+                        // one level event per product, with the state after all of its changes
+                        for (Long productId : changedIds) {
+                                StockLevel level = levels.get(productId);
+                                eventPublisher.publishEvent(InventoryLevelChangedEvent.of(productId, level.categoryId(),
+                                                level.quantity(), level.lowStock(),
+                                                lowStockIndex.update(productId, level.lowStock())));
+                                // after an absolute change the previous level is not known
+                                Integer previousQuantity = absoluteIds.contains(productId) ? null
+                                                : level.quantity() - netDeltas.getOrDefault(productId, 0);
+                                cacheDependencies.stockChanged(productId, previousQuantity, level.quantity());
+                        }
+                        for (StockLevel level : levels.values()) {
+                                evictProductAfterCommit(level.productId(), level.sku());
+                                evictInventoryAfterCommit(level.productId());
+                        }
+                }
+
+                int applied = (int) results.stream()
+                                .filter(result -> result.getStatus() == InventoryAdjustmentResultDTO.Status.APPLIED)
+                                .count();
+                return BulkInventoryResultDTO.builder()
+                                .applied(applied)
+                                .failed(results.size() - applied)
+                                .results(results)
+                                .build();
+        }
+
+        /**
+         * Records the stock level a write left the product at: updates the
+         * low-stock index and announces the new level to stream subscribers.
+         */
+        private ProductDTO stockChanged(ProductDTO productDTO) {
+                boolean lowStock = LowStockIndex.isLowStock(productDTO);
+                boolean lowStockChanged = lowStockIndex.update(productDTO.getId(), lowStock);
+                eventPublisher.publishEvent(InventoryLevelChangedEvent.of(productDTO.getId(),
+                                productDTO.getCategoryId(), productDTO.getInventoryQuantity(), lowStock,
+                                lowStockChanged));
+                return productDTO;
+        }
+
+        /**
+         * Reports a relative stock change to the page caches, which only need
+         * to know whether the product ran out or came back into stock.
+         */
+        private void stockLevelChanged(ProductDTO productDTO, int delta) {
+                Integer quantity = productDTO.getInventoryQuantity();
+                cacheDependencies.stockChanged(productDTO.getId(), quantity != null ? quantity - delta : null, quantity);
+        }
+
+        /**
+         * Maps a product, reading the live stock of sharded products from their
+         * shards instead of the periodically rolled-up product row.
+         */
+        private ProductDTO toDto(Product product) {
+                ProductDTO productDTO = productMapper.toDto(product);
+                if (product.getStockShards() != null) {
+                        productDTO.setInventoryQuantity(shardedStock.total(product.getId()));
+                }
+                return productDTO;
+        }
+
+        private InventoryChangedEvent toInventoryChangedEvent(InventoryChange change) {
+                if (change.absolute()) {
+                        return InventoryChangedEvent.of(change.productId(), InventoryMovement.Type.SET,
+                                        change.value(), InventoryMovement.Source.BULK);
+                }
+                return change.value() >= 0
+                                ? InventoryChangedEvent.of(change.productId(), InventoryMovement.Type.INCREASE,
+                                                change.value(), InventoryMovement.Source.BULK)
+                                : InventoryChangedEvent.of(change.productId(), InventoryMovement.Type.DECREASE,
+                                                -change.value(), InventoryMovement.Source.BULK);
+        }
+
+        private String validateAdjustment(InventoryAdjustmentDTO adjustment) {
+                if ((adjustment.getId() == null) == (adjustment.getSku() == null)) {
+                        return "Exactly one of id or sku must be provided";
+                }
+                if ((adjustment.getDelta() == null) == (adjustment.getAbsolute() == null)) {
+                        return "Exactly one of delta or absolute must be provided";
+                }
+                if (adjustment.getAbsolute() != null && adjustment.getAbsolute() < 0) {
+                        return "Absolute quantity cannot be negative";
+                }
+                return null;
+        }
+
+        /**
+         * Evicts a product's entries from the products cache, by id and by each
+         * given SKU, once the transaction commits. Evicting earlier would let a
+         * concurrent read cache the row as it was before the commit again, and
+         * would lose entries for nothing if the transaction rolls back.
+         */
+        private void evictProductAfterCommit(Long id, String... skus) {
+                Cache products = cacheManager.getCache("products");
+                if (products == null) {
+                        return;
+                }
+                TransactionCallbacks.afterCommit(() -> {
+                        products.evict(id);
+                        for (String sku : skus) {
+                                if (sku != null) {
+                                        products.evict("sku_" + sku);
+                                }
+                        }
+                });
+        }
+
+        private void evictInventoryAfterCommit(Long id) {
+                Cache productInventory = cacheManager.getCache("productInventory");
+                if (productInventory != null) {
+                        TransactionCallbacks.afterCommit(() -> productInventory.evict(id));
+                }
         }
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "productsSearch", key = "'name_' + #name + '_category_' + #categoryId + '_minPrice_' + #minPrice + '_maxPrice_' + #maxPrice + '_inStock_' + #inStock + '_page_' + #pageable.pageNumber")
+        @Cacheable(value = "productsSearch", keyGenerator = "pageKeyGenerator", sync = true)
+        @PageScope(PageScope.Scope.SEARCH)
+        @WithCurrentStock
         public Page<ProductDTO> searchProducts(
                         String name,
+                        String sku,
                         Long categoryId,
                         BigDecimal minPrice,
                         BigDecimal maxPrice,
                         Boolean inStock,
                         Pageable pageable) {
+                Specification<Product> criteria = searchCriteria(name, sku, categoryId, minPrice, maxPrice, inStock);
+                return pageTotals.page(productRepository.findSlice(criteria, pageable).map(productMapper::toDto),
+                                PageTotals.PRODUCT_TOTALS, () -> productRepository.count(criteria), PageScope.Scope.SEARCH,
+                                "searchProducts", name, sku, categoryId, minPrice, maxPrice, inStock);
+        }
 
-                // This is a simplified implementation - in a real application, you would use a
-                // more sophisticated query
-                if (name != null && !name.isEmpty()) {
-                        return productRepository.findByNameContainingIgnoreCase(name, pageable)
-                                        .map(productMapper::toDto);
-                } else if (categoryId != null) {
-                        return productRepository.findByCategoryId(categoryId, pageable)
-                                        .map(productMapper::toDto);
-                } else if (minPrice != null && maxPrice != null) {
-                        return productRepository.findByPriceBetween(minPrice, maxPrice, pageable)
-                                        .map(productMapper::toDto);
-                } else if (inStock != null && inStock) {
-                        return productRepository.findByInventoryQuantityGreaterThan(0, pageable)
-                                        .map(productMapper::toDto);
-                } else {
-                        return productRepository.findAll(pageable)
-                                        .map(productMapper::toDto);
+        @Override
+        @Transactional(readOnly = true)
+        @Cacheable(value = "productsSearch", keyGenerator = "pageKeyGenerator", sync = true)
+        @PageScope(PageScope.Scope.SEARCH)
+        @WithCurrentStock
+        public Slice<ProductDTO> searchProductSlice(
+                        String name,
+                        String sku,
+                        Long categoryId,
+                        BigDecimal minPrice,
+                        BigDecimal maxPrice,
+                        Boolean inStock,
+                        Pageable pageable) {
+                return productRepository.findSlice(searchCriteria(name, sku, categoryId, minPrice, maxPrice, inStock),
+                                pageable).map(productMapper::toDto);
+        }
+
+        @Override
+        @Transactional(readOnly = true)
+        public ProductFacetsDTO getSearchFacets(
+                        String name,
+                        String sku,
+                        Long categoryId,
+                        BigDecimal minPrice,
+                        BigDecimal maxPrice,
+                        Boolean inStock) {
+                return searchFacets.count(searchCriteria(name, sku, categoryId, minPrice, maxPrice, inStock));
+        }
+
+        private Specification<Product> searchCriteria(String name, String sku, Long categoryId, BigDecimal minPrice,
+                        BigDecimal maxPrice, Boolean inStock) {
+                // the same forms the cache key is built from, see PageKeyGenerator
+                return Specification
+                                .where(textFilter(Field.PRODUCT_NAME, PageKeyGenerator.text(name),
+                                                ProductSpecifications::nameContains))
+                                .and(textFilter(Field.PRODUCT_SKU, PageKeyGenerator.text(sku),
+                                                ProductSpecifications::skuContains))
+                                .and(ProductSpecifications.attributes(categoryId, minPrice, maxPrice, inStock));
+        }
+
+        /** Matches the term from the search text index where it can answer, else with a LIKE. */
+        private Specification<Product> textFilter(Field field, String term,
+                        Function<String, Specification<Product>> like) {
+                if (term == null) {
+                        return null;
                 }
+                long[] ids = searchIndex.matching(field, term);
+                return ids != null ? ProductSpecifications.idIn(ids) : like.apply(term);
+        }
+
+        /**
+         * Pages through the in-memory low-stock index and loads only the
+         * products of the requested page by primary key.
+         */
+        @Override
+        @Transactional(readOnly = true)
+        public Page<ProductDTO> getLowStockProducts(Pageable pageable) {
+                Page<Long> ids = lowStockIndex.page(pageable);
+                return new PageImpl<>(findInOrder(ids.getContent()), ids.getPageable(), ids.getTotalElements());
         }
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "productsLowStock")
-        public List<ProductDTO> getLowStockProducts() {
-                return productRepository.findByLowStockIsTrue().stream()
-                                .map(productMapper::toDto)
+        public CursorPageDTO<ProductDTO> getLowStockProductsAfter(String cursor, String sortDir, int size) {
+                KeysetPager.Window<Long> ids = lowStockIndex.after(cursor, sortDir, size);
+                return CursorPageDTO.of(findInOrder(ids.content()), ids.nextCursor());
+        }
+
+        /** The products with these ids, by primary key and in the order of the ids. */
+        private List<ProductDTO> findInOrder(List<Long> ids) {
+                Map<Long, Product> products = productRepository.findAllById(ids).stream()
+                                .collect(Collectors.toMap(Product::getId, product -> product));
+                return ids.stream()
+                                .map(products::get)
+                                .filter(Objects::nonNull)
+                                .map(this::toDto)
                                 .collect(Collectors.toList());
         }
 
         @Override
-        @Caching(put = { @CachePut(value = "products", key = "#productId") }, evict = {
-                        @CacheEvict(value = "productsList", allEntries = true),
-                        @CacheEvict(value = "productsSearch", allEntries = true)
-        })
+        @RetryOnConflict
         public ProductDTO assignCategory(Long productId, Long categoryId) {
                 Product product = productRepository.findById(productId)
                                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -272,17 +739,17 @@ public class ProductServiceImpl implements ProductService {
                                 .orElseThrow(() -> new ResourceNotFoundException(
                                                 "Category not found with id: " + categoryId));
 
+                ProductDTO previousDTO = productMapper.toDto(product);
                 product.setCategory(category);
                 Product updatedProduct = productRepository.save(product);
-                return productMapper.toDto(updatedProduct);
+                ProductDTO updatedDTO = productMapper.toDto(updatedProduct);
+                evictProductAfterCommit(productId, updatedProduct.getSku());
+                cacheDependencies.productUpdated(previousDTO, updatedDTO);
+                return updatedDTO;
         }
 
         @Override
-        @Caching(put = { @CachePut(value = "products", key = "#productId") }, evict = {
-                        @CacheEvict(value = "productsList", allEntries = true),
-                        @CacheEvict(value = "productsSearch", allEntries = true)
-        })
-
+        @RetryOnConflict
         public ProductDTO assignSupplier(Long productId, Long supplierId) {
                 Product product = productRepository.findById(productId)
                                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -292,16 +759,24 @@ public class ProductServiceImpl implements ProductService {
                                 .orElseThrow(() -> new ResourceNotFoundException(
                                                 "Supplier not found with id: " + supplierId));
 
+                ProductDTO previousDTO = productMapper.toDto(product);
                 product.setSupplier(supplier);
                 Product updatedProduct = productRepository.save(product);
-                return productMapper.toDto(updatedProduct);
+                ProductDTO updatedDTO = productMapper.toDto(updatedProduct);
+                evictProductAfterCommit(productId, updatedProduct.getSku());
+                cacheDependencies.productUpdated(previousDTO, updatedDTO);
+                return updatedDTO;
         }
 
         @Override
         @Transactional(readOnly = true)
-        @Cacheable(value = "productsBySupplier", key = "'supplier_' + #supplierId + '_page_' + #pageable.pageNumber")
+        @Cacheable(value = "productsBySupplier", keyGenerator = "pageKeyGenerator", sync = true)
+        @PageScope(PageScope.Scope.SUPPLIER)
+        @WithCurrentStock
         public Page<ProductDTO> getProductsBySupplier(Long supplierId, Pageable pageable) {
-                return productRepository.findBySupplierId(supplierId, pageable)
-                                .map(productMapper::toDto);
+                return pageTotals.page(productRepository.findSlice(ProductSpecifications.bySupplier(supplierId), pageable)
+                                .map(productMapper::toDto), PageTotals.PRODUCT_TOTALS,
+                                () -> productRepository.countBySupplierId(supplierId), PageScope.Scope.SUPPLIER,
+                                "getProductsBySupplier", supplierId);
         }
 }
\ No newline at end of file
@@ -0,0 +1,240 @@
+package com.inventory.api.service.impl;
+
+import com.inventory.api.concurrency.HashedTimingWheel;
+import com.inventory.api.dto.InventoryAvailabilityDTO;
+import com.inventory.api.dto.ReservationDTO;
+import com.inventory.api.event.InventoryChangedEvent;
+import com.inventory.api.event.InventoryLevelChangedEvent;
+import com.inventory.api.exception.InsufficientInventoryException;
+import com.inventory.api.exception.ReservationStateException;
+import com.inventory.api.exception.ResourceNotFoundException;
+import com.inventory.api.mapper.ReservationMapper;
+import com.inventory.api.model.InventoryMovement;
+import com.inventory.api.model.InventoryReservation;
+import com.inventory.api.model.Product;
+import com.inventory.api.repository.InventoryReservationRepository;
+import com.inventory.api.repository.ProductRepository;
+import com.inventory.api.repository.ProductRepositoryCustom.StockLevel;
+import com.inventory.api.service.ReservationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stock holds are tracked in two places: one row per reservation, and a running
+ * {@code reservedQuantity} on the product row. Availability is therefore a single
+ * primary-key read, and expiry is driven by a timing wheel instead of scanning
+ * the reservations table.
+ */
+@Service
+@Slf4j
+@Transactional
+public class ReservationServiceImpl implements ReservationService {
+
+    private final InventoryReservationRepository reservationRepository;
+    private final ProductRepository productRepository;
+    private final ReservationMapper reservationMapper;
+    private final HashedTimingWheel expiryWheel;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LowStockIndex lowStockIndex;
+    private final ProductCacheDependencies cacheDependencies;
+    private final long defaultTtlSeconds;
+    private final long maxTtlSeconds;
+    private final Map<Long, HashedTimingWheel.Timeout> expiryTimers = new ConcurrentHashMap<>();
+
+    public ReservationServiceImpl(InventoryReservationRepository reservationRepository,
+            ProductRepository productRepository,
+            ReservationMapper reservationMapper,
+            HashedTimingWheel reservationExpiryWheel,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            LowStockIndex lowStockIndex,
+            ProductCacheDependencies cacheDependencies,
+            @Value("${inventory.reservations.default-ttl-seconds:900}") long defaultTtlSeconds,
+            @Value("${inventory.reservations.max-ttl-seconds:86400}") long maxTtlSeconds) {
+        this.reservationRepository = reservationRepository;
+        this.productRepository = productRepository;
+        this.reservationMapper = reservationMapper;
+        this.expiryWheel = reservationExpiryWheel;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.lowStockIndex = lowStockIndex;
+        this.cacheDependencies = cacheDependencies;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.maxTtlSeconds = maxTtlSeconds;
+    }
+
+    @Override
+    public ReservationDTO reserve(Long productId, int quantity, Long ttlSeconds) {
+        long ttl = ttlSeconds != null ? Math.min(ttlSeconds, maxTtlSeconds) : defaultTtlSeconds;
+
+        if (productRepository.reserveInventory(productId, quantity) == 0) {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+            if (product.getStockShards() != null) {
+                throw new ReservationStateException(
+                        "Reservations are not supported for product " + productId + " because it uses sharded stock");
+            }
+            throw new InsufficientInventoryException(
+                    "Cannot reserve " + quantity + " units. Available inventory: "
+                            + (product.getInventoryQuantity() - product.getReservedQuantity()));
+        }
+
+        InventoryReservation reservation = InventoryReservation.builder()
+                .product(productRepository.getReferenceById(productId))
+                .quantity(quantity)
+                .status(InventoryReservation.Status.ACTIVE)
+                .expiresAt(LocalDateTime.now().plusSeconds(ttl))
+                .build();
+        InventoryReservation savedReservation = reservationRepository.save(reservation);
+
+        Long reservationId = savedReservation.getId();
+        TransactionCallbacks.afterCommit(() -> scheduleExpiry(reservationId, TimeUnit.SECONDS.toMillis(ttl)));
+        log.debug("Reserved {} units of product {} as reservation {}", quantity, productId, reservationId);
+        return reservationMapper.toDto(savedReservation);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReservationDTO getReservation(Long productId, Long reservationId) {
+        return reservationMapper.toDto(findReservation(productId, reservationId));
+    }
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(value = "products", key = "#productId"),
+            @CacheEvict(value = "productInventory", key = "#productId")
+    })
+    public ReservationDTO confirm(Long productId, Long reservationId) {
+        InventoryReservation reservation = findReservation(productId, reservationId);
+        if (reservation.getStatus() == InventoryReservation.Status.ACTIVE
+                && reservation.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new ReservationStateException("Reservation " + reservationId + " has expired");
+        }
+
+        transition(reservation, InventoryReservation.Status.CONFIRMED);
+        if (productRepository.commitReservedInventory(productId, reservation.getQuantity()) == 0) {
+            throw new InsufficientInventoryException(
+                    "Reserved stock for reservation " + reservationId + " is no longer on hand");
+        }
+        eventPublisher.publishEvent(InventoryChangedEvent.of(productId, InventoryMovement.Type.DECREASE,
+                reservation.getQuantity(), InventoryMovement.Source.RESERVATION));
+        StockLevel level = productRepository.findStockLevels(List.of(productId)).get(productId);
+        if (level != null) {
+            eventPublisher.publishEvent(InventoryLevelChangedEvent.of(productId, level.categoryId(), level.quantity(),
+                    level.lowStock(), lowStockIndex.update(productId, level.lowStock())));
+            cacheDependencies.stockChanged(productId, level.quantity() + reservation.getQuantity(), level.quantity());
+        }
+
+        TransactionCallbacks.afterCommit(() -> cancelExpiry(reservationId));
+        return reservationMapper.toDto(reservation);
+    }
+
+    @Override
+    public ReservationDTO release(Long productId, Long reservationId) {
+        InventoryReservation reservation = findReservation(productId, reservationId);
+
+        transition(reservation, InventoryReservation.Status.RELEASED);
+        productRepository.releaseReservedInventory(productId, reservation.getQuantity());
+
+        TransactionCallbacks.afterCommit(() -> cancelExpiry(reservationId));
+        return reservationMapper.toDto(reservation);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InventoryAvailabilityDTO getAvailability(Long productId) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + productId));
+
+        int onHand = product.getInventoryQuantity() != null ? product.getInventoryQuantity() : 0;
+        return InventoryAvailabilityDTO.builder()
+                .productId(productId)
+                .onHand(onHand)
+                .reserved(product.getReservedQuantity())
+                .available(onHand - product.getReservedQuantity())
+                .build();
+    }
+
+    /**
+     * Re-arms expiry timers for holds that were active when the node stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rescheduleActiveReservations() {
+        LocalDateTime now = LocalDateTime.now();
+        var deadlines = reservationRepository.findDeadlinesByStatus(InventoryReservation.Status.ACTIVE);
+        for (InventoryReservationRepository.ReservationDeadline deadline : deadlines) {
+            scheduleExpiry(deadline.getId(), Math.max(0, Duration.between(now, deadline.getExpiresAt()).toMillis()));
+        }
+        if (!deadlines.isEmpty()) {
+            log.info("Re-armed expiry timers for {} active reservations", deadlines.size());
+        }
+    }
+
+    void expire(Long reservationId) {
+        expiryTimers.remove(reservationId);
+        transactionTemplate.executeWithoutResult(status -> {
+            InventoryReservation reservation = reservationRepository.findById(reservationId).orElse(null);
+            if (reservation == null || reservation.getStatus() != InventoryReservation.Status.ACTIVE) {
+                return;
+            }
+            Long productId = reservation.getProduct().getId();
+            int quantity = reservation.getQuantity();
+            if (reservationRepository.transition(reservationId, InventoryReservation.Status.ACTIVE,
+                    InventoryReservation.Status.EXPIRED) == 1) {
+                productRepository.releaseReservedInventory(productId, quantity);
+                log.debug("Expired reservation {} and released {} units of product {}",
+                        reservationId, quantity, productId);
+            }
+        });
+    }
+
+    private InventoryReservation findReservation(Long productId, Long reservationId) {
+        return reservationRepository.findByIdAndProductId(reservationId, productId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Reservation not found with id: " + reservationId + " for product: " + productId));
+    }
+
+    private void transition(InventoryReservation reservation, InventoryReservation.Status target) {
+        if (reservationRepository.transition(reservation.getId(), InventoryReservation.Status.ACTIVE, target) == 0) {
+            InventoryReservation current = reservationRepository.findById(reservation.getId()).orElse(reservation);
+            throw new ReservationStateException("Reservation " + reservation.getId() + " is "
+                    + current.getStatus() + " and can no longer be " + target.name().toLowerCase());
+        }
+        reservation.setStatus(target);
+    }
+
+    private void scheduleExpiry(Long reservationId, long delayMillis) {
+        HashedTimingWheel.Timeout timeout = expiryWheel.schedule(() -> {
+            try {
+                expire(reservationId);
+            } catch (RuntimeException ex) {
+                log.warn("Failed to expire reservation {}", reservationId, ex);
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+        expiryTimers.put(reservationId, timeout);
+    }
+
+    private void cancelExpiry(Long reservationId) {
+        HashedTimingWheel.Timeout timeout = expiryTimers.remove(reservationId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.inventory.api.service.impl;
+
+import com.inventory.api.dto.FacetCountDTO;
+import com.inventory.api.dto.PriceRangeCountDTO;
+import com.inventory.api.dto.ProductFacetsDTO;
+import com.inventory.api.model.Product;
+import com.inventory.api.repository.ProductRepository;
+import com.inventory.api.repository.ProductRepositoryCustom.FacetCount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facet counts of product searches.
+ * <p>
+ * One grouped query counts the matching products per combination of
+ * category, supplier, price band and stock state (see
+ * {@link com.inventory.api.repository.ProductRepositoryCustom#countFacets});
+ * the combinations are then summed per facet in one pass, so the counts of
+ * every facet value cost a single query rather than a search each.
+ */
+@Component
+public class SearchFacets {
+
+    private static final Comparator<FacetCountDTO> BY_COUNT = Comparator.comparingLong(FacetCountDTO::getCount)
+            .reversed()
+            .thenComparing(FacetCountDTO::getName, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final ProductRepository productRepository;
+    private final List<BigDecimal> priceBounds;
+
+    public SearchFacets(ProductRepository productRepository,
+            @Value("${inventory.search.facets.price-bounds:10,25,50,100,250,500,1000}") BigDecimal[] priceBounds) {
+        this.productRepository = productRepository;
+        this.priceBounds = Arrays.stream(priceBounds).sorted().distinct().toList();
+    }
+
+    /** Counts the products matching the criteria, or all products when they are null, per facet value. */
+    public ProductFacetsDTO count(Specification<Product> criteria) {
+        Map<Long, FacetCountDTO> categories = new LinkedHashMap<>();
+        Map<Long, FacetCountDTO> suppliers = new LinkedHashMap<>();
+        long[] bands = new long[priceBounds.size() + 1];
+        long inStock = 0;
+        long outOfStock = 0;
+        for (FacetCount row : productRepository.countFacets(criteria, priceBounds)) {
+            add(categories, row.categoryId(), row.categoryName(), row.count());
+            add(suppliers, row.supplierId(), row.supplierName(), row.count());
+            if (row.priceBand() >= 0) {
+                bands[row.priceBand()] += row.count();
+            }
+            if (row.inStock()) {
+                inStock += row.count();
+            } else {
+                outOfStock += row.count();
+            }
+        }
+
+        List<PriceRangeCountDTO> priceRanges = new ArrayList<>(bands.length);
+        for (int band = 0; band < bands.length; band++) {
+            priceRanges.add(new PriceRangeCountDTO(band > 0 ? priceBounds.get(band - 1) : null,
+                    band < priceBounds.size() ? priceBounds.get(band) : null, bands[band]));
+        }
+        return ProductFacetsDTO.builder()
+                .total(inStock + outOfStock)
+                .inStock(inStock)
+                .outOfStock(outOfStock)
+                .categories(sorted(categories.values()))
+                .suppliers(sorted(suppliers.values()))
+                .priceRanges(priceRanges)
+                .build();
+    }
+
+    private static void add(Map<Long, FacetCountDTO> values, Long id, String name, long count) {
+        FacetCountDTO value = values.computeIfAbsent(id, key -> new FacetCountDTO(id, name, 0));
+        value.setCount(value.getCount() + count);
+    }
+
+    private static List<FacetCountDTO> sorted(Collection<FacetCountDTO> values) {
+        return values.stream().sorted(BY_COUNT).toList();
+    }
+}
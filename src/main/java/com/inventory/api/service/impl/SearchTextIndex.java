@@ -0,0 +1,156 @@
+package com.inventory.api.service.impl;
+
+import com.inventory.api.dto.ProductDTO;
+import com.inventory.api.model.Supplier;
+import com.inventory.api.repository.ProductRepository;
+import com.inventory.api.repository.SupplierRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * In-memory substring indexes for the text the product and supplier searches
+ * match with {@code LIKE '%term%'}, which the database can only answer by
+ * scanning every row.
+ * <p>
+ * Loaded from the database at startup and then kept current by the services'
+ * write paths; changes made inside a transaction are applied once it
+ * commits. A search asks for the ids of the matching rows and has the
+ * database load just those; when the index cannot answer cheaply (before it
+ * is loaded, for terms under three characters, or for terms matching more
+ * than {@code max-matches} rows) it gets null and falls back to the
+ * {@code LIKE} query.
+ */
+@Service
+@Slf4j
+public class SearchTextIndex {
+
+    public enum Field {
+        PRODUCT_NAME, PRODUCT_SKU, SUPPLIER_NAME, SUPPLIER_CONTACT_PERSON, SUPPLIER_CITY, SUPPLIER_COUNTRY
+    }
+
+    private final ProductRepository productRepository;
+    private final SupplierRepository supplierRepository;
+    private final boolean enabled;
+    private final int maxMatches;
+    private final int loadBatchSize;
+    private final Map<Field, TrigramIndex> indexes = new EnumMap<>(Field.class);
+    private volatile boolean loaded;
+
+    public SearchTextIndex(ProductRepository productRepository,
+            SupplierRepository supplierRepository,
+            @Value("${inventory.search.index.enabled:true}") boolean enabled,
+            @Value("${inventory.search.index.max-matches:2000}") int maxMatches,
+            @Value("${inventory.search.index.load-batch-size:1000}") int loadBatchSize) {
+        this.productRepository = productRepository;
+        this.supplierRepository = supplierRepository;
+        this.enabled = enabled;
+        this.maxMatches = maxMatches;
+        this.loadBatchSize = Math.max(1, loadBatchSize);
+        for (Field field : Field.values()) {
+            indexes.put(field, new TrigramIndex());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        int products = load(productRepository::findSearchTextsAfter, row -> {
+            index(Field.PRODUCT_NAME).put((Long) row[0], (String) row[1]);
+            index(Field.PRODUCT_SKU).put((Long) row[0], (String) row[2]);
+        });
+        int suppliers = load(supplierRepository::findSearchTextsAfter, row -> {
+            index(Field.SUPPLIER_NAME).put((Long) row[0], (String) row[1]);
+            index(Field.SUPPLIER_CONTACT_PERSON).put((Long) row[0], (String) row[2]);
+            index(Field.SUPPLIER_CITY).put((Long) row[0], (String) row[3]);
+            index(Field.SUPPLIER_COUNTRY).put((Long) row[0], (String) row[4]);
+        });
+        loaded = true;
+        log.info("Loaded {} products and {} suppliers into the search text index", products, suppliers);
+    }
+
+    /**
+     * Ids of the rows whose field contains the term, ignoring case, in
+     * ascending order, or null when the caller has to query the database.
+     */
+    public long[] matching(Field field, String term) {
+        if (!loaded || term == null) {
+            return null;
+        }
+        return index(field).search(term, maxMatches);
+    }
+
+    public void productChanged(ProductDTO product) {
+        Long id = product.getId();
+        String name = product.getName();
+        String sku = product.getSku();
+        TransactionCallbacks.afterCommit(() -> {
+            index(Field.PRODUCT_NAME).put(id, name);
+            index(Field.PRODUCT_SKU).put(id, sku);
+        });
+    }
+
+    public void productRemoved(Long productId) {
+        TransactionCallbacks.afterCommit(() -> {
+            index(Field.PRODUCT_NAME).remove(productId);
+            index(Field.PRODUCT_SKU).remove(productId);
+        });
+    }
+
+    public void supplierChanged(Supplier supplier) {
+        Long id = supplier.getId();
+        String name = supplier.getName();
+        String contactPerson = supplier.getContactPerson();
+        String city = supplier.getCity();
+        String country = supplier.getCountry();
+        TransactionCallbacks.afterCommit(() -> {
+            index(Field.SUPPLIER_NAME).put(id, name);
+            index(Field.SUPPLIER_CONTACT_PERSON).put(id, contactPerson);
+            index(Field.SUPPLIER_CITY).put(id, city);
+            index(Field.SUPPLIER_COUNTRY).put(id, country);
+        });
+    }
+
+    public void supplierRemoved(Long supplierId) {
+        TransactionCallbacks.afterCommit(() -> {
+            index(Field.SUPPLIER_NAME).remove(supplierId);
+            index(Field.SUPPLIER_CONTACT_PERSON).remove(supplierId);
+            index(Field.SUPPLIER_CITY).remove(supplierId);
+            index(Field.SUPPLIER_COUNTRY).remove(supplierId);
+        });
+    }
+
+    private TrigramIndex index(Field field) {
+        return indexes.get(field);
+    }
+
+    /** Reads all rows in id order, a batch at a time; returns the number read. */
+    private int load(BiFunction<Long, Pageable, List<Object[]>> batches, Consumer<Object[]> indexRow) {
+        int count = 0;
+        long afterId = 0;
+        List<Object[]> batch;
+        do {
+            batch = batches.apply(afterId, PageRequest.of(0, loadBatchSize));
+            for (Object[] row : batch) {
+                indexRow.accept(row);
+                afterId = (Long) row[0];
+            }
+            count += batch.size();
+        } while (batch.size() == loadBatchSize);
+        return count;
+    }
+}
@@ -0,0 +1,174 @@
+package com.inventory.api.service.impl;
+
+import com.inventory.api.exception.InsufficientInventoryException;
+import com.inventory.api.model.InventoryShard;
+import com.inventory.api.model.Product;
+import com.inventory.api.repository.InventoryShardRepository;
+import com.inventory.api.repository.ProductRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sharded stock counters for hot products.
+ * <p>
+ * A sharded product keeps its stock in N {@code inventory_shards} rows instead
+ * of {@code products.inventory_quantity}. Increments go to a random shard and
+ * decrements try shards starting from a random one, so concurrent writers
+ * usually lock different rows. A decrement that no single shard can cover
+ * locks all shards and drains them together. Reads sum the shards.
+ * <p>
+ * The set of sharded products is cached here so that unsharded products, the
+ * common case, pay nothing extra. The single-row statements refuse sharded
+ * products, so a stale cache entry is detected and corrected on first use.
+ */
+@Service
+public class ShardedStockService {
+
+    private final InventoryShardRepository shardRepository;
+    private final ProductRepository productRepository;
+    private final Map<Long, Integer> shardCounts = new ConcurrentHashMap<>();
+
+    public ShardedStockService(InventoryShardRepository shardRepository, ProductRepository productRepository) {
+        this.shardRepository = shardRepository;
+        this.productRepository = productRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadShardedProducts() {
+        for (Product product : productRepository.findByStockShardsIsNotNull()) {
+            shardCounts.put(product.getId(), product.getStockShards());
+        }
+    }
+
+    /**
+     * Number of shards of the product, or 0 if its stock is a single row.
+     */
+    public int shardCount(Long productId) {
+        return shardCounts.getOrDefault(productId, 0);
+    }
+
+    /**
+     * Records the stock mode read from the product row.
+     */
+    public void remember(Long productId, Integer shards) {
+        if (shards != null) {
+            shardCounts.put(productId, shards);
+        } else {
+            shardCounts.remove(productId);
+        }
+    }
+
+    /**
+     * Applies a delta across the product's shards. Returns the new total, or
+     * null if the shard layout changed underneath, in which case the cached
+     * mode has been refreshed and the caller should try again.
+     */
+    public Integer applyDelta(Long productId, int delta, int shards) {
+        int start = ThreadLocalRandom.current().nextInt(shards);
+        if (delta >= 0) {
+            if (shardRepository.adjustShard(productId, start, delta) == 1) {
+                return total(productId);
+            }
+            refreshMode(productId);
+            return null;
+        }
+
+        for (int i = 0; i < shards; i++) {
+            if (shardRepository.adjustShard(productId, (start + i) % shards, delta) == 1) {
+                return total(productId);
+            }
+        }
+
+        // no single shard holds enough, so take from several under a lock
+        List<InventoryShard> locked = shardRepository.lockShards(productId);
+        if (locked.isEmpty()) {
+            refreshMode(productId);
+            return null;
+        }
+        int available = locked.stream().mapToInt(InventoryShard::getQuantity).sum();
+        if (available < -delta) {
+            throw new InsufficientInventoryException(
+                    "Cannot decrease inventory below zero. Current inventory: "
+                            + available + ", Requested decrease: " + (-delta));
+        }
+        int remaining = -delta;
+        for (InventoryShard shard : locked) {
+            int taken = Math.min(shard.getQuantity(), remaining);
+            shard.setQuantity(shard.getQuantity() - taken);
+            remaining -= taken;
+        }
+        return available + delta;
+    }
+
+    /**
+     * Current stock of a sharded product.
+     */
+    public int total(Long productId) {
+        return (int) shardRepository.sumQuantity(productId);
+    }
+
+    /**
+     * Current stock of several sharded products, summed in one query.
+     */
+    public Map<Long, Integer> totals(Collection<Long> productIds) {
+        Map<Long, Integer> totals = new HashMap<>();
+        productIds.forEach(productId -> totals.put(productId, 0));
+        for (Object[] row : shardRepository.sumQuantities(productIds)) {
+            totals.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return totals;
+    }
+
+    /**
+     * Replaces the product's shards with {@code shards} rows holding
+     * {@code quantity} units in total. Existing shards must be locked or summed
+     * by the caller first; one shard or fewer removes sharding.
+     */
+    public void redistribute(Long productId, int quantity, int shards) {
+        shardRepository.deleteByProductId(productId);
+        if (shards > 1) {
+            List<InventoryShard> rows = new ArrayList<>(shards);
+            for (int i = 0; i < shards; i++) {
+                rows.add(InventoryShard.builder()
+                        .productId(productId)
+                        .shardIndex(i)
+                        .quantity(quantity / shards + (i < quantity % shards ? 1 : 0))
+                        .build());
+            }
+            shardRepository.saveAll(rows);
+        }
+        remember(productId, shards > 1 ? shards : null);
+    }
+
+    /**
+     * Sums the shards while holding their locks, so no decrement can slip in
+     * before they are redistributed.
+     */
+    public int lockAndSum(Long productId) {
+        return shardRepository.lockShards(productId).stream().mapToInt(InventoryShard::getQuantity).sum();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.shards.rollup-interval-ms:1000}")
+    @Transactional
+    public void rollUpShardedProducts() {
+        if (!shardCounts.isEmpty()) {
+            shardRepository.rollUpShardedProducts();
+        }
+    }
+
+    private void refreshMode(Long productId) {
+        remember(productId, productRepository.findById(productId).map(Product::getStockShards).orElse(null));
+    }
+}
@@ -1,18 +1,25 @@
 package com.inventory.api.service.impl;
 
+import com.inventory.api.dto.CursorPageDTO;
 import com.inventory.api.dto.SupplierDTO;
 import com.inventory.api.exception.ResourceNotFoundException;
 import com.inventory.api.mapper.SupplierMapper;
 import com.inventory.api.model.Supplier;
+import com.inventory.api.repository.KeysetPager;
 import com.inventory.api.repository.SupplierRepository;
 import com.inventory.api.repository.ProductRepository;
+import com.inventory.api.repository.SupplierSpecifications;
 import com.inventory.api.service.SupplierService;
+import com.inventory.api.service.impl.SearchTextIndex.Field;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,9 +35,16 @@ public class SupplierServiceImpl implements SupplierService {
     private final SupplierRepository supplierRepository;
     private final SupplierMapper supplierMapper;
     private final ProductRepository productRepository;
+    private final ProductCacheDependencies cacheDependencies;
+    private final SearchTextIndex searchIndex;
+    private final PageTotals pageTotals;
 
     @Override
-    @CacheEvict(value = "suppliers", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "suppliersById", key = "#result.id"),
+            @CacheEvict(value = "suppliers", allEntries = true),
+            @CacheEvict(value = PageTotals.SUPPLIER_TOTALS, allEntries = true)
+    })
     public SupplierDTO createSupplier(SupplierDTO supplierDTO) {
         log.info("Creating new supplier: {}", supplierDTO.getName());
 
@@ -42,6 +56,9 @@ public class SupplierServiceImpl implements SupplierService {
         Supplier supplier = supplierMapper.toEntity(supplierDTO);
         Supplier savedSupplier = supplierRepository.save(supplier);
 
+        cacheDependencies.supplierChanged(savedSupplier.getId());
+        searchIndex.supplierChanged(savedSupplier);
+
         log.info("Successfully created supplier with ID: {}", savedSupplier.getId());
         int productCount = (int) productRepository.countBySupplierId(savedSupplier.getId());
         return supplierMapper.toDTOWithProductCount(savedSupplier, productCount);
@@ -49,6 +66,7 @@ public class SupplierServiceImpl implements SupplierService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(value = "suppliersById", key = "#id", sync = true)
     public SupplierDTO getSupplierById(Long id) {
         log.info("Fetching supplier with ID: {}", id);
 
@@ -59,21 +77,41 @@ public class SupplierServiceImpl implements SupplierService {
     }
 
     @Override
-    @Cacheable(value = "suppliers", key = "#pageable.pageNumber + '_' + #pageable.pageSize")
+    @Cacheable(value = "suppliers", keyGenerator = "pageKeyGenerator", sync = true)
     @Transactional(readOnly = true)
     public Page<SupplierDTO> getAllSuppliers(Pageable pageable) {
         log.info("Fetching all suppliers with pagination: page {}, size {}",
                 pageable.getPageNumber(), pageable.getPageSize());
 
-        Page<Supplier> suppliers = supplierRepository.findAll(pageable);
-        return suppliers.map(supplier -> {
-            int productCount = (int) productRepository.countBySupplierId(supplier.getId());
-            return supplierMapper.toDTOWithProductCount(supplier, productCount);
-        });
+        Slice<SupplierDTO> suppliers = supplierRepository.findSlice(null, pageable).map(this::withProductCount);
+        return pageTotals.page(suppliers, PageTotals.SUPPLIER_TOTALS, supplierRepository::count, "getAllSuppliers");
+    }
+
+    @Override
+    @Cacheable(value = "suppliers", keyGenerator = "pageKeyGenerator", sync = true)
+    @Transactional(readOnly = true)
+    public Slice<SupplierDTO> getSupplierSlice(Pageable pageable) {
+        log.info("Fetching a slice of suppliers: page {}, size {}", pageable.getPageNumber(), pageable.getPageSize());
+
+        return supplierRepository.findSlice(null, pageable).map(this::withProductCount);
     }
 
     @Override
-    @CacheEvict(value = "suppliers", allEntries = true)
+    @Transactional(readOnly = true)
+    public CursorPageDTO<SupplierDTO> getSuppliersAfter(String cursor, String sortBy, String sortDir, int size) {
+        log.info("Fetching suppliers after cursor {} sorted by {} {}, size {}", cursor, sortBy, sortDir, size);
+
+        KeysetPager.Window<Supplier> window = SupplierSpecifications.KEYSET.page(supplierRepository, null, cursor,
+                sortBy, sortDir, size);
+        return CursorPageDTO.of(window.content().stream().map(this::withProductCount).toList(), window.nextCursor());
+    }
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(value = "suppliersById", key = "#id"),
+            @CacheEvict(value = "suppliers", allEntries = true),
+            @CacheEvict(value = PageTotals.SUPPLIER_TOTALS, allEntries = true)
+    })
     public SupplierDTO updateSupplier(Long id, SupplierDTO supplierDTO) {
         log.info("Updating supplier with ID: {}", id);
 
@@ -88,6 +126,9 @@ public class SupplierServiceImpl implements SupplierService {
 
         supplierMapper.updateEntityFromDTO(supplierDTO, existingSupplier);
         Supplier updatedSupplier = supplierRepository.save(existingSupplier);
+        // cached product pages show the supplier name
+        cacheDependencies.supplierChanged(id);
+        searchIndex.supplierChanged(updatedSupplier);
 
         log.info("Successfully updated supplier with ID: {}", id);
         int productCount = (int) productRepository.countBySupplierId(id);
@@ -95,7 +136,11 @@ public class SupplierServiceImpl implements SupplierService {
     }
 
     @Override
-    @CacheEvict(value = "suppliers", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "suppliersById", key = "#id"),
+            @CacheEvict(value = "suppliers", allEntries = true),
+            @CacheEvict(value = PageTotals.SUPPLIER_TOTALS, allEntries = true)
+    })
     public void deleteSupplier(Long id) {
         log.info("Deleting supplier with ID: {}", id);
 
@@ -109,6 +154,8 @@ public class SupplierServiceImpl implements SupplierService {
         }
 
         supplierRepository.delete(supplier);
+        cacheDependencies.supplierChanged(id);
+        searchIndex.supplierRemoved(id);
         log.info("Successfully deleted supplier with ID: {}", id);
     }
 
@@ -119,13 +166,36 @@ public class SupplierServiceImpl implements SupplierService {
         log.info("Searching suppliers with criteria - name: {}, contactPerson: {}, city: {}, country: {}, active: {}",
                 name, contactPerson, city, country, active);
 
-        Page<Supplier> suppliers = supplierRepository.searchSuppliers(
-                name, contactPerson, city, country, active, pageable);
+        Specification<Supplier> criteria = searchCriteria(name, contactPerson, city, country, active);
+        Slice<SupplierDTO> suppliers = supplierRepository.findSlice(criteria, pageable).map(this::withProductCount);
 
-        return suppliers.map(supplier -> {
-            int productCount = (int) productRepository.countBySupplierId(supplier.getId());
-            return supplierMapper.toDTOWithProductCount(supplier, productCount);
-        });
+        return pageTotals.page(suppliers, PageTotals.SUPPLIER_TOTALS, () -> supplierRepository.count(criteria),
+                "searchSuppliers", name, contactPerson, city, country, active);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<SupplierDTO> searchSupplierSlice(String name, String contactPerson, String city,
+            String country, Boolean active, Pageable pageable) {
+        log.info("Searching a slice of suppliers - name: {}, contactPerson: {}, city: {}, country: {}, active: {}",
+                name, contactPerson, city, country, active);
+
+        return supplierRepository.findSlice(searchCriteria(name, contactPerson, city, country, active), pageable)
+                .map(this::withProductCount);
+    }
+
+    private Specification<Supplier> searchCriteria(String name, String contactPerson, String city,
+            String country, Boolean active) {
+        return Specification.where(textFilter(Field.SUPPLIER_NAME, "name", name))
+                .and(textFilter(Field.SUPPLIER_CONTACT_PERSON, "contactPerson", contactPerson))
+                .and(textFilter(Field.SUPPLIER_CITY, "city", city))
+                .and(textFilter(Field.SUPPLIER_COUNTRY, "country", country))
+                .and(SupplierSpecifications.active(active));
+    }
+
+    private SupplierDTO withProductCount(Supplier supplier) {
+        int productCount = (int) productRepository.countBySupplierId(supplier.getId());
+        return supplierMapper.toDTOWithProductCount(supplier, productCount);
     }
 
     @Override
@@ -133,7 +203,10 @@ public class SupplierServiceImpl implements SupplierService {
     public Page<SupplierDTO> getSuppliersByName(String name, Pageable pageable) {
         log.info("Fetching suppliers by name: {}", name);
 
-        Page<Supplier> suppliers = supplierRepository.findByNameContainingIgnoreCase(name, pageable);
+        long[] ids = searchIndex.matching(Field.SUPPLIER_NAME, name);
+        Page<Supplier> suppliers = ids != null
+                ? supplierRepository.findAll(SupplierSpecifications.idIn(ids), pageable)
+                : supplierRepository.findByNameContainingIgnoreCase(name, pageable);
         return suppliers.map(supplier -> {
             int productCount = (int) productRepository.countBySupplierId(supplier.getId());
             return supplierMapper.toDTOWithProductCount(supplier, productCount);
@@ -189,7 +262,7 @@ public class SupplierServiceImpl implements SupplierService {
     }
 
     @Override
-    @Cacheable(value = "activeSuppliers")
+    @Cacheable(value = "activeSuppliers", sync = true)
     @Transactional(readOnly = true)
     public List<SupplierDTO> getActiveSuppliersForDropdown() {
         log.info("Fetching active suppliers for dropdown");
@@ -204,7 +277,11 @@ public class SupplierServiceImpl implements SupplierService {
     }
 
     @Override
-    @CacheEvict(value = "suppliers", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "suppliersById", key = "#id"),
+            @CacheEvict(value = "suppliers", allEntries = true),
+            @CacheEvict(value = PageTotals.SUPPLIER_TOTALS, allEntries = true)
+    })
     public SupplierDTO activateSupplier(Long id) {
         log.info("Activating supplier with ID: {}", id);
 
@@ -214,13 +291,19 @@ public class SupplierServiceImpl implements SupplierService {
         supplier.setActive(true);
         Supplier updatedSupplier = supplierRepository.save(supplier);
 
+        cacheDependencies.supplierChanged(id);
+
         log.info("Successfully activated supplier with ID: {}", id);
         int productCount = (int) productRepository.countBySupplierId(id);
         return supplierMapper.toDTOWithProductCount(updatedSupplier, productCount);
     }
 
     @Override
-    @CacheEvict(value = "suppliers", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "suppliersById", key = "#id"),
+            @CacheEvict(value = "suppliers", allEntries = true),
+            @CacheEvict(value = PageTotals.SUPPLIER_TOTALS, allEntries = true)
+    })
     public SupplierDTO deactivateSupplier(Long id) {
         log.info("Deactivating supplier with ID: {}", id);
 
@@ -230,6 +313,8 @@ public class SupplierServiceImpl implements SupplierService {
         supplier.setActive(false);
         Supplier updatedSupplier = supplierRepository.save(supplier);
 
+        cacheDependencies.supplierChanged(id);
+
         log.info("Successfully deactivated supplier with ID: {}", id);
         int productCount = (int) productRepository.countBySupplierId(id);
         return supplierMapper.toDTOWithProductCount(updatedSupplier, productCount);
@@ -252,4 +337,15 @@ public class SupplierServiceImpl implements SupplierService {
         int productCount = supplier.getProducts() != null ? supplier.getProducts().size() : 0;
         return supplierMapper.toDTOWithProductCount(supplier, productCount);
     }
-}
\ No newline at end of file
+
+    /** Matches the term from the search text index where it can answer, else with a LIKE. */
+    private Specification<Supplier> textFilter(Field field, String attribute, String term) {
+        // the same form the total is keyed by, see PageKeyGenerator
+        String text = PageKeyGenerator.text(term);
+        if (text == null) {
+            return null;
+        }
+        long[] ids = searchIndex.matching(field, text);
+        return ids != null ? SupplierSpecifications.idIn(ids) : SupplierSpecifications.contains(attribute, text);
+    }
+}
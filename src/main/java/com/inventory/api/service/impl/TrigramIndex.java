@@ -0,0 +1,305 @@
+package com.inventory.api.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Substring index over one text attribute of rows identified by long ids.
+ * <p>
+ * Every lowercased value is split into its three-character sequences, and
+ * each sequence maps to the sorted ids of the values containing it. A query
+ * intersects the lists of the sequences in the search term, smallest first,
+ * and checks the few remaining candidates against the stored values, so
+ * results are exact and the cost follows the rarest sequence of the term
+ * rather than the number of rows.
+ * <p>
+ * Id lists are kept delta-encoded as variable-length integers, one to three
+ * bytes per id for typical id ranges. Ids appended in ascending order, as on
+ * startup and for new rows, are encoded directly; other changes collect in a
+ * small buffer that is merged in once it grows or the list is read.
+ */
+public class TrigramIndex {
+
+    private static final int GRAM = 3;
+    // lists much longer than the candidates found so far are skipped; the value check filters instead
+    private static final int INTERSECT_RATIO = 32;
+
+    private final Map<Long, String> values = new ConcurrentHashMap<>();
+    private final Map<Long, Postings> postings = new ConcurrentHashMap<>();
+
+    /** Indexes the value of a row, replacing its previous value; null removes it. */
+    public synchronized void put(long id, String value) {
+        if (value == null) {
+            remove(id);
+            return;
+        }
+        String text = value.toLowerCase(Locale.ROOT);
+        String previous = values.put(id, text);
+        if (text.equals(previous)) {
+            return;
+        }
+        Set<Long> before = previous != null ? grams(previous) : Set.of();
+        Set<Long> after = grams(text);
+        for (Long gram : before) {
+            if (!after.contains(gram)) {
+                removePosting(gram, id);
+            }
+        }
+        for (Long gram : after) {
+            if (!before.contains(gram)) {
+                postings.computeIfAbsent(gram, g -> new Postings()).add(id);
+            }
+        }
+    }
+
+    public synchronized void remove(long id) {
+        String previous = values.remove(id);
+        if (previous != null) {
+            grams(previous).forEach(gram -> removePosting(gram, id));
+        }
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Ids of the rows whose value contains the term, ignoring case, in
+     * ascending order. Returns null when the index cannot answer cheaply: for
+     * terms shorter than three characters and when more than
+     * {@code maxMatches} rows match.
+     */
+    public long[] search(String term, int maxMatches) {
+        String needle = term.toLowerCase(Locale.ROOT);
+        if (needle.length() < GRAM) {
+            return null;
+        }
+        List<Postings.View> lists = new ArrayList<>();
+        for (Long gram : grams(needle)) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list.view());
+        }
+        lists.sort(Comparator.comparingInt(Postings.View::size));
+        long[] candidates = lists.get(0).toArray();
+        for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+            if (lists.get(i).size() > (long) candidates.length * INTERSECT_RATIO) {
+                break;
+            }
+            candidates = lists.get(i).retain(candidates);
+        }
+        long[] matches = new long[Math.min(candidates.length, maxMatches)];
+        int count = 0;
+        for (long id : candidates) {
+            String value = values.get(id);
+            if (value != null && value.contains(needle)) {
+                if (count == maxMatches) {
+                    return null;
+                }
+                matches[count++] = id;
+            }
+        }
+        return count == matches.length ? matches : Arrays.copyOf(matches, count);
+    }
+
+    private void removePosting(Long gram, long id) {
+        Postings list = postings.get(gram);
+        if (list != null && list.remove(id)) {
+            postings.remove(gram, list);
+        }
+    }
+
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    /** The sorted ids of one sequence. */
+    static final class Postings {
+
+        private static final long[] NONE = new long[0];
+
+        private byte[] data = new byte[8];
+        private int length;
+        private int size;
+        private long last;
+        private long[] added = NONE;
+        private int addedCount;
+        private long[] removed = NONE;
+        private int removedCount;
+
+        /** Encoded ids as of one moment; appends only write past {@code length}. */
+        record View(byte[] data, int length, int size) {
+
+            long[] toArray() {
+                long[] ids = new long[size];
+                Cursor cursor = new Cursor(data, length);
+                for (int i = 0; i < size; i++) {
+                    ids[i] = cursor.next();
+                }
+                return ids;
+            }
+
+            /** The candidates that are also in this list, in order. */
+            long[] retain(long[] candidates) {
+                long[] kept = new long[candidates.length];
+                int count = 0;
+                Cursor cursor = new Cursor(data, length);
+                long id = cursor.hasNext() ? cursor.next() : Long.MAX_VALUE;
+                for (long candidate : candidates) {
+                    while (id < candidate) {
+                        id = cursor.hasNext() ? cursor.next() : Long.MAX_VALUE;
+                    }
+                    if (id == candidate) {
+                        kept[count++] = candidate;
+                    }
+                }
+                return Arrays.copyOf(kept, count);
+            }
+        }
+
+        synchronized void add(long id) {
+            if (removedCount > 0 && drop(removed, removedCount, id)) {
+                removedCount--;
+            } else if (addedCount == 0 && removedCount == 0 && (size == 0 || id > last)) {
+                append(id);
+            } else {
+                added = push(added, addedCount++, id);
+                compactIfLarge();
+            }
+        }
+
+        /** Returns whether the list is now empty. */
+        synchronized boolean remove(long id) {
+            if (addedCount > 0 && drop(added, addedCount, id)) {
+                addedCount--;
+            } else {
+                removed = push(removed, removedCount++, id);
+                compactIfLarge();
+            }
+            return size + addedCount - removedCount == 0;
+        }
+
+        synchronized View view() {
+            compact();
+            return new View(data, length, size);
+        }
+
+        private void compactIfLarge() {
+            if (addedCount + removedCount > 32 + size / 8) {
+                compact();
+            }
+        }
+
+        private void compact() {
+            if (addedCount == 0 && removedCount == 0) {
+                return;
+            }
+            long[] current = new View(data, length, size).toArray();
+            long[] adds = Arrays.copyOf(added, addedCount);
+            long[] drops = Arrays.copyOf(removed, removedCount);
+            Arrays.sort(adds);
+            Arrays.sort(drops);
+            data = new byte[Math.max(8, length + adds.length * 3)];
+            length = 0;
+            size = 0;
+            last = 0;
+            int a = 0;
+            int d = 0;
+            for (int i = 0; i <= current.length; i++) {
+                long next = i < current.length ? current[i] : Long.MAX_VALUE;
+                while (a < adds.length && adds[a] < next) {
+                    append(adds[a++]);
+                }
+                if (i == current.length) {
+                    break;
+                }
+                while (d < drops.length && drops[d] < next) {
+                    d++;
+                }
+                if (d < drops.length && drops[d] == next) {
+                    d++;
+                } else {
+                    append(next);
+                }
+            }
+            added = NONE;
+            addedCount = 0;
+            removed = NONE;
+            removedCount = 0;
+        }
+
+        private void append(long id) {
+            if (data.length - length < 10) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + 10));
+            }
+            long delta = id - last;
+            while ((delta & ~0x7FL) != 0) {
+                data[length++] = (byte) ((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            data[length++] = (byte) delta;
+            last = id;
+            size++;
+        }
+
+        private static long[] push(long[] ids, int count, long id) {
+            long[] target = count < ids.length ? ids : Arrays.copyOf(ids, Math.max(4, count * 2));
+            target[count] = id;
+            return target;
+        }
+
+        /** Removes one occurrence of the id from the first {@code count} entries. */
+        private static boolean drop(long[] ids, int count, long id) {
+            for (int i = 0; i < count; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[count - 1];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Cursor {
+
+        private final byte[] data;
+        private final int length;
+        private int position;
+        private long last;
+
+        Cursor(byte[] data, int length) {
+            this.data = data;
+            this.length = length;
+        }
+
+        boolean hasNext() {
+            return position < length;
+        }
+
+        long next() {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            last += delta;
+            return last;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.inventory.api.service.impl;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a cached read returning a page of products whose stock fields must
+ * be current. The cached page supplies the catalogue data; the stock is read
+ * afresh on every call, outside the cache, so stock changes never have to
+ * evict the page. Uncached cursor pages use it for the live stock of sharded
+ * products.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface WithCurrentStock {
+}
@@ -0,0 +1,139 @@
+package com.inventory.api.benchmark;
+
+import com.inventory.api.dto.ProductDTO;
+import com.inventory.api.exception.InsufficientInventoryException;
+import com.inventory.api.repository.ProductRepository;
+import com.inventory.api.service.ProductService;
+import com.inventory.api.service.impl.ShardedStockService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contention benchmark for hot-product decrements: many threads decrement one
+ * product, once with single-row stock and once with sharded stock, and the
+ * throughput of both runs is printed.
+ * <p>
+ * Not part of the regular test run (the class name does not match the
+ * Surefire includes). Run it explicitly with
+ * {@code mvn test -Dtest=ShardedStockContentionBenchmark -Dsurefire.failIfNoSpecifiedTests=false}.
+ * Tune it with {@code -Dbenchmark.threads}, {@code -Dbenchmark.decrements} and
+ * {@code -Dbenchmark.shards}.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.inventory.api=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+public class ShardedStockContentionBenchmark {
+
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 16);
+    private static final int DECREMENTS_PER_THREAD = Integer.getInteger("benchmark.decrements", 500);
+    private static final int SHARDS = Integer.getInteger("benchmark.shards", 8);
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ShardedStockService shardedStock;
+
+    @Test
+    void compareSingleRowAndShardedDecrements() throws Exception {
+        int stock = THREADS * DECREMENTS_PER_THREAD;
+
+        // warm up both paths once so JIT and connection pool effects do not favour the second run
+        run(createProduct(stock), 1);
+        run(createProduct(stock), SHARDS);
+
+        Result singleRow = run(createProduct(stock), 1);
+        Result sharded = run(createProduct(stock), SHARDS);
+
+        System.out.printf("%nHot product decrement benchmark (%d threads x %d decrements)%n",
+                THREADS, DECREMENTS_PER_THREAD);
+        System.out.printf("  single row : %8.0f ops/s%n", singleRow.opsPerSecond());
+        System.out.printf("  %2d shards  : %8.0f ops/s (%.2fx)%n%n", SHARDS, sharded.opsPerSecond(),
+                sharded.opsPerSecond() / singleRow.opsPerSecond());
+    }
+
+    private Long createProduct(int stock) {
+        ProductDTO productDTO = new ProductDTO();
+        productDTO.setName("Benchmark product");
+        productDTO.setDescription("Hot SKU used by the contention benchmark");
+        productDTO.setPrice(new BigDecimal("9.99"));
+        productDTO.setInventoryQuantity(stock);
+        productDTO.setSku("BENCH-" + UUID.randomUUID());
+        return productService.createProduct(productDTO).getId();
+    }
+
+    private Result run(Long productId, int shards) throws Exception {
+        if (shards > 1) {
+            productService.configureStockShards(productId, shards);
+        }
+        int stock = currentStock(productId, shards);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> workers = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    int applied = 0;
+                    for (int i = 0; i < DECREMENTS_PER_THREAD; i++) {
+                        try {
+                            productService.decreaseInventory(productId, 1);
+                            applied++;
+                        } catch (InsufficientInventoryException ex) {
+                            break;
+                        }
+                    }
+                    return applied;
+                }));
+            }
+
+            long startNanos = System.nanoTime();
+            start.countDown();
+            int applied = 0;
+            for (Future<Integer> worker : workers) {
+                applied += worker.get(5, TimeUnit.MINUTES);
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+
+            // every decrement succeeded exactly once and no shard went negative
+            assertEquals(THREADS * DECREMENTS_PER_THREAD, applied);
+            assertEquals(stock - applied, currentStock(productId, shards));
+            return new Result(applied, elapsedNanos);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int currentStock(Long productId, int shards) {
+        if (shards > 1) {
+            return shardedStock.total(productId);
+        }
+        return productRepository.findById(productId).orElseThrow().getInventoryQuantity();
+    }
+
+    private record Result(int operations, long elapsedNanos) {
+        double opsPerSecond() {
+            return operations / (elapsedNanos / 1_000_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.inventory.api.concurrency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashedTimingWheelTest {
+
+    private HashedTimingWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new HashedTimingWheel("test-wheel", 10, TimeUnit.MILLISECONDS, 8, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wheel.close();
+    }
+
+    @Test
+    void runsTasksAfterTheirDelay() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(2);
+        long start = System.nanoTime();
+
+        wheel.schedule(fired::countDown, 20, TimeUnit.MILLISECONDS);
+        // longer than one revolution of the 8-slot wheel
+        wheel.schedule(fired::countDown, 150, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 150);
+        assertEquals(0, wheel.outstandingTimeouts());
+    }
+
+    @Test
+    void cancelledTasksNeverRun() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch marker = new CountDownLatch(1);
+
+        HashedTimingWheel.Timeout timeout = wheel.schedule(runs::incrementAndGet, 30, TimeUnit.MILLISECONDS);
+        wheel.schedule(marker::countDown, 60, TimeUnit.MILLISECONDS);
+
+        assertTrue(timeout.cancel());
+        assertTrue(timeout.isCancelled());
+        assertFalse(timeout.cancel());
+        assertTrue(marker.await(2, TimeUnit.SECONDS));
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void cancelledTasksLeaveTheirBucketBeforeTheyAreDue() throws InterruptedException {
+        HashedTimingWheel.Timeout timeout = wheel.schedule(() -> { }, 1, TimeUnit.HOURS);
+        awaitBucketed(1);
+
+        assertTrue(timeout.cancel());
+
+        awaitBucketed(0);
+        assertEquals(0, wheel.outstandingTimeouts());
+    }
+
+    @Test
+    void rejectsSchedulingAfterClose() {
+        wheel.close();
+
+        assertThrows(IllegalStateException.class,
+                () -> wheel.schedule(() -> { }, 10, TimeUnit.MILLISECONDS));
+    }
+
+    private void awaitBucketed(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (wheel.bucketedTimeouts() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, wheel.bucketedTimeouts());
+    }
+}
@@ -0,0 +1,95 @@
+package com.inventory.api.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OptimisticRetryAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private FlakyWriter target;
+    private FlakyWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        target = new FlakyWriter();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new OptimisticRetryAspect(meterRegistry, 3, 0, 0));
+        writer = factory.getProxy();
+    }
+
+    @Test
+    void retriesUntilSuccess() {
+        target.failuresLeft.set(2);
+
+        assertEquals("written", writer.write());
+        assertEquals(3, target.calls.get());
+        assertEquals(2.0, meterRegistry.counter("inventory.write.retries", "method", "FlakyWriter.write").count());
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        target.failuresLeft.set(5);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> writer.write());
+        assertEquals(3, target.calls.get());
+        assertEquals(1.0,
+                meterRegistry.counter("inventory.write.retry.exhausted", "method", "FlakyWriter.write").count());
+    }
+
+    @Test
+    void doesNotRetryOtherExceptions() {
+        target.failuresLeft.set(0);
+
+        assertThrows(IllegalStateException.class, () -> writer.fail());
+        assertEquals(1, target.calls.get());
+    }
+
+    @Test
+    void stopsRetryingWhenInterruptedDuringBackoff() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new OptimisticRetryAspect(meterRegistry, 3, 1_000, 1_000));
+        FlakyWriter slowWriter = factory.getProxy();
+        target.failuresLeft.set(5);
+
+        Thread.currentThread().interrupt();
+        try {
+            OptimisticLockingFailureException ex = assertThrows(OptimisticLockingFailureException.class,
+                    slowWriter::write);
+            assertInstanceOf(InterruptedException.class, ex.getSuppressed()[0]);
+            assertTrue(Thread.currentThread().isInterrupted());
+            assertEquals(1, target.calls.get());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    static class FlakyWriter {
+        final AtomicInteger failuresLeft = new AtomicInteger();
+        final AtomicInteger calls = new AtomicInteger();
+
+        @RetryOnConflict
+        public String write() {
+            calls.incrementAndGet();
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new OptimisticLockingFailureException("stale version");
+            }
+            return "written";
+        }
+
+        @RetryOnConflict
+        public String fail() {
+            calls.incrementAndGet();
+            throw new IllegalStateException("boom");
+        }
+    }
+}
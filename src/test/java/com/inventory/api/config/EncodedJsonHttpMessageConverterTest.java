@@ -0,0 +1,85 @@
+package com.inventory.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.api.dto.ProductDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EncodedJsonHttpMessageConverterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final EncodedJsonHttpMessageConverter converter =
+            new EncodedJsonHttpMessageConverter(objectMapper, 100, 64);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void cachedBodiesAreEncodedOnce() throws Exception {
+        ProductDTO product = product();
+        String first = write(new EncodedJsonHttpMessageConverter.Reusable(product)).getBodyAsString();
+
+        // a cached body is never modified; changing it here shows the bytes were reused
+        product.setName("Changed");
+        String second = write(new EncodedJsonHttpMessageConverter.Reusable(product)).getBodyAsString();
+
+        assertEquals(first, second);
+        assertEquals(objectMapper.writeValueAsString(product()), first);
+        assertEquals(1, converter.encodedBodies().estimatedSize());
+    }
+
+    @Test
+    void otherBodiesAreEncodedEveryTime() throws Exception {
+        ProductDTO product = product();
+        write(product);
+        product.setName("Changed");
+
+        assertTrue(write(product).getBodyAsString().contains("Changed"));
+        assertEquals(0, converter.encodedBodies().estimatedSize());
+    }
+
+    @Test
+    void gzipClientsGetTheCompressedEncoding() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        MockHttpOutputMessage response = write(new EncodedJsonHttpMessageConverter.Reusable(product()));
+
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(response.getBodyAsBytes().length, response.getHeaders().getContentLength());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getBodyAsBytes()))) {
+            assertArrayEquals(objectMapper.writeValueAsBytes(product()), in.readAllBytes());
+        }
+    }
+
+    private MockHttpOutputMessage write(Object body) throws Exception {
+        MockHttpOutputMessage response = new MockHttpOutputMessage();
+        converter.write(body, MediaType.APPLICATION_JSON, response);
+        return response;
+    }
+
+    private static ProductDTO product() {
+        return ProductDTO.builder()
+                .id(1L)
+                .name("Product 1")
+                .description("A product with a description long enough to be worth compressing")
+                .price(new BigDecimal("9.99"))
+                .inventoryQuantity(5)
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.inventory.api.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InventoryCacheManagerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CacheProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = bind(Map.of(
+                "inventory.cache.defaults.maximum-size", "100",
+                "inventory.cache.defaults.expire-after-write", "10m",
+                "inventory.cache.defaults.record-stats", "true",
+                "inventory.cache.caches[products].maximum-size", "2",
+                "inventory.cache.caches[products].expire-after-access", "30m",
+                "inventory.cache.caches[productsSearch].maximum-weight", "5"));
+    }
+
+    @Test
+    void bindsPerCacheSettingsOnTopOfTheDefaults() {
+        CacheProperties.Spec products = properties.resolve("products");
+        assertEquals(2L, products.getMaximumSize());
+        assertEquals(Duration.ofMinutes(30), products.getExpireAfterAccess());
+        assertEquals(Duration.ofMinutes(10), products.getExpireAfterWrite());
+        assertTrue(products.getRecordStats());
+
+        CacheProperties.Spec search = properties.resolve("productsSearch");
+        assertEquals(5L, search.getMaximumWeight());
+        assertNull(search.getMaximumSize(), "a weight-bounded cache must not inherit the default size");
+    }
+
+    @Test
+    void declaredCachesAreCreatedUpFrontAndBounded() {
+        InventoryCacheManager cacheManager = cacheManager();
+
+        assertTrue(cacheManager.getCacheNames().containsAll(List.of("products", "productsSearch")));
+        Cache<Object, Object> products = nativeCache(cacheManager, "products");
+        for (long id = 1; id <= 10; id++) {
+            products.put(id, "product " + id);
+        }
+        products.cleanUp();
+
+        assertEquals(2, products.estimatedSize());
+        assertTrue(products.stats().evictionCount() >= 8);
+        Policy.FixedExpiration<Object, Object> idle = products.policy().expireAfterAccess().orElseThrow();
+        assertEquals(30, idle.getExpiresAfter(TimeUnit.MINUTES));
+    }
+
+    @Test
+    void weightBoundedCachesCountTheElementsOfEachEntry() {
+        InventoryCacheManager cacheManager = cacheManager();
+        Cache<Object, Object> search = nativeCache(cacheManager, "productsSearch");
+
+        search.put("a", List.of(1, 2, 3));
+        search.put("b", List.of(4, 5, 6));
+        search.cleanUp();
+
+        assertEquals(5, search.policy().eviction().orElseThrow().getMaximum());
+        assertEquals(1, search.estimatedSize());
+    }
+
+    @Test
+    void recordsHitsAndMisses() {
+        InventoryCacheManager cacheManager = cacheManager();
+        org.springframework.cache.Cache products = cacheManager.getCache("products");
+
+        assertNull(products.get(1L));
+        products.put(1L, "product 1");
+        assertNotNull(products.get(1L));
+
+        Cache<Object, Object> nativeCache = nativeCache(cacheManager, "products");
+        assertEquals(1, nativeCache.stats().hitCount());
+        assertEquals(1, nativeCache.stats().missCount());
+    }
+
+    @Test
+    void undeclaredCachesGetTheDefaultsAndMetrics() {
+        InventoryCacheManager cacheManager = cacheManager();
+
+        Cache<Object, Object> undeclared = nativeCache(cacheManager, "somethingNew");
+
+        assertEquals(100, undeclared.policy().eviction().orElseThrow().getMaximum());
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", "somethingNew").meter());
+    }
+
+    private InventoryCacheManager cacheManager() {
+        InventoryCacheManager cacheManager = new InventoryCacheManager(properties, meterRegistry);
+        cacheManager.afterPropertiesSet();
+        return cacheManager;
+    }
+
+    private static Cache<Object, Object> nativeCache(InventoryCacheManager cacheManager, String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
+
+    private static CacheProperties bind(Map<String, String> values) {
+        return new Binder(new MapConfigurationPropertySource(values))
+                .bind("inventory.cache", CacheProperties.class)
+                .get();
+    }
+}
@@ -0,0 +1,227 @@
+package com.inventory.api.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.inventory.api.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightCaffeineCacheTest {
+
+    private final SingleFlightCaffeineCache cache =
+            new SingleFlightCaffeineCache("products", Caffeine.newBuilder().maximumSize(100).build());
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = missConcurrently(8, () -> {
+            loads.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return "product 1";
+        }, release);
+
+        for (Future<String> result : results) {
+            assertEquals("product 1", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.loads());
+        assertEquals(7, cache.deduplicatedLoads());
+        assertEquals("product 1", cache.get(1L, String.class));
+    }
+
+    @Test
+    void waitingCallersShareTheLoadFailure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = missConcurrently(4, () -> {
+            release.await(5, TimeUnit.SECONDS);
+            throw new ResourceNotFoundException("Product not found with id: 1");
+        }, release);
+
+        for (Future<String> result : results) {
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(Cache.ValueRetrievalException.class, ex.getCause());
+            assertInstanceOf(ResourceNotFoundException.class, ex.getCause().getCause());
+        }
+        assertNull(cache.get(1L));
+
+        // a failed load is not remembered, the next miss loads again
+        assertEquals("product 1", cache.get(1L, () -> "product 1"));
+    }
+
+    @Test
+    void hitsDoNotLoad() {
+        cache.put(1L, "product 1");
+
+        assertEquals("product 1", cache.get(1L, () -> fail("must not load on a hit")));
+        assertEquals(0, cache.loads());
+    }
+
+    @Test
+    void missesAreRememberedUntilTheKeyIsStored() {
+        cache.cacheMisses(Caffeine.newBuilder().maximumSize(100).build());
+        AtomicInteger loads = new AtomicInteger();
+        Callable<String> notFound = () -> {
+            loads.incrementAndGet();
+            throw new ResourceNotFoundException("Product not found with id: 1");
+        };
+
+        Cache.ValueRetrievalException first = assertThrows(Cache.ValueRetrievalException.class,
+                () -> cache.get(1L, notFound));
+        Cache.ValueRetrievalException second = assertThrows(Cache.ValueRetrievalException.class,
+                () -> cache.get(1L, notFound));
+        assertSame(first.getCause(), second.getCause());
+        assertEquals(0, first.getCause().getStackTrace().length);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.missHits());
+
+        // creating the product stores or evicts its key
+        cache.evict(1L);
+        assertEquals("product 1", cache.get(1L, () -> "product 1"));
+    }
+
+    @Test
+    void staleEntryIsServedWhileOneRefreshReplacesIt() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger refreshes = new AtomicInteger();
+        try (CacheRefresher refresher = new CacheRefresher(1, 10, null)) {
+            SingleFlightCaffeineCache swr = staleWhileRevalidate(1, TimeUnit.HOURS.toNanos(1), refresher);
+            swr.put(1L, "stale");
+
+            Callable<String> loader = () -> {
+                refreshes.incrementAndGet();
+                release.await(5, TimeUnit.SECONDS);
+                return "fresh";
+            };
+            assertEquals("stale", swr.get(1L, loader));
+            assertEquals("stale", swr.get(1L, loader));
+            release.countDown();
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!"fresh".equals(swr.get(1L, String.class)) && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals("fresh", swr.get(1L, String.class));
+            assertEquals(1, refreshes.get());
+            assertEquals(2, swr.staleReads());
+            assertEquals(0, swr.loads());
+        }
+    }
+
+    @Test
+    void pastTheHardTtlCallersWaitForTheLoad() {
+        try (CacheRefresher refresher = new CacheRefresher(1, 10, null)) {
+            SingleFlightCaffeineCache swr = staleWhileRevalidate(1, 1, refresher);
+            swr.put(1L, "expired");
+
+            assertEquals("fresh", swr.get(1L, () -> "fresh"));
+            assertEquals(1, swr.loads());
+            assertEquals(0, swr.staleReads());
+        }
+    }
+
+    @Test
+    void failedLoadPastTheHardTtlServesTheStaleEntryAndMarksTheRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try (CacheRefresher refresher = new CacheRefresher(1, 10, null)) {
+            SingleFlightCaffeineCache swr = staleWhileRevalidate(1, 1, refresher);
+            swr.put(1L, "expired");
+
+            assertEquals("expired", swr.get(1L, () -> {
+                throw new CannotCreateTransactionException("database is down");
+            }));
+            assertEquals(1, swr.staleReads());
+            assertEquals(List.of("categoriesList"), List.copyOf(StaleCacheReads.current().keySet()));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    void failedLoadPastTheHardTtlOnlyServesStaleForTransientFailures() {
+        try (CacheRefresher refresher = new CacheRefresher(1, 10, null)) {
+            SingleFlightCaffeineCache swr = staleWhileRevalidate(1, 1, refresher);
+            swr.put(1L, "expired");
+
+            assertThrows(Cache.ValueRetrievalException.class, () -> swr.get(1L, () -> {
+                throw new IllegalStateException("bug in the loader");
+            }));
+            assertEquals("expired", swr.get(1L, () -> {
+                throw new IllegalStateException(new QueryTimeoutException("statement timed out"));
+            }));
+            assertEquals(1, swr.staleReads());
+        }
+    }
+
+    @Test
+    void valueFoundGoneEvictsTheStaleEntry() throws Exception {
+        try (CacheRefresher refresher = new CacheRefresher(1, 10, null)) {
+            SingleFlightCaffeineCache expired = staleWhileRevalidate(1, 1, refresher);
+            expired.put(1L, "expired");
+            Callable<String> gone = () -> {
+                throw new ResourceNotFoundException("Category not found with id: 1");
+            };
+
+            assertThrows(Cache.ValueRetrievalException.class, () -> expired.get(1L, gone));
+            assertNull(expired.get(1L, String.class));
+            assertEquals(0, expired.staleReads());
+
+            SingleFlightCaffeineCache stale = staleWhileRevalidate(1, TimeUnit.HOURS.toNanos(1), refresher);
+            stale.put(1L, "stale");
+            assertEquals("stale", stale.get(1L, gone));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (stale.get(1L, String.class) != null && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertNull(stale.get(1L, String.class));
+        }
+    }
+
+    private static SingleFlightCaffeineCache staleWhileRevalidate(long staleAfterNanos, long expireAfterNanos,
+            CacheRefresher refresher) {
+        return new SingleFlightCaffeineCache("categoriesList", Caffeine.newBuilder().maximumSize(100).build(),
+                staleAfterNanos, expireAfterNanos, refresher);
+    }
+
+    private List<Future<String>> missConcurrently(int callers, Callable<String> loader,
+            CountDownLatch release) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch started = new CountDownLatch(callers);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> {
+                started.countDown();
+                return cache.get(1L, loader);
+            }));
+        }
+        started.await(5, TimeUnit.SECONDS);
+        // give the followers time to find the load in flight before it completes
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cache.deduplicatedLoads() < callers - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        return results;
+    }
+}
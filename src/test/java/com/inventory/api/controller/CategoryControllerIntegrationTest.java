@@ -2,8 +2,10 @@ package com.inventory.api.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.inventory.api.dto.CategoryDTO;
+import com.inventory.api.dto.CursorPageDTO;
 import com.inventory.api.dto.ProductDTO;
 import com.inventory.api.service.CategoryService;
+import com.inventory.api.service.EntityTagService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,6 +38,9 @@ public class CategoryControllerIntegrationTest {
     @MockBean
     private CategoryService categoryService;
 
+    @MockBean
+    private EntityTagService entityTagService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -138,4 +143,18 @@ public class CategoryControllerIntegrationTest {
 
         verify(categoryService).getProductsByCategory(eq(1L), org.mockito.ArgumentMatchers.any(Pageable.class));
     }
+
+    @Test
+    void getProductsByCategory_CursorTakesPrecedenceOverWithTotal() throws Exception {
+        when(categoryService.getProductsByCategoryAfter(1L, "", "id", "asc", 20))
+                .thenReturn(CursorPageDTO.of(List.of(productDTO), null));
+
+        mockMvc.perform(get("/api/categories/1/products").param("cursor", "").param("withTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.hasNext", is(false)));
+
+        verify(categoryService, never()).getProductSliceByCategory(anyLong(),
+                org.mockito.ArgumentMatchers.any(Pageable.class));
+    }
 }
\ No newline at end of file
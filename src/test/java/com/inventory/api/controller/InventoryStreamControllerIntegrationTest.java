@@ -0,0 +1,59 @@
+package com.inventory.api.controller;
+
+import com.inventory.api.exception.StreamCapacityException;
+import com.inventory.api.service.InventoryStreamService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(InventoryStreamController.class)
+public class InventoryStreamControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private InventoryStreamService inventoryStreamService;
+
+    @Test
+    void streamInventoryChanges_OpensStreamWithFilter() throws Exception {
+        when(inventoryStreamService.subscribe(any(), any())).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/products/inventory/stream")
+                .param("productIds", "1", "2")
+                .param("categoryId", "7")
+                .param("lowStockTransitions", "true")
+                .param("overflow", "DROP")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        ArgumentCaptor<InventoryStreamService.Filter> filter = ArgumentCaptor.forClass(InventoryStreamService.Filter.class);
+        verify(inventoryStreamService).subscribe(filter.capture(), eq(InventoryStreamService.OverflowPolicy.DROP));
+        assertEquals(Set.of(1L, 2L), filter.getValue().productIds());
+        assertEquals(7L, filter.getValue().categoryId());
+        assertTrue(filter.getValue().lowStockTransitionsOnly());
+    }
+
+    @Test
+    void streamInventoryChanges_RejectsWhenFull() throws Exception {
+        when(inventoryStreamService.subscribe(any(), any()))
+                .thenThrow(new StreamCapacityException("The inventory stream is at its limit"));
+
+        mockMvc.perform(get("/api/products/inventory/stream"))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
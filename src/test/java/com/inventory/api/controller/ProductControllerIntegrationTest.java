@@ -1,8 +1,15 @@
 package com.inventory.api.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.api.dto.BulkInventoryRequestDTO;
+import com.inventory.api.dto.BulkInventoryResultDTO;
+import com.inventory.api.dto.CursorPageDTO;
+import com.inventory.api.dto.InventoryAdjustmentDTO;
+import com.inventory.api.dto.InventoryAdjustmentResultDTO;
 import com.inventory.api.dto.InventoryUpdateDTO;
 import com.inventory.api.dto.ProductDTO;
+import com.inventory.api.service.EntityTagService;
+import com.inventory.api.service.IdempotencyService;
 import com.inventory.api.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,10 +25,13 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -38,6 +48,12 @@ public class ProductControllerIntegrationTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @MockBean
+    private EntityTagService entityTagService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -46,6 +62,9 @@ public class ProductControllerIntegrationTest {
 
     @BeforeEach
     void setUp() {
+        when(idempotencyService.execute(any(), anyString(), any(), any())).thenAnswer(invocation ->
+                new IdempotencyService.Outcome<>(invocation.<Supplier<?>>getArgument(3).get(), false));
+
         productDTO = new ProductDTO();
         productDTO.setId(1L);
         productDTO.setName("Test Product");
@@ -88,6 +107,28 @@ public class ProductControllerIntegrationTest {
         verify(productService).getProductById(1L);
     }
 
+    @Test
+    void getProductById_NotModified() throws Exception {
+        when(entityTagService.product(1L)).thenReturn("\"p1-abc-3\"");
+
+        mockMvc.perform(get("/api/products/1").header("If-None-Match", "\"p1-abc-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"p1-abc-3\""));
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void getProductById_ChangedSinceTag() throws Exception {
+        when(entityTagService.product(1L)).thenReturn("\"p1-abc-4\"");
+        when(productService.getProductById(1L)).thenReturn(productDTO);
+
+        mockMvc.perform(get("/api/products/1").header("If-None-Match", "\"p1-abc-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"p1-abc-4\""))
+                .andExpect(jsonPath("$.id", is(1)));
+    }
+
     @Test
     void getAllProducts_Success() throws Exception {
         List<ProductDTO> products = Arrays.asList(productDTO);
@@ -103,6 +144,32 @@ public class ProductControllerIntegrationTest {
         verify(productService).getAllProducts(org.mockito.ArgumentMatchers.any(Pageable.class));
     }
 
+    @Test
+    void getProducts_CursorTakesPrecedenceOverWithTotal() throws Exception {
+        when(productService.getProductsAfter("", "id", "asc", 20))
+                .thenReturn(CursorPageDTO.of(List.of(productDTO), "next"));
+
+        mockMvc.perform(get("/api/products").param("cursor", "").param("withTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+
+        verify(productService, never()).getProductSlice(any(Pageable.class));
+    }
+
+    @Test
+    void getLowStockProducts_ReturnsPage() throws Exception {
+        productDTO.setLowStock(true);
+        when(productService.getLowStockProducts(org.mockito.ArgumentMatchers.any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(productDTO)));
+
+        mockMvc.perform(get("/api/products/low-stock").param("page", "0").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].lowStock", is(true)))
+                .andExpect(jsonPath("$.totalElements", is(1)));
+    }
+
     @Test
     void updateProduct_Success() throws Exception {
         when(productService.updateProduct(anyLong(), org.mockito.ArgumentMatchers.any(ProductDTO.class)))
@@ -193,7 +260,7 @@ public class ProductControllerIntegrationTest {
     void searchProducts_Success() throws Exception {
         List<ProductDTO> products = Arrays.asList(productDTO);
         Page<ProductDTO> productPage = new PageImpl<>(products);
-        when(productService.searchProducts(anyString(), org.mockito.ArgumentMatchers.any(Long.class),
+        when(productService.searchProducts(anyString(), isNull(), org.mockito.ArgumentMatchers.any(Long.class),
                 org.mockito.ArgumentMatchers.any(BigDecimal.class),
                 org.mockito.ArgumentMatchers.any(BigDecimal.class),
                 org.mockito.ArgumentMatchers.any(Boolean.class),
@@ -209,8 +276,59 @@ public class ProductControllerIntegrationTest {
                 .andExpect(jsonPath("$.content", hasSize(1)))
                 .andExpect(jsonPath("$.content[0].name", is("Test Product")));
 
-        verify(productService).searchProducts(eq("Test"), eq(1L),
+        verify(productService).searchProducts(eq("Test"), isNull(), eq(1L),
                 eq(new BigDecimal("50.00")), eq(new BigDecimal("150.00")), eq(true),
                 org.mockito.ArgumentMatchers.any(Pageable.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void bulkAdjustInventory_Success() throws Exception {
+        BulkInventoryResultDTO result = BulkInventoryResultDTO.builder()
+                .applied(1)
+                .failed(0)
+                .results(List.of(InventoryAdjustmentResultDTO.builder()
+                        .id(1L)
+                        .status(InventoryAdjustmentResultDTO.Status.APPLIED)
+                        .inventoryQuantity(15)
+                        .build()))
+                .build();
+        when(productService.bulkAdjustInventory(anyList())).thenReturn(result);
+
+        BulkInventoryRequestDTO request = new BulkInventoryRequestDTO(
+                List.of(InventoryAdjustmentDTO.builder().id(1L).delta(5).build()));
+
+        mockMvc.perform(post("/api/products/inventory/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied", is(1)))
+                .andExpect(jsonPath("$.results[0].status", is("APPLIED")))
+                .andExpect(jsonPath("$.results[0].inventoryQuantity", is(15)));
+
+        verify(productService).bulkAdjustInventory(anyList());
+    }
+
+    @Test
+    void bulkAdjustInventory_EmptyRequest() throws Exception {
+        mockMvc.perform(post("/api/products/inventory/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"items\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void increaseInventory_ReplaysDuplicateIdempotencyKey() throws Exception {
+        doReturn(new IdempotencyService.Outcome<>(productDTO, true))
+                .when(idempotencyService).execute(eq("retry-1"), anyString(), eq(ProductDTO.class), any());
+
+        mockMvc.perform(post("/api/products/1/inventory/increase")
+                .header("Idempotency-Key", "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(inventoryUpdateDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id", is(1)));
+
+        verify(productService, never()).increaseInventory(anyLong(), anyInt());
+    }
+}
@@ -0,0 +1,89 @@
+package com.inventory.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.api.dto.InventoryAvailabilityDTO;
+import com.inventory.api.dto.ReservationDTO;
+import com.inventory.api.dto.ReservationRequestDTO;
+import com.inventory.api.exception.ReservationStateException;
+import com.inventory.api.service.ReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReservationController.class)
+public class ReservationControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReservationService reservationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ReservationDTO reservationDTO;
+
+    @BeforeEach
+    void setUp() {
+        reservationDTO = ReservationDTO.builder()
+                .id(7L)
+                .productId(1L)
+                .quantity(3)
+                .status("ACTIVE")
+                .expiresAt(LocalDateTime.now().plusMinutes(15))
+                .build();
+    }
+
+    @Test
+    void reserve_Success() throws Exception {
+        when(reservationService.reserve(1L, 3, 60L)).thenReturn(reservationDTO);
+
+        mockMvc.perform(post("/api/products/1/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ReservationRequestDTO(3, 60L))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is(7)))
+                .andExpect(jsonPath("$.status", is("ACTIVE")));
+    }
+
+    @Test
+    void reserve_InvalidQuantity() throws Exception {
+        mockMvc.perform(post("/api/products/1/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\": 0}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(reservationService);
+    }
+
+    @Test
+    void getAvailability_Success() throws Exception {
+        when(reservationService.getAvailability(1L)).thenReturn(InventoryAvailabilityDTO.builder()
+                .productId(1L).onHand(10).reserved(3).available(7).build());
+
+        mockMvc.perform(get("/api/products/1/reservations"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available", is(7)));
+    }
+
+    @Test
+    void confirm_NoLongerActive() throws Exception {
+        when(reservationService.confirm(1L, 7L))
+                .thenThrow(new ReservationStateException("Reservation 7 is EXPIRED and can no longer be confirmed"));
+
+        mockMvc.perform(post("/api/products/1/reservations/7/confirm"))
+                .andExpect(status().isConflict());
+    }
+}
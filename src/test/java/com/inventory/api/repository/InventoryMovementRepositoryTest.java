@@ -0,0 +1,100 @@
+package com.inventory.api.repository;
+
+import com.inventory.api.model.InventoryMovement;
+import com.inventory.api.model.InventorySnapshot;
+import com.inventory.api.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class InventoryMovementRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private InventoryMovementRepository movementRepository;
+
+    @Autowired
+    private InventorySnapshotRepository snapshotRepository;
+
+    private final LocalDateTime start = LocalDateTime.now().minusHours(1);
+
+    @BeforeEach
+    void setUp() {
+        movementRepository.appendAll(List.of(
+                movement(1L, InventoryMovement.Type.SET, 10, start),
+                movement(2L, InventoryMovement.Type.SET, 3, start),
+                movement(1L, InventoryMovement.Type.INCREASE, 5, start.plusMinutes(10)),
+                movement(1L, InventoryMovement.Type.DECREASE, 2, start.plusMinutes(20))));
+    }
+
+    @Test
+    void appendAll_PreservesOrder() {
+        List<InventoryMovement> movements = movementRepository.findReplayRange(1L, 0L, Long.MAX_VALUE);
+
+        assertEquals(3, movements.size());
+        assertEquals(InventoryMovement.Type.SET, movements.get(0).getType());
+        assertEquals(InventoryMovement.Type.DECREASE, movements.get(2).getType());
+    }
+
+    @Test
+    void findLastIdAt_EndsTheReplayRangeAtPointInTime() {
+        Long upToId = movementRepository.findLastIdAt(1L, start.plusMinutes(15));
+        List<InventoryMovement> movements = movementRepository.findReplayRange(1L, 0L, upToId);
+
+        assertEquals(2, movements.size());
+        assertEquals(15, movements.get(1).applyTo(movements.get(0).applyTo(0)));
+        assertNull(movementRepository.findLastIdAt(1L, start.minusMinutes(1)));
+    }
+
+    @Test
+    void findProductIdsWithMovementsBetween_Success() {
+        long maxId = movementRepository.findMaxId();
+
+        List<Long> productIds = movementRepository.findProductIdsWithMovementsBetween(maxId - 3, maxId);
+
+        assertEquals(2, productIds.size());
+        assertTrue(productIds.containsAll(List.of(1L, 2L)));
+    }
+
+    @Test
+    void insertOpeningBalances_OnlyForProductsWithoutHistory() {
+        Product product = new Product();
+        product.setName("Monitor");
+        product.setDescription("27 inch monitor");
+        product.setPrice(new BigDecimal("299.99"));
+        product.setInventoryQuantity(12);
+        product.setSku("MONITOR-789");
+        entityManager.persist(product);
+        entityManager.flush();
+
+        snapshotRepository.insertOpeningBalances(LocalDateTime.now());
+
+        InventorySnapshot snapshot = snapshotRepository
+                .findFirstByProductIdOrderByLastMovementIdDesc(product.getId()).orElseThrow();
+        assertEquals(12, snapshot.getQuantity());
+        assertEquals(0, snapshot.getLastMovementId());
+        assertEquals(0, snapshotRepository.insertOpeningBalances(LocalDateTime.now()));
+    }
+
+    private InventoryMovement movement(Long productId, InventoryMovement.Type type, int quantity,
+            LocalDateTime occurredAt) {
+        return InventoryMovement.builder()
+                .productId(productId)
+                .type(type)
+                .quantity(quantity)
+                .source(InventoryMovement.Source.INCREASE)
+                .occurredAt(occurredAt)
+                .build();
+    }
+}
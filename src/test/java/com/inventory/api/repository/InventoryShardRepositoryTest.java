@@ -0,0 +1,90 @@
+package com.inventory.api.repository;
+
+import com.inventory.api.model.InventoryShard;
+import com.inventory.api.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class InventoryShardRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private InventoryShardRepository shardRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = new Product();
+        product.setName("Console");
+        product.setDescription("Limited edition console");
+        product.setPrice(new BigDecimal("499.99"));
+        product.setInventoryQuantity(0);
+        product.setSku("CONSOLE-1");
+        product.setLowStockThreshold(5);
+        product.setStockShards(2);
+        entityManager.persist(product);
+
+        shardRepository.saveAll(List.of(
+                InventoryShard.builder().productId(product.getId()).shardIndex(0).quantity(3).build(),
+                InventoryShard.builder().productId(product.getId()).shardIndex(1).quantity(4).build()));
+        entityManager.flush();
+    }
+
+    @Test
+    void adjustShard_KeepsShardNonNegative() {
+        assertEquals(0, shardRepository.adjustShard(product.getId(), 0, -4));
+        assertEquals(1, shardRepository.adjustShard(product.getId(), 1, -4));
+
+        assertEquals(3, shardRepository.sumQuantity(product.getId()));
+    }
+
+    @Test
+    void sumQuantities_GroupsTheShardsOfEachProduct() {
+        List<Object[]> totals = shardRepository.sumQuantities(List.of(product.getId(), -1L));
+
+        assertEquals(1, totals.size());
+        assertEquals(product.getId(), totals.get(0)[0]);
+        assertEquals(7L, ((Number) totals.get(0)[1]).longValue());
+    }
+
+    @Test
+    void adjustInventory_IgnoresShardedProduct() {
+        assertEquals(0, productRepository.adjustInventory(product.getId(), 5));
+        assertEquals(0, productRepository.reserveInventory(product.getId(), 1));
+    }
+
+    @Test
+    void rollUpShardedProducts_CopiesShardTotals() {
+        Long version = product.getVersion();
+
+        assertEquals(1, shardRepository.rollUpShardedProducts());
+        entityManager.clear();
+
+        Product reloaded = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(7, reloaded.getInventoryQuantity());
+        assertFalse(reloaded.isLowStock());
+        assertTrue(reloaded.getVersion() > version);
+    }
+
+    @Test
+    void rollUpShardedProducts_LeavesUnchangedRowsAlone() {
+        shardRepository.rollUpShardedProducts();
+
+        assertEquals(0, shardRepository.rollUpShardedProducts());
+    }
+}
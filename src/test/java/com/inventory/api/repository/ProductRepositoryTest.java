@@ -1,5 +1,7 @@
 package com.inventory.api.repository;
 
+import com.inventory.api.exception.InvalidCursorException;
+import com.inventory.api.exception.InvalidSortException;
 import com.inventory.api.model.Category;
 import com.inventory.api.model.Product;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,11 +9,22 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
+import javax.sql.DataSource;
 import java.math.BigDecimal;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,6 +40,9 @@ public class ProductRepositoryTest {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private DataSource dataSource;
+
     private Category category;
     private Product product1;
     private Product product2;
@@ -103,6 +119,40 @@ public class ProductRepositoryTest {
         assertEquals("Smartphone", products.getContent().get(0).getName());
     }
 
+    @Test
+    void searchSpecification_CombinesEveryGivenCriterion() {
+        Product outOfStock = new Product();
+        outOfStock.setName("Phone case");
+        outOfStock.setDescription("Protective case");
+        outOfStock.setPrice(new BigDecimal("19.99"));
+        outOfStock.setInventoryQuantity(0);
+        outOfStock.setSku("CASE-789");
+        outOfStock.setCategory(category);
+        entityManager.persist(outOfStock);
+        entityManager.flush();
+
+        Page<Product> phones = productRepository.findAll(ProductSpecifications.nameContains("PHONE")
+                .and(ProductSpecifications.attributes(category.getId(), null, null, null)), PageRequest.of(0, 10));
+        Page<Product> inStockPhones = productRepository.findAll(ProductSpecifications.nameContains("phone")
+                .and(ProductSpecifications.attributes(category.getId(), null, new BigDecimal("1000"), true)),
+                PageRequest.of(0, 10));
+        Page<Product> all = productRepository.findAll(
+                ProductSpecifications.attributes(null, null, null, false), PageRequest.of(0, 10));
+
+        assertEquals(2, phones.getTotalElements());
+        assertEquals(1, inStockPhones.getTotalElements());
+        assertEquals("Smartphone", inStockPhones.getContent().get(0).getName());
+        assertEquals(3, all.getTotalElements());
+    }
+
+    @Test
+    void searchSpecification_MatchesLikeWildcardsLiterally() {
+        Page<Product> products = productRepository.findAll(
+                ProductSpecifications.nameContains("%"), PageRequest.of(0, 10));
+
+        assertEquals(0, products.getTotalElements());
+    }
+
     @Test
     void save_Success() {
         Product newProduct = new Product();
@@ -127,4 +177,180 @@ public class ProductRepositoryTest {
 
         assertFalse(productRepository.findById(product1.getId()).isPresent());
     }
-}
\ No newline at end of file
+
+    @Test
+    void adjustInventory_AppliesDeltaAndRecomputesLowStock() {
+        int updated = productRepository.adjustInventory(product2.getId(), -16);
+
+        assertEquals(1, updated);
+        Product reloaded = productRepository.findById(product2.getId()).orElseThrow();
+        assertEquals(4, reloaded.getInventoryQuantity());
+        assertTrue(reloaded.isLowStock());
+    }
+
+    @Test
+    void adjustInventory_RejectsOversell() {
+        int updated = productRepository.adjustInventory(product2.getId(), -21);
+
+        assertEquals(0, updated);
+        assertEquals(20, productRepository.findById(product2.getId()).orElseThrow().getInventoryQuantity());
+    }
+
+    @Test
+    void reserveInventory_HeldStockCannotBeDecremented() {
+        assertEquals(1, productRepository.reserveInventory(product2.getId(), 15));
+        assertEquals(0, productRepository.reserveInventory(product2.getId(), 6));
+
+        // only 5 units are unreserved
+        assertEquals(0, productRepository.adjustInventory(product2.getId(), -6));
+        assertEquals(1, productRepository.adjustInventory(product2.getId(), -5));
+    }
+
+    @Test
+    void commitReservedInventory_ConsumesHold() {
+        productRepository.reserveInventory(product2.getId(), 15);
+
+        assertEquals(1, productRepository.commitReservedInventory(product2.getId(), 15));
+
+        Product reloaded = productRepository.findById(product2.getId()).orElseThrow();
+        assertEquals(5, reloaded.getInventoryQuantity());
+        assertEquals(0, reloaded.getReservedQuantity());
+        assertTrue(reloaded.isLowStock());
+    }
+
+    @Test
+    void batchAdjustInventory_AppliesChangesInOrder() {
+        List<ProductRepositoryCustom.InventoryChange> changes = List.of(
+                new ProductRepositoryCustom.InventoryChange(product1.getId(), false, 5),
+                new ProductRepositoryCustom.InventoryChange(product2.getId(), true, 3),
+                new ProductRepositoryCustom.InventoryChange(product2.getId(), false, -10));
+
+        int[] counts = productRepository.batchAdjustInventory(changes);
+
+        assertArrayEquals(new int[] { 1, 1, 0 }, counts);
+        Map<Long, ProductRepositoryCustom.StockLevel> levels = productRepository.findStockLevels(
+                List.of(product1.getId(), product2.getId()));
+        assertEquals(55, levels.get(product1.getId()).quantity());
+        assertEquals(3, levels.get(product2.getId()).quantity());
+        assertTrue(levels.get(product2.getId()).lowStock());
+    }
+
+    @Test
+    void batchAdjustInventory_ReplaysChangesWhenTheDriverReportsNoCounts() {
+        JdbcTemplate noInfo = new JdbcTemplate(dataSource) {
+            @Override
+            public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                    ParameterizedPreparedStatementSetter<T> pss) {
+                int[][] counts = super.batchUpdate(sql, batchArgs, batchSize, pss);
+                for (int[] batch : counts) {
+                    Arrays.fill(batch, Statement.SUCCESS_NO_INFO);
+                }
+                return counts;
+            }
+        };
+        ProductRepositoryImpl repository = new ProductRepositoryImpl(new NamedParameterJdbcTemplate(noInfo),
+                entityManager.getEntityManager(), 500);
+        List<ProductRepositoryCustom.InventoryChange> changes = List.of(
+                new ProductRepositoryCustom.InventoryChange(product1.getId(), false, 5),
+                new ProductRepositoryCustom.InventoryChange(product2.getId(), true, 3),
+                new ProductRepositoryCustom.InventoryChange(product2.getId(), false, -10));
+
+        int[] counts = repository.batchAdjustInventory(changes);
+
+        assertArrayEquals(new int[] { 1, 1, 0 }, counts);
+        Map<Long, ProductRepositoryCustom.StockLevel> levels = productRepository.findStockLevels(
+                List.of(product1.getId(), product2.getId()));
+        assertEquals(55, levels.get(product1.getId()).quantity());
+        assertEquals(3, levels.get(product2.getId()).quantity());
+    }
+
+    @Test
+    void findIdsBySkuIn_ResolvesKnownSkus() {
+        Map<String, Long> ids = productRepository.findIdsBySkuIn(List.of("PHONE-123", "UNKNOWN"));
+
+        assertEquals(1, ids.size());
+        assertEquals(product1.getId(), ids.get("PHONE-123"));
+    }
+
+    @Test
+    void keysetPages_WalkEveryRowOnceWithNullsLast() {
+        for (int i = 0; i < 5; i++) {
+            Product product = new Product();
+            product.setName("Cable " + i);
+            product.setDescription("USB cable");
+            product.setPrice(new BigDecimal("5.00"));
+            product.setInventoryQuantity(100);
+            product.setSku(i % 2 == 0 ? null : "CABLE-" + i);
+            product.setCategory(category);
+            entityManager.persist(product);
+        }
+        entityManager.flush();
+
+        List<String> skus = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetPager.Window<Product> window = ProductSpecifications.KEYSET.page(productRepository,
+                    ProductSpecifications.inCategory(category.getId()), cursor, "sku", "desc", 2);
+            assertTrue(window.content().size() <= 2);
+            window.content().forEach(product -> {
+                skus.add(product.getSku());
+                ids.add(product.getId());
+            });
+            cursor = window.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(7, ids.stream().distinct().count());
+        assertEquals(List.of("PHONE-123", "LAPTOP-456", "CABLE-3", "CABLE-1"), skus.subList(0, 4));
+        assertTrue(skus.subList(4, 7).stream().allMatch(sku -> sku == null));
+        assertTrue(ids.get(4) > ids.get(5) && ids.get(5) > ids.get(6));
+    }
+
+    @Test
+    void keysetPages_RejectUnknownSortsAndForgedCursors() {
+        assertThrows(InvalidSortException.class, () -> ProductSpecifications.KEYSET.page(productRepository, null,
+                null, "description", "asc", 10));
+        assertThrows(InvalidCursorException.class, () -> ProductSpecifications.KEYSET.page(productRepository, null,
+                "not-a-cursor", null, null, 10));
+    }
+
+    @Test
+    void findSlice_ReadsPagesWithoutCounting() {
+        PageRequest first = PageRequest.of(0, 1, Sort.by("name"));
+
+        Slice<Product> page0 = productRepository.findSlice(ProductSpecifications.inCategory(category.getId()), first);
+        Slice<Product> page1 = productRepository.findSlice(ProductSpecifications.inCategory(category.getId()),
+                first.next());
+
+        assertEquals(List.of("Laptop"), page0.getContent().stream().map(Product::getName).toList());
+        assertTrue(page0.hasNext());
+        assertEquals(List.of("Smartphone"), page1.getContent().stream().map(Product::getName).toList());
+        assertFalse(page1.hasNext());
+    }
+
+    @Test
+    void countFacets_GroupsMatchingProductsInOneQuery() {
+        Product cable = new Product();
+        cable.setName("Cable");
+        cable.setDescription("USB cable");
+        cable.setPrice(new BigDecimal("5.00"));
+        cable.setInventoryQuantity(0);
+        cable.setCategory(category);
+        entityManager.persist(cable);
+        entityManager.flush();
+
+        List<ProductRepositoryCustom.FacetCount> facets = productRepository.countFacets(
+                ProductSpecifications.inCategory(category.getId()),
+                List.of(new BigDecimal("10"), new BigDecimal("1000")));
+
+        assertEquals(3, facets.size());
+        assertTrue(facets.stream().allMatch(facet -> facet.categoryId().equals(category.getId())
+                && facet.categoryName().equals("Electronics") && facet.supplierId() == null && facet.count() == 1));
+        assertTrue(facets.contains(new ProductRepositoryCustom.FacetCount(category.getId(), "Electronics", null, null,
+                0, false, 1)));
+        assertTrue(facets.contains(new ProductRepositoryCustom.FacetCount(category.getId(), "Electronics", null, null,
+                1, true, 1)));
+        assertTrue(facets.contains(new ProductRepositoryCustom.FacetCount(category.getId(), "Electronics", null, null,
+                2, true, 1)));
+    }
+}
@@ -0,0 +1,140 @@
+package com.inventory.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.api.config.CacheProperties;
+import com.inventory.api.config.InventoryCacheManager;
+import com.inventory.api.dto.CategoryDTO;
+import com.inventory.api.dto.ProductDTO;
+import com.inventory.api.repository.CategoryRepository;
+import com.inventory.api.repository.ProductRepository;
+import com.inventory.api.service.impl.CacheSnapshotService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CacheSnapshotServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("cache-snapshot.json.gz");
+    }
+
+    @Test
+    void restoresUnchangedEntriesAndDropsChangedOnes() {
+        InventoryCacheManager before = cacheManager();
+        before.getCache("products").put(1L, product(1L, 3L));
+        before.getCache("products").put(2L, product(2L, 7L));
+        before.getCache("products").put(3L, product(3L, 1L));
+        before.getCache("products").put("sku_SKU-1", product(1L, 3L));
+        CategoryDTO category = new CategoryDTO(10L, "Tools", "Hand tools", 2, 0L);
+        before.getCache("categories").put(10L, category);
+
+        assertEquals(4, snapshots(before).write());
+        assertTrue(Files.exists(file));
+
+        // product 2 was updated while the node was down, the category of product 3 was renamed
+        when(productRepository.findVersionStamps(anyCollection())).thenReturn(rows(
+                new Object[] { 1L, 3L, "Tools", null, null }, new Object[] { 2L, 8L, "Tools", null, null },
+                new Object[] { 3L, 1L, "Hand Tools", null, null }));
+        when(categoryRepository.findVersionStamps(anyCollection())).thenReturn(rows(
+                new Object[] { 10L, 0L, 2 }));
+        InventoryCacheManager after = cacheManager();
+
+        assertEquals(2, snapshots(after).restore());
+        assertEquals(product(1L, 3L), after.getCache("products").get(1L, ProductDTO.class));
+        assertNull(after.getCache("products").get(2L));
+        assertNull(after.getCache("products").get(3L));
+        assertNull(after.getCache("products").get("sku_SKU-1"));
+        assertEquals(category, after.getCache("categories").get(10L, CategoryDTO.class));
+    }
+
+    @Test
+    void entryCachedBeforeACommittedUpdateIsNotRestored() {
+        // the eviction of version 3 was missed, the row was at version 4 when the snapshot was written
+        InventoryCacheManager before = cacheManager();
+        before.getCache("products").put(1L, product(1L, 3L));
+        assertEquals(1, snapshots(before).write());
+
+        when(productRepository.findVersionStamps(anyCollection())).thenReturn(rows(
+                new Object[] { 1L, 4L, "Tools", null, null }));
+        InventoryCacheManager after = cacheManager();
+
+        assertEquals(0, snapshots(after).restore());
+        assertNull(after.getCache("products").get(1L));
+    }
+
+    @Test
+    void shardedProductsAreNotWritten() {
+        InventoryCacheManager before = cacheManager();
+        before.getCache("products").put(1L, product(1L, 3L).toBuilder().stockShards(4).build());
+
+        assertEquals(0, snapshots(before).write());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void unreadableSnapshotIsIgnored() throws Exception {
+        Files.writeString(file, "not a snapshot");
+
+        assertEquals(0, snapshots(cacheManager()).restore());
+        verifyNoInteractions(productRepository, categoryRepository);
+    }
+
+    private CacheSnapshotService snapshots(InventoryCacheManager cacheManager) {
+        return new CacheSnapshotService(cacheManager, productRepository, categoryRepository, new ObjectMapper(),
+                true, file.toString(), 100);
+    }
+
+    private static InventoryCacheManager cacheManager() {
+        CacheProperties properties = new CacheProperties();
+        properties.getDefaults().setMaximumSize(100L);
+        properties.getCaches().put("products", new CacheProperties.Spec());
+        properties.getCaches().put("categories", new CacheProperties.Spec());
+        InventoryCacheManager cacheManager = new InventoryCacheManager(properties, null);
+        cacheManager.afterPropertiesSet();
+        return cacheManager;
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+
+    private static ProductDTO product(Long id, Long version) {
+        return ProductDTO.builder()
+                .id(id)
+                .name("Product " + id)
+                .description("Description " + id)
+                .price(new BigDecimal("9.99"))
+                .inventoryQuantity(5)
+                .sku("SKU-" + id)
+                .categoryId(10L)
+                .categoryName("Tools")
+                .version(version)
+                .build();
+    }
+}
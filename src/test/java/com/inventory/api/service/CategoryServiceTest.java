@@ -8,17 +8,23 @@ import com.inventory.api.mapper.ProductMapper;
 import com.inventory.api.model.Category;
 import com.inventory.api.model.Product;
 import com.inventory.api.repository.CategoryRepository;
+import com.inventory.api.repository.ProductRepository;
 import com.inventory.api.service.impl.CategoryServiceImpl;
+import com.inventory.api.service.impl.PageKeyGenerator;
+import com.inventory.api.service.impl.PageTotals;
+import com.inventory.api.service.impl.ProductCacheDependencies;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -42,6 +48,16 @@ public class CategoryServiceTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private ProductCacheDependencies cacheDependencies;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Spy
+    private PageTotals pageTotals = new PageTotals(new ConcurrentMapCacheManager(),
+            new PageKeyGenerator(new ProductCacheDependencies()));
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -182,9 +198,10 @@ public class CategoryServiceTest {
 
     @Test
     void getProductsByCategory_Success() {
-        category.setProducts(Arrays.asList(product));
-        Page<Product> productPage = new PageImpl<>(Arrays.asList(product));
-        when(categoryRepository.findById(anyLong())).thenReturn(Optional.of(category));
+        Pageable pageable = PageRequest.of(0, 10);
+        when(categoryRepository.existsById(1L)).thenReturn(true);
+        when(productRepository.findSlice(any(), eq(pageable)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(product), pageable, false));
         when(productMapper.toDto(any(Product.class))).thenReturn(productDTO);
 
         Page<ProductDTO> result = categoryService.getProductsByCategory(1L, PageRequest.of(0, 10));
@@ -195,7 +212,7 @@ public class CategoryServiceTest {
 
     @Test
     void getProductsByCategory_CategoryNotFound() {
-        when(categoryRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(categoryRepository.existsById(anyLong())).thenReturn(false);
 
         assertThrows(ResourceNotFoundException.class,
                 () -> categoryService.getProductsByCategory(1L, PageRequest.of(0, 10)));
@@ -0,0 +1,152 @@
+package com.inventory.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.api.dto.ProductDTO;
+import com.inventory.api.exception.IdempotencyKeyException;
+import com.inventory.api.model.IdempotencyRecord;
+import com.inventory.api.repository.IdempotencyRecordRepository;
+import com.inventory.api.service.impl.IdempotencyServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository recordRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private IdempotencyService idempotencyService;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = service(false);
+    }
+
+    @Test
+    void execute_WithoutKeyAlwaysRuns() {
+        idempotencyService.execute(null, "increase 1", ProductDTO.class, this::increase);
+        idempotencyService.execute(null, "increase 1", ProductDTO.class, this::increase);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_DuplicateKeyReplaysResponse() {
+        IdempotencyService.Outcome<ProductDTO> first = idempotencyService.execute("key-1", "increase 1",
+                ProductDTO.class, this::increase);
+        IdempotencyService.Outcome<ProductDTO> second = idempotencyService.execute("key-1", "increase 1",
+                ProductDTO.class, this::increase);
+
+        assertFalse(first.replayed());
+        assertTrue(second.replayed());
+        assertEquals(first.body(), second.body());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_KeyReusedForDifferentRequest() {
+        idempotencyService.execute("key-1", "increase 1", ProductDTO.class, this::increase);
+
+        assertThrows(IdempotencyKeyException.class,
+                () -> idempotencyService.execute("key-1", "increase 2", ProductDTO.class, this::increase));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_FailureReleasesKey() {
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("key-1", "increase 1",
+                ProductDTO.class, () -> {
+                    throw new IllegalStateException("write failed");
+                }));
+
+        IdempotencyService.Outcome<ProductDTO> retry = idempotencyService.execute("key-1", "increase 1",
+                ProductDTO.class, this::increase);
+
+        assertFalse(retry.replayed());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_ConcurrentDuplicatesRunOnce() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<IdempotencyService.Outcome<ProductDTO>> first = executor.submit(() -> idempotencyService
+                    .execute("key-1", "increase 1", ProductDTO.class, () -> {
+                        started.countDown();
+                        await(release);
+                        return increase();
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<IdempotencyService.Outcome<ProductDTO>> duplicate = executor.submit(() -> idempotencyService
+                    .execute("key-1", "increase 1", ProductDTO.class, this::increase));
+            release.countDown();
+
+            assertFalse(first.get(5, TimeUnit.SECONDS).replayed());
+            assertTrue(duplicate.get(5, TimeUnit.SECONDS).replayed());
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_PersistentRecordSurvivesRestart() throws Exception {
+        IdempotencyService beforeRestart = service(true);
+        beforeRestart.execute("key-1", "increase 1", ProductDTO.class, this::increase);
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(recordRepository).save(saved.capture());
+
+        when(recordRepository.findByIdempotencyKeyAndExpiresAtAfter(eq("key-1"), any()))
+                .thenReturn(Optional.of(saved.getValue()));
+        IdempotencyService.Outcome<ProductDTO> replay = service(true).execute("key-1", "increase 1",
+                ProductDTO.class, this::increase);
+
+        assertTrue(replay.replayed());
+        assertEquals(15, replay.body().getInventoryQuantity());
+        assertEquals(1, executions.get());
+    }
+
+    private IdempotencyService service(boolean persistent) {
+        return new IdempotencyServiceImpl(recordRepository, objectMapper, new SimpleMeterRegistry(),
+                3600, 1000, persistent);
+    }
+
+    private ProductDTO increase() {
+        executions.incrementAndGet();
+        ProductDTO productDTO = new ProductDTO();
+        productDTO.setId(1L);
+        productDTO.setInventoryQuantity(15);
+        return productDTO;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.inventory.api.service;
+
+import com.inventory.api.dto.ProductDTO;
+import com.inventory.api.exception.InsufficientInventoryException;
+import com.inventory.api.exception.ResourceNotFoundException;
+import com.inventory.api.service.impl.InventoryDecrementCoalescer;
+import com.inventory.api.service.impl.InventoryDecrementCoalescer.Outcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InventoryDecrementCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private List<List<Integer>> batches;
+    private ProductDTO productDTO;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        batches = new CopyOnWriteArrayList<>();
+        productDTO = new ProductDTO();
+        productDTO.setId(1L);
+    }
+
+    @Test
+    void concurrentDecrementsShareOneBatch() throws Exception {
+        // a long window, so the batch is only written early because it fills up
+        InventoryDecrementCoalescer coalescer = coalescer(5_000_000, 4);
+
+        List<Future<ProductDTO>> results = submitConcurrently(coalescer, 4, (productId, quantities) -> {
+            batches.add(quantities);
+            return quantities.stream().map(quantity -> Outcome.applied(productDTO)).toList();
+        });
+
+        for (Future<ProductDTO> result : results) {
+            assertSame(productDTO, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, batches.size());
+        assertEquals(4, batches.get(0).size());
+        assertEquals(1, meterRegistry.get("inventory.coalescing.batch.size").summary().count());
+        assertEquals(4.0, meterRegistry.get("inventory.coalescing.batch.size").summary().totalAmount());
+        assertEquals(4, meterRegistry.get("inventory.coalescing.wait").timer().count());
+    }
+
+    @Test
+    void onlyOversellingDecrementsAreRejected() throws Exception {
+        InventoryDecrementCoalescer coalescer = coalescer(5_000_000, 3);
+
+        List<Future<ProductDTO>> results = submitConcurrently(coalescer, 3, (productId, quantities) -> {
+            List<Outcome> outcomes = new ArrayList<>();
+            outcomes.add(Outcome.applied(productDTO));
+            outcomes.add(Outcome.rejected(new InsufficientInventoryException("Cannot decrease inventory below zero")));
+            outcomes.add(Outcome.applied(productDTO));
+            return outcomes;
+        });
+
+        int applied = 0;
+        int rejected = 0;
+        for (Future<ProductDTO> result : results) {
+            try {
+                assertSame(productDTO, result.get(5, TimeUnit.SECONDS));
+                applied++;
+            } catch (ExecutionException ex) {
+                assertInstanceOf(InsufficientInventoryException.class, ex.getCause());
+                rejected++;
+            }
+        }
+        assertEquals(2, applied);
+        assertEquals(1, rejected);
+        assertEquals(1.0, meterRegistry.get("inventory.coalescing.rejected").counter().count());
+    }
+
+    @Test
+    void writerFailureFailsTheWholeBatch() {
+        InventoryDecrementCoalescer coalescer = coalescer(0, 1);
+
+        assertThrows(ResourceNotFoundException.class, () -> coalescer.decrease(1L, 2, (productId, quantities) -> {
+            throw new ResourceNotFoundException("Product not found with id: 1");
+        }));
+    }
+
+    @Test
+    void partialBatchIsWrittenWhenTheWindowCloses() {
+        InventoryDecrementCoalescer coalescer = coalescer(1_000, 64);
+
+        ProductDTO result = coalescer.decrease(1L, 2, (productId, quantities) -> {
+            batches.add(quantities);
+            return List.of(Outcome.applied(productDTO));
+        });
+
+        assertSame(productDTO, result);
+        assertEquals(List.of(List.of(2)), batches);
+    }
+
+    private InventoryDecrementCoalescer coalescer(long windowMicros, int maxBatchSize) {
+        return new InventoryDecrementCoalescer(meterRegistry, true, windowMicros, maxBatchSize);
+    }
+
+    private List<Future<ProductDTO>> submitConcurrently(InventoryDecrementCoalescer coalescer, int callers,
+            BiFunction<Long, List<Integer>, List<Outcome>> writer) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ProductDTO>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            int quantity = i + 1;
+            results.add(executor.submit(() -> {
+                start.await();
+                return coalescer.decrease(1L, quantity, writer);
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        return results;
+    }
+}
@@ -0,0 +1,222 @@
+package com.inventory.api.service;
+
+import com.inventory.api.dto.InventoryLevelDTO;
+import com.inventory.api.event.InventoryChangedEvent;
+import com.inventory.api.exception.ResourceNotFoundException;
+import com.inventory.api.mapper.InventoryMovementMapper;
+import com.inventory.api.model.InventoryMovement;
+import com.inventory.api.model.InventorySnapshot;
+import com.inventory.api.repository.InventoryMovementRepository;
+import com.inventory.api.repository.InventorySnapshotRepository;
+import com.inventory.api.service.impl.InventoryLedgerServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InventoryLedgerServiceTest {
+
+    @Mock
+    private InventoryMovementRepository movementRepository;
+
+    @Mock
+    private InventorySnapshotRepository snapshotRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private InventoryLedgerServiceImpl ledgerService;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        ledgerService = new InventoryLedgerServiceImpl(movementRepository, snapshotRepository,
+                new InventoryMovementMapper(), transactionManager, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void onInventoryChanged_AppendsTheMovementsOfATransactionInOneBatchBeforeItCommits() {
+        List<Integer> batchSizes = new ArrayList<>();
+        doAnswer(invocation -> batchSizes.add(invocation.<List<InventoryMovement>>getArgument(0).size()))
+                .when(movementRepository).appendAll(anyList());
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            ledgerService.onInventoryChanged(InventoryChangedEvent.of(1L, InventoryMovement.Type.INCREASE, 5,
+                    InventoryMovement.Source.INCREASE));
+            ledgerService.onInventoryChanged(InventoryChangedEvent.of(1L, InventoryMovement.Type.DECREASE, 2,
+                    InventoryMovement.Source.DECREASE));
+            ledgerService.onInventoryChanged(InventoryChangedEvent.of(2L, InventoryMovement.Type.SET, 7,
+                    InventoryMovement.Source.LEVEL_UPDATE));
+            verifyNoInteractions(movementRepository);
+
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertEquals(List.of(3), batchSizes);
+        assertNull(TransactionSynchronizationManager.getResource(ledgerService));
+    }
+
+    @Test
+    void onInventoryChanged_AppendsRightAwayOutsideATransaction() {
+        ledgerService.onInventoryChanged(InventoryChangedEvent.of(1L, InventoryMovement.Type.INCREASE, 5,
+                InventoryMovement.Source.INCREASE));
+
+        verify(movementRepository).appendAll(argThat(movements -> movements.size() == 1));
+    }
+
+    @Test
+    void getLevelAt_ReplaysMovementsAfterSnapshot() {
+        InventorySnapshot snapshot = InventorySnapshot.builder()
+                .productId(1L).quantity(10).lastMovementId(4L).takenAt(now.minusHours(1)).build();
+        when(movementRepository.findLastIdAt(1L, now)).thenReturn(6L);
+        when(snapshotRepository
+                .findFirstByProductIdAndLastMovementIdLessThanEqualAndTakenAtLessThanEqualOrderByLastMovementIdDesc(
+                        1L, 6L, now))
+                .thenReturn(Optional.of(snapshot));
+        when(movementRepository.findReplayRange(1L, 4L, 6L)).thenReturn(List.of(
+                movement(5L, InventoryMovement.Type.INCREASE, 5),
+                movement(6L, InventoryMovement.Type.DECREASE, 3)));
+
+        InventoryLevelDTO level = ledgerService.getLevelAt(1L, now);
+
+        assertEquals(12, level.getQuantity());
+        assertEquals(2, level.getMovementsReplayed());
+        assertEquals(snapshot.getTakenAt(), level.getSnapshotTakenAt());
+    }
+
+    @Test
+    void getLevelAt_SetMovementResetsLevel() {
+        when(movementRepository.findLastIdAt(1L, now)).thenReturn(4L);
+        when(snapshotRepository
+                .findFirstByProductIdAndLastMovementIdLessThanEqualAndTakenAtLessThanEqualOrderByLastMovementIdDesc(
+                        1L, 4L, now))
+                .thenReturn(Optional.empty());
+        when(movementRepository.findReplayRange(1L, 0L, 4L)).thenReturn(List.of(
+                movement(1L, InventoryMovement.Type.SET, 20),
+                movement(2L, InventoryMovement.Type.DECREASE, 5),
+                movement(3L, InventoryMovement.Type.SET, 8),
+                movement(4L, InventoryMovement.Type.INCREASE, 1)));
+
+        assertEquals(9, ledgerService.getLevelAt(1L, now).getQuantity());
+    }
+
+    @Test
+    void getLevelAt_NoHistory() {
+        when(movementRepository.findLastIdAt(1L, now)).thenReturn(null);
+        when(snapshotRepository
+                .findFirstByProductIdAndLastMovementIdLessThanEqualAndTakenAtLessThanEqualOrderByLastMovementIdDesc(
+                        1L, 0L, now))
+                .thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> ledgerService.getLevelAt(1L, now));
+    }
+
+    @Test
+    void takeSnapshots_SnapshotsProductsWithNewMovements() {
+        when(movementRepository.findMaxId()).thenReturn(6L);
+        when(snapshotRepository.findMaxLastMovementId()).thenReturn(4L);
+        when(movementRepository.findProductIdsWithMovementsBetween(4L, 6L)).thenReturn(List.of(1L));
+        when(snapshotRepository.findFirstByProductIdOrderByLastMovementIdDesc(1L)).thenReturn(Optional.of(
+                InventorySnapshot.builder().productId(1L).quantity(10).lastMovementId(4L).build()));
+        when(movementRepository.findReplayRange(1L, 4L, 6L)).thenReturn(List.of(
+                movement(5L, InventoryMovement.Type.INCREASE, 5),
+                movement(6L, InventoryMovement.Type.DECREASE, 1)));
+
+        assertEquals(1, ledgerService.takeSnapshots());
+
+        ArgumentCaptor<InventorySnapshot> saved = ArgumentCaptor.forClass(InventorySnapshot.class);
+        verify(snapshotRepository).save(saved.capture());
+        assertEquals(14, saved.getValue().getQuantity());
+        assertEquals(6L, saved.getValue().getLastMovementId());
+    }
+
+    @Test
+    void takeSnapshots_WaitsForAppendedMovementsToCommit() throws Exception {
+        CountDownLatch appended = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // A appends first and commits last, B appends and commits in between
+            Future<?> first = executor.submit(() -> {
+                inTransaction(1L, () -> {
+                    appended.countDown();
+                    try {
+                        commit.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                return null;
+            });
+            assertTrue(appended.await(5, TimeUnit.SECONDS));
+            inTransaction(1L, () -> { });
+
+            Future<Integer> snapshot = executor.submit(ledgerService::takeSnapshots);
+            assertThrows(TimeoutException.class, () -> snapshot.get(200, TimeUnit.MILLISECONDS));
+            verify(movementRepository, never()).findMaxId();
+
+            commit.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            assertEquals(0, snapshot.get(5, TimeUnit.SECONDS));
+            verify(movementRepository).findMaxId();
+        } finally {
+            commit.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private void inTransaction(Long productId, Runnable beforeCompletion) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            ledgerService.onInventoryChanged(InventoryChangedEvent.of(productId, InventoryMovement.Type.INCREASE, 1,
+                    InventoryMovement.Source.INCREASE));
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            beforeCompletion.run();
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    private InventoryMovement movement(Long id, InventoryMovement.Type type, int quantity) {
+        return InventoryMovement.builder()
+                .id(id)
+                .productId(1L)
+                .type(type)
+                .quantity(quantity)
+                .source(InventoryMovement.Source.INCREASE)
+                .occurredAt(now.minusMinutes(10 - id))
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.inventory.api.service;
+
+import com.inventory.api.dto.ProductDTO;
+import com.inventory.api.repository.ProductRepository;
+import com.inventory.api.repository.ProductRepositoryCustom.StockLevel;
+import com.inventory.api.service.impl.InventoryStockView;
+import com.inventory.api.service.impl.ShardedStockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InventoryStockViewTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ShardedStockService shardedStock;
+
+    private InventoryStockView stockView;
+
+    @BeforeEach
+    void setUp() {
+        stockView = new InventoryStockView(productRepository, shardedStock);
+    }
+
+    @Test
+    void overlaysCurrentStockWithoutTouchingTheCachedProducts() {
+        ProductDTO cached = product(1L, 10);
+        Page<ProductDTO> page = new PageImpl<>(List.of(cached), PageRequest.of(0, 20), 41);
+        when(productRepository.findStockLevels(List.of(1L)))
+                .thenReturn(Map.of(1L, new StockLevel(1L, null, null, 3, true)));
+
+        Page<ProductDTO> composed = stockView.withCurrentStock(page);
+
+        assertEquals(3, composed.getContent().get(0).getInventoryQuantity());
+        assertTrue(composed.getContent().get(0).isLowStock());
+        assertEquals("Product 1", composed.getContent().get(0).getName());
+        assertEquals(41, composed.getTotalElements());
+        assertEquals(10, cached.getInventoryQuantity());
+        assertFalse(cached.isLowStock());
+    }
+
+    @Test
+    void shardedProductsShowTheSumOfTheirShards() {
+        ProductDTO cached = product(2L, 10);
+        cached.setLowStockThreshold(5);
+        ProductDTO other = product(3L, 10);
+        other.setLowStockThreshold(5);
+        when(productRepository.findStockLevels(List.of(2L, 3L))).thenReturn(Map.of(
+                2L, new StockLevel(2L, null, null, 10, false), 3L, new StockLevel(3L, null, null, 10, false)));
+        when(shardedStock.shardCount(anyLong())).thenReturn(4);
+        when(shardedStock.totals(List.of(2L, 3L))).thenReturn(Map.of(2L, 4, 3L, 8));
+
+        List<ProductDTO> composed = stockView.withCurrentStock(new PageImpl<>(List.of(cached, other))).getContent();
+
+        assertEquals(4, composed.get(0).getInventoryQuantity());
+        assertTrue(composed.get(0).isLowStock());
+        assertEquals(8, composed.get(1).getInventoryQuantity());
+        assertFalse(composed.get(1).isLowStock());
+        // one grouped sum for the page, not one per product
+        verify(shardedStock, never()).total(anyLong());
+    }
+
+    @Test
+    void pageWithCurrentStockIsHandedBackAsIs() {
+        Page<ProductDTO> page = new PageImpl<>(List.of(product(1L, 10)));
+        when(productRepository.findStockLevels(List.of(1L)))
+                .thenReturn(Map.of(1L, new StockLevel(1L, null, null, 10, false)));
+
+        assertSame(page, stockView.withCurrentStock(page));
+    }
+
+    @Test
+    void emptyPagesNeedNoLookup() {
+        Page<ProductDTO> empty = Page.empty();
+
+        assertSame(empty, stockView.withCurrentStock(empty));
+        verify(productRepository, never()).findStockLevels(anyCollection());
+    }
+
+    private static ProductDTO product(Long id, int quantity) {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setInventoryQuantity(quantity);
+        return product;
+    }
+}
@@ -0,0 +1,208 @@
+package com.inventory.api.service;
+
+import com.inventory.api.event.InventoryLevelChangedEvent;
+import com.inventory.api.exception.StreamCapacityException;
+import com.inventory.api.service.InventoryStreamService.Filter;
+import com.inventory.api.service.InventoryStreamService.OverflowPolicy;
+import com.inventory.api.service.impl.InventoryStreamServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InventoryStreamServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private InventoryStreamServiceImpl streamService;
+    private RecordingEmitter lastEmitter;
+    private CountDownLatch sendGate;
+
+    @AfterEach
+    void tearDown() {
+        if (streamService != null) {
+            streamService.closeStreams();
+        }
+    }
+
+    @Test
+    void deliversOnlyMatchingChanges() throws Exception {
+        streamService = streamService(10, 16);
+        RecordingEmitter byProduct = subscribe(new Filter(Set.of(1L), null, false), OverflowPolicy.COALESCE);
+        RecordingEmitter byCategory = subscribe(new Filter(Set.of(), 7L, false), OverflowPolicy.COALESCE);
+        RecordingEmitter transitions = subscribe(new Filter(null, null, true), OverflowPolicy.COALESCE);
+
+        streamService.onInventoryLevelChanged(event(1L, 3L, 40, false, false));
+        streamService.onInventoryLevelChanged(event(2L, 7L, 4, true, true));
+
+        assertEquals(1L, byProduct.next().productId());
+        assertEquals(2L, byCategory.next().productId());
+        assertEquals(2L, transitions.next().productId());
+        assertNull(byProduct.poll());
+        assertNull(byCategory.poll());
+        assertNull(transitions.poll());
+    }
+
+    @Test
+    void slowSubscriberReceivesNewestLevelPerProduct() throws Exception {
+        streamService = streamService(10, 16);
+        sendGate = new CountDownLatch(1);
+        RecordingEmitter emitter = subscribe(new Filter(null, null, false), OverflowPolicy.COALESCE);
+
+        // the first send blocks, so the following changes pile up in the mailbox
+        streamService.onInventoryLevelChanged(event(1L, null, 10, false, false));
+        assertEquals(10, emitter.next().quantity());
+        streamService.onInventoryLevelChanged(event(1L, null, 9, false, false));
+        streamService.onInventoryLevelChanged(event(2L, null, 20, false, false));
+        streamService.onInventoryLevelChanged(event(1L, null, 3, true, true));
+        streamService.onInventoryLevelChanged(event(1L, null, 2, true, false));
+        sendGate.countDown();
+
+        InventoryLevelChangedEvent product2 = emitter.next();
+        InventoryLevelChangedEvent product1 = emitter.next();
+        assertEquals(20, product2.quantity());
+        assertEquals(2, product1.quantity());
+        assertTrue(product1.lowStockChanged());
+        assertNull(emitter.poll());
+        assertEquals(2.0, meterRegistry.get("inventory.stream.events.coalesced").counter().count());
+    }
+
+    @Test
+    void dropPolicyDiscardsOldestAndReportsTheLoss() throws Exception {
+        streamService = streamService(10, 2);
+        sendGate = new CountDownLatch(1);
+        RecordingEmitter emitter = subscribe(new Filter(null, null, false), OverflowPolicy.DROP);
+
+        streamService.onInventoryLevelChanged(event(1L, null, 10, false, false));
+        assertEquals(10, emitter.next().quantity());
+        for (int quantity = 9; quantity >= 6; quantity--) {
+            streamService.onInventoryLevelChanged(event(1L, null, quantity, false, false));
+        }
+        sendGate.countDown();
+
+        assertEquals(Map.of("dropped", 2), emitter.nextData());
+        assertEquals(7, emitter.next().quantity());
+        assertEquals(6, emitter.next().quantity());
+        assertEquals(2.0, meterRegistry.get("inventory.stream.events.dropped").counter().count());
+    }
+
+    @Test
+    void rejectsSubscribersBeyondTheLimit() {
+        streamService = streamService(1, 16);
+        streamService.subscribe(new Filter(null, null, false), OverflowPolicy.COALESCE);
+
+        assertThrows(StreamCapacityException.class,
+                () -> streamService.subscribe(new Filter(null, null, false), OverflowPolicy.COALESCE));
+        assertEquals(1, streamService.subscriberCount());
+    }
+
+    @Test
+    void completedSubscriberIsRemoved() throws Exception {
+        streamService = streamService(10, 16);
+        RecordingEmitter emitter = subscribe(new Filter(Set.of(1L), null, false), OverflowPolicy.COALESCE);
+        emitter.failSends = true;
+
+        streamService.onInventoryLevelChanged(event(1L, null, 5, false, false));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (streamService.subscriberCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, streamService.subscriberCount());
+    }
+
+    @Test
+    void failedSendCompletesTheEmitterWithTheError() throws Exception {
+        streamService = streamService(10, 16);
+        RecordingEmitter emitter = subscribe(new Filter(null, null, false), OverflowPolicy.COALESCE);
+        emitter.failSends = true;
+
+        streamService.onInventoryLevelChanged(event(1L, null, 5, false, false));
+
+        assertTrue(emitter.failed.await(5, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, emitter.failure);
+        assertEquals(0, streamService.subscriberCount());
+    }
+
+    private InventoryStreamServiceImpl streamService(int maxSubscribers, int bufferSize) {
+        return new InventoryStreamServiceImpl(meterRegistry, maxSubscribers, bufferSize, 2, 60000) {
+            @Override
+            protected SseEmitter createEmitter(long timeoutMs) {
+                lastEmitter = new RecordingEmitter(timeoutMs);
+                return lastEmitter;
+            }
+        };
+    }
+
+    private RecordingEmitter subscribe(Filter filter, OverflowPolicy policy) {
+        streamService.subscribe(filter, policy);
+        return lastEmitter;
+    }
+
+    private static InventoryLevelChangedEvent event(Long productId, Long categoryId, int quantity, boolean lowStock,
+            boolean lowStockChanged) {
+        return InventoryLevelChangedEvent.of(productId, categoryId, quantity, lowStock, lowStockChanged);
+    }
+
+    private class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<Object> sent = new LinkedBlockingQueue<>();
+        private volatile boolean failSends;
+        private final CountDownLatch failed = new CountDownLatch(1);
+        private volatile Throwable failure;
+
+        RecordingEmitter(long timeoutMs) {
+            super(timeoutMs);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failSends) {
+                throw new IOException("Broken pipe");
+            }
+            for (DataWithMediaType data : builder.build()) {
+                Object payload = data.getData();
+                if (payload instanceof InventoryLevelChangedEvent || payload instanceof Map) {
+                    sent.add(payload);
+                    if (sendGate != null) {
+                        try {
+                            sendGate.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            failure = ex;
+            failed.countDown();
+            super.completeWithError(ex);
+        }
+
+        InventoryLevelChangedEvent next() throws InterruptedException {
+            return (InventoryLevelChangedEvent) nextData();
+        }
+
+        Object nextData() throws InterruptedException {
+            Object data = sent.poll(5, TimeUnit.SECONDS);
+            assertNotNull(data, "expected another event");
+            return data;
+        }
+
+        Object poll() throws InterruptedException {
+            return sent.poll(100, TimeUnit.MILLISECONDS);
+        }
+    }
+}
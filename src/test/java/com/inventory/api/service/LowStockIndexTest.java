@@ -0,0 +1,152 @@
+package com.inventory.api.service;
+
+import com.inventory.api.dto.ProductDTO;
+import com.inventory.api.exception.InvalidCursorException;
+import com.inventory.api.exception.InvalidSortException;
+import com.inventory.api.repository.KeysetPager;
+import com.inventory.api.repository.ProductRepository;
+import com.inventory.api.service.impl.LowStockIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LowStockIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private LowStockIndex lowStockIndex;
+
+    @Test
+    void load_SeedsFromDatabase() {
+        when(productRepository.findLowStockIds()).thenReturn(List.of(7L, 3L));
+
+        lowStockIndex.load();
+
+        assertTrue(lowStockIndex.contains(3L));
+        assertTrue(lowStockIndex.contains(7L));
+    }
+
+    @Test
+    void update_FollowsQuantityAndThreshold() {
+        lowStockIndex.update(product(1L, 4, 5));
+        assertTrue(lowStockIndex.contains(1L));
+
+        lowStockIndex.update(product(1L, 6, 5));
+        assertFalse(lowStockIndex.contains(1L));
+
+        // a threshold change alone can put a product on the list
+        lowStockIndex.update(product(1L, 6, 10));
+        assertTrue(lowStockIndex.contains(1L));
+
+        lowStockIndex.remove(1L);
+        assertFalse(lowStockIndex.contains(1L));
+    }
+
+    @Test
+    void page_ReturnsIdsInOrderWithTotal() {
+        for (long id = 10; id >= 1; id--) {
+            lowStockIndex.update(id, true);
+        }
+
+        Page<Long> page = lowStockIndex.page(PageRequest.of(1, 4));
+
+        assertEquals(List.of(5L, 6L, 7L, 8L), page.getContent());
+        assertEquals(10, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+    }
+
+    @Test
+    void page_SortsByIdOnly() {
+        for (long id = 1; id <= 5; id++) {
+            lowStockIndex.update(id, true);
+        }
+
+        Page<Long> page = lowStockIndex.page(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertEquals(List.of(5L, 4L), page.getContent());
+        assertThrows(InvalidSortException.class, () -> lowStockIndex.page(PageRequest.of(0, 2, Sort.by("name"))));
+    }
+
+    @Test
+    void after_WalksTheIdsByCursor() {
+        for (long id = 1; id <= 5; id++) {
+            lowStockIndex.update(id, true);
+        }
+
+        KeysetPager.Window<Long> first = lowStockIndex.after(null, "desc", 2);
+        KeysetPager.Window<Long> second = lowStockIndex.after(first.nextCursor(), null, 2);
+        lowStockIndex.remove(2L);
+        KeysetPager.Window<Long> last = lowStockIndex.after(second.nextCursor(), null, 2);
+
+        assertEquals(List.of(5L, 4L), first.content());
+        assertEquals(List.of(3L, 2L), second.content());
+        assertEquals(List.of(1L), last.content());
+        assertNull(last.nextCursor());
+        assertThrows(InvalidCursorException.class, () -> lowStockIndex.after("not a cursor", null, 2));
+    }
+
+    @Test
+    void size_CountsEachProductOnce() {
+        lowStockIndex.update(1L, true);
+        lowStockIndex.update(1L, true);
+        lowStockIndex.update(2L, true);
+        lowStockIndex.update(3L, false);
+        lowStockIndex.remove(2L);
+
+        assertEquals(1, lowStockIndex.size());
+        assertEquals(1, lowStockIndex.page(PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void update_InsideTransactionWaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            lowStockIndex.update(1L, true);
+            assertFalse(lowStockIndex.contains(1L));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertTrue(lowStockIndex.contains(1L));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reconcile_CorrectsDriftButKeepsUpdatesMadeMeanwhile() {
+        lowStockIndex.update(1L, true);
+        lowStockIndex.update(2L, true);
+        // 1 left the list and 3 joined it behind the index's back; 4 is added while the stored flags are read
+        when(productRepository.findLowStockIds()).thenAnswer(invocation -> {
+            lowStockIndex.update(4L, true);
+            return List.of(2L, 3L);
+        });
+
+        assertEquals(2, lowStockIndex.reconcile());
+
+        assertEquals(List.of(2L, 3L, 4L), lowStockIndex.page(PageRequest.of(0, 10)).getContent());
+        assertEquals(3, lowStockIndex.size());
+    }
+
+    private static ProductDTO product(Long id, int quantity, int threshold) {
+        ProductDTO productDTO = new ProductDTO();
+        productDTO.setId(id);
+        productDTO.setInventoryQuantity(quantity);
+        productDTO.setLowStockThreshold(threshold);
+        return productDTO;
+    }
+}
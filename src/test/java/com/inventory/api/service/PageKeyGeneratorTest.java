@@ -0,0 +1,128 @@
+package com.inventory.api.service;
+
+import com.inventory.api.dto.ProductDTO;
+import com.inventory.api.service.impl.CategoryServiceImpl;
+import com.inventory.api.service.impl.PageKeyGenerator;
+import com.inventory.api.service.impl.PageScope;
+import com.inventory.api.service.impl.ProductCacheDependencies;
+import com.inventory.api.service.impl.ProductServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PageKeyGeneratorTest {
+
+    private ProductCacheDependencies dependencies;
+    private PageKeyGenerator keys;
+    private Method getAllProducts;
+    private Method searchProducts;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dependencies = new ProductCacheDependencies();
+        keys = new PageKeyGenerator(dependencies);
+        getAllProducts = ProductServiceImpl.class.getMethod("getAllProducts", Pageable.class);
+        searchProducts = ProductServiceImpl.class.getMethod("searchProducts", String.class, String.class, Long.class,
+                BigDecimal.class, BigDecimal.class, Boolean.class, Pageable.class);
+    }
+
+    @Test
+    void equivalentSearchesShareAKey() {
+        assertEquals(
+                search(" Widget ", null, new BigDecimal("10.00"), null, null, PageRequest.of(0, 20)),
+                search("widget", null, new BigDecimal("10"), null, null, PageRequest.of(0, 20)));
+        assertEquals(
+                search("  ", 5L, null, null, null, PageRequest.of(1, 20)),
+                search(null, 5L, null, null, null, PageRequest.of(1, 20)));
+    }
+
+    @Test
+    void differentPagesAndSortsGetDifferentKeys() {
+        assertNotEquals(list(PageRequest.of(0, 20)), list(PageRequest.of(0, 50)));
+        assertNotEquals(list(PageRequest.of(0, 20)), list(PageRequest.of(0, 20, Sort.by("name"))));
+        assertNotEquals(list(PageRequest.of(0, 20, Sort.by("name"))),
+                list(PageRequest.of(0, 20, Sort.by("name").descending())));
+        assertNotEquals(list(PageRequest.of(0, 20, Sort.by("name", "price"))),
+                list(PageRequest.of(0, 20, Sort.by("price", "name"))));
+        assertNotEquals(search(null, null, null, null, null, PageRequest.of(0, 20)),
+                search(null, null, null, null, false, PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void textCannotSpillIntoTheNextArgument() {
+        assertNotEquals(
+                search("a),n5,(", null, null, null, null, PageRequest.of(0, 20)),
+                search("a", 5L, null, null, null, PageRequest.of(0, 20)));
+        assertNotEquals(
+                list(PageRequest.of(0, 20, Sort.by("a2:bo"))),
+                list(PageRequest.of(0, 20, Sort.by("a", "bo"))));
+    }
+
+    @Test
+    void keysFollowTheGenerationOfTheQueryScope() {
+        Object before = search("widget", null, null, null, null, PageRequest.of(0, 20));
+        Object listBefore = list(PageRequest.of(0, 20));
+
+        dependencies.productUpdated(product("Widget"), product("Gadget"));
+
+        assertNotEquals(before, search("widget", null, null, null, null, PageRequest.of(0, 20)));
+        assertEquals(listBefore, list(PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void everyCachedProductPageDeclaresAScopeThatFitsItsParameters() {
+        for (Class<?> service : new Class<?>[] { ProductServiceImpl.class, CategoryServiceImpl.class }) {
+            for (Method method : service.getDeclaredMethods()) {
+                Cacheable cacheable = method.getAnnotation(Cacheable.class);
+                if (cacheable == null || !"pageKeyGenerator".equals(cacheable.keyGenerator())) {
+                    continue;
+                }
+                assertTrue(method.isAnnotationPresent(PageScope.class), method + " declares no @PageScope");
+                assertNotNull(keys.generate(null, method, new Object[method.getParameterCount()]));
+            }
+        }
+    }
+
+    @Test
+    void aScopeThatDoesNotFitTheParametersIsRejected() throws Exception {
+        Method method = MisdeclaredService.class.getMethod("productsOfCategory", String.class, Pageable.class);
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> keys.generate(null, method, "7", PageRequest.of(0, 20)));
+        assertTrue(ex.getMessage().contains("productsOfCategory"));
+    }
+
+    @Test
+    void keysForAScopeNeedItsFilterArguments() {
+        assertThrows(IllegalArgumentException.class,
+                () -> keys.key("getProductsByCategory", PageScope.Scope.CATEGORY, "7"));
+    }
+
+    private Object list(Pageable pageable) {
+        return keys.generate(null, getAllProducts, pageable);
+    }
+
+    private Object search(String name, Long categoryId, BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock,
+            Pageable pageable) {
+        return keys.generate(null, searchProducts, name, null, categoryId, minPrice, maxPrice, inStock, pageable);
+    }
+
+    private static ProductDTO product(String name) {
+        return ProductDTO.builder().id(1L).name(name).price(BigDecimal.ONE).categoryId(10L).build();
+    }
+
+    static class MisdeclaredService {
+
+        @PageScope(PageScope.Scope.CATEGORY)
+        public void productsOfCategory(String categoryName, Pageable pageable) {
+        }
+    }
+}
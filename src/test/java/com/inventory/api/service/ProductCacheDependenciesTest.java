@@ -0,0 +1,168 @@
+package com.inventory.api.service;
+
+import com.inventory.api.config.CacheProperties;
+import com.inventory.api.config.InventoryCacheManager;
+import com.inventory.api.dto.ProductDTO;
+import com.inventory.api.service.impl.ProductCacheDependencies;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.domain.PageImpl;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductCacheDependenciesTest {
+
+    private ProductCacheDependencies dependencies;
+    private Cache productsList;
+    private Cache categoryProducts;
+
+    @BeforeEach
+    void setUp() {
+        CacheProperties properties = new CacheProperties();
+        properties.getDefaults().setMaximumSize(100L);
+        ProductCacheDependencies.TRACKED_CACHES
+                .forEach(name -> properties.getCaches().put(name, new CacheProperties.Spec()));
+        properties.getCaches().get("categoryProducts").setMaximumSize(1L);
+
+        dependencies = new ProductCacheDependencies();
+        InventoryCacheManager cacheManager = new InventoryCacheManager(properties, null);
+        ProductCacheDependencies.TRACKED_CACHES.forEach(name -> cacheManager.registerTracker(name, dependencies));
+        cacheManager.afterPropertiesSet();
+        productsList = cacheManager.getCache("productsList");
+        categoryProducts = cacheManager.getCache("categoryProducts");
+    }
+
+    @Test
+    void productUpdateEvictsOnlyThePagesShowingTheProduct() {
+        productsList.put("page_0", new PageImpl<>(List.of(product(1L, 10L), product(2L, 10L))));
+        productsList.put("page_1", new PageImpl<>(List.of(product(3L, 10L), product(4L, 20L))));
+        ProductDTO renamed = product(2L, 10L);
+        renamed.setName("Renamed");
+
+        dependencies.productUpdated(product(2L, 10L), renamed);
+
+        assertNull(productsList.get("page_0"));
+        assertNotNull(productsList.get("page_1"));
+        assertEquals(0, dependencies.trackedEntries(1L));
+        assertEquals(1, dependencies.trackedEntries(3L));
+    }
+
+    @Test
+    void stockChangeKeepsCachedPages() {
+        productsList.put("page_0", new PageImpl<>(List.of(product(1L, 10L))));
+        long list = dependencies.listGeneration();
+
+        dependencies.stockChanged(1L, 5, 0);
+
+        assertNotNull(productsList.get("page_0"));
+        assertEquals(list, dependencies.listGeneration());
+    }
+
+    @Test
+    void stockOnlyChangesSearchMembershipWhenItCrossesZero() {
+        long inStock = dependencies.searchGeneration(null, null, null, null, null, true);
+        long byName = dependencies.searchGeneration("widget", null, null, null, null, null);
+
+        dependencies.stockChanged(1L, 5, 4);
+        assertEquals(inStock, dependencies.searchGeneration(null, null, null, null, null, true));
+
+        dependencies.stockChanged(1L, 4, 0);
+        assertNotEquals(inStock, dependencies.searchGeneration(null, null, null, null, null, true));
+        assertEquals(byName, dependencies.searchGeneration("widget", null, null, null, null, null));
+    }
+
+    @Test
+    void movingAProductBumpsBothCategoriesOnly() {
+        long from = dependencies.categoryGeneration(10L);
+        long to = dependencies.categoryGeneration(20L);
+        long other = dependencies.categoryGeneration(30L);
+        long list = dependencies.listGeneration();
+
+        dependencies.productUpdated(product(1L, 10L), product(1L, 20L));
+
+        assertNotEquals(from, dependencies.categoryGeneration(10L));
+        assertNotEquals(to, dependencies.categoryGeneration(20L));
+        assertEquals(other, dependencies.categoryGeneration(30L));
+        assertEquals(list, dependencies.listGeneration());
+    }
+
+    @Test
+    void categoryRenameEvictsPagesShowingItsProducts() {
+        productsList.put("page_0", new PageImpl<>(List.of(product(1L, 10L))));
+        productsList.put("page_1", new PageImpl<>(List.of(product(2L, 20L))));
+
+        dependencies.categoryChanged(10L);
+
+        assertNull(productsList.get("page_0"));
+        assertNotNull(productsList.get("page_1"));
+    }
+
+    @Test
+    void versionsFollowWhatEachRepresentationShows() {
+        long product = dependencies.productVersion(1L);
+        long otherProduct = dependencies.productVersion(2L);
+        long category = dependencies.categoryVersion(10L);
+        long categories = dependencies.categoriesVersion();
+        long products = dependencies.productsVersion();
+
+        dependencies.stockChanged(1L, 5, 4);
+        assertNotEquals(product, dependencies.productVersion(1L));
+        assertEquals(otherProduct, dependencies.productVersion(2L));
+        assertNotEquals(products, dependencies.productsVersion());
+        assertEquals(category, dependencies.categoryVersion(10L));
+
+        // products show their category's name and categories their product count
+        product = dependencies.productVersion(2L);
+        dependencies.categoryChanged(20L);
+        assertNotEquals(product, dependencies.productVersion(2L));
+        dependencies.productAdded(product(3L, 10L));
+        assertNotEquals(category, dependencies.categoryVersion(10L));
+        assertNotEquals(categories, dependencies.categoriesVersion());
+    }
+
+    @Test
+    void pagesEvictedBySizeAreForgotten() {
+        categoryProducts.put("10_page_0", new PageImpl<>(List.of(product(1L, 10L))));
+        categoryProducts.put("10_page_1", new PageImpl<>(List.of(product(2L, 10L))));
+        categoryProducts.put("10_page_2", new PageImpl<>(List.of(product(3L, 10L))));
+        ((com.github.benmanes.caffeine.cache.Cache<?, ?>) categoryProducts.getNativeCache()).cleanUp();
+
+        assertEquals(1, dependencies.trackedEntries(1L) + dependencies.trackedEntries(2L)
+                + dependencies.trackedEntries(3L));
+    }
+
+    @Test
+    void generationsAreBoundedAndNeverGoBack() {
+        ProductCacheDependencies bounded = new ProductCacheDependencies(10, Duration.ofHours(1));
+        Map<Long, Long> seen = new HashMap<>();
+        for (long id = 1; id <= 200; id++) {
+            bounded.stockChanged(id, 5, 4);
+            seen.put(id, bounded.productVersion(id));
+        }
+
+        assertTrue(bounded.keptGenerations() <= 10);
+        for (long id = 1; id <= 200; id++) {
+            long before = bounded.productVersion(id);
+            assertTrue(before >= seen.get(id));
+            bounded.stockChanged(id, 4, 3);
+            assertTrue(bounded.productVersion(id) > before);
+        }
+    }
+
+    private static ProductDTO product(Long id, Long categoryId) {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setPrice(BigDecimal.TEN);
+        product.setInventoryQuantity(5);
+        product.setCategoryId(categoryId);
+        return product;
+    }
+}
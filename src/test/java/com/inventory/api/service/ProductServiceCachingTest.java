@@ -0,0 +1,136 @@
+package com.inventory.api.service;
+
+import com.inventory.api.config.CacheProperties;
+import com.inventory.api.config.InventoryCacheManager;
+import com.inventory.api.dto.ProductDTO;
+import com.inventory.api.exception.ResourceNotFoundException;
+import com.inventory.api.mapper.ProductMapper;
+import com.inventory.api.model.Product;
+import com.inventory.api.repository.CategoryRepository;
+import com.inventory.api.repository.ProductRepository;
+import com.inventory.api.repository.SupplierRepository;
+import com.inventory.api.service.impl.InventoryDecrementCoalescer;
+import com.inventory.api.service.impl.LowStockIndex;
+import com.inventory.api.service.impl.PageTotals;
+import com.inventory.api.service.impl.ProductCacheDependencies;
+import com.inventory.api.service.impl.ProductServiceImpl;
+import com.inventory.api.service.impl.SearchFacets;
+import com.inventory.api.service.impl.SearchTextIndex;
+import com.inventory.api.service.impl.ShardedStockService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs {@link ProductServiceImpl} behind the real cache interceptor, which
+ * hands the cache its loader and failures wrapped.
+ */
+@SpringJUnitConfig(ProductServiceCachingTest.Config.class)
+public class ProductServiceCachingTest {
+
+    @Configuration
+    @EnableCaching
+    @Import(ProductServiceImpl.class)
+    static class Config {
+
+        @Bean
+        InventoryCacheManager cacheManager() {
+            CacheProperties properties = new CacheProperties();
+            CacheProperties.Spec products = new CacheProperties.Spec();
+            products.setMaximumSize(100L);
+            products.setNegativeTtl(Duration.ofMinutes(1));
+            properties.getCaches().put("products", products);
+            return new InventoryCacheManager(properties, null);
+        }
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @MockBean
+    private ProductRepository productRepository;
+    @MockBean
+    private CategoryRepository categoryRepository;
+    @MockBean
+    private SupplierRepository supplierRepository;
+    @MockBean
+    private ProductMapper productMapper;
+    @MockBean
+    private ShardedStockService shardedStock;
+    @MockBean
+    private InventoryDecrementCoalescer decrementCoalescer;
+    @MockBean
+    private LowStockIndex lowStockIndex;
+    @MockBean
+    private ProductCacheDependencies cacheDependencies;
+    @MockBean
+    private SearchTextIndex searchIndex;
+    @MockBean
+    private PageTotals pageTotals;
+    @MockBean
+    private SearchFacets searchFacets;
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void missingProductIsLookedUpOnceWhileTheMissIsRemembered() {
+        when(productRepository.findById(404L)).thenReturn(Optional.empty());
+        when(productRepository.findBySku("NOPE")).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ResourceNotFoundException.class, () -> productService.getProductById(404L));
+            assertThrows(ResourceNotFoundException.class, () -> productService.getProductBySku("NOPE"));
+        }
+
+        verify(productRepository, times(1)).findById(404L);
+        verify(productRepository, times(1)).findBySku("NOPE");
+    }
+
+    @Test
+    void changingTheSkuEvictsTheEntriesUnderTheOldAndTheNewSku() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setSku("OLD");
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.findBySku("OLD")).thenReturn(Optional.of(product));
+        when(productRepository.save(product)).thenReturn(product);
+        when(productMapper.toDto(product)).thenAnswer(invocation -> dto(product));
+
+        assertEquals("OLD", productService.getProductBySku("OLD").getSku());
+        assertThrows(ResourceNotFoundException.class, () -> productService.getProductBySku("NEW"));
+
+        productService.updateProduct(1L, dto(product, "NEW"));
+        when(productRepository.findBySku("OLD")).thenReturn(Optional.empty());
+        when(productRepository.findBySku("NEW")).thenReturn(Optional.of(product));
+
+        assertThrows(ResourceNotFoundException.class, () -> productService.getProductBySku("OLD"));
+        assertEquals("NEW", productService.getProductBySku("NEW").getSku());
+        assertEquals("NEW", productService.getProductById(1L).getSku());
+    }
+
+    private static ProductDTO dto(Product product) {
+        return dto(product, product.getSku());
+    }
+
+    private static ProductDTO dto(Product product, String sku) {
+        ProductDTO productDTO = new ProductDTO();
+        productDTO.setId(product.getId());
+        productDTO.setSku(sku);
+        return productDTO;
+    }
+}
@@ -1,29 +1,57 @@
 package com.inventory.api.service;
 
+import com.inventory.api.dto.BulkInventoryResultDTO;
+import com.inventory.api.dto.InventoryAdjustmentDTO;
+import com.inventory.api.dto.InventoryAdjustmentResultDTO;
 import com.inventory.api.dto.ProductDTO;
+import com.inventory.api.event.InventoryChangedEvent;
+import com.inventory.api.event.InventoryLevelChangedEvent;
 import com.inventory.api.exception.InsufficientInventoryException;
+import com.inventory.api.exception.ReservationStateException;
 import com.inventory.api.exception.ResourceNotFoundException;
 import com.inventory.api.mapper.ProductMapper;
 import com.inventory.api.model.Category;
+import com.inventory.api.model.InventoryMovement;
 import com.inventory.api.model.Product;
 import com.inventory.api.repository.CategoryRepository;
 import com.inventory.api.repository.ProductRepository;
+import com.inventory.api.repository.ProductRepositoryCustom.StockLevel;
+import com.inventory.api.service.impl.InventoryDecrementCoalescer;
+import com.inventory.api.service.impl.LowStockIndex;
+import com.inventory.api.service.impl.PageKeyGenerator;
+import com.inventory.api.service.impl.PageTotals;
+import com.inventory.api.service.impl.ProductCacheDependencies;
 import com.inventory.api.service.impl.ProductServiceImpl;
+import com.inventory.api.service.impl.SearchFacets;
+import com.inventory.api.service.impl.SearchTextIndex;
+import com.inventory.api.service.impl.ShardedStockService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiFunction;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -41,6 +69,37 @@ public class ProductServiceTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ShardedStockService shardedStock;
+
+    @Mock
+    private InventoryDecrementCoalescer decrementCoalescer;
+
+    @Mock
+    private LowStockIndex lowStockIndex;
+
+    @Mock
+    private ProductCacheDependencies cacheDependencies;
+
+    @Mock
+    private SearchTextIndex searchIndex;
+
+    @Mock
+    private SearchFacets searchFacets;
+
+    @Spy
+    private PageTotals pageTotals = new PageTotals(new ConcurrentMapCacheManager(),
+            new PageKeyGenerator(new ProductCacheDependencies()));
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -116,16 +175,44 @@ public class ProductServiceTest {
     @Test
     void getAllProducts_Success() {
         List<Product> products = Arrays.asList(product);
-        Page<Product> productPage = new PageImpl<>(products);
         Pageable pageable = PageRequest.of(0, 10);
 
-        when(productRepository.findAll(pageable)).thenReturn(productPage);
+        when(productRepository.findSlice(isNull(), eq(pageable))).thenReturn(new SliceImpl<>(products, pageable, false));
         when(productMapper.toDto(any(Product.class))).thenReturn(productDTO);
 
         Page<ProductDTO> result = productService.getAllProducts(pageable);
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
+        verify(productRepository, never()).count();
+    }
+
+    @Test
+    void getAllProducts_CountsTheTotalOnceForAllPages() {
+        List<Product> products = Arrays.asList(product);
+        when(productRepository.findSlice(isNull(), any(Pageable.class)))
+                .thenAnswer(invocation -> new SliceImpl<>(products, invocation.getArgument(1), true));
+        when(productRepository.count()).thenReturn(42L);
+        when(productMapper.toDto(any(Product.class))).thenReturn(productDTO);
+
+        assertEquals(42, productService.getAllProducts(PageRequest.of(0, 1)).getTotalElements());
+        assertEquals(42, productService.getAllProducts(PageRequest.of(5, 1)).getTotalElements());
+
+        verify(productRepository, times(1)).count();
+    }
+
+    @Test
+    void getProductsBySupplier_CountsTheTotalOnceForAllPages() {
+        List<Product> products = Arrays.asList(product);
+        when(productRepository.findSlice(any(Specification.class), any(Pageable.class)))
+                .thenAnswer(invocation -> new SliceImpl<>(products, invocation.getArgument(1), true));
+        when(productRepository.countBySupplierId(7L)).thenReturn(42L);
+        when(productMapper.toDto(any(Product.class))).thenReturn(productDTO);
+
+        assertEquals(42, productService.getProductsBySupplier(7L, PageRequest.of(0, 1)).getTotalElements());
+        assertEquals(42, productService.getProductsBySupplier(7L, PageRequest.of(5, 1)).getTotalElements());
+
+        verify(productRepository, times(1)).countBySupplierId(7L);
     }
 
     @Test
@@ -194,33 +281,89 @@ public class ProductServiceTest {
 
     @Test
     void increaseInventory_Success() {
+        when(productRepository.adjustInventory(1L, 5)).thenReturn(1);
         when(productRepository.findById(anyLong())).thenReturn(Optional.of(product));
-        when(productRepository.save(any(Product.class))).thenReturn(product);
         when(productMapper.toDto(any(Product.class))).thenReturn(productDTO);
 
         ProductDTO result = productService.increaseInventory(1L, 5);
 
         assertNotNull(result);
-        verify(productRepository).save(any(Product.class));
+        verify(productRepository).adjustInventory(1L, 5);
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    void decreaseInventory_UpdatesLowStockIndexAndPublishesLevel() {
+        productDTO.setInventoryQuantity(4);
+        when(productRepository.adjustInventory(1L, -6)).thenReturn(1);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productMapper.toDto(any(Product.class))).thenReturn(productDTO);
+        when(lowStockIndex.update(1L, true)).thenReturn(true);
+
+        productService.decreaseInventory(1L, 6);
+
+        verify(lowStockIndex).update(1L, true);
+        verify(eventPublisher).publishEvent(argThat((Object published) ->
+                published instanceof InventoryLevelChangedEvent event
+                        && event.productId().equals(1L)
+                        && event.quantity() == 4
+                        && event.lowStock()
+                        && event.lowStockChanged()));
+    }
+
+    @Test
+    void getLowStockProducts_PagesThroughIndex() {
+        Pageable pageable = PageRequest.of(0, 2);
+        Product other = new Product();
+        other.setId(4L);
+        ProductDTO otherDTO = new ProductDTO();
+        otherDTO.setId(4L);
+        when(lowStockIndex.page(pageable)).thenReturn(new PageImpl<>(List.of(1L, 4L), pageable, 3));
+        when(productRepository.findAllById(List.of(1L, 4L))).thenReturn(List.of(other, product));
+        when(productMapper.toDto(product)).thenReturn(productDTO);
+        when(productMapper.toDto(other)).thenReturn(otherDTO);
+
+        Page<ProductDTO> result = productService.getLowStockProducts(pageable);
+
+        assertEquals(List.of(productDTO, otherDTO), result.getContent());
+        assertEquals(3, result.getTotalElements());
+        verify(productRepository, never()).findByLowStockIsTrue();
     }
 
     @Test
     void decreaseInventory_Success() {
+        when(productRepository.adjustInventory(1L, -5)).thenReturn(1);
         when(productRepository.findById(anyLong())).thenReturn(Optional.of(product));
-        when(productRepository.save(any(Product.class))).thenReturn(product);
         when(productMapper.toDto(any(Product.class))).thenReturn(productDTO);
 
         ProductDTO result = productService.decreaseInventory(1L, 5);
 
         assertNotNull(result);
-        verify(productRepository).save(any(Product.class));
+        verify(productRepository).adjustInventory(1L, -5);
+        verify(productRepository, never()).save(any(Product.class));
+        verify(eventPublisher).publishEvent(argThat((Object published) ->
+                published instanceof InventoryChangedEvent event
+                        && event.productId().equals(1L)
+                        && event.type() == InventoryMovement.Type.DECREASE
+                        && event.quantity() == 5
+                        && event.source() == InventoryMovement.Source.DECREASE));
     }
 
     @Test
     void decreaseInventory_InsufficientInventory() {
+        when(productRepository.adjustInventory(1L, -15)).thenReturn(0);
         when(productRepository.findById(anyLong())).thenReturn(Optional.of(product));
 
         assertThrows(InsufficientInventoryException.class, () -> productService.decreaseInventory(1L, 15));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void decreaseInventory_ProductNotFound() {
+        when(productRepository.adjustInventory(1L, -5)).thenReturn(0);
+        when(productRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> productService.decreaseInventory(1L, 5));
     }
 
     @Test
@@ -253,12 +396,11 @@ public class ProductServiceTest {
 
     @Test
     void searchProducts_ByName() {
-        Page<Product> productPage = new PageImpl<>(Arrays.asList(product));
-        when(productRepository.findByNameContainingIgnoreCase(anyString(), any(Pageable.class)))
-                .thenReturn(productPage);
+        when(productRepository.findSlice(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(product)));
         when(productMapper.toDto(any(Product.class))).thenReturn(productDTO);
 
-        Page<ProductDTO> result = productService.searchProducts("Test", null, null, null, null, PageRequest.of(0, 10));
+        Page<ProductDTO> result = productService.searchProducts("Test", null, null, null, null, null, PageRequest.of(0, 10));
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
@@ -266,12 +408,11 @@ public class ProductServiceTest {
 
     @Test
     void searchProducts_ByCategory() {
-        Page<Product> productPage = new PageImpl<>(Arrays.asList(product));
-        when(productRepository.findByCategoryId(anyLong(), any(Pageable.class)))
-                .thenReturn(productPage);
+        when(productRepository.findSlice(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(product)));
         when(productMapper.toDto(any(Product.class))).thenReturn(productDTO);
 
-        Page<ProductDTO> result = productService.searchProducts(null, 1L, null, null, null, PageRequest.of(0, 10));
+        Page<ProductDTO> result = productService.searchProducts(null, null, 1L, null, null, null, PageRequest.of(0, 10));
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
@@ -279,13 +420,12 @@ public class ProductServiceTest {
 
     @Test
     void searchProducts_ByPriceRange() {
-        Page<Product> productPage = new PageImpl<>(Arrays.asList(product));
-        when(productRepository.findByPriceBetween(any(BigDecimal.class), any(BigDecimal.class), any(Pageable.class)))
-                .thenReturn(productPage);
+        when(productRepository.findSlice(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(product)));
         when(productMapper.toDto(any(Product.class))).thenReturn(productDTO);
 
         Page<ProductDTO> result = productService.searchProducts(
-                null, null, new BigDecimal("50.00"), new BigDecimal("150.00"), null, PageRequest.of(0, 10));
+                null, null, null, new BigDecimal("50.00"), new BigDecimal("150.00"), null, PageRequest.of(0, 10));
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
@@ -293,14 +433,157 @@ public class ProductServiceTest {
 
     @Test
     void searchProducts_InStock() {
-        Page<Product> productPage = new PageImpl<>(Arrays.asList(product));
-        when(productRepository.findByInventoryQuantityGreaterThan(anyInt(), any(Pageable.class)))
-                .thenReturn(productPage);
+        when(productRepository.findSlice(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(product)));
         when(productMapper.toDto(any(Product.class))).thenReturn(productDTO);
 
-        Page<ProductDTO> result = productService.searchProducts(null, null, null, null, true, PageRequest.of(0, 10));
+        Page<ProductDTO> result = productService.searchProducts(null, null, null, null, null, true, PageRequest.of(0, 10));
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
     }
-}
\ No newline at end of file
+
+    @Test
+    void bulkAdjustInventory_ReportsPerItemResults() {
+        Cache productsCache = mock(Cache.class);
+        when(cacheManager.getCache("products")).thenReturn(productsCache);
+        Cache inventoryCache = mock(Cache.class);
+        when(cacheManager.getCache("productInventory")).thenReturn(inventoryCache);
+        when(productRepository.findIdsBySkuIn(anyCollection())).thenReturn(Map.of("TEST-SKU-123", 1L));
+        when(productRepository.batchAdjustInventory(anyList())).thenReturn(new int[] { 1, 0 });
+        when(productRepository.findStockLevels(anyCollection())).thenReturn(Map.of(
+                1L, new StockLevel(1L, "TEST-SKU-123", 1L, 12, false),
+                2L, new StockLevel(2L, "OTHER-SKU", null, 3, true)));
+
+        BulkInventoryResultDTO result = productService.bulkAdjustInventory(List.of(
+                InventoryAdjustmentDTO.builder().sku("TEST-SKU-123").delta(2).build(),
+                InventoryAdjustmentDTO.builder().id(2L).delta(-5).build(),
+                InventoryAdjustmentDTO.builder().sku("MISSING").absolute(4).build(),
+                InventoryAdjustmentDTO.builder().id(3L).delta(1).absolute(1).build()));
+
+        assertEquals(1, result.getApplied());
+        assertEquals(3, result.getFailed());
+        assertEquals(InventoryAdjustmentResultDTO.Status.APPLIED, result.getResults().get(0).getStatus());
+        assertEquals(12, result.getResults().get(0).getInventoryQuantity());
+        assertEquals(InventoryAdjustmentResultDTO.Status.INSUFFICIENT_INVENTORY,
+                result.getResults().get(1).getStatus());
+        assertEquals(InventoryAdjustmentResultDTO.Status.NOT_FOUND, result.getResults().get(2).getStatus());
+        assertEquals(InventoryAdjustmentResultDTO.Status.INVALID, result.getResults().get(3).getStatus());
+        verify(productRepository, times(1)).batchAdjustInventory(anyList());
+        verify(productsCache).evict(1L);
+        verify(productsCache).evict("sku_TEST-SKU-123");
+        verify(productsCache).evict(2L);
+        // the SKU entry of an item addressed by id is evicted under the SKU read from its row
+        verify(productsCache).evict("sku_OTHER-SKU");
+        verify(inventoryCache).evict(1L);
+        // one level event for the single product whose stock changed
+        verify(eventPublisher, times(1)).publishEvent(any(InventoryLevelChangedEvent.class));
+    }
+
+    @Test
+    void decreaseInventory_ShardedProductUsesShards() {
+        product.setStockShards(4);
+        when(shardedStock.shardCount(1L)).thenReturn(4);
+        when(shardedStock.applyDelta(1L, -5, 4)).thenReturn(37);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productMapper.toDto(any(Product.class))).thenReturn(productDTO);
+
+        ProductDTO result = productService.decreaseInventory(1L, 5);
+
+        assertEquals(37, result.getInventoryQuantity());
+        verify(productRepository, never()).adjustInventory(anyLong(), anyInt());
+    }
+
+    @Test
+    void decreaseInventory_DetectsProductShardedElsewhere() {
+        product.setStockShards(2);
+        when(productRepository.adjustInventory(1L, -5)).thenReturn(0);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(shardedStock.shardCount(1L)).thenReturn(0, 2);
+        when(shardedStock.applyDelta(1L, -5, 2)).thenReturn(5);
+        when(productMapper.toDto(any(Product.class))).thenReturn(productDTO);
+
+        ProductDTO result = productService.decreaseInventory(1L, 5);
+
+        assertEquals(5, result.getInventoryQuantity());
+        verify(shardedStock).remember(1L, 2);
+    }
+
+    @Test
+    void increaseInventory_GivesUpWhenTheStockLayoutKeepsChanging() {
+        when(shardedStock.shardCount(1L)).thenReturn(2);
+        when(shardedStock.applyDelta(1L, 5, 2)).thenReturn(null);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> productService.increaseInventory(1L, 5));
+
+        verify(shardedStock, times(2)).applyDelta(1L, 5, 2);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void decreaseInventory_CoalescedBatchRejectsOnlyOversellingRequests() {
+        when(decrementCoalescer.isEnabled()).thenReturn(true);
+        when(decrementCoalescer.decrease(eq(1L), eq(5), any())).thenReturn(productDTO);
+
+        assertSame(productDTO, productService.decreaseInventory(1L, 5));
+
+        ArgumentCaptor<BiFunction<Long, List<Integer>, List<InventoryDecrementCoalescer.Outcome>>> writer =
+                ArgumentCaptor.forClass(BiFunction.class);
+        verify(decrementCoalescer).decrease(eq(1L), eq(5), writer.capture());
+
+        // 4 + 5 + 3 exceeds the 10 in stock, so the last decrement is the only one rejected
+        when(productRepository.adjustInventory(1L, -12)).thenReturn(0);
+        when(productRepository.adjustInventory(1L, -4)).thenReturn(1);
+        when(productRepository.adjustInventory(1L, -5)).thenReturn(1);
+        when(productRepository.adjustInventory(1L, -3)).thenReturn(0);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productMapper.toDto(any(Product.class))).thenReturn(productDTO);
+
+        List<InventoryDecrementCoalescer.Outcome> outcomes = writer.getValue().apply(1L, List.of(4, 5, 3));
+
+        assertEquals(3, outcomes.size());
+        assertSame(productDTO, outcomes.get(0).product());
+        assertSame(productDTO, outcomes.get(1).product());
+        assertInstanceOf(InsufficientInventoryException.class, outcomes.get(2).failure());
+        verify(eventPublisher, times(2)).publishEvent(any(InventoryChangedEvent.class));
+    }
+
+    @Test
+    void decreaseInventory_CoalescedBatchUsesOneUpdateWhenStockSuffices() {
+        when(decrementCoalescer.isEnabled()).thenReturn(true);
+        when(decrementCoalescer.decrease(eq(1L), eq(2), any())).thenAnswer(invocation -> {
+            BiFunction<Long, List<Integer>, List<InventoryDecrementCoalescer.Outcome>> writer = invocation.getArgument(2);
+            return writer.apply(1L, List.of(2, 3, 1)).get(0).product();
+        });
+        when(productRepository.adjustInventory(1L, -6)).thenReturn(1);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productMapper.toDto(any(Product.class))).thenReturn(productDTO);
+
+        assertSame(productDTO, productService.decreaseInventory(1L, 2));
+
+        verify(productRepository, times(1)).adjustInventory(anyLong(), anyInt());
+        verify(eventPublisher, times(3)).publishEvent(any(InventoryChangedEvent.class));
+    }
+
+    @Test
+    void configureStockShards_SplitsCurrentStock() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(productMapper.toDto(any(Product.class))).thenReturn(productDTO);
+
+        productService.configureStockShards(1L, 4);
+
+        verify(shardedStock).redistribute(1L, 10, 4);
+        assertEquals(4, product.getStockShards());
+    }
+
+    @Test
+    void configureStockShards_RejectsReservedStock() {
+        product.setReservedQuantity(2);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        assertThrows(ReservationStateException.class, () -> productService.configureStockShards(1L, 4));
+        verifyNoInteractions(shardedStock);
+    }
+}
@@ -0,0 +1,193 @@
+package com.inventory.api.service;
+
+import com.inventory.api.concurrency.HashedTimingWheel;
+import com.inventory.api.dto.InventoryAvailabilityDTO;
+import com.inventory.api.dto.ReservationDTO;
+import com.inventory.api.event.InventoryChangedEvent;
+import com.inventory.api.exception.InsufficientInventoryException;
+import com.inventory.api.exception.ReservationStateException;
+import com.inventory.api.exception.ResourceNotFoundException;
+import com.inventory.api.mapper.ReservationMapper;
+import com.inventory.api.model.InventoryMovement;
+import com.inventory.api.model.InventoryReservation;
+import com.inventory.api.model.Product;
+import com.inventory.api.repository.InventoryReservationRepository;
+import com.inventory.api.repository.ProductRepository;
+import com.inventory.api.service.impl.LowStockIndex;
+import com.inventory.api.service.impl.ProductCacheDependencies;
+import com.inventory.api.service.impl.ReservationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReservationServiceTest {
+
+    @Mock
+    private InventoryReservationRepository reservationRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private HashedTimingWheel expiryWheel;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private LowStockIndex lowStockIndex;
+
+    @Mock
+    private ProductCacheDependencies cacheDependencies;
+
+    private ReservationServiceImpl reservationService;
+
+    private Product product;
+    private InventoryReservation reservation;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationServiceImpl(reservationRepository, productRepository,
+                new ReservationMapper(), expiryWheel, transactionManager, eventPublisher, lowStockIndex,
+                cacheDependencies, 900, 3600);
+
+        product = new Product();
+        product.setId(1L);
+        product.setName("Test Product");
+        product.setInventoryQuantity(10);
+        product.setReservedQuantity(4);
+
+        reservation = InventoryReservation.builder()
+                .id(7L)
+                .product(product)
+                .quantity(3)
+                .status(InventoryReservation.Status.ACTIVE)
+                .expiresAt(LocalDateTime.now().plusMinutes(5))
+                .build();
+    }
+
+    @Test
+    void reserve_HoldsStockAndSchedulesExpiry() {
+        when(productRepository.reserveInventory(1L, 3)).thenReturn(1);
+        when(productRepository.getReferenceById(1L)).thenReturn(product);
+        when(reservationRepository.save(any(InventoryReservation.class))).thenAnswer(invocation -> {
+            InventoryReservation saved = invocation.getArgument(0);
+            saved.setId(7L);
+            return saved;
+        });
+        when(expiryWheel.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class)))
+                .thenReturn(mock(HashedTimingWheel.Timeout.class));
+
+        ReservationDTO result = reservationService.reserve(1L, 3, 7200L);
+
+        assertEquals(7L, result.getId());
+        assertEquals("ACTIVE", result.getStatus());
+        // TTL is capped at the configured maximum
+        assertTrue(result.getExpiresAt().isBefore(LocalDateTime.now().plusSeconds(3601)));
+        verify(expiryWheel).schedule(any(Runnable.class), eq(3_600_000L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void reserve_InsufficientAvailableStock() {
+        when(productRepository.reserveInventory(1L, 7)).thenReturn(0);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        InsufficientInventoryException exception = assertThrows(InsufficientInventoryException.class,
+                () -> reservationService.reserve(1L, 7, null));
+
+        assertTrue(exception.getMessage().contains("Available inventory: 6"));
+        verify(reservationRepository, never()).save(any());
+        verifyNoInteractions(expiryWheel);
+    }
+
+    @Test
+    void reserve_ProductNotFound() {
+        when(productRepository.reserveInventory(99L, 1)).thenReturn(0);
+        when(productRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> reservationService.reserve(99L, 1, null));
+    }
+
+    @Test
+    void confirm_CommitsReservedStock() {
+        when(reservationRepository.findByIdAndProductId(7L, 1L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.transition(7L, InventoryReservation.Status.ACTIVE,
+                InventoryReservation.Status.CONFIRMED)).thenReturn(1);
+        when(productRepository.commitReservedInventory(1L, 3)).thenReturn(1);
+
+        ReservationDTO result = reservationService.confirm(1L, 7L);
+
+        assertEquals("CONFIRMED", result.getStatus());
+        verify(productRepository).commitReservedInventory(1L, 3);
+        verify(eventPublisher).publishEvent(argThat((InventoryChangedEvent event) ->
+                event.type() == InventoryMovement.Type.DECREASE && event.quantity() == 3));
+    }
+
+    @Test
+    void confirm_ExpiredReservationIsRejected() {
+        reservation.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        when(reservationRepository.findByIdAndProductId(7L, 1L)).thenReturn(Optional.of(reservation));
+
+        assertThrows(ReservationStateException.class, () -> reservationService.confirm(1L, 7L));
+        verify(productRepository, never()).commitReservedInventory(anyLong(), anyInt());
+    }
+
+    @Test
+    void release_AlreadyConfirmedReservationIsRejected() {
+        InventoryReservation confirmed = InventoryReservation.builder()
+                .id(7L)
+                .product(product)
+                .quantity(3)
+                .status(InventoryReservation.Status.CONFIRMED)
+                .build();
+        when(reservationRepository.findByIdAndProductId(7L, 1L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.transition(7L, InventoryReservation.Status.ACTIVE,
+                InventoryReservation.Status.RELEASED)).thenReturn(0);
+        when(reservationRepository.findById(7L)).thenReturn(Optional.of(confirmed));
+
+        ReservationStateException exception = assertThrows(ReservationStateException.class,
+                () -> reservationService.release(1L, 7L));
+
+        assertTrue(exception.getMessage().contains("CONFIRMED"));
+        verify(productRepository, never()).releaseReservedInventory(anyLong(), anyInt());
+    }
+
+    @Test
+    void release_ReturnsStockToAvailablePool() {
+        when(reservationRepository.findByIdAndProductId(7L, 1L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.transition(7L, InventoryReservation.Status.ACTIVE,
+                InventoryReservation.Status.RELEASED)).thenReturn(1);
+
+        ReservationDTO result = reservationService.release(1L, 7L);
+
+        assertEquals("RELEASED", result.getStatus());
+        verify(productRepository).releaseReservedInventory(1L, 3);
+    }
+
+    @Test
+    void getAvailability_SubtractsReservedFromOnHand() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        InventoryAvailabilityDTO availability = reservationService.getAvailability(1L);
+
+        assertEquals(10, availability.getOnHand());
+        assertEquals(4, availability.getReserved());
+        assertEquals(6, availability.getAvailable());
+    }
+}
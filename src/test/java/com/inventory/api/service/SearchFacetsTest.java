@@ -0,0 +1,48 @@
+package com.inventory.api.service;
+
+import com.inventory.api.dto.FacetCountDTO;
+import com.inventory.api.dto.PriceRangeCountDTO;
+import com.inventory.api.dto.ProductFacetsDTO;
+import com.inventory.api.repository.ProductRepository;
+import com.inventory.api.repository.ProductRepositoryCustom.FacetCount;
+import com.inventory.api.service.impl.SearchFacets;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class SearchFacetsTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final SearchFacets facets = new SearchFacets(productRepository,
+            new BigDecimal[] { new BigDecimal("100"), new BigDecimal("10") });
+
+    @Test
+    void sumsTheGroupedCountsPerFacet() {
+        when(productRepository.countFacets(isNull(), eq(List.of(new BigDecimal("10"), new BigDecimal("100")))))
+                .thenReturn(List.of(
+                        new FacetCount(1L, "Tools", 7L, "Acme", 0, true, 4),
+                        new FacetCount(1L, "Tools", 8L, "Bolt Co", 2, false, 1),
+                        new FacetCount(2L, "Garden", 7L, "Acme", 1, true, 6),
+                        new FacetCount(null, null, null, null, -1, false, 2)));
+
+        ProductFacetsDTO result = facets.count(null);
+
+        assertEquals(13, result.getTotal());
+        assertEquals(10, result.getInStock());
+        assertEquals(3, result.getOutOfStock());
+        assertEquals(List.of(new FacetCountDTO(2L, "Garden", 6), new FacetCountDTO(1L, "Tools", 5),
+                new FacetCountDTO(null, null, 2)), result.getCategories());
+        assertEquals(List.of(new FacetCountDTO(7L, "Acme", 10), new FacetCountDTO(null, null, 2),
+                new FacetCountDTO(8L, "Bolt Co", 1)), result.getSuppliers());
+        assertEquals(List.of(
+                new PriceRangeCountDTO(null, new BigDecimal("10"), 4),
+                new PriceRangeCountDTO(new BigDecimal("10"), new BigDecimal("100"), 6),
+                new PriceRangeCountDTO(new BigDecimal("100"), null, 1)), result.getPriceRanges());
+        verify(productRepository, times(1)).countFacets(any(), anyList());
+    }
+}
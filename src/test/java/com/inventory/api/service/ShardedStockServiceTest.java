@@ -0,0 +1,90 @@
+package com.inventory.api.service;
+
+import com.inventory.api.exception.InsufficientInventoryException;
+import com.inventory.api.model.InventoryShard;
+import com.inventory.api.model.Product;
+import com.inventory.api.repository.InventoryShardRepository;
+import com.inventory.api.repository.ProductRepository;
+import com.inventory.api.service.impl.ShardedStockService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ShardedStockServiceTest {
+
+    @Mock
+    private InventoryShardRepository shardRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ShardedStockService shardedStock;
+
+    @Test
+    void applyDelta_DecrementsFirstShardWithStock() {
+        when(shardRepository.adjustShard(eq(1L), anyInt(), eq(-2))).thenReturn(0, 1);
+        when(shardRepository.sumQuantity(1L)).thenReturn(8L);
+
+        assertEquals(8, shardedStock.applyDelta(1L, -2, 4));
+        verify(shardRepository, times(2)).adjustShard(eq(1L), anyInt(), eq(-2));
+        verify(shardRepository, never()).lockShards(anyLong());
+    }
+
+    @Test
+    void applyDelta_DrainsSeveralShardsWhenNoneSuffices() {
+        InventoryShard first = InventoryShard.builder().productId(1L).shardIndex(0).quantity(2).build();
+        InventoryShard second = InventoryShard.builder().productId(1L).shardIndex(1).quantity(3).build();
+        when(shardRepository.adjustShard(eq(1L), anyInt(), eq(-4))).thenReturn(0);
+        when(shardRepository.lockShards(1L)).thenReturn(List.of(first, second));
+
+        assertEquals(1, shardedStock.applyDelta(1L, -4, 2));
+        assertEquals(0, first.getQuantity());
+        assertEquals(1, second.getQuantity());
+    }
+
+    @Test
+    void applyDelta_RejectsOversell() {
+        when(shardRepository.adjustShard(eq(1L), anyInt(), eq(-6))).thenReturn(0);
+        when(shardRepository.lockShards(1L)).thenReturn(List.of(
+                InventoryShard.builder().productId(1L).shardIndex(0).quantity(2).build(),
+                InventoryShard.builder().productId(1L).shardIndex(1).quantity(3).build()));
+
+        assertThrows(InsufficientInventoryException.class, () -> shardedStock.applyDelta(1L, -6, 2));
+    }
+
+    @Test
+    void applyDelta_RefreshesModeWhenShardsAreGone() {
+        Product product = new Product();
+        product.setId(1L);
+        shardedStock.remember(1L, 2);
+        when(shardRepository.adjustShard(eq(1L), anyInt(), eq(3))).thenReturn(0);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        assertNull(shardedStock.applyDelta(1L, 3, 2));
+        assertEquals(0, shardedStock.shardCount(1L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void redistribute_SpreadsQuantityEvenly() {
+        shardedStock.redistribute(1L, 10, 4);
+
+        ArgumentCaptor<List<InventoryShard>> shards = ArgumentCaptor.forClass(List.class);
+        verify(shardRepository).saveAll(shards.capture());
+        assertEquals(List.of(3, 3, 2, 2),
+                shards.getValue().stream().map(InventoryShard::getQuantity).toList());
+        assertEquals(4, shardedStock.shardCount(1L));
+    }
+}
@@ -6,17 +6,25 @@ import com.inventory.api.mapper.SupplierMapper;
 import com.inventory.api.model.Supplier;
 import com.inventory.api.repository.SupplierRepository;
 import com.inventory.api.repository.ProductRepository;
+import com.inventory.api.service.impl.PageKeyGenerator;
+import com.inventory.api.service.impl.PageTotals;
+import com.inventory.api.service.impl.ProductCacheDependencies;
+import com.inventory.api.service.impl.SearchTextIndex;
 import com.inventory.api.service.impl.SupplierServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -39,6 +47,16 @@ class SupplierServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductCacheDependencies cacheDependencies;
+
+    @Mock
+    private SearchTextIndex searchIndex;
+
+    @Spy
+    private PageTotals pageTotals = new PageTotals(new ConcurrentMapCacheManager(),
+            new PageKeyGenerator(new ProductCacheDependencies()));
+
     @InjectMocks
     private SupplierServiceImpl supplierService;
 
@@ -146,9 +164,8 @@ class SupplierServiceTest {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
         List<Supplier> suppliers = Arrays.asList(supplier);
-        Page<Supplier> supplierPage = new PageImpl<>(suppliers, pageable, 1);
 
-        when(supplierRepository.findAll(pageable)).thenReturn(supplierPage);
+        when(supplierRepository.findSlice(isNull(), eq(pageable))).thenReturn(new SliceImpl<>(suppliers, pageable, false));
         when(productRepository.countBySupplierId(1L)).thenReturn(3L);
         when(supplierMapper.toDTOWithProductCount(supplier, 3)).thenReturn(supplierDTO);
 
@@ -226,11 +243,10 @@ class SupplierServiceTest {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
         List<Supplier> suppliers = Arrays.asList(supplier);
-        Page<Supplier> supplierPage = new PageImpl<>(suppliers, pageable, 1);
 
-        when(supplierRepository.searchSuppliers(eq("Test"), eq("John"), eq("Test City"),
-                eq("Test Country"), eq(true), eq(pageable))).thenReturn(supplierPage);
-        when(supplierMapper.toDTO(supplier)).thenReturn(supplierDTO);
+        when(supplierRepository.findSlice(any(Specification.class), eq(pageable)))
+                .thenReturn(new SliceImpl<>(suppliers, pageable, false));
+        when(supplierMapper.toDTOWithProductCount(supplier, 0)).thenReturn(supplierDTO);
 
         // When
         Page<SupplierDTO> result = supplierService.searchSuppliers("Test", "John", "Test City",
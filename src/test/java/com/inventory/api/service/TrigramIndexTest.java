@@ -0,0 +1,84 @@
+package com.inventory.api.service;
+
+import com.inventory.api.service.impl.TrigramIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrigramIndexTest {
+
+    @Test
+    void findsSubstringsIgnoringCase() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Smartphone");
+        index.put(2L, "Phone case");
+        index.put(3L, "Laptop");
+        index.put(4L, "abcd bcda");
+
+        assertArrayEquals(new long[] { 1L, 2L }, index.search("PHONE", 100));
+        assertArrayEquals(new long[] { 2L }, index.search("e ca", 100));
+        assertArrayEquals(new long[0], index.search("tablet", 100));
+        // every trigram of the term occurs in row 4, but not the term itself
+        assertArrayEquals(new long[0], index.search("abcda", 100));
+    }
+
+    @Test
+    void leavesShortAndUnselectiveTermsToTheDatabase() {
+        TrigramIndex index = new TrigramIndex();
+        LongStream.rangeClosed(1, 10).forEach(id -> index.put(id, "Widget " + id));
+
+        assertNull(index.search("wi", 100));
+        assertNull(index.search("widget", 5));
+        assertEquals(10, index.search("widget", 10).length);
+    }
+
+    @Test
+    void followsUpdatesAndRemovals() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(5L, "Hammer");
+        index.put(3L, "Sledge hammer");
+        index.put(5L, "Screwdriver");
+        index.remove(3L);
+
+        assertArrayEquals(new long[0], index.search("hammer", 100));
+        assertArrayEquals(new long[] { 5L }, index.search("driver", 100));
+
+        index.put(3L, "Hammer");
+        index.put(5L, null);
+
+        assertArrayEquals(new long[] { 3L }, index.search("hammer", 100));
+        assertArrayEquals(new long[0], index.search("driver", 100));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void matchesABruteForceScanUnderRandomChanges() {
+        Random random = new Random(42);
+        String[] words = { "bolt", "nut", "washer", "steel", "brass", "hex", "socket", "drill" };
+        TrigramIndex index = new TrigramIndex();
+        TreeMap<Long, String> rows = new TreeMap<>();
+        for (int i = 0; i < 5000; i++) {
+            long id = 1 + random.nextInt(2000);
+            if (random.nextInt(5) == 0) {
+                index.remove(id);
+                rows.remove(id);
+            } else {
+                String value = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+                index.put(id, value);
+                rows.put(id, value);
+            }
+        }
+
+        for (String term : new String[] { "bolt", "t wa", "steel brass", "hex s", "rill" }) {
+            long[] expected = rows.entrySet().stream()
+                    .filter(row -> row.getValue().contains(term))
+                    .mapToLong(row -> row.getKey())
+                    .toArray();
+            assertArrayEquals(expected, index.search(term, Integer.MAX_VALUE), term);
+        }
+    }
+}